@@ -16,6 +16,8 @@
 
 package org.springframework.ai.chat.client.advisor;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -29,6 +31,12 @@ import org.springframework.ai.chat.client.advisor.api.Advisor;
 import org.springframework.ai.chat.client.advisor.api.CallAroundAdvisor;
 import org.springframework.ai.chat.client.advisor.api.StreamAroundAdvisor;
 import org.springframework.ai.chat.client.advisor.api.StreamAroundAdvisorChain;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.TokenAwareChatMemory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.model.MediaContent;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
 import org.springframework.util.Assert;
 
 /**
@@ -51,6 +59,11 @@ public abstract class AbstractChatMemoryAdvisor<T> implements CallAroundAdvisor,
 	 */
 	public static final String CHAT_MEMORY_RETRIEVE_SIZE_KEY = "chat_memory_response_size";
 
+	/**
+	 * The key to retrieve the chat memory token budget from the context.
+	 */
+	public static final String CHAT_MEMORY_TOKEN_BUDGET_KEY = "chat_memory_token_budget";
+
 	/**
 	 * The default conversation id to use when no conversation id is provided.
 	 */
@@ -61,6 +74,12 @@ public abstract class AbstractChatMemoryAdvisor<T> implements CallAroundAdvisor,
 	 */
 	public static final int DEFAULT_CHAT_MEMORY_RESPONSE_SIZE = 100;
 
+	/**
+	 * The default chat memory token budget, meaning that the retrieved memory is only
+	 * limited by the retrieve size.
+	 */
+	public static final int DEFAULT_CHAT_MEMORY_TOKEN_BUDGET = Integer.MAX_VALUE;
+
 	/**
 	 * The chat memory store.
 	 */
@@ -76,6 +95,11 @@ public abstract class AbstractChatMemoryAdvisor<T> implements CallAroundAdvisor,
 	 */
 	protected final int defaultChatMemoryRetrieveSize;
 
+	/**
+	 * The default chat memory token budget.
+	 */
+	protected final int defaultChatMemoryTokenBudget;
+
 	/**
 	 * Whether to protect from blocking.
 	 */
@@ -117,14 +141,31 @@ public abstract class AbstractChatMemoryAdvisor<T> implements CallAroundAdvisor,
 	 */
 	protected AbstractChatMemoryAdvisor(T chatMemory, String defaultConversationId, int defaultChatMemoryRetrieveSize,
 			boolean protectFromBlocking, int order) {
+		this(chatMemory, defaultConversationId, defaultChatMemoryRetrieveSize, DEFAULT_CHAT_MEMORY_TOKEN_BUDGET,
+				protectFromBlocking, order);
+	}
+
+	/**
+	 * Constructor to create a new {@link AbstractChatMemoryAdvisor} instance.
+	 * @param chatMemory the chat memory store
+	 * @param defaultConversationId the default conversation id
+	 * @param defaultChatMemoryRetrieveSize the default chat memory retrieve size
+	 * @param defaultChatMemoryTokenBudget the default chat memory token budget
+	 * @param protectFromBlocking whether to protect from blocking
+	 * @param order the order
+	 */
+	protected AbstractChatMemoryAdvisor(T chatMemory, String defaultConversationId, int defaultChatMemoryRetrieveSize,
+			int defaultChatMemoryTokenBudget, boolean protectFromBlocking, int order) {
 
 		Assert.notNull(chatMemory, "The chatMemory must not be null!");
 		Assert.hasText(defaultConversationId, "The conversationId must not be empty!");
 		Assert.isTrue(defaultChatMemoryRetrieveSize > 0, "The defaultChatMemoryRetrieveSize must be greater than 0!");
+		Assert.isTrue(defaultChatMemoryTokenBudget > 0, "The defaultChatMemoryTokenBudget must be greater than 0!");
 
 		this.chatMemoryStore = chatMemory;
 		this.defaultConversationId = defaultConversationId;
 		this.defaultChatMemoryRetrieveSize = defaultChatMemoryRetrieveSize;
+		this.defaultChatMemoryTokenBudget = defaultChatMemoryTokenBudget;
 		this.protectFromBlocking = protectFromBlocking;
 		this.order = order;
 	}
@@ -173,6 +214,55 @@ public abstract class AbstractChatMemoryAdvisor<T> implements CallAroundAdvisor,
 				: this.defaultChatMemoryRetrieveSize;
 	}
 
+	/**
+	 * Get the default chat memory token budget.
+	 * @param context the context
+	 * @return the default chat memory token budget
+	 */
+	protected int doGetChatMemoryTokenBudget(Map<String, Object> context) {
+		return context.containsKey(CHAT_MEMORY_TOKEN_BUDGET_KEY)
+				? Integer.parseInt(context.get(CHAT_MEMORY_TOKEN_BUDGET_KEY).toString())
+				: this.defaultChatMemoryTokenBudget;
+	}
+
+	/**
+	 * Retrieve the most recent messages of a conversation within the retrieve size and,
+	 * when a token budget is set, within the token budget. A {@link TokenAwareChatMemory}
+	 * applies the budget itself, the messages of any other chat memory are estimated
+	 * here, from the most recent one backwards.
+	 * @param chatMemory the chat memory
+	 * @param context the context
+	 * @return the memory messages
+	 */
+	protected List<Message> doGetMemoryMessages(ChatMemory chatMemory, Map<String, Object> context) {
+		String conversationId = this.doGetConversationId(context);
+		int retrieveSize = this.doGetChatMemoryRetrieveSize(context);
+		int tokenBudget = this.doGetChatMemoryTokenBudget(context);
+		if (tokenBudget == DEFAULT_CHAT_MEMORY_TOKEN_BUDGET) {
+			return chatMemory.get(conversationId, retrieveSize);
+		}
+		if (chatMemory instanceof TokenAwareChatMemory tokenAwareChatMemory) {
+			return tokenAwareChatMemory.get(conversationId, retrieveSize, tokenBudget);
+		}
+		return withinTokenBudget(chatMemory.get(conversationId, retrieveSize), tokenBudget);
+	}
+
+	private static List<Message> withinTokenBudget(List<Message> messages, int tokenBudget) {
+		TokenCountEstimator tokenCountEstimator = DefaultTokenCountEstimator.INSTANCE;
+		long tokens = 0;
+		int first = messages.size();
+		while (first > 0) {
+			Message message = messages.get(first - 1);
+			tokens += (message instanceof MediaContent content) ? tokenCountEstimator.estimate(content)
+					: tokenCountEstimator.estimate(message.getText());
+			if (tokens > tokenBudget) {
+				break;
+			}
+			first--;
+		}
+		return (first == 0) ? messages : new ArrayList<>(messages.subList(first, messages.size()));
+	}
+
 	/**
 	 * Execute the next advisor in the chain.
 	 * @param advisedRequest the advised request
@@ -211,6 +301,11 @@ public abstract class AbstractChatMemoryAdvisor<T> implements CallAroundAdvisor,
 		 */
 		protected int chatMemoryRetrieveSize = DEFAULT_CHAT_MEMORY_RESPONSE_SIZE;
 
+		/**
+		 * The chat memory token budget.
+		 */
+		protected int chatMemoryTokenBudget = DEFAULT_CHAT_MEMORY_TOKEN_BUDGET;
+
 		/**
 		 * Whether to protect from blocking.
 		 */
@@ -254,6 +349,19 @@ public abstract class AbstractChatMemoryAdvisor<T> implements CallAroundAdvisor,
 			return this;
 		}
 
+		/**
+		 * Set the chat memory token budget. A {@link TokenAwareChatMemory} caches the token
+		 * counts of its messages, the messages of other chat memories are estimated on
+		 * every read.
+		 * @param chatMemoryTokenBudget the maximum number of tokens of the retrieved
+		 * memory
+		 * @return the builder
+		 */
+		public AbstractBuilder chatMemoryTokenBudget(int chatMemoryTokenBudget) {
+			this.chatMemoryTokenBudget = chatMemoryTokenBudget;
+			return this;
+		}
+
 		/**
 		 * Set whether to protect from blocking.
 		 * @param protectFromBlocking whether to protect from blocking
@@ -281,4 +389,10 @@ public abstract class AbstractChatMemoryAdvisor<T> implements CallAroundAdvisor,
 		abstract public AbstractChatMemoryAdvisor<T> build();
 	}
 
+	private static final class DefaultTokenCountEstimator {
+
+		static final TokenCountEstimator INSTANCE = new JTokkitTokenCountEstimator();
+
+	}
+
 }
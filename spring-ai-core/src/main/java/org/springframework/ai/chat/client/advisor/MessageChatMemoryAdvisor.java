@@ -52,6 +52,11 @@ public class MessageChatMemoryAdvisor extends AbstractChatMemoryAdvisor<ChatMemo
 		super(chatMemory, defaultConversationId, chatHistoryWindowSize, true, order);
 	}
 
+	public MessageChatMemoryAdvisor(ChatMemory chatMemory, String defaultConversationId, int chatHistoryWindowSize,
+			int chatMemoryTokenBudget, int order) {
+		super(chatMemory, defaultConversationId, chatHistoryWindowSize, chatMemoryTokenBudget, true, order);
+	}
+
 	public static Builder builder(ChatMemory chatMemory) {
 		return new Builder(chatMemory);
 	}
@@ -79,12 +84,8 @@ public class MessageChatMemoryAdvisor extends AbstractChatMemoryAdvisor<ChatMemo
 
 	private AdvisedRequest before(AdvisedRequest request) {
 
-		String conversationId = this.doGetConversationId(request.adviseContext());
-
-		int chatMemoryRetrieveSize = this.doGetChatMemoryRetrieveSize(request.adviseContext());
-
 		// 1. Retrieve the chat memory for the current conversation.
-		List<Message> memoryMessages = this.getChatMemoryStore().get(conversationId, chatMemoryRetrieveSize);
+		List<Message> memoryMessages = this.doGetMemoryMessages(this.getChatMemoryStore(), request.adviseContext());
 
 		// 2. Advise the request messages list.
 		List<Message> advisedMessages = new ArrayList<>(request.messages());
@@ -119,7 +120,7 @@ public class MessageChatMemoryAdvisor extends AbstractChatMemoryAdvisor<ChatMemo
 
 		public MessageChatMemoryAdvisor build() {
 			return new MessageChatMemoryAdvisor(this.chatMemory, this.conversationId, this.chatMemoryRetrieveSize,
-					this.order);
+					this.chatMemoryTokenBudget, this.order);
 		}
 
 	}
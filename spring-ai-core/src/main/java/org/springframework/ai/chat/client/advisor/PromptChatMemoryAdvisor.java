@@ -77,6 +77,12 @@ public class PromptChatMemoryAdvisor extends AbstractChatMemoryAdvisor<ChatMemor
 		this.systemTextAdvise = systemTextAdvise;
 	}
 
+	public PromptChatMemoryAdvisor(ChatMemory chatMemory, String defaultConversationId, int chatHistoryWindowSize,
+			int chatMemoryTokenBudget, String systemTextAdvise, int order) {
+		super(chatMemory, defaultConversationId, chatHistoryWindowSize, chatMemoryTokenBudget, true, order);
+		this.systemTextAdvise = systemTextAdvise;
+	}
+
 	public static Builder builder(ChatMemory chatMemory) {
 		return new Builder(chatMemory);
 	}
@@ -105,9 +111,7 @@ public class PromptChatMemoryAdvisor extends AbstractChatMemoryAdvisor<ChatMemor
 	private AdvisedRequest before(AdvisedRequest request) {
 
 		// 1. Advise system parameters.
-		List<Message> memoryMessages = this.getChatMemoryStore()
-			.get(this.doGetConversationId(request.adviseContext()),
-					this.doGetChatMemoryRetrieveSize(request.adviseContext()));
+		List<Message> memoryMessages = this.doGetMemoryMessages(this.getChatMemoryStore(), request.adviseContext());
 
 		String memory = (memoryMessages != null) ? memoryMessages.stream()
 			.filter(m -> m.getMessageType() == MessageType.USER || m.getMessageType() == MessageType.ASSISTANT)
@@ -159,7 +163,7 @@ public class PromptChatMemoryAdvisor extends AbstractChatMemoryAdvisor<ChatMemor
 
 		public PromptChatMemoryAdvisor build() {
 			return new PromptChatMemoryAdvisor(this.chatMemory, this.conversationId, this.chatMemoryRetrieveSize,
-					this.systemTextAdvise, this.order);
+					this.chatMemoryTokenBudget, this.systemTextAdvise, this.order);
 		}
 
 	}
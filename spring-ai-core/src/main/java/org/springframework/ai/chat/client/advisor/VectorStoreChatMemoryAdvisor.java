@@ -19,6 +19,7 @@ package org.springframework.ai.chat.client.advisor;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import reactor.core.publisher.Flux;
@@ -36,6 +37,8 @@ import org.springframework.ai.chat.model.MessageAggregator;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 /**
@@ -43,6 +46,13 @@ import org.springframework.util.StringUtils;
  *
  * This only works for text based exchanges with the models, not multi-modal exchanges.
  *
+ * The user and assistant messages are written to the vector store in the background, so
+ * neither their embedding nor the insert delays the model call or its response. Messages
+ * that queue up while a write is in progress are written, and embedded, together. Pass a
+ * synchronous executor such as {@code Runnable::run} to write them on the calling thread
+ * instead. The user text is embedded once, by {@link VectorStore#embed(String)}, both to
+ * search the memory and to store it.
+ *
  * @author Christian Tzolov
  * @author Thomas Vitale
  * @since 1.0.0
@@ -63,15 +73,18 @@ public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<Vect
 			---------------------
 			""";
 
+	private static final Executor DEFAULT_WRITE_EXECUTOR = defaultWriteExecutor();
+
 	private final String systemTextAdvise;
 
+	private final VectorStoreMemoryWriter memoryWriter;
+
 	public VectorStoreChatMemoryAdvisor(VectorStore vectorStore) {
 		this(vectorStore, DEFAULT_SYSTEM_TEXT_ADVISE);
 	}
 
 	public VectorStoreChatMemoryAdvisor(VectorStore vectorStore, String systemTextAdvise) {
-		super(vectorStore);
-		this.systemTextAdvise = systemTextAdvise;
+		this(vectorStore, DEFAULT_CHAT_MEMORY_CONVERSATION_ID, DEFAULT_CHAT_MEMORY_RESPONSE_SIZE, systemTextAdvise);
 	}
 
 	public VectorStoreChatMemoryAdvisor(VectorStore vectorStore, String defaultConversationId,
@@ -97,8 +110,33 @@ public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<Vect
 	 */
 	public VectorStoreChatMemoryAdvisor(VectorStore vectorStore, String defaultConversationId,
 			int chatHistoryWindowSize, String systemTextAdvise, int order) {
+		this(vectorStore, defaultConversationId, chatHistoryWindowSize, systemTextAdvise, order,
+				DEFAULT_WRITE_EXECUTOR);
+	}
+
+	/**
+	 * Constructor for VectorStoreChatMemoryAdvisor.
+	 * @param vectorStore the vector store instance used for managing and querying
+	 * documents.
+	 * @param defaultConversationId the default conversation ID used if none is provided
+	 * in the context.
+	 * @param chatHistoryWindowSize the window size for the chat history retrieval.
+	 * @param systemTextAdvise the system text advice used for the chat advisor system.
+	 * @param order the order of precedence for this advisor in the chain.
+	 * @param writeExecutor the executor writing the conversation to the vector store.
+	 */
+	public VectorStoreChatMemoryAdvisor(VectorStore vectorStore, String defaultConversationId,
+			int chatHistoryWindowSize, String systemTextAdvise, int order, Executor writeExecutor) {
 		super(vectorStore, defaultConversationId, chatHistoryWindowSize, true, order);
+		Assert.notNull(writeExecutor, "The writeExecutor must not be null!");
 		this.systemTextAdvise = systemTextAdvise;
+		this.memoryWriter = new VectorStoreMemoryWriter(vectorStore, writeExecutor);
+	}
+
+	private static Executor defaultWriteExecutor() {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("vector-store-chat-memory-");
+		executor.setDaemon(true);
+		return executor;
 	}
 
 	public static Builder builder(VectorStore chatMemory) {
@@ -138,8 +176,12 @@ public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<Vect
 			advisedSystemText = this.systemTextAdvise;
 		}
 
+		// embed the user text once, to both search the memory and store it
+		float[] userTextEmbedding = this.getChatMemoryStore().embed(request.userText()).orElse(null);
+
 		var searchRequest = SearchRequest.builder()
 			.query(request.userText())
+			.queryEmbedding(userTextEmbedding)
 			.topK(this.doGetChatMemoryRetrieveSize(request.adviseContext()))
 			.filterExpression(
 					DOCUMENT_METADATA_CONVERSATION_ID + "=='" + this.doGetConversationId(request.adviseContext()) + "'")
@@ -160,8 +202,14 @@ public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<Vect
 			.build();
 
 		UserMessage userMessage = new UserMessage(request.userText(), request.media());
-		this.getChatMemoryStore()
-			.write(toDocuments(List.of(userMessage), this.doGetConversationId(request.adviseContext())));
+		List<Document> userDocuments = toDocuments(List.of(userMessage),
+				this.doGetConversationId(request.adviseContext()));
+		if (userTextEmbedding != null) {
+			this.memoryWriter.write(userDocuments.get(0), userTextEmbedding);
+		}
+		else {
+			this.memoryWriter.write(userDocuments);
+		}
 
 		return advisedRequest;
 	}
@@ -174,7 +222,7 @@ public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<Vect
 			.map(g -> (Message) g.getOutput())
 			.toList();
 
-		this.getChatMemoryStore()
+		this.memoryWriter
 			.write(toDocuments(assistantMessages, this.doGetConversationId(advisedResponse.adviseContext())));
 	}
 
@@ -210,6 +258,8 @@ public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<Vect
 
 		private String systemTextAdvise = DEFAULT_SYSTEM_TEXT_ADVISE;
 
+		private Executor writeExecutor = DEFAULT_WRITE_EXECUTOR;
+
 		protected Builder(VectorStore chatMemory) {
 			super(chatMemory);
 		}
@@ -219,10 +269,15 @@ public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<Vect
 			return this;
 		}
 
+		public Builder writeExecutor(Executor writeExecutor) {
+			this.writeExecutor = writeExecutor;
+			return this;
+		}
+
 		@Override
 		public VectorStoreChatMemoryAdvisor build() {
 			return new VectorStoreChatMemoryAdvisor(this.chatMemory, this.conversationId, this.chatMemoryRetrieveSize,
-					this.systemTextAdvise);
+					this.systemTextAdvise, this.order, this.writeExecutor);
 		}
 
 	}
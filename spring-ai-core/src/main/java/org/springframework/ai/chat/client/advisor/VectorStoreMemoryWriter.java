@@ -0,0 +1,166 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.client.advisor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.lang.Nullable;
+
+/**
+ * Writes chat memory documents to a {@link VectorStore} in the background. Documents that
+ * queue up while a write is in progress are written together by the next one, so they
+ * share a single embedding request. Documents queued with their embedding are added with
+ * {@link VectorStore#addEmbedded(DocumentEmbeddings)} and not embedded again. No thread
+ * is held while nothing is pending.
+ *
+ * @since 1.0.0
+ */
+final class VectorStoreMemoryWriter {
+
+	private static final Logger logger = LoggerFactory.getLogger(VectorStoreMemoryWriter.class);
+
+	static final int MAX_PENDING_DOCUMENTS = 10_000;
+
+	static final int MAX_BATCH_SIZE = 100;
+
+	private final VectorStore vectorStore;
+
+	private final Executor executor;
+
+	private final BlockingQueue<PendingDocument> pending = new LinkedBlockingQueue<>(MAX_PENDING_DOCUMENTS);
+
+	private final AtomicBoolean draining = new AtomicBoolean();
+
+	VectorStoreMemoryWriter(VectorStore vectorStore, Executor executor) {
+		this.vectorStore = vectorStore;
+		this.executor = executor;
+	}
+
+	/**
+	 * Queue the documents for writing, blocking while too many documents are pending.
+	 * @param documents the documents to write
+	 */
+	void write(List<Document> documents) {
+		if (documents.isEmpty()) {
+			return;
+		}
+		for (Document document : documents) {
+			enqueue(new PendingDocument(document, null));
+		}
+		scheduleDrain();
+	}
+
+	/**
+	 * Queue a document along with its precomputed embedding, blocking while too many
+	 * documents are pending.
+	 * @param document the document to write
+	 * @param embedding the embedding of the document
+	 */
+	void write(Document document, float[] embedding) {
+		enqueue(new PendingDocument(document, embedding));
+		scheduleDrain();
+	}
+
+	private void enqueue(PendingDocument document) {
+		try {
+			this.pending.put(document);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while queueing chat memory documents", ex);
+		}
+	}
+
+	private void scheduleDrain() {
+		if (this.draining.compareAndSet(false, true)) {
+			try {
+				this.executor.execute(this::drain);
+			}
+			catch (RejectedExecutionException ex) {
+				// Let the next write schedule the pending documents again
+				this.draining.set(false);
+				logger.warn("Chat memory write rejected by the executor, {} documents remain pending",
+						this.pending.size(), ex);
+			}
+		}
+	}
+
+	private void drain() {
+		try {
+			List<PendingDocument> batch = new ArrayList<>(MAX_BATCH_SIZE);
+			while (this.pending.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+				add(batch);
+				batch = new ArrayList<>(MAX_BATCH_SIZE);
+			}
+		}
+		finally {
+			this.draining.set(false);
+		}
+		// Documents queued after the last drainTo but before draining was reset
+		if (!this.pending.isEmpty()) {
+			scheduleDrain();
+		}
+	}
+
+	private void add(List<PendingDocument> batch) {
+		List<Document> embedded = new ArrayList<>();
+		List<float[]> embeddings = new ArrayList<>();
+		List<Document> documents = new ArrayList<>();
+		for (PendingDocument pendingDocument : batch) {
+			if (pendingDocument.embedding() != null) {
+				embedded.add(pendingDocument.document());
+				embeddings.add(pendingDocument.embedding());
+			}
+			else {
+				documents.add(pendingDocument.document());
+			}
+		}
+		if (!embedded.isEmpty()) {
+			try {
+				this.vectorStore.addEmbedded(DocumentEmbeddings.of(embedded, embeddings));
+			}
+			catch (RuntimeException ex) {
+				logger.error("Failed to write {} chat memory documents", embedded.size(), ex);
+			}
+		}
+		if (!documents.isEmpty()) {
+			try {
+				this.vectorStore.add(documents);
+			}
+			catch (RuntimeException ex) {
+				logger.error("Failed to write {} chat memory documents", documents.size(), ex);
+			}
+		}
+	}
+
+	private record PendingDocument(Document document, @Nullable float[] embedding) {
+
+	}
+
+}
@@ -29,8 +29,8 @@ import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.CompiledPromptTemplate;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.model.Media;
 import org.springframework.ai.model.function.FunctionCallback;
 import org.springframework.ai.model.function.FunctionCallingOptions;
@@ -152,7 +152,7 @@ public record AdvisedRequest(
 		String processedSystemText = this.systemText();
 		if (StringUtils.hasText(processedSystemText)) {
 			if (!CollectionUtils.isEmpty(this.systemParams())) {
-				processedSystemText = new PromptTemplate(processedSystemText, this.systemParams()).render();
+				processedSystemText = CompiledPromptTemplate.of(processedSystemText).render(this.systemParams());
 			}
 			messages.add(new SystemMessage(processedSystemText));
 		}
@@ -168,7 +168,8 @@ public record AdvisedRequest(
 				userParams.put("spring_ai_soc_format", formatParam);
 			}
 			if (!CollectionUtils.isEmpty(userParams)) {
-				processedUserText = new PromptTemplate(processedUserText, userParams).render();
+				// user text is mostly unique, keep it out of the shared template cache
+				processedUserText = CompiledPromptTemplate.compile(processedUserText).render(userParams);
 			}
 			messages.add(new UserMessage(processedUserText, this.media()));
 		}
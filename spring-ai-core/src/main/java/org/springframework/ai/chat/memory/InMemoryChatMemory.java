@@ -16,44 +16,474 @@
 
 package org.springframework.ai.chat.memory;
 
-import java.util.ArrayList;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
 
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.model.MediaContent;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * The InMemoryChatMemory class is an implementation of the ChatMemory interface that
  * represents an in-memory storage for chat conversation history.
  *
- * This class stores the conversation history in a ConcurrentHashMap, where the keys are
- * the conversation IDs and the values are lists of messages representing the conversation
- * history.
+ * Every conversation keeps its most recent messages in a ring buffer of fixed capacity,
+ * whose slots are allocated lazily in chunks of {@value #CHUNK_SIZE} as the conversation
+ * grows, so small conversations stay small whatever the capacity. Appends reserve a
+ * contiguous range of sequence numbers with a single atomic increment and publish every
+ * message into its slot with a compare-and-set, so concurrent appends to the same
+ * conversation neither lock nor lose messages, and the messages of one
+ * {@link #add(String, List)} call stay contiguous. Reading the last N messages visits
+ * only the last N slots. Messages of an append that is still in progress may be missing
+ * from a concurrent read.
+ *
+ * Conversations that have been neither read nor written for longer than the idle timeout
+ * are evicted, as are the least recently used conversations once there are more than the
+ * maximum number of conversations. Eviction is best-effort and amortized: idle
+ * conversations are swept at most once per idle timeout, and exceeding the maximum number
+ * of conversations evicts a tenth of them at once. Conversations with an append in
+ * progress are never evicted, and an append to a conversation that has been evicted or
+ * cleared since it was looked up is retried on a new conversation, so that no message
+ * lands in a ring buffer that is no longer reachable.
+ *
+ * The token count of a message is only estimated the first time it is read within a token
+ * budget, and then cached with the message, so that {@link #get(String, int, int)}
+ * returns the history that fits a token budget by summing the cached counts from the most
+ * recent message backwards, without tokenizing the history again. Memories that are never
+ * read within a token budget never estimate token counts.
  *
  * @see ChatMemory
  * @author Christian Tzolov
  * @since 1.0.0 M1
  */
-public class InMemoryChatMemory implements ChatMemory {
+public class InMemoryChatMemory implements TokenAwareChatMemory {
+
+	/**
+	 * The default number of messages kept per conversation.
+	 */
+	public static final int DEFAULT_MAX_MESSAGES = 1000;
+
+	/**
+	 * The number of ring buffer slots allocated at once.
+	 */
+	static final int CHUNK_SIZE = 16;
+
+	private final Map<String, Conversation> conversations = new ConcurrentHashMap<>();
+
+	private final int maxMessages;
+
+	private final int maxConversations;
+
+	private final long idleTimeoutNanos;
+
+	private final LongSupplier ticker;
+
+	private final TokenCountEstimator tokenCountEstimator;
+
+	private final AtomicLong nextIdleSweep;
 
-	Map<String, List<Message>> conversationHistory = new ConcurrentHashMap<>();
+	private final AtomicBoolean evicting = new AtomicBoolean();
+
+	public InMemoryChatMemory() {
+		this(builder());
+	}
+
+	private InMemoryChatMemory(Builder builder) {
+		this.maxMessages = builder.maxMessages;
+		this.maxConversations = builder.maxConversations;
+		this.idleTimeoutNanos = (builder.idleTimeout != null) ? builder.idleTimeout.toNanos() : 0;
+		this.ticker = builder.ticker;
+		this.tokenCountEstimator = (builder.tokenCountEstimator != null) ? builder.tokenCountEstimator
+				: DefaultTokenCountEstimator.INSTANCE;
+		this.nextIdleSweep = new AtomicLong(this.ticker.getAsLong() + this.idleTimeoutNanos);
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
 
 	@Override
 	public void add(String conversationId, List<Message> messages) {
-		this.conversationHistory.putIfAbsent(conversationId, new ArrayList<>());
-		this.conversationHistory.get(conversationId).addAll(messages);
+		Assert.notNull(conversationId, "ConversationId must not be null");
+		Assert.notNull(messages, "Messages must not be null");
+		if (messages.isEmpty()) {
+			return;
+		}
+		long now = this.ticker.getAsLong();
+		Conversation conversation = this.conversations.get(conversationId);
+		while (conversation == null || !enter(conversationId, conversation, now)) {
+			conversation = this.conversations.compute(conversationId,
+					(id, current) -> (current == null || current.isEvicted()) ? new Conversation(this.maxMessages, now)
+							: current);
+		}
+		try {
+			conversation.append(messages, now);
+		}
+		finally {
+			conversation.exit();
+		}
+
+		if (this.conversations.size() > this.maxConversations) {
+			evictLeastRecentlyUsed();
+		}
+		sweepIdle(now);
 	}
 
 	@Override
 	public List<Message> get(String conversationId, int lastN) {
-		List<Message> all = this.conversationHistory.get(conversationId);
-		return all != null ? all.stream().skip(Math.max(0, all.size() - lastN)).toList() : List.of();
+		return get(conversationId, lastN, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public List<Message> get(String conversationId, int lastN, int maxTokens) {
+		Conversation conversation = this.conversations.get(conversationId);
+		if (conversation == null || lastN <= 0) {
+			return List.of();
+		}
+		long now = this.ticker.getAsLong();
+		if (isIdle(conversation, now) && evict(conversationId, conversation)) {
+			return List.of();
+		}
+		conversation.lastAccess = now;
+		return conversation.last(lastN, maxTokens, this::estimateTokens);
 	}
 
 	@Override
 	public void clear(String conversationId) {
-		this.conversationHistory.remove(conversationId);
+		this.conversations.computeIfPresent(conversationId, (id, conversation) -> {
+			conversation.seal();
+			return null;
+		});
+	}
+
+	/**
+	 * Register an append to the conversation, unless it is evicted, or idle and evicted
+	 * now.
+	 */
+	private boolean enter(String conversationId, Conversation conversation, long now) {
+		if (isIdle(conversation, now) && evict(conversationId, conversation)) {
+			return false;
+		}
+		return conversation.tryEnter();
+	}
+
+	/**
+	 * Evict the conversation unless an append is in progress.
+	 */
+	private boolean evict(String conversationId, Conversation conversation) {
+		if (!conversation.tryEvict()) {
+			return false;
+		}
+		this.conversations.remove(conversationId, conversation);
+		return true;
+	}
+
+	private int estimateTokens(Message message) {
+		return (message instanceof MediaContent content) ? this.tokenCountEstimator.estimate(content)
+				: this.tokenCountEstimator.estimate(message.getText());
+	}
+
+	private boolean isIdle(Conversation conversation, long now) {
+		return this.idleTimeoutNanos > 0 && now - conversation.lastAccess > this.idleTimeoutNanos;
+	}
+
+	private void sweepIdle(long now) {
+		long nextSweep = this.nextIdleSweep.get();
+		if (this.idleTimeoutNanos <= 0 || now - nextSweep < 0
+				|| !this.nextIdleSweep.compareAndSet(nextSweep, now + this.idleTimeoutNanos)) {
+			return;
+		}
+		this.conversations.forEach((id, conversation) -> {
+			if (isIdle(conversation, now)) {
+				evict(id, conversation);
+			}
+		});
+	}
+
+	private void evictLeastRecentlyUsed() {
+		if (!this.evicting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			int excess = this.conversations.size() - this.maxConversations;
+			if (excess > 0) {
+				this.conversations.entrySet()
+					.stream()
+					.map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+					.sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+					.limit(excess + this.maxConversations / 10)
+					.forEach(entry -> evict(entry.getKey(), entry.getValue()));
+			}
+		}
+		finally {
+			this.evicting.set(false);
+		}
+	}
+
+	private static final class Conversation {
+
+		private static final int EVICTED = Integer.MIN_VALUE;
+
+		private final int capacity;
+
+		/**
+		 * The ring buffer slots, split into chunks allocated on first use.
+		 */
+		private final AtomicReferenceArray<AtomicReferenceArray<Entry>> chunks;
+
+		private final AtomicLong sequence = new AtomicLong();
+
+		/**
+		 * The number of appends in progress, offset by {@link #EVICTED} once evicted.
+		 */
+		private final AtomicInteger state = new AtomicInteger();
+
+		private volatile long lastAccess;
+
+		Conversation(int capacity, long now) {
+			this.capacity = capacity;
+			this.chunks = new AtomicReferenceArray<>((capacity + CHUNK_SIZE - 1) / CHUNK_SIZE);
+			this.lastAccess = now;
+		}
+
+		boolean tryEnter() {
+			int current;
+			do {
+				current = this.state.get();
+				if (current < 0) {
+					return false;
+				}
+			}
+			while (!this.state.compareAndSet(current, current + 1));
+			return true;
+		}
+
+		void exit() {
+			this.state.decrementAndGet();
+		}
+
+		boolean tryEvict() {
+			return this.state.compareAndSet(0, EVICTED);
+		}
+
+		/**
+		 * Evict the conversation even if appends are in progress, which are then ordered
+		 * before the eviction.
+		 */
+		void seal() {
+			this.state.getAndUpdate(current -> (current < 0) ? current : current + EVICTED);
+		}
+
+		boolean isEvicted() {
+			return this.state.get() < 0;
+		}
+
+		void append(List<Message> messages, long now) {
+			this.lastAccess = now;
+			int count = messages.size();
+			long first = this.sequence.getAndAdd(count);
+			// Only the last capacity messages of the batch can survive
+			for (int i = Math.max(0, count - this.capacity); i < count; i++) {
+				store(new Entry(first + i, messages.get(i)));
+			}
+		}
+
+		private void store(Entry entry) {
+			int slot = (int) (entry.sequence() % this.capacity);
+			AtomicReferenceArray<Entry> chunk = chunk(slot / CHUNK_SIZE);
+			int index = slot % CHUNK_SIZE;
+			Entry current;
+			do {
+				current = chunk.get(index);
+				if (current != null && current.sequence() > entry.sequence()) {
+					// A later append already wrapped around this slot
+					return;
+				}
+			}
+			while (!chunk.compareAndSet(index, current, entry));
+		}
+
+		private AtomicReferenceArray<Entry> chunk(int chunkIndex) {
+			AtomicReferenceArray<Entry> chunk = this.chunks.get(chunkIndex);
+			if (chunk == null) {
+				int length = Math.min(CHUNK_SIZE, this.capacity - chunkIndex * CHUNK_SIZE);
+				this.chunks.compareAndSet(chunkIndex, null, new AtomicReferenceArray<>(length));
+				chunk = this.chunks.get(chunkIndex);
+			}
+			return chunk;
+		}
+
+		@Nullable
+		private Entry entry(long sequence) {
+			int slot = (int) (sequence % this.capacity);
+			AtomicReferenceArray<Entry> chunk = this.chunks.get(slot / CHUNK_SIZE);
+			return (chunk != null) ? chunk.get(slot % CHUNK_SIZE) : null;
+		}
+
+		/**
+		 * Return the last messages, stopping at the first one exceeding the token budget.
+		 * Token counts are only estimated when the budget is bounded.
+		 */
+		List<Message> last(int lastN, int maxTokens, ToIntFunction<Message> tokenCountEstimator) {
+			boolean budgeted = maxTokens != Integer.MAX_VALUE;
+			long end = this.sequence.get();
+			long start = Math.max(0, end - Math.min(lastN, this.capacity));
+			Message[] messages = new Message[(int) (end - start)];
+			int count = 0;
+			long tokens = 0;
+			for (long sequence = end - 1; sequence >= start; sequence--) {
+				Entry entry = entry(sequence);
+				// Skip slots that are still being written or were overwritten meanwhile
+				if (entry == null || entry.sequence() != sequence) {
+					continue;
+				}
+				if (budgeted) {
+					tokens += entry.tokens(tokenCountEstimator);
+					if (tokens > maxTokens) {
+						break;
+					}
+				}
+				messages[messages.length - ++count] = entry.message();
+			}
+			return Collections
+				.unmodifiableList(Arrays.asList(messages).subList(messages.length - count, messages.length));
+		}
+
+	}
+
+	private static final class Entry {
+
+		private final long sequence;
+
+		private final Message message;
+
+		/**
+		 * The estimated token count, or -1 until first estimated. Concurrent readers may
+		 * both estimate it, with the same result.
+		 */
+		private int tokens = -1;
+
+		Entry(long sequence, Message message) {
+			this.sequence = sequence;
+			this.message = message;
+		}
+
+		long sequence() {
+			return this.sequence;
+		}
+
+		Message message() {
+			return this.message;
+		}
+
+		int tokens(ToIntFunction<Message> tokenCountEstimator) {
+			int estimate = this.tokens;
+			if (estimate < 0) {
+				estimate = tokenCountEstimator.applyAsInt(this.message);
+				this.tokens = estimate;
+			}
+			return estimate;
+		}
+
+	}
+
+	private static final class DefaultTokenCountEstimator {
+
+		static final TokenCountEstimator INSTANCE = new JTokkitTokenCountEstimator();
+
+	}
+
+	public static final class Builder {
+
+		private int maxMessages = DEFAULT_MAX_MESSAGES;
+
+		private int maxConversations = Integer.MAX_VALUE;
+
+		@Nullable
+		private Duration idleTimeout;
+
+		private LongSupplier ticker = System::nanoTime;
+
+		@Nullable
+		private TokenCountEstimator tokenCountEstimator;
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the number of most recent messages kept per conversation.
+		 * @param maxMessages the capacity of every conversation, defaults to
+		 * {@value InMemoryChatMemory#DEFAULT_MAX_MESSAGES}
+		 * @return this builder
+		 */
+		public Builder maxMessages(int maxMessages) {
+			Assert.isTrue(maxMessages > 0, "MaxMessages must be greater than 0");
+			this.maxMessages = maxMessages;
+			return this;
+		}
+
+		/**
+		 * Set the number of conversations kept before the least recently used ones are
+		 * evicted.
+		 * @param maxConversations the maximum number of conversations, unbounded by
+		 * default
+		 * @return this builder
+		 */
+		public Builder maxConversations(int maxConversations) {
+			Assert.isTrue(maxConversations > 0, "MaxConversations must be greater than 0");
+			this.maxConversations = maxConversations;
+			return this;
+		}
+
+		/**
+		 * Set how long a conversation is kept without being read or written.
+		 * @param idleTimeout the idle timeout, or {@code null} to keep conversations
+		 * indefinitely, the default
+		 * @return this builder
+		 */
+		public Builder idleTimeout(@Nullable Duration idleTimeout) {
+			Assert.isTrue(idleTimeout == null || idleTimeout.compareTo(Duration.ZERO) > 0,
+					"IdleTimeout must be positive");
+			this.idleTimeout = idleTimeout;
+			return this;
+		}
+
+		/**
+		 * Set the estimator computing the token count of the messages read within a token
+		 * budget.
+		 * @param tokenCountEstimator the token count estimator, defaults to a
+		 * {@link JTokkitTokenCountEstimator}
+		 * @return this builder
+		 */
+		public Builder tokenCountEstimator(TokenCountEstimator tokenCountEstimator) {
+			Assert.notNull(tokenCountEstimator, "TokenCountEstimator must not be null");
+			this.tokenCountEstimator = tokenCountEstimator;
+			return this;
+		}
+
+		Builder ticker(LongSupplier ticker) {
+			this.ticker = ticker;
+			return this;
+		}
+
+		public InMemoryChatMemory build() {
+			return new InMemoryChatMemory(this);
+		}
+
 	}
 
 }
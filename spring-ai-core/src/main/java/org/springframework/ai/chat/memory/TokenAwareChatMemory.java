@@ -0,0 +1,43 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.memory;
+
+import java.util.List;
+
+import org.springframework.ai.chat.messages.Message;
+
+/**
+ * A {@link ChatMemory} that can retrieve the conversation history within a token budget.
+ * Implementations are expected to keep the token count of a message once it is known,
+ * rather than tokenizing the history on every read. {@link InMemoryChatMemory} estimates
+ * the token count of a message lazily, the first time it is read within a token budget.
+ *
+ * @since 1.0.0
+ */
+public interface TokenAwareChatMemory extends ChatMemory {
+
+	/**
+	 * Get the longest suffix of the conversation that contains at most {@code lastN}
+	 * messages and at most {@code maxTokens} tokens.
+	 * @param conversationId the conversation id
+	 * @param lastN the maximum number of messages
+	 * @param maxTokens the maximum number of tokens of all messages together
+	 * @return the most recent messages, oldest first
+	 */
+	List<Message> get(String conversationId, int lastN, int maxTokens);
+
+}
@@ -0,0 +1,570 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.memory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ChatMemory} decorator that writes messages to the delegate in the background.
+ *
+ * <p>
+ * {@link #add(String, List)} only enqueues the messages and returns. A single background
+ * flusher drains everything that is pending, groups the messages by conversation and
+ * hands each conversation to the delegate with one {@link ChatMemory#add(String, List)}
+ * call, so a delegate that writes a list of messages in one round-trip pays one
+ * round-trip per conversation and flush rather than one per message. The number of
+ * pending messages is bounded: once the limit is reached, {@code add} blocks until the
+ * flusher catches up, or fails after the configured timeout.
+ *
+ * <p>
+ * The most recent messages of recently used conversations are cached, so that
+ * {@link #get(String, int)} right after a write is served from memory. A read that the
+ * cache cannot serve waits until the pending messages of the conversation are written,
+ * then reads through to the delegate, so reads always see earlier writes.
+ *
+ * <p>
+ * When the delegate is a {@link TokenAwareChatMemory}, the built chat memory is one as
+ * well: reads within a token budget wait until the pending messages of the conversation
+ * are written, then are answered by the delegate.
+ *
+ * <p>
+ * {@link #close()} writes all pending messages before returning. Failures of the delegate
+ * are logged and the affected messages are dropped. Should the flusher stop for any other
+ * reason, such as an {@link Error} thrown by the delegate, later operations waiting for
+ * it fail instead of blocking.
+ *
+ * @since 1.0.0
+ */
+public class WriteBehindChatMemory implements ChatMemory, AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(WriteBehindChatMemory.class);
+
+	private static final long POLL_MILLIS = 100;
+
+	private final ChatMemory delegate;
+
+	private final int maxPendingMessages;
+
+	@Nullable
+	private final Duration addTimeout;
+
+	private final int cachedMessages;
+
+	private final int cachedConversations;
+
+	private final boolean newestFirst;
+
+	private final Semaphore pendingPermits;
+
+	private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+	private final Map<String, Conversation> conversations = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean evicting = new AtomicBoolean();
+
+	private final CountDownLatch stopped = new CountDownLatch(1);
+
+	// Held for reading while enqueuing, so that close() never misses a message
+	private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+	private volatile boolean running = true;
+
+	private WriteBehindChatMemory(Builder builder) {
+		this.delegate = builder.delegate;
+		this.maxPendingMessages = builder.maxPendingMessages;
+		this.addTimeout = builder.addTimeout;
+		this.cachedMessages = builder.cachedMessages;
+		this.cachedConversations = builder.cachedConversations;
+		this.newestFirst = builder.newestFirst;
+		this.pendingPermits = new Semaphore(this.maxPendingMessages);
+		builder.executor.execute(this::flushLoop);
+	}
+
+	public static Builder builder(ChatMemory delegate) {
+		return new Builder(delegate);
+	}
+
+	@Override
+	public void add(String conversationId, List<Message> messages) {
+		Assert.notNull(conversationId, "ConversationId must not be null");
+		Assert.notNull(messages, "Messages must not be null");
+		Assert.state(this.running, "WriteBehindChatMemory is closed");
+		if (messages.isEmpty()) {
+			return;
+		}
+		// Larger lists are admitted as soon as nothing else is pending
+		int permits = Math.min(messages.size(), this.maxPendingMessages);
+		acquire(permits);
+		List<Message> copy = List.copyOf(messages);
+		this.closeLock.readLock().lock();
+		try {
+			if (!this.running || this.stopped.getCount() == 0) {
+				this.pendingPermits.release(permits);
+				Assert.state(this.running, "WriteBehindChatMemory is closed");
+				assertFlusherAlive();
+			}
+			while (true) {
+				Conversation conversation = conversation(conversationId);
+				synchronized (conversation) {
+					if (conversation.evicted) {
+						continue;
+					}
+					conversation.unflushed += copy.size();
+					conversation.cache(copy, this.cachedMessages);
+					this.queue.add(new Pending(conversation, copy, permits));
+					return;
+				}
+			}
+		}
+		finally {
+			this.closeLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<Message> get(String conversationId, int lastN) {
+		while (true) {
+			Conversation conversation = conversation(conversationId);
+			synchronized (conversation) {
+				if (conversation.evicted) {
+					continue;
+				}
+				List<Message> cached = conversation.cached(lastN);
+				if (cached != null) {
+					return delegateOrder(cached);
+				}
+				awaitFlushed(conversation);
+				List<Message> messages = delegateOrder(
+						this.delegate.get(conversationId, Math.max(lastN, this.cachedMessages)));
+				conversation.load(messages, this.cachedMessages);
+				return delegateOrder(tail(messages, lastN));
+			}
+		}
+	}
+
+	@Override
+	public void clear(String conversationId) {
+		while (true) {
+			Conversation conversation = conversation(conversationId);
+			synchronized (conversation) {
+				if (conversation.evicted) {
+					continue;
+				}
+				awaitFlushed(conversation);
+				this.delegate.clear(conversationId);
+				conversation.load(List.of(), this.cachedMessages);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Read from the delegate once the pending messages of the conversation are written,
+	 * bypassing the cache.
+	 */
+	private List<Message> readThrough(String conversationId, Supplier<List<Message>> read) {
+		while (true) {
+			Conversation conversation = conversation(conversationId);
+			synchronized (conversation) {
+				if (conversation.evicted) {
+					continue;
+				}
+				awaitFlushed(conversation);
+				return read.get();
+			}
+		}
+	}
+
+	/**
+	 * Stop accepting messages and wait until all pending messages are written.
+	 */
+	@Override
+	public void close() {
+		this.closeLock.writeLock().lock();
+		try {
+			this.running = false;
+		}
+		finally {
+			this.closeLock.writeLock().unlock();
+		}
+		try {
+			this.stopped.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private Conversation conversation(String conversationId) {
+		Conversation conversation = this.conversations.computeIfAbsent(conversationId, Conversation::new);
+		conversation.lastAccess = System.nanoTime();
+		if (this.conversations.size() > this.cachedConversations) {
+			evictIdleConversations();
+		}
+		return conversation;
+	}
+
+	private void evictIdleConversations() {
+		if (!this.evicting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			int excess = this.conversations.size() - this.cachedConversations + this.cachedConversations / 10;
+			this.conversations.values()
+				.stream()
+				.sorted(Comparator.comparingLong(conversation -> conversation.lastAccess))
+				.limit(excess)
+				.forEach(conversation -> {
+					synchronized (conversation) {
+						// Conversations with pending messages are kept, reads wait for
+						// them
+						if (conversation.unflushed == 0 && !conversation.evicted) {
+							conversation.evicted = true;
+							this.conversations.remove(conversation.id, conversation);
+						}
+					}
+				});
+		}
+		finally {
+			this.evicting.set(false);
+		}
+	}
+
+	private void acquire(int permits) {
+		long deadline = (this.addTimeout != null) ? System.nanoTime() + this.addTimeout.toNanos() : 0;
+		try {
+			while (!this.pendingPermits.tryAcquire(permits, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+				assertFlusherAlive();
+				if (this.addTimeout != null && System.nanoTime() - deadline > 0) {
+					throw new IllegalStateException("Timed out after " + this.addTimeout
+							+ " waiting for pending chat memory messages to be written");
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for pending chat memory messages", ex);
+		}
+	}
+
+	private void awaitFlushed(Conversation conversation) {
+		try {
+			while (conversation.unflushed > 0) {
+				assertFlusherAlive();
+				conversation.wait(POLL_MILLIS);
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for pending chat memory messages", ex);
+		}
+	}
+
+	private void assertFlusherAlive() {
+		if (this.stopped.getCount() == 0) {
+			throw new IllegalStateException("The chat memory flusher has stopped, pending messages were not written");
+		}
+	}
+
+	private void flushLoop() {
+		try {
+			List<Pending> batch = new ArrayList<>();
+			while (this.running || !this.queue.isEmpty()) {
+				Pending first = this.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				this.queue.drainTo(batch);
+				flush(batch);
+				batch.clear();
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			logger.warn("Chat memory flusher interrupted, {} pending writes are lost", this.queue.size());
+		}
+		finally {
+			this.stopped.countDown();
+		}
+	}
+
+	private void flush(List<Pending> batch) {
+		Map<Conversation, List<Message>> messages = new LinkedHashMap<>();
+		for (Pending pending : batch) {
+			messages.computeIfAbsent(pending.conversation(), conversation -> new ArrayList<>())
+				.addAll(pending.messages());
+		}
+		try {
+			for (Map.Entry<Conversation, List<Message>> entry : messages.entrySet()) {
+				flush(entry.getKey(), entry.getValue());
+			}
+		}
+		finally {
+			for (Pending pending : batch) {
+				this.pendingPermits.release(pending.permits());
+			}
+		}
+	}
+
+	private void flush(Conversation conversation, List<Message> messages) {
+		boolean written = false;
+		try {
+			this.delegate.add(conversation.id, messages);
+			written = true;
+		}
+		catch (RuntimeException ex) {
+			logger.error("Failed to write {} messages of conversation {}", messages.size(), conversation.id, ex);
+		}
+		finally {
+			synchronized (conversation) {
+				if (!written) {
+					// The cache holds messages that were never written
+					conversation.invalidate();
+				}
+				conversation.unflushed -= messages.size();
+				conversation.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Convert between the oldest first order of the cache and the order of the delegate.
+	 */
+	private List<Message> delegateOrder(List<Message> messages) {
+		if (!this.newestFirst) {
+			return messages;
+		}
+		List<Message> reversed = new ArrayList<>(messages);
+		Collections.reverse(reversed);
+		return reversed;
+	}
+
+	private static List<Message> tail(List<Message> messages, int lastN) {
+		return (lastN >= messages.size()) ? messages
+				: List.copyOf(messages.subList(messages.size() - lastN, messages.size()));
+	}
+
+	private record Pending(Conversation conversation, List<Message> messages, int permits) {
+
+	}
+
+	/**
+	 * State of a conversation, guarded by its own monitor.
+	 */
+	private static final class Conversation {
+
+		private final String id;
+
+		// The most recent messages, oldest first, or null if not loaded
+		@Nullable
+		private ArrayDeque<Message> recent;
+
+		// Whether recent holds the whole conversation
+		private boolean complete;
+
+		private int unflushed;
+
+		private boolean evicted;
+
+		private volatile long lastAccess;
+
+		Conversation(String id) {
+			this.id = id;
+		}
+
+		void cache(List<Message> messages, int capacity) {
+			if (this.recent == null) {
+				return;
+			}
+			this.recent.addAll(messages);
+			while (this.recent.size() > capacity) {
+				this.recent.removeFirst();
+				this.complete = false;
+			}
+		}
+
+		@Nullable
+		List<Message> cached(int lastN) {
+			if (this.recent == null || (lastN > this.recent.size() && !this.complete)) {
+				return null;
+			}
+			return tail(List.copyOf(this.recent), lastN);
+		}
+
+		void load(List<Message> messages, int capacity) {
+			this.recent = new ArrayDeque<>(tail(messages, capacity));
+			this.complete = messages.size() < capacity;
+		}
+
+		void invalidate() {
+			this.recent = null;
+		}
+
+	}
+
+	/**
+	 * Variant built for a {@link TokenAwareChatMemory} delegate.
+	 */
+	private static final class TokenAwareWriteBehindChatMemory extends WriteBehindChatMemory
+			implements TokenAwareChatMemory {
+
+		private final TokenAwareChatMemory tokenAwareDelegate;
+
+		private TokenAwareWriteBehindChatMemory(Builder builder) {
+			super(builder);
+			this.tokenAwareDelegate = (TokenAwareChatMemory) builder.delegate;
+		}
+
+		@Override
+		public List<Message> get(String conversationId, int lastN, int maxTokens) {
+			return super.readThrough(conversationId,
+					() -> this.tokenAwareDelegate.get(conversationId, lastN, maxTokens));
+		}
+
+	}
+
+	public static final class Builder {
+
+		private final ChatMemory delegate;
+
+		private int maxPendingMessages = 10_000;
+
+		@Nullable
+		private Duration addTimeout;
+
+		private int cachedMessages = 100;
+
+		private int cachedConversations = 1_000;
+
+		private boolean newestFirst;
+
+		@Nullable
+		private Executor executor;
+
+		private Builder(ChatMemory delegate) {
+			Assert.notNull(delegate, "Delegate ChatMemory must not be null");
+			this.delegate = delegate;
+		}
+
+		/**
+		 * Set the maximum number of messages waiting to be written, 10000 by default.
+		 * @param maxPendingMessages the maximum number of pending messages
+		 * @return this builder
+		 */
+		public Builder maxPendingMessages(int maxPendingMessages) {
+			Assert.isTrue(maxPendingMessages > 0, "MaxPendingMessages must be greater than 0");
+			this.maxPendingMessages = maxPendingMessages;
+			return this;
+		}
+
+		/**
+		 * Set how long {@code add} waits for room in the queue before failing. Waits
+		 * indefinitely by default.
+		 * @param addTimeout the timeout, or {@code null} to wait indefinitely
+		 * @return this builder
+		 */
+		public Builder addTimeout(@Nullable Duration addTimeout) {
+			this.addTimeout = addTimeout;
+			return this;
+		}
+
+		/**
+		 * Set the number of most recent messages cached per conversation, 100 by default.
+		 * @param cachedMessages the number of cached messages per conversation
+		 * @return this builder
+		 */
+		public Builder cachedMessages(int cachedMessages) {
+			Assert.isTrue(cachedMessages > 0, "CachedMessages must be greater than 0");
+			this.cachedMessages = cachedMessages;
+			return this;
+		}
+
+		/**
+		 * Set the number of conversations whose recent messages are cached, 1000 by
+		 * default.
+		 * @param cachedConversations the number of cached conversations
+		 * @return this builder
+		 */
+		public Builder cachedConversations(int cachedConversations) {
+			Assert.isTrue(cachedConversations > 0, "CachedConversations must be greater than 0");
+			this.cachedConversations = cachedConversations;
+			return this;
+		}
+
+		/**
+		 * Set whether the delegate returns the most recent message first, like the
+		 * Cassandra chat memory, rather than the oldest message first.
+		 * @param newestFirst the message order of the delegate
+		 * @return this builder
+		 */
+		public Builder newestFirst(boolean newestFirst) {
+			this.newestFirst = newestFirst;
+			return this;
+		}
+
+		/**
+		 * Set the executor running the background flusher. The flusher occupies one
+		 * thread until the chat memory is closed. Defaults to a daemon thread.
+		 * @param executor the executor
+		 * @return this builder
+		 */
+		public Builder executor(Executor executor) {
+			Assert.notNull(executor, "Executor must not be null");
+			this.executor = executor;
+			return this;
+		}
+
+		public WriteBehindChatMemory build() {
+			if (this.executor == null) {
+				SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("chat-memory-write-behind-");
+				executor.setDaemon(true);
+				this.executor = executor;
+			}
+			return (this.delegate instanceof TokenAwareChatMemory) ? new TokenAwareWriteBehindChatMemory(this)
+					: new WriteBehindChatMemory(this);
+		}
+
+	}
+
+}
@@ -32,6 +32,7 @@ import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.model.function.FunctionCallback;
 import org.springframework.ai.model.function.FunctionCallbackResolver;
 import org.springframework.ai.model.function.FunctionCallingOptions;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
@@ -61,6 +62,9 @@ public abstract class AbstractToolCallSupport {
 	 */
 	protected final FunctionCallbackResolver functionCallbackResolver;
 
+	@Nullable
+	private ToolCallExecutor toolCallExecutor;
+
 	protected AbstractToolCallSupport(FunctionCallbackResolver functionCallbackResolver) {
 		this(functionCallbackResolver, FunctionCallingOptions.builder().build(), List.of());
 	}
@@ -98,6 +102,16 @@ public abstract class AbstractToolCallSupport {
 		return this.functionCallbackRegister;
 	}
 
+	/**
+	 * Set the executor used to execute the tool calls of a model response concurrently.
+	 * By default, the tool calls are executed one after the other, on the calling thread.
+	 * @param toolCallExecutor the tool call executor, or null to execute the tool calls
+	 * sequentially
+	 */
+	public void setToolCallExecutor(@Nullable ToolCallExecutor toolCallExecutor) {
+		this.toolCallExecutor = toolCallExecutor;
+	}
+
 	/**
 	 * Handle the runtime function callback configurations. Register the function
 	 * callbacks
@@ -207,9 +221,30 @@ public abstract class AbstractToolCallSupport {
 
 	protected ToolResponseMessage executeFunctions(AssistantMessage assistantMessage, ToolContext toolContext) {
 
+		List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
+
+		if (this.toolCallExecutor != null && toolCalls.size() > 1) {
+			for (AssistantMessage.ToolCall toolCall : toolCalls) {
+				if (!this.functionCallbackRegister.containsKey(toolCall.name())) {
+					throw new IllegalStateException("No function callback found for function name: " + toolCall.name());
+				}
+			}
+			List<String> functionResponses = this.toolCallExecutor.execute(toolCalls,
+					toolCall -> this.functionCallbackRegister.get(toolCall.name())
+						.call(toolCall.arguments(), toolContext));
+
+			List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>(toolCalls.size());
+			for (int i = 0; i < toolCalls.size(); i++) {
+				AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+				toolResponses.add(
+						new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(), functionResponses.get(i)));
+			}
+			return new ToolResponseMessage(toolResponses, Map.of());
+		}
+
 		List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>();
 
-		for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
+		for (AssistantMessage.ToolCall toolCall : toolCalls) {
 
 			var functionName = toolCall.name();
 			String functionArguments = toolCall.arguments();
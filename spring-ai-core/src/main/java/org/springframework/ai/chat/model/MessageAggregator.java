@@ -16,10 +16,11 @@
 
 package org.springframework.ai.chat.model;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
@@ -34,11 +35,15 @@ import org.springframework.ai.chat.metadata.EmptyRateLimit;
 import org.springframework.ai.chat.metadata.PromptMetadata;
 import org.springframework.ai.chat.metadata.RateLimit;
 import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.lang.Nullable;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
  * Helper that for streaming chat responses, aggregate the chat response messages into a
- * single AssistantMessage. Job is performed in parallel to the chat response processing.
+ * single AssistantMessage per generation, including the tool calls streamed as deltas.
+ * Job is performed in parallel to the chat response processing, with state scoped to each
+ * subscription.
  *
  * @author Christian Tzolov
  * @author Alexandros Pappas
@@ -48,127 +53,274 @@ public class MessageAggregator {
 
 	private static final Logger logger = LoggerFactory.getLogger(MessageAggregator.class);
 
+	private static final String INDEX_METADATA_KEY = "index";
+
 	public Flux<AdvisedResponse> aggregateAdvisedResponse(Flux<AdvisedResponse> advisedResponses,
 			Consumer<AdvisedResponse> aggregationHandler) {
 
-		AtomicReference<Map<String, Object>> adviseContext = new AtomicReference<>(new HashMap<>());
+		return Flux.defer(() -> {
+			AggregationState state = new AggregationState();
+			Map<String, Object> adviseContext = new HashMap<>();
+
+			return advisedResponses.doOnNext(advisedResponse -> {
+				adviseContext.putAll(advisedResponse.adviseContext());
+				state.add(advisedResponse.response());
+			})
+				.map(advisedResponse -> new AdvisedResponse(advisedResponse.response(), adviseContext))
+				.doOnComplete(() -> aggregationHandler.accept(AdvisedResponse.builder()
+					.response(state.toChatResponse())
+					.adviseContext(adviseContext)
+					.build()))
+				.doOnError(e -> logger.error("Aggregation Error", e));
+		});
+	}
 
-		return new MessageAggregator().aggregate(advisedResponses.map(ar -> {
-			adviseContext.get().putAll(ar.adviseContext());
-			return ar.response();
+	public Flux<ChatResponse> aggregate(Flux<ChatResponse> fluxChatResponse,
+			Consumer<ChatResponse> onAggregationComplete) {
 
-		}), aggregatedChatResponse -> {
+		return Flux.defer(() -> {
+			AggregationState state = new AggregationState();
 
-			AdvisedResponse aggregatedAdvisedResponse = AdvisedResponse.builder()
-				.response(aggregatedChatResponse)
-				.adviseContext(adviseContext.get())
-				.build();
+			return fluxChatResponse.doOnNext(state::add)
+				.doOnComplete(() -> onAggregationComplete.accept(state.toChatResponse()))
+				.doOnError(e -> logger.error("Aggregation Error", e));
+		});
+	}
 
-			aggregationHandler.accept(aggregatedAdvisedResponse);
+	/**
+	 * The state of a single subscription to a streamed chat response, updated in place
+	 * for every chunk. Generations are told apart by the {@code index} metadata of their
+	 * message, when the model provides it, or else by their position in the chunk.
+	 */
+	private static final class AggregationState {
 
-		}).map(cr -> new AdvisedResponse(cr, adviseContext.get()));
-	}
+		private final List<GenerationState> generations = new ArrayList<>(1);
 
-	public Flux<ChatResponse> aggregate(Flux<ChatResponse> fluxChatResponse,
-			Consumer<ChatResponse> onAggregationComplete) {
+		private long promptTokens;
+
+		private long generationTokens;
 
-		// Assistant Message
-		AtomicReference<StringBuilder> messageTextContentRef = new AtomicReference<>(new StringBuilder());
-		AtomicReference<Map<String, Object>> messageMetadataMapRef = new AtomicReference<>();
-
-		// ChatGeneration Metadata
-		AtomicReference<ChatGenerationMetadata> generationMetadataRef = new AtomicReference<>(
-				ChatGenerationMetadata.NULL);
-
-		// Usage
-		AtomicReference<Long> metadataUsagePromptTokensRef = new AtomicReference<>(0L);
-		AtomicReference<Long> metadataUsageGenerationTokensRef = new AtomicReference<>(0L);
-		AtomicReference<Long> metadataUsageTotalTokensRef = new AtomicReference<>(0L);
-
-		AtomicReference<PromptMetadata> metadataPromptMetadataRef = new AtomicReference<>(PromptMetadata.empty());
-		AtomicReference<RateLimit> metadataRateLimitRef = new AtomicReference<>(new EmptyRateLimit());
-
-		AtomicReference<String> metadataIdRef = new AtomicReference<>("");
-		AtomicReference<String> metadataModelRef = new AtomicReference<>("");
-
-		return fluxChatResponse.doOnSubscribe(subscription -> {
-			messageTextContentRef.set(new StringBuilder());
-			messageMetadataMapRef.set(new HashMap<>());
-			metadataIdRef.set("");
-			metadataModelRef.set("");
-			metadataUsagePromptTokensRef.set(0L);
-			metadataUsageGenerationTokensRef.set(0L);
-			metadataUsageTotalTokensRef.set(0L);
-			metadataPromptMetadataRef.set(PromptMetadata.empty());
-			metadataRateLimitRef.set(new EmptyRateLimit());
-
-		}).doOnNext(chatResponse -> {
-
-			if (chatResponse.getResult() != null) {
-				if (chatResponse.getResult().getMetadata() != null
-						&& chatResponse.getResult().getMetadata() != ChatGenerationMetadata.NULL) {
-					generationMetadataRef.set(chatResponse.getResult().getMetadata());
+		private long totalTokens;
+
+		private PromptMetadata promptMetadata = PromptMetadata.empty();
+
+		private RateLimit rateLimit = new EmptyRateLimit();
+
+		private String id = "";
+
+		private String model = "";
+
+		void add(@Nullable ChatResponse chatResponse) {
+			if (chatResponse == null) {
+				return;
+			}
+			List<Generation> results = chatResponse.getResults();
+			for (int i = 0; i < results.size(); i++) {
+				Generation generation = results.get(i);
+				if (generation != null && generation.getOutput() != null) {
+					generation(indexOf(generation, i)).add(generation);
 				}
-				if (chatResponse.getResult().getOutput().getText() != null) {
-					messageTextContentRef.get().append(chatResponse.getResult().getOutput().getText());
+			}
+
+			ChatResponseMetadata metadata = chatResponse.getMetadata();
+			if (metadata != null) {
+				Usage usage = metadata.getUsage();
+				if (usage != null) {
+					this.promptTokens = positiveOr(usage.getPromptTokens(), this.promptTokens);
+					this.generationTokens = positiveOr(usage.getGenerationTokens(), this.generationTokens);
+					this.totalTokens = positiveOr(usage.getTotalTokens(), this.totalTokens);
 				}
-				if (chatResponse.getResult().getOutput().getMetadata() != null) {
-					messageMetadataMapRef.get().putAll(chatResponse.getResult().getOutput().getMetadata());
+				PromptMetadata chunkPromptMetadata = metadata.getPromptMetadata();
+				if (chunkPromptMetadata != null && chunkPromptMetadata.iterator().hasNext()) {
+					this.promptMetadata = chunkPromptMetadata;
 				}
-			}
-			if (chatResponse.getMetadata() != null) {
-				if (chatResponse.getMetadata().getUsage() != null) {
-					Usage usage = chatResponse.getMetadata().getUsage();
-					metadataUsagePromptTokensRef.set(
-							usage.getPromptTokens() > 0 ? usage.getPromptTokens() : metadataUsagePromptTokensRef.get());
-					metadataUsageGenerationTokensRef.set(usage.getGenerationTokens() > 0 ? usage.getGenerationTokens()
-							: metadataUsageGenerationTokensRef.get());
-					metadataUsageTotalTokensRef
-						.set(usage.getTotalTokens() > 0 ? usage.getTotalTokens() : metadataUsageTotalTokensRef.get());
+				RateLimit chunkRateLimit = metadata.getRateLimit();
+				if (chunkRateLimit != null && !(chunkRateLimit instanceof EmptyRateLimit)) {
+					this.rateLimit = chunkRateLimit;
 				}
-				if (chatResponse.getMetadata().getPromptMetadata() != null
-						&& chatResponse.getMetadata().getPromptMetadata().iterator().hasNext()) {
-					metadataPromptMetadataRef.set(chatResponse.getMetadata().getPromptMetadata());
+				if (StringUtils.hasText(metadata.getId())) {
+					this.id = metadata.getId();
 				}
-				if (chatResponse.getMetadata().getRateLimit() != null
-						&& !(metadataRateLimitRef.get() instanceof EmptyRateLimit)) {
-					metadataRateLimitRef.set(chatResponse.getMetadata().getRateLimit());
+				if (StringUtils.hasText(metadata.getModel())) {
+					this.model = metadata.getModel();
 				}
-				if (StringUtils.hasText(chatResponse.getMetadata().getId())) {
-					metadataIdRef.set(chatResponse.getMetadata().getId());
+			}
+		}
+
+		ChatResponse toChatResponse() {
+			ChatResponseMetadata chatResponseMetadata = ChatResponseMetadata.builder()
+				.id(this.id)
+				.model(this.model)
+				.rateLimit(this.rateLimit)
+				.usage(new DefaultUsage(this.promptTokens, this.generationTokens, this.totalTokens))
+				.promptMetadata(this.promptMetadata)
+				.build();
+
+			if (this.generations.isEmpty()) {
+				return new ChatResponse(List.of(new Generation(new AssistantMessage("", new HashMap<>()))),
+						chatResponseMetadata);
+			}
+			this.generations.sort(Comparator.comparingInt(generation -> generation.index));
+			List<Generation> results = new ArrayList<>(this.generations.size());
+			for (GenerationState generation : this.generations) {
+				results.add(generation.toGeneration());
+			}
+			return new ChatResponse(results, chatResponseMetadata);
+		}
+
+		private GenerationState generation(int index) {
+			// Chunks carry a single generation, or generations in index order, so the
+			// expected one is usually found at its index.
+			if (index >= 0 && index < this.generations.size() && this.generations.get(index).index == index) {
+				return this.generations.get(index);
+			}
+			for (GenerationState generation : this.generations) {
+				if (generation.index == index) {
+					return generation;
 				}
-				if (StringUtils.hasText(chatResponse.getMetadata().getModel())) {
-					metadataModelRef.set(chatResponse.getMetadata().getModel());
+			}
+			GenerationState generation = new GenerationState(index);
+			this.generations.add(generation);
+			return generation;
+		}
+
+		private static int indexOf(Generation generation, int position) {
+			Map<String, Object> metadata = generation.getOutput().getMetadata();
+			if (metadata != null && metadata.get(INDEX_METADATA_KEY) instanceof Number index) {
+				return index.intValue();
+			}
+			return position;
+		}
+
+		private static long positiveOr(@Nullable Long value, long current) {
+			return (value != null && value > 0) ? value : current;
+		}
+
+	}
+
+	/**
+	 * The text, metadata and tool calls of a single generation, as streamed so far.
+	 */
+	private static final class GenerationState {
+
+		private static final int INITIAL_TEXT_CAPACITY = 1024;
+
+		private final int index;
+
+		private final StringBuilder text = new StringBuilder(INITIAL_TEXT_CAPACITY);
+
+		private final Map<String, Object> metadata = new HashMap<>();
+
+		@Nullable
+		private Map<String, Object> lastMetadata;
+
+		@Nullable
+		private List<ToolCallState> toolCalls;
+
+		private ChatGenerationMetadata generationMetadata = ChatGenerationMetadata.NULL;
+
+		GenerationState(int index) {
+			this.index = index;
+		}
+
+		void add(Generation generation) {
+			ChatGenerationMetadata chunkGenerationMetadata = generation.getMetadata();
+			if (chunkGenerationMetadata != null && chunkGenerationMetadata != ChatGenerationMetadata.NULL) {
+				this.generationMetadata = chunkGenerationMetadata;
+			}
+			AssistantMessage output = generation.getOutput();
+			String chunkText = output.getText();
+			if (chunkText != null) {
+				this.text.append(chunkText);
+			}
+			Map<String, Object> chunkMetadata = output.getMetadata();
+			if (chunkMetadata != null && chunkMetadata != this.lastMetadata && !chunkMetadata.isEmpty()) {
+				this.metadata.putAll(chunkMetadata);
+				this.lastMetadata = chunkMetadata;
+			}
+			List<AssistantMessage.ToolCall> chunkToolCalls = output.getToolCalls();
+			if (!CollectionUtils.isEmpty(chunkToolCalls)) {
+				for (AssistantMessage.ToolCall toolCall : chunkToolCalls) {
+					addToolCall(toolCall);
 				}
 			}
-		}).doOnComplete(() -> {
+		}
 
-			var usage = new DefaultUsage(metadataUsagePromptTokensRef.get(), metadataUsageGenerationTokensRef.get(),
-					metadataUsageTotalTokensRef.get());
+		/**
+		 * Tool calls are either streamed whole, or as a first delta carrying their id and
+		 * name followed by deltas without id nor name appending to their arguments. Some
+		 * models stream whole tool calls without id, so a delta without id only continues
+		 * the previous tool call when it has no name either.
+		 */
+		private void addToolCall(AssistantMessage.ToolCall delta) {
+			if (this.toolCalls == null) {
+				this.toolCalls = new ArrayList<>(2);
+			}
+			ToolCallState toolCall = null;
+			if (StringUtils.hasText(delta.id())) {
+				for (ToolCallState candidate : this.toolCalls) {
+					if (delta.id().equals(candidate.id)) {
+						toolCall = candidate;
+						break;
+					}
+				}
+			}
+			else if (!StringUtils.hasText(delta.name()) && !this.toolCalls.isEmpty()) {
+				toolCall = this.toolCalls.get(this.toolCalls.size() - 1);
+			}
+			if (toolCall == null) {
+				toolCall = new ToolCallState(delta.id());
+				this.toolCalls.add(toolCall);
+			}
+			toolCall.add(delta);
+		}
 
-			var chatResponseMetadata = ChatResponseMetadata.builder()
-				.id(metadataIdRef.get())
-				.model(metadataModelRef.get())
-				.rateLimit(metadataRateLimitRef.get())
-				.usage(usage)
-				.promptMetadata(metadataPromptMetadataRef.get())
-				.build();
+		Generation toGeneration() {
+			List<AssistantMessage.ToolCall> aggregatedToolCalls = List.of();
+			if (this.toolCalls != null) {
+				aggregatedToolCalls = new ArrayList<>(this.toolCalls.size());
+				for (ToolCallState toolCall : this.toolCalls) {
+					aggregatedToolCalls.add(toolCall.toToolCall());
+				}
+			}
+			return new Generation(new AssistantMessage(this.text.toString(), this.metadata, aggregatedToolCalls),
+					this.generationMetadata);
+		}
+
+	}
+
+	private static final class ToolCallState {
+
+		private final String id;
+
+		@Nullable
+		private String type;
+
+		@Nullable
+		private String name;
+
+		private final StringBuilder arguments = new StringBuilder();
+
+		ToolCallState(String id) {
+			this.id = id;
+		}
+
+		void add(AssistantMessage.ToolCall delta) {
+			if (StringUtils.hasText(delta.type())) {
+				this.type = delta.type();
+			}
+			if (StringUtils.hasText(delta.name())) {
+				this.name = delta.name();
+			}
+			if (delta.arguments() != null) {
+				this.arguments.append(delta.arguments());
+			}
+		}
+
+		AssistantMessage.ToolCall toToolCall() {
+			return new AssistantMessage.ToolCall(this.id, this.type, this.name, this.arguments.toString());
+		}
 
-			onAggregationComplete.accept(new ChatResponse(List.of(new Generation(
-					new AssistantMessage(messageTextContentRef.get().toString(), messageMetadataMapRef.get()),
-					generationMetadataRef.get())), chatResponseMetadata));
-
-			messageTextContentRef.set(new StringBuilder());
-			messageMetadataMapRef.set(new HashMap<>());
-			metadataIdRef.set("");
-			metadataModelRef.set("");
-			metadataUsagePromptTokensRef.set(0L);
-			metadataUsageGenerationTokensRef.set(0L);
-			metadataUsageTotalTokensRef.set(0L);
-			metadataPromptMetadataRef.set(PromptMetadata.empty());
-			metadataRateLimitRef.set(new EmptyRateLimit());
-
-		}).doOnError(e -> logger.error("Aggregation Error", e));
 	}
 
 	public record DefaultUsage(long promptTokens, long generationTokens, long totalTokens) implements Usage {
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.model;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Executes the tool calls of an {@link AssistantMessage} concurrently, keeping a bounded
+ * number of calls in flight, and returns their results in the order of the tool calls.
+ *
+ * <p>
+ * A call that does not complete within the configured timeout is cancelled, interrupting
+ * its thread, and fails the whole execution, as does a call throwing an exception. The
+ * other calls still in flight are then cancelled as well.
+ *
+ * <p>
+ * Tools run on the threads of the configured executor, so they must not rely on state
+ * bound to the calling thread. On Java 21 and later, an executor running each call on a
+ * virtual thread is a good fit for tools blocking on I/O. It can be set on every chat
+ * model with {@link AbstractToolCallSupport#setToolCallExecutor(ToolCallExecutor)}.
+ *
+ * @since 1.0.0
+ */
+public final class ToolCallExecutor {
+
+	private final Executor executor;
+
+	private final int maxConcurrency;
+
+	@Nullable
+	private final Duration timeout;
+
+	private ToolCallExecutor(Builder builder) {
+		this.executor = builder.executor;
+		this.maxConcurrency = builder.maxConcurrency;
+		this.timeout = builder.timeout;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Executes the given tool calls.
+	 * @param toolCalls the tool calls to execute
+	 * @param function the function executing a single tool call and returning its result
+	 * @return the results, in the same order as the tool calls
+	 */
+	public List<String> execute(List<AssistantMessage.ToolCall> toolCalls,
+			Function<AssistantMessage.ToolCall, String> function) {
+		Assert.notNull(toolCalls, "ToolCalls must not be null");
+		Assert.notNull(function, "Function must not be null");
+		int size = toolCalls.size();
+		String[] results = new String[size];
+		@SuppressWarnings("unchecked")
+		FutureTask<String>[] tasks = new FutureTask[size];
+		long[] deadlines = new long[size];
+		BlockingQueue<Integer> completions = new LinkedBlockingQueue<>();
+		int submitted = 0;
+		int completed = 0;
+
+		try {
+			while (completed < size) {
+				while (submitted < size && submitted - completed < this.maxConcurrency) {
+					int index = submitted++;
+					AssistantMessage.ToolCall toolCall = toolCalls.get(index);
+					tasks[index] = new FutureTask<>(() -> function.apply(toolCall)) {
+
+						@Override
+						protected void done() {
+							completions.add(index);
+						}
+
+					};
+					deadlines[index] = (this.timeout != null) ? System.nanoTime() + this.timeout.toNanos() : 0;
+					this.executor.execute(tasks[index]);
+				}
+
+				Integer index = (this.timeout != null)
+						? completions.poll(nextTimeout(tasks, deadlines, submitted), TimeUnit.NANOSECONDS)
+						: completions.take();
+				if (index == null) {
+					int expired = firstExpired(tasks, deadlines, submitted);
+					if (expired >= 0) {
+						tasks[expired].cancel(true);
+						throw new IllegalStateException("Tool call [" + toolCalls.get(expired).name()
+								+ "] did not complete within " + this.timeout);
+					}
+					continue;
+				}
+				results[index] = result(tasks[index]);
+				completed++;
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while executing tool calls", ex);
+		}
+		finally {
+			if (completed < size) {
+				for (int i = 0; i < submitted; i++) {
+					tasks[i].cancel(true);
+				}
+			}
+		}
+		return Arrays.asList(results);
+	}
+
+	private static long nextTimeout(FutureTask<String>[] tasks, long[] deadlines, int submitted) {
+		long now = System.nanoTime();
+		long next = Long.MAX_VALUE;
+		for (int i = 0; i < submitted; i++) {
+			if (!tasks[i].isDone()) {
+				next = Math.min(next, Math.max(0, deadlines[i] - now));
+			}
+		}
+		return next;
+	}
+
+	private static int firstExpired(FutureTask<String>[] tasks, long[] deadlines, int submitted) {
+		long now = System.nanoTime();
+		for (int i = 0; i < submitted; i++) {
+			if (!tasks[i].isDone() && now - deadlines[i] >= 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static String result(FutureTask<String> task) throws InterruptedException {
+		try {
+			return task.get();
+		}
+		catch (ExecutionException ex) {
+			Throwable error = ex.getCause();
+			if (error instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (error instanceof Error e) {
+				throw e;
+			}
+			throw new IllegalStateException(error);
+		}
+	}
+
+	public static final class Builder {
+
+		private Executor executor = defaultExecutor();
+
+		private int maxConcurrency = 8;
+
+		@Nullable
+		private Duration timeout;
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the executor running the tool calls. Defaults to an executor starting a
+		 * new daemon thread per call.
+		 * @param executor the executor
+		 * @return the builder instance
+		 */
+		public Builder executor(Executor executor) {
+			Assert.notNull(executor, "Executor must not be null");
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of tool calls in flight. Defaults to 8.
+		 * @param maxConcurrency the maximum number of concurrent calls
+		 * @return the builder instance
+		 */
+		public Builder maxConcurrency(int maxConcurrency) {
+			Assert.isTrue(maxConcurrency > 0, "MaxConcurrency must be positive");
+			this.maxConcurrency = maxConcurrency;
+			return this;
+		}
+
+		/**
+		 * Sets the time each tool call is given to complete, from the moment it is
+		 * submitted to the executor. Defaults to no timeout.
+		 * @param timeout the timeout, or null for no timeout
+		 * @return the builder instance
+		 */
+		public Builder timeout(@Nullable Duration timeout) {
+			Assert.isTrue(timeout == null || (!timeout.isNegative() && !timeout.isZero()), "Timeout must be positive");
+			this.timeout = timeout;
+			return this;
+		}
+
+		public ToolCallExecutor build() {
+			return new ToolCallExecutor(this);
+		}
+
+		private static Executor defaultExecutor() {
+			SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("tool-call-");
+			executor.setDaemon(true);
+			return executor;
+		}
+
+	}
+
+}
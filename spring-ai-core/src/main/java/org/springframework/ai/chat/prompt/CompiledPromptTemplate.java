@@ -0,0 +1,417 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.prompt;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.antlr.runtime.Token;
+import org.antlr.runtime.TokenStream;
+import org.stringtemplate.v4.ST;
+import org.stringtemplate.v4.compiler.STLexer;
+
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
+
+/**
+ * An immutable, thread-safe {@link PromptTemplate} counterpart that is compiled once and
+ * rendered many times, for templates whose text is static and only the model changes.
+ *
+ * <p>
+ * Instances obtained with {@link #of(String)} are cached by template text in a bounded
+ * LRU cache, so rendering a known template skips lexing and parsing altogether. Texts
+ * that are mostly unique, such as user messages, should be compiled with
+ * {@link #compile(String)} instead, so they do not evict the reused templates. Templates
+ * only made of literal text and {@code {name}} placeholders are rendered directly,
+ * without going through StringTemplate, and produce the same output. Any other template
+ * is rendered by a copy of a precompiled StringTemplate instance.
+ *
+ * @since 1.0.0
+ */
+public final class CompiledPromptTemplate {
+
+	/**
+	 * Maximum number of compiled templates kept by {@link #of(String)}.
+	 */
+	public static final int CACHE_SIZE = 1024;
+
+	private static final ConcurrentLruCache<String, CompiledPromptTemplate> CACHE = new ConcurrentLruCache<>(CACHE_SIZE,
+			CompiledPromptTemplate::new);
+
+	private static final Set<String> KEYWORDS = Set.of("if", "else", "elseif", "endif", "super", "true", "false");
+
+	private final String template;
+
+	private final Set<String> inputVariables;
+
+	@Nullable
+	private final List<Segment> segments;
+
+	@Nullable
+	private final ST prototype;
+
+	private CompiledPromptTemplate(String template) {
+		this.template = template;
+		this.segments = parseSimpleTemplate(template);
+		if (this.segments != null) {
+			Set<String> variables = new LinkedHashSet<>();
+			for (Segment segment : this.segments) {
+				if (segment.kind() == SegmentKind.VARIABLE) {
+					variables.add(segment.text());
+				}
+			}
+			this.inputVariables = Collections.unmodifiableSet(variables);
+			this.prototype = null;
+		}
+		else {
+			ST st;
+			try {
+				st = new ST(template, '{', '}');
+			}
+			catch (Exception ex) {
+				throw new IllegalArgumentException("The template string is not valid.", ex);
+			}
+			this.inputVariables = Collections.unmodifiableSet(PromptTemplate.getInputVariables(st));
+			// Define every identifier up front: adding an undefined attribute to a copy
+			// would otherwise modify the compiled template shared by all copies.
+			TokenStream tokens = st.impl.tokens;
+			for (int i = 0; i < tokens.size(); i++) {
+				Token token = tokens.get(i);
+				if (token.getType() == STLexer.ID && st.getAttribute(token.getText()) == null) {
+					st.add(token.getText(), null);
+					st.remove(token.getText());
+				}
+			}
+			this.prototype = st;
+		}
+	}
+
+	/**
+	 * Return the compiled template for the given text, compiling it on first use.
+	 * @param template the template text
+	 * @return the compiled template
+	 * @throws IllegalArgumentException if the template is not valid
+	 */
+	public static CompiledPromptTemplate of(String template) {
+		Assert.notNull(template, "template cannot be null");
+		return CACHE.get(template);
+	}
+
+	/**
+	 * Compile the given text without caching it, for templates rendered once.
+	 * @param template the template text
+	 * @return the compiled template
+	 * @throws IllegalArgumentException if the template is not valid
+	 */
+	public static CompiledPromptTemplate compile(String template) {
+		Assert.notNull(template, "template cannot be null");
+		return new CompiledPromptTemplate(template);
+	}
+
+	public String getTemplate() {
+		return this.template;
+	}
+
+	public Set<String> getInputVariables() {
+		return this.inputVariables;
+	}
+
+	/**
+	 * Render the template with the given model, with the same semantics as
+	 * {@link PromptTemplate#render(Map)}.
+	 * @param model the values of the template variables
+	 * @return the rendered text
+	 * @throws IllegalStateException if the model does not provide all the template
+	 * variables
+	 */
+	public String render(Map<String, Object> model) {
+		Assert.notNull(model, "model cannot be null");
+		if (!model.keySet().containsAll(this.inputVariables)) {
+			Set<String> missing = new HashSet<>(this.inputVariables);
+			missing.removeAll(model.keySet());
+			throw new IllegalStateException(
+					"Not all template variables were replaced. Missing variable names are " + missing);
+		}
+		if (this.prototype == null) {
+			// Nested templates given as values are left to StringTemplate
+			return hasTemplateValues(model) ? new PromptTemplate(this.template).render(model)
+					: renderSimpleTemplate(model);
+		}
+		ST st = new ST(this.prototype);
+		for (Map.Entry<String, Object> entry : model.entrySet()) {
+			if (st.impl.formalArguments != null && st.impl.formalArguments.containsKey(entry.getKey())) {
+				st.add(entry.getKey(), resolve(entry.getValue()));
+			}
+		}
+		return st.render();
+	}
+
+	private String renderSimpleTemplate(Map<String, Object> model) {
+		IndentingWriter writer = new IndentingWriter(this.template.length());
+		List<Segment> segments = this.segments;
+		// Like StringTemplate, drop the line break of a line that rendered nothing,
+		// unless it follows another line break or an indentation.
+		boolean keepNewline = true;
+		for (int i = 0; i < segments.size(); i++) {
+			Segment segment = segments.get(i);
+			switch (segment.kind()) {
+				case TEXT -> writer.write(segment.text());
+				case VARIABLE -> writer.writeValue(resolve(model.get(segment.text())));
+				case NEWLINE -> writer.endLine(keepNewline);
+				case INDENT -> {
+					// The indentation applies to the next element only, and is written
+					// lazily in front of its first character.
+					Segment next = segments.get(++i);
+					writer.pushIndent(segment.text());
+					switch (next.kind()) {
+						case TEXT -> writer.write(next.text());
+						case VARIABLE -> writer.writeValue(resolve(model.get(next.text())));
+						case NEWLINE -> writer.endLine(true);
+						default -> throw new IllegalStateException("Unexpected segment " + next);
+					}
+					writer.popIndent();
+				}
+			}
+			keepNewline = segment.kind() == SegmentKind.NEWLINE;
+		}
+		return writer.toString();
+	}
+
+	@Nullable
+	private static Object resolve(@Nullable Object value) {
+		if (value instanceof Resource resource) {
+			try {
+				return resource.getContentAsString(Charset.defaultCharset());
+			}
+			catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return value;
+	}
+
+	private static boolean hasTemplateValues(Map<String, Object> model) {
+		for (Object value : model.values()) {
+			if (value instanceof ST) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Split a template made of literal text and {@code {name}} placeholders into
+	 * segments, following the StringTemplate lexer. Return {@code null} for any other
+	 * template.
+	 */
+	@Nullable
+	static List<Segment> parseSimpleTemplate(String template) {
+		List<Segment> segments = new ArrayList<>();
+		int length = template.length();
+		int i = 0;
+		while (i < length) {
+			char c = template.charAt(i);
+			boolean startOfLine = i == 0 || template.charAt(i - 1) == '\n';
+			if (startOfLine && (c == ' ' || c == '\t')) {
+				int end = i;
+				while (end < length && (template.charAt(end) == ' ' || template.charAt(end) == '\t')) {
+					end++;
+				}
+				segments
+					.add(new Segment(end < length ? SegmentKind.INDENT : SegmentKind.TEXT, template.substring(i, end)));
+				i = end;
+			}
+			else if (c == '\n') {
+				segments.add(new Segment(SegmentKind.NEWLINE, "\n"));
+				i++;
+			}
+			else if (c == '\r') {
+				if (i + 1 >= length || template.charAt(i + 1) != '\n') {
+					return null;
+				}
+				segments.add(new Segment(SegmentKind.NEWLINE, "\n"));
+				i += 2;
+			}
+			else if (c == '{') {
+				int end = i + 1;
+				if (end >= length || !isIdentifierStart(template.charAt(end))) {
+					return null;
+				}
+				while (end < length && isIdentifierPart(template.charAt(end))) {
+					end++;
+				}
+				if (end >= length || template.charAt(end) != '}') {
+					return null;
+				}
+				String name = template.substring(i + 1, end);
+				if (KEYWORDS.contains(name)) {
+					return null;
+				}
+				segments.add(new Segment(SegmentKind.VARIABLE, name));
+				i = end + 1;
+			}
+			else {
+				int end = i;
+				while (end < length && !isSpecial(template.charAt(end))) {
+					end++;
+				}
+				if (end == i) {
+					// '}' or '\\' outside of a placeholder
+					return null;
+				}
+				segments.add(new Segment(SegmentKind.TEXT, template.substring(i, end)));
+				i = end;
+			}
+		}
+		return segments;
+	}
+
+	private static boolean isSpecial(char c) {
+		return c == '{' || c == '}' || c == '\\' || c == '\n' || c == '\r';
+	}
+
+	private static boolean isIdentifierStart(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+	}
+
+	private static boolean isIdentifierPart(char c) {
+		return isIdentifierStart(c) || (c >= '0' && c <= '9');
+	}
+
+	enum SegmentKind {
+
+		TEXT, NEWLINE, INDENT, VARIABLE
+
+	}
+
+	record Segment(SegmentKind kind, String text) {
+
+	}
+
+	/**
+	 * Mirrors the output of the StringTemplate {@code AutoIndentWriter}: carriage returns
+	 * are dropped, line feeds are written as the platform line separator, and the current
+	 * indentation is written before the first character of every line.
+	 */
+	private static final class IndentingWriter {
+
+		private static final String NEWLINE = System.lineSeparator();
+
+		private final StringBuilder out;
+
+		@Nullable
+		private String indent;
+
+		private boolean atStartOfLine = true;
+
+		private int lineLength;
+
+		IndentingWriter(int capacity) {
+			this.out = new StringBuilder(capacity + 64);
+		}
+
+		void pushIndent(String indent) {
+			this.indent = indent;
+		}
+
+		void popIndent() {
+			this.indent = null;
+		}
+
+		void endLine(boolean keepNewline) {
+			if (keepNewline || this.lineLength > 0) {
+				this.out.append(NEWLINE);
+				this.atStartOfLine = true;
+			}
+			this.lineLength = 0;
+		}
+
+		private void newline() {
+			this.out.append(NEWLINE);
+			this.atStartOfLine = true;
+			this.lineLength += NEWLINE.length();
+		}
+
+		void write(String text) {
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				if (c == '\r') {
+					continue;
+				}
+				if (c == '\n') {
+					newline();
+					continue;
+				}
+				if (this.atStartOfLine) {
+					if (this.indent != null) {
+						this.out.append(this.indent);
+						this.lineLength += this.indent.length();
+					}
+					this.atStartOfLine = false;
+				}
+				this.out.append(c);
+				this.lineLength++;
+			}
+		}
+
+		void writeValue(@Nullable Object value) {
+			if (value == null) {
+				return;
+			}
+			if (value instanceof CharSequence text) {
+				write(text.toString());
+			}
+			else if (value instanceof Map<?, ?> map) {
+				writeValue(map.keySet().iterator());
+			}
+			else if (value instanceof Iterable<?> iterable) {
+				writeValue(iterable.iterator());
+			}
+			else if (value instanceof Iterator<?> iterator) {
+				while (iterator.hasNext()) {
+					writeValue(iterator.next());
+				}
+			}
+			else if (value.getClass().isArray()) {
+				for (int i = 0; i < Array.getLength(value); i++) {
+					writeValue(Array.get(value, i));
+				}
+			}
+			else {
+				write(value.toString());
+			}
+		}
+
+		@Override
+		public String toString() {
+			return this.out.toString();
+		}
+
+	}
+
+}
@@ -189,7 +189,11 @@ public class PromptTemplate implements PromptTemplateActions, PromptTemplateMess
 	}
 
 	public Set<String> getInputVariables() {
-		TokenStream tokens = this.st.impl.tokens;
+		return getInputVariables(this.st);
+	}
+
+	static Set<String> getInputVariables(ST st) {
+		TokenStream tokens = st.impl.tokens;
 		Set<String> inputVariables = new HashSet<>();
 		boolean isInsideList = false;
 
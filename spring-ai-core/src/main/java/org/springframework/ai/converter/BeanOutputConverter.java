@@ -26,6 +26,7 @@ import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.github.victools.jsonschema.generator.Option;
@@ -40,6 +41,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.util.JacksonUtils;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.lang.NonNull;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * An implementation of {@link StructuredOutputConverter} that transforms the LLM output
@@ -47,6 +49,12 @@ import org.springframework.lang.NonNull;
  * schema based on a given Java class or parameterized type reference, which is then used
  * to validate and transform the LLM output into the desired type.
  *
+ * <p>
+ * The generated schema, the format instructions and the {@link ObjectReader} of a target
+ * type are cached process-wide, per type and object mapper, so that converters created
+ * for every request of the same type only pay for them once. The cache holds soft
+ * references and lets the JVM reclaim entries of types no longer in use.
+ *
  * @param <T> The target type to which the output will be converted.
  * @author Mark Pollack
  * @author Christian Tzolov
@@ -59,6 +67,27 @@ import org.springframework.lang.NonNull;
  */
 public class BeanOutputConverter<T> implements StructuredOutputConverter<T> {
 
+	private static final String FORMAT_TEMPLATE = """
+			Your response should be in JSON format.
+			Do not include any explanations, only provide a RFC8259 compliant JSON response following this format without deviation.
+			Do not include markdown code blocks in your response.
+			Remove the ```json markdown from the output.
+			Here is the JSON Schema instance your output must adhere to:
+			```%s```
+			""";
+
+	private static final SchemaGenerator SCHEMA_GENERATOR = createSchemaGenerator();
+
+	/** Generated JSON schemas, keyed on the target type. */
+	private static final Map<Type, JsonNode> SCHEMAS = new ConcurrentReferenceHashMap<>();
+
+	/**
+	 * Printed schemas, format instructions and readers of the default object mapper,
+	 * keyed on the target type. Converters with a custom object mapper only share the
+	 * generated schemas, since a mapper may be reconfigured after use.
+	 */
+	private static final Map<Type, CompiledType> COMPILED_TYPES = new ConcurrentReferenceHashMap<>();
+
 	private final Logger logger = LoggerFactory.getLogger(BeanOutputConverter.class);
 
 	/**
@@ -70,7 +99,13 @@ public class BeanOutputConverter<T> implements StructuredOutputConverter<T> {
 	private final ObjectMapper objectMapper;
 
 	/** Holds the generated JSON schema for the target type. */
-	private String jsonSchema;
+	private final String jsonSchema;
+
+	/** Holds the format instructions embedding the JSON schema. */
+	private final String format;
+
+	/** The reader deserializing the LLM output to the target type. */
+	private final ObjectReader objectReader;
 
 	/**
 	 * Constructor to initialize with the target type's class.
@@ -120,13 +155,14 @@ public class BeanOutputConverter<T> implements StructuredOutputConverter<T> {
 		Objects.requireNonNull(type, "Type cannot be null;");
 		this.type = type;
 		this.objectMapper = objectMapper != null ? objectMapper : getObjectMapper();
-		generateSchema();
+		CompiledType compiled = (this.objectMapper == DefaultObjectMapperHolder.INSTANCE)
+				? COMPILED_TYPES.computeIfAbsent(type, this::compile) : compile(type);
+		this.jsonSchema = compiled.jsonSchema();
+		this.format = compiled.format();
+		this.objectReader = compiled.objectReader();
 	}
 
-	/**
-	 * Generates the JSON schema for the target type.
-	 */
-	private void generateSchema() {
+	private static SchemaGenerator createSchemaGenerator() {
 		JacksonModule jacksonModule = new JacksonModule(JacksonOption.RESPECT_JSONPROPERTY_REQUIRED,
 				JacksonOption.RESPECT_JSONPROPERTY_ORDER);
 		SchemaGeneratorConfigBuilder configBuilder = new SchemaGeneratorConfigBuilder(
@@ -135,17 +171,27 @@ public class BeanOutputConverter<T> implements StructuredOutputConverter<T> {
 			.with(jacksonModule)
 			.with(Option.FORBIDDEN_ADDITIONAL_PROPERTIES_BY_DEFAULT);
 		SchemaGeneratorConfig config = configBuilder.build();
-		SchemaGenerator generator = new SchemaGenerator(config);
-		JsonNode jsonNode = generator.generateSchema(this.type);
+		return new SchemaGenerator(config);
+	}
+
+	/**
+	 * Generates the JSON schema for the target type, and prepares the format instructions
+	 * and the reader for it.
+	 */
+	private CompiledType compile(Type type) {
+		JsonNode jsonNode = SCHEMAS.computeIfAbsent(type, SCHEMA_GENERATOR::generateSchema);
 		ObjectWriter objectWriter = this.objectMapper.writer(new DefaultPrettyPrinter()
 			.withObjectIndenter(new DefaultIndenter().withLinefeed(System.lineSeparator())));
+		String schema;
 		try {
-			this.jsonSchema = objectWriter.writeValueAsString(jsonNode);
+			schema = objectWriter.writeValueAsString(jsonNode);
 		}
 		catch (JsonProcessingException e) {
 			logger.error("Could not pretty print json schema for jsonNode: " + jsonNode);
-			throw new RuntimeException("Could not pretty print json schema for " + this.type, e);
+			throw new RuntimeException("Could not pretty print json schema for " + type, e);
 		}
+		ObjectReader objectReader = this.objectMapper.readerFor(this.objectMapper.constructType(type));
+		return new CompiledType(schema, String.format(FORMAT_TEMPLATE, schema), objectReader);
 	}
 
 	/**
@@ -177,7 +223,7 @@ public class BeanOutputConverter<T> implements StructuredOutputConverter<T> {
 				// Trim again to remove any potential whitespace
 				text = text.trim();
 			}
-			return (T) this.objectMapper.readValue(text, this.objectMapper.constructType(this.type));
+			return (T) this.objectReader.readValue(text);
 		}
 		catch (JsonProcessingException e) {
 			logger.error("Could not parse the given text to the desired target type:" + text + " into " + this.type);
@@ -186,14 +232,13 @@ public class BeanOutputConverter<T> implements StructuredOutputConverter<T> {
 	}
 
 	/**
-	 * Configures and returns an object mapper for JSON operations.
+	 * Returns the object mapper used for JSON operations when none is provided. Defaults
+	 * to a mapper shared by all converters, so that the cached schemas and readers are
+	 * reused across instances.
 	 * @return Configured object mapper.
 	 */
 	protected ObjectMapper getObjectMapper() {
-		return JsonMapper.builder()
-			.addModules(JacksonUtils.instantiateAvailableModules())
-			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-			.build();
+		return DefaultObjectMapperHolder.INSTANCE;
 	}
 
 	/**
@@ -203,15 +248,7 @@ public class BeanOutputConverter<T> implements StructuredOutputConverter<T> {
 	 */
 	@Override
 	public String getFormat() {
-		String template = """
-				Your response should be in JSON format.
-				Do not include any explanations, only provide a RFC8259 compliant JSON response following this format without deviation.
-				Do not include markdown code blocks in your response.
-				Remove the ```json markdown from the output.
-				Here is the JSON Schema instance your output must adhere to:
-				```%s```
-				""";
-		return String.format(template, this.jsonSchema);
+		return this.format;
 	}
 
 	/**
@@ -232,4 +269,17 @@ public class BeanOutputConverter<T> implements StructuredOutputConverter<T> {
 		}
 	}
 
+	private record CompiledType(String jsonSchema, String format, ObjectReader objectReader) {
+
+	}
+
+	private static final class DefaultObjectMapperHolder {
+
+		static final ObjectMapper INSTANCE = JsonMapper.builder()
+			.addModules(JacksonUtils.instantiateAvailableModules())
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+			.build();
+
+	}
+
 }
@@ -17,12 +17,15 @@
 package org.springframework.ai.embedding;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import org.springframework.ai.document.Document;
 import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.lang.Nullable;
 
 /**
  * Abstract implementation of the {@link EmbeddingModel} interface that provides
@@ -45,6 +48,12 @@ public abstract class AbstractEmbeddingModel implements EmbeddingModel {
 	 */
 	protected final AtomicInteger embeddingDimensions = new AtomicInteger(-1);
 
+	/**
+	 * Optional executor embedding the document batches concurrently.
+	 */
+	@Nullable
+	private EmbeddingBatchExecutor batchExecutor;
+
 	/**
 	 * Return the dimension of the requested embedding generative name. If the generative
 	 * name is unknown uses the EmbeddingModel to perform a dummy EmbeddingModel#embed and
@@ -82,6 +91,24 @@ public abstract class AbstractEmbeddingModel implements EmbeddingModel {
 		}
 	}
 
+	/**
+	 * Set the executor used to embed the batches of
+	 * {@link #embed(List, EmbeddingOptions, BatchingStrategy)} concurrently. By default,
+	 * the batches are embedded one after the other.
+	 * @param batchExecutor the batch executor, or null to embed the batches sequentially
+	 */
+	public void setBatchExecutor(@Nullable EmbeddingBatchExecutor batchExecutor) {
+		this.batchExecutor = batchExecutor;
+	}
+
+	@Override
+	public List<float[]> embed(List<Document> documents, EmbeddingOptions options, BatchingStrategy batchingStrategy) {
+		if (this.batchExecutor == null) {
+			return EmbeddingModel.super.embed(documents, options, batchingStrategy);
+		}
+		return this.batchExecutor.embed(this, documents, options, batchingStrategy);
+	}
+
 	@Override
 	public int dimensions() {
 		if (this.embeddingDimensions.get() < 0) {
@@ -31,9 +31,11 @@ public interface BatchingStrategy {
 
 	/**
 	 * {@link EmbeddingModel} implementations can call this method to optimize embedding
-	 * tokens. The incoming collection of {@link Document}s are split into sub-batches. It
-	 * is important to preserve the order of the list of {@link Document}s when batching
-	 * as they are mapped to their corresponding embeddings by their order.
+	 * tokens. The incoming collection of {@link Document}s are split into sub-batches.
+	 * Every incoming {@link Document} instance must be returned exactly once. Documents
+	 * may be regrouped across sub-batches, as the default
+	 * {@link EmbeddingModel#embed(List, EmbeddingOptions, BatchingStrategy)} maps the
+	 * embeddings back to the input order by document identity.
 	 * @param documents to batch
 	 * @return a list of sub-batches that contain {@link Document}s.
 	 */
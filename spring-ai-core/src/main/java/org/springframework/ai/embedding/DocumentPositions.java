@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.embedding;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.ai.document.Document;
+import org.springframework.util.Assert;
+
+/**
+ * Maps the {@link Document}s returned by a {@link BatchingStrategy} back to their
+ * position in the original input. Documents are tracked by identity, so neither
+ * {@link Document#equals(Object)} nor {@link Document#hashCode()} is involved and equal
+ * or repeated documents each keep their own position. This lets strategies reorder
+ * documents across batches while embeddings are still returned in input order.
+ *
+ * @since 1.0.0
+ */
+final class DocumentPositions {
+
+	private final Map<Document, Deque<Integer>> positions;
+
+	private int remaining;
+
+	DocumentPositions(List<Document> documents) {
+		this.positions = new IdentityHashMap<>(documents.size());
+		for (int i = 0; i < documents.size(); i++) {
+			this.positions.computeIfAbsent(documents.get(i), document -> new ArrayDeque<>(1)).add(i);
+		}
+		this.remaining = documents.size();
+	}
+
+	/**
+	 * Claim the next unclaimed input position of the given document.
+	 * @param document a document returned by the batching strategy
+	 * @return its position in the input list
+	 */
+	int claim(Document document) {
+		Deque<Integer> candidates = this.positions.get(document);
+		Assert.state(candidates != null && !candidates.isEmpty(),
+				"The batching strategy returned a document that was not part of the input");
+		this.remaining--;
+		return candidates.poll();
+	}
+
+	/**
+	 * Tell whether every input position has been claimed.
+	 * @return true if all documents were returned by the batching strategy
+	 */
+	boolean isComplete() {
+		return this.remaining == 0;
+	}
+
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.embedding;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.Document;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Embeds the batches produced by a {@link BatchingStrategy} concurrently, keeping a
+ * bounded number of embedding requests in flight, and reassembles the embeddings in the
+ * order of the input documents.
+ *
+ * <p>
+ * The number of in-flight requests adapts to the provider: it grows by one after a streak
+ * of successful requests, up to the configured maximum, and is halved whenever a request
+ * fails with a transient error such as a {@code TransientAiException} or an HTTP 429 (Too
+ * Many Requests) response. The failed batch is then retried after an exponential backoff,
+ * while no new batches are submitted. Any other error, or a transient error that persists
+ * for {@code maxAttempts} attempts, fails the whole call.
+ *
+ * <p>
+ * The executor only relies on {@link EmbeddingModel#call(EmbeddingRequest)}, so it works
+ * with any embedding model. It can be set on every {@link AbstractEmbeddingModel} with
+ * {@link AbstractEmbeddingModel#setBatchExecutor(EmbeddingBatchExecutor)}.
+ *
+ * @since 1.0.0
+ */
+public final class EmbeddingBatchExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(EmbeddingBatchExecutor.class);
+
+	private static final String TRANSIENT_AI_EXCEPTION = "org.springframework.ai.retry.TransientAiException";
+
+	private final Executor executor;
+
+	private final int maxConcurrency;
+
+	private final int maxAttempts;
+
+	private final Duration initialBackoff;
+
+	private final Duration maxBackoff;
+
+	private final Predicate<Throwable> transientErrorPredicate;
+
+	private EmbeddingBatchExecutor(Builder builder) {
+		this.executor = builder.executor;
+		this.maxConcurrency = builder.maxConcurrency;
+		this.maxAttempts = builder.maxAttempts;
+		this.initialBackoff = builder.initialBackoff;
+		this.maxBackoff = builder.maxBackoff;
+		this.transientErrorPredicate = builder.transientErrorPredicate;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Embeds the given documents with the given model.
+	 * @param embeddingModel the model used to embed each batch
+	 * @param documents the documents to embed
+	 * @param options the embedding options
+	 * @param batchingStrategy the strategy splitting the documents into batches
+	 * @return the embeddings, in the same order as the documents
+	 */
+	public List<float[]> embed(EmbeddingModel embeddingModel, List<Document> documents, EmbeddingOptions options,
+			BatchingStrategy batchingStrategy) {
+		Assert.notNull(embeddingModel, "EmbeddingModel must not be null");
+		Assert.notNull(documents, "Documents must not be null");
+		List<List<Document>> batches = batchingStrategy.batch(documents);
+		float[][] embeddings = new float[documents.size()][];
+		DocumentPositions positions = new DocumentPositions(documents);
+
+		Deque<Integer> pending = new ArrayDeque<>(batches.size());
+		for (int i = 0; i < batches.size(); i++) {
+			pending.add(i);
+		}
+		int[] attempts = new int[batches.size()];
+		BlockingQueue<Outcome> outcomes = new LinkedBlockingQueue<>();
+		AdaptiveLimit limit = new AdaptiveLimit(this.maxConcurrency);
+		int inFlight = 0;
+		int completed = 0;
+		long resumeAt = System.nanoTime();
+
+		try {
+			while (completed < batches.size()) {
+				long now = System.nanoTime();
+				boolean paused = now - resumeAt < 0;
+				while (!paused && !pending.isEmpty() && inFlight < limit.get()) {
+					int batch = pending.poll();
+					attempts[batch]++;
+					submit(embeddingModel, batch, batches.get(batch), options, outcomes);
+					inFlight++;
+				}
+
+				Outcome outcome;
+				if (paused && !pending.isEmpty() && inFlight < limit.get()) {
+					outcome = outcomes.poll(resumeAt - now, TimeUnit.NANOSECONDS);
+					if (outcome == null) {
+						continue;
+					}
+				}
+				else {
+					outcome = outcomes.take();
+				}
+				inFlight--;
+
+				if (outcome.error() == null) {
+					List<Document> batch = batches.get(outcome.batch());
+					Assert.isTrue(outcome.embeddings().size() == batch.size(),
+							"Embeddings must have the same number as that of the documents");
+					for (int i = 0; i < batch.size(); i++) {
+						embeddings[positions.claim(batch.get(i))] = outcome.embeddings().get(i);
+					}
+					limit.onSuccess();
+					completed++;
+				}
+				else if (attempts[outcome.batch()] < this.maxAttempts
+						&& this.transientErrorPredicate.test(outcome.error())) {
+					limit.onThrottle();
+					Duration backoff = backoff(attempts[outcome.batch()]);
+					logger.debug("Transient error embedding batch {}, retrying in {} ms with at most {} requests "
+							+ "in flight", outcome.batch(), backoff.toMillis(), limit.get(), outcome.error());
+					resumeAt = System.nanoTime() + backoff.toNanos();
+					pending.addFirst(outcome.batch());
+				}
+				else {
+					throw propagate(outcome.error());
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while embedding documents", ex);
+		}
+
+		Assert.isTrue(positions.isComplete(), "Embeddings must have the same number as that of the documents");
+		return List.of(embeddings);
+	}
+
+	private void submit(EmbeddingModel embeddingModel, int batch, List<Document> documents, EmbeddingOptions options,
+			BlockingQueue<Outcome> outcomes) {
+		this.executor.execute(() -> {
+			try {
+				List<String> texts = documents.stream().map(Document::getText).toList();
+				EmbeddingResponse response = embeddingModel.call(new EmbeddingRequest(texts, options));
+				outcomes
+					.add(new Outcome(batch, response.getResults().stream().map(Embedding::getOutput).toList(), null));
+			}
+			catch (Throwable ex) {
+				outcomes.add(new Outcome(batch, List.of(), ex));
+			}
+		});
+	}
+
+	private Duration backoff(int attempt) {
+		Duration backoff = this.initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+		return (backoff.compareTo(this.maxBackoff) > 0) ? this.maxBackoff : backoff;
+	}
+
+	private static RuntimeException propagate(Throwable error) {
+		if (error instanceof RuntimeException runtimeException) {
+			return runtimeException;
+		}
+		if (error instanceof Error e) {
+			throw e;
+		}
+		return new IllegalStateException(error);
+	}
+
+	/**
+	 * Default transient error detection: a {@code TransientAiException} or an HTTP 429
+	 * client exception anywhere in the cause chain. Matched by class name, so that the
+	 * retry and web modules are not required on the classpath.
+	 * @param error the error to check
+	 * @return true if the error is transient
+	 */
+	static boolean isTransient(Throwable error) {
+		for (Throwable current = error; current != null; current = current.getCause()) {
+			for (Class<?> type = current.getClass(); type != null; type = type.getSuperclass()) {
+				if (type.getName().equals(TRANSIENT_AI_EXCEPTION) || type.getSimpleName().equals("TooManyRequests")) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private record Outcome(int batch, List<float[]> embeddings, @Nullable Throwable error) {
+
+	}
+
+	/**
+	 * Additive-increase, multiplicative-decrease limit of the requests in flight.
+	 */
+	private static final class AdaptiveLimit {
+
+		private final int max;
+
+		private int limit;
+
+		private int successes;
+
+		AdaptiveLimit(int max) {
+			this.max = max;
+			this.limit = max;
+		}
+
+		int get() {
+			return this.limit;
+		}
+
+		void onSuccess() {
+			if (++this.successes >= this.limit && this.limit < this.max) {
+				this.limit++;
+				this.successes = 0;
+			}
+		}
+
+		void onThrottle() {
+			this.limit = Math.max(1, this.limit / 2);
+			this.successes = 0;
+		}
+
+	}
+
+	public static final class Builder {
+
+		private Executor executor = defaultExecutor();
+
+		private int maxConcurrency = 4;
+
+		private int maxAttempts = 3;
+
+		private Duration initialBackoff = Duration.ofMillis(500);
+
+		private Duration maxBackoff = Duration.ofSeconds(10);
+
+		private Predicate<Throwable> transientErrorPredicate = EmbeddingBatchExecutor::isTransient;
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the executor running the embedding requests. Defaults to an executor
+		 * starting a new daemon thread per request.
+		 * @param executor the executor
+		 * @return the builder instance
+		 */
+		public Builder executor(Executor executor) {
+			Assert.notNull(executor, "Executor must not be null");
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of embedding requests in flight. Defaults to 4.
+		 * @param maxConcurrency the maximum number of concurrent requests
+		 * @return the builder instance
+		 */
+		public Builder maxConcurrency(int maxConcurrency) {
+			Assert.isTrue(maxConcurrency > 0, "MaxConcurrency must be positive");
+			this.maxConcurrency = maxConcurrency;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of attempts of a batch failing with transient errors,
+		 * including the first one. Defaults to 3.
+		 * @param maxAttempts the maximum number of attempts
+		 * @return the builder instance
+		 */
+		public Builder maxAttempts(int maxAttempts) {
+			Assert.isTrue(maxAttempts > 0, "MaxAttempts must be positive");
+			this.maxAttempts = maxAttempts;
+			return this;
+		}
+
+		/**
+		 * Sets the backoff before the first retry of a batch, doubled on every further
+		 * retry up to the {@link #maxBackoff(Duration) maximum backoff}. Defaults to 500
+		 * milliseconds.
+		 * @param initialBackoff the initial backoff
+		 * @return the builder instance
+		 */
+		public Builder initialBackoff(Duration initialBackoff) {
+			Assert.notNull(initialBackoff, "InitialBackoff must not be null");
+			Assert.isTrue(!initialBackoff.isNegative(), "InitialBackoff must not be negative");
+			this.initialBackoff = initialBackoff;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum backoff between two attempts of a batch. Defaults to 10
+		 * seconds.
+		 * @param maxBackoff the maximum backoff
+		 * @return the builder instance
+		 */
+		public Builder maxBackoff(Duration maxBackoff) {
+			Assert.notNull(maxBackoff, "MaxBackoff must not be null");
+			Assert.isTrue(!maxBackoff.isNegative(), "MaxBackoff must not be negative");
+			this.maxBackoff = maxBackoff;
+			return this;
+		}
+
+		/**
+		 * Sets the predicate deciding whether a failed request is transient, reducing the
+		 * concurrency and retrying the batch. Defaults to detecting a
+		 * {@code TransientAiException} or an HTTP 429 client exception in the cause
+		 * chain.
+		 * @param transientErrorPredicate the predicate
+		 * @return the builder instance
+		 */
+		public Builder transientErrorPredicate(Predicate<Throwable> transientErrorPredicate) {
+			Assert.notNull(transientErrorPredicate, "TransientErrorPredicate must not be null");
+			this.transientErrorPredicate = transientErrorPredicate;
+			return this;
+		}
+
+		public EmbeddingBatchExecutor build() {
+			return new EmbeddingBatchExecutor(this);
+		}
+
+		private static Executor defaultExecutor() {
+			SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("embedding-batch-");
+			executor.setDaemon(true);
+			return executor;
+		}
+
+	}
+
+}
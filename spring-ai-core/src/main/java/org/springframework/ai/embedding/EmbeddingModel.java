@@ -17,6 +17,7 @@
 package org.springframework.ai.embedding;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.springframework.ai.document.Document;
@@ -83,19 +84,19 @@ public interface EmbeddingModel extends Model<EmbeddingRequest, EmbeddingRespons
 	 */
 	default List<float[]> embed(List<Document> documents, EmbeddingOptions options, BatchingStrategy batchingStrategy) {
 		Assert.notNull(documents, "Documents must not be null");
-		List<float[]> embeddings = new ArrayList<>(documents.size());
+		float[][] embeddings = new float[documents.size()][];
+		DocumentPositions positions = new DocumentPositions(documents);
 		List<List<Document>> batch = batchingStrategy.batch(documents);
 		for (List<Document> subBatch : batch) {
 			List<String> texts = subBatch.stream().map(Document::getText).toList();
 			EmbeddingRequest request = new EmbeddingRequest(texts, options);
 			EmbeddingResponse response = this.call(request);
 			for (int i = 0; i < subBatch.size(); i++) {
-				embeddings.add(response.getResults().get(i).getOutput());
+				embeddings[positions.claim(subBatch.get(i))] = response.getResults().get(i).getOutput();
 			}
 		}
-		Assert.isTrue(embeddings.size() == documents.size(),
-				"Embeddings must have the same number as that of the documents");
-		return embeddings;
+		Assert.isTrue(positions.isComplete(), "Embeddings must have the same number as that of the documents");
+		return new ArrayList<>(Arrays.asList(embeddings));
 	}
 
 	/**
@@ -17,9 +17,8 @@
 package org.springframework.ai.embedding;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import com.knuddels.jtokkit.api.EncodingType;
 
@@ -44,7 +43,12 @@ import org.springframework.util.Assert;
  * token count of 8191, the actual max input token count used will be 7371.
  *
  * The strategy batches documents based on their token counts, ensuring that each batch
- * does not exceed the calculated max input token count.
+ * does not exceed the calculated max input token count. Each document is formatted and
+ * counted exactly once per call. By default, batches are filled sequentially in input
+ * order. With {@link Packing#FIRST_FIT_DECREASING}, documents are packed largest first
+ * into the first batch with enough room left, which usually needs fewer batches, and
+ * therefore fewer provider calls, for documents of mixed sizes. Documents keep their
+ * input order within a batch.
  *
  * @author Soby Chacko
  * @author Mark Pollack
@@ -73,6 +77,8 @@ public class TokenCountBatchingStrategy implements BatchingStrategy {
 
 	private final MetadataMode metadataMode;
 
+	private final Packing packing;
+
 	public TokenCountBatchingStrategy() {
 		this(EncodingType.CL100K_BASE, MAX_INPUT_TOKEN_COUNT, DEFAULT_TOKEN_COUNT_RESERVE_PERCENTAGE);
 	}
@@ -109,6 +115,7 @@ public class TokenCountBatchingStrategy implements BatchingStrategy {
 		this.maxInputTokenCount = (int) Math.round(maxInputTokenCount * (1 - reservePercentage));
 		this.contentFormatter = contentFormatter;
 		this.metadataMode = metadataMode;
+		this.packing = Packing.SEQUENTIAL;
 	}
 
 	/**
@@ -123,45 +130,64 @@ public class TokenCountBatchingStrategy implements BatchingStrategy {
 	 */
 	public TokenCountBatchingStrategy(TokenCountEstimator tokenCountEstimator, int maxInputTokenCount,
 			double reservePercentage, ContentFormatter contentFormatter, MetadataMode metadataMode) {
+		this(tokenCountEstimator, maxInputTokenCount, reservePercentage, contentFormatter, metadataMode,
+				Packing.SEQUENTIAL);
+	}
+
+	/**
+	 * Constructs a TokenCountBatchingStrategy with the specified parameters.
+	 * @param tokenCountEstimator the TokenCountEstimator to be used for estimating token
+	 * counts.
+	 * @param maxInputTokenCount the initial upper limit for input tokens.
+	 * @param reservePercentage the percentage of tokens to reserve from the max input
+	 * token count to create a buffer.
+	 * @param contentFormatter the ContentFormatter to be used for formatting content.
+	 * @param metadataMode the MetadataMode to be used for handling metadata.
+	 * @param packing the way documents are distributed over the batches.
+	 */
+	public TokenCountBatchingStrategy(TokenCountEstimator tokenCountEstimator, int maxInputTokenCount,
+			double reservePercentage, ContentFormatter contentFormatter, MetadataMode metadataMode, Packing packing) {
 		Assert.notNull(tokenCountEstimator, "TokenCountEstimator must not be null");
 		Assert.isTrue(maxInputTokenCount > 0, "MaxInputTokenCount must be greater than 0");
 		Assert.isTrue(reservePercentage >= 0 && reservePercentage < 1, "ReservePercentage must be in range [0, 1)");
 		Assert.notNull(contentFormatter, "ContentFormatter must not be null");
 		Assert.notNull(metadataMode, "MetadataMode must not be null");
+		Assert.notNull(packing, "Packing must not be null");
 		this.tokenCountEstimator = tokenCountEstimator;
 		this.maxInputTokenCount = (int) Math.round(maxInputTokenCount * (1 - reservePercentage));
 		this.contentFormatter = contentFormatter;
 		this.metadataMode = metadataMode;
+		this.packing = packing;
 	}
 
 	@Override
 	public List<List<Document>> batch(List<Document> documents) {
-		List<List<Document>> batches = new ArrayList<>();
-		int currentSize = 0;
-		List<Document> currentBatch = new ArrayList<>();
-		// Make sure the documentTokens' entry order is preserved by making it a
-		// LinkedHashMap.
-		Map<Document, Integer> documentTokens = new LinkedHashMap<>();
-
-		for (Document document : documents) {
+		int[] tokenCounts = new int[documents.size()];
+		for (int i = 0; i < tokenCounts.length; i++) {
 			int tokenCount = this.tokenCountEstimator
-				.estimate(document.getFormattedContent(this.contentFormatter, this.metadataMode));
+				.estimate(documents.get(i).getFormattedContent(this.contentFormatter, this.metadataMode));
 			if (tokenCount > this.maxInputTokenCount) {
 				throw new IllegalArgumentException(
 						"Tokens in a single document exceeds the maximum number of allowed input tokens");
 			}
-			documentTokens.put(document, tokenCount);
+			tokenCounts[i] = tokenCount;
 		}
+		return (this.packing == Packing.FIRST_FIT_DECREASING) ? firstFitDecreasing(documents, tokenCounts)
+				: sequential(documents, tokenCounts);
+	}
 
-		for (Document document : documentTokens.keySet()) {
-			Integer tokenCount = documentTokens.get(document);
-			if (currentSize + tokenCount > this.maxInputTokenCount) {
+	private List<List<Document>> sequential(List<Document> documents, int[] tokenCounts) {
+		List<List<Document>> batches = new ArrayList<>();
+		int currentSize = 0;
+		List<Document> currentBatch = new ArrayList<>();
+		for (int i = 0; i < tokenCounts.length; i++) {
+			if (currentSize + tokenCounts[i] > this.maxInputTokenCount) {
 				batches.add(currentBatch);
 				currentBatch = new ArrayList<>();
 				currentSize = 0;
 			}
-			currentBatch.add(document);
-			currentSize += tokenCount;
+			currentBatch.add(documents.get(i));
+			currentSize += tokenCounts[i];
 		}
 		if (!currentBatch.isEmpty()) {
 			batches.add(currentBatch);
@@ -169,4 +195,70 @@ public class TokenCountBatchingStrategy implements BatchingStrategy {
 		return batches;
 	}
 
+	private List<List<Document>> firstFitDecreasing(List<Document> documents, int[] tokenCounts) {
+		int count = tokenCounts.length;
+		if (count == 0) {
+			return new ArrayList<>();
+		}
+
+		// Sort by decreasing token count, ties by input index, packing the count and the
+		// index into a single long to avoid boxing.
+		long[] order = new long[count];
+		for (int i = 0; i < count; i++) {
+			order[i] = ((long) (this.maxInputTokenCount - tokenCounts[i]) << 32) | i;
+		}
+		Arrays.sort(order);
+
+		// Max segment tree over the remaining capacity of every potential batch, so the
+		// first batch with enough room is found in O(log n). There are never more batches
+		// than documents, and unopened batches simply have their full capacity left.
+		int leaves = Integer.highestOneBit(Math.max(1, count - 1)) << 1;
+		int[] remaining = new int[2 * leaves];
+		Arrays.fill(remaining, this.maxInputTokenCount);
+		int[] batchOf = new int[count];
+		int batchCount = 0;
+		for (long entry : order) {
+			int index = (int) entry;
+			int node = 1;
+			while (node < leaves) {
+				node = (remaining[2 * node] >= tokenCounts[index]) ? 2 * node : 2 * node + 1;
+			}
+			batchOf[index] = node - leaves;
+			batchCount = Math.max(batchCount, node - leaves + 1);
+			remaining[node] -= tokenCounts[index];
+			for (node >>= 1; node > 0; node >>= 1) {
+				remaining[node] = Math.max(remaining[2 * node], remaining[2 * node + 1]);
+			}
+		}
+
+		// Fill the batches in input order so documents keep their relative order.
+		List<List<Document>> batches = new ArrayList<>(batchCount);
+		for (int i = 0; i < batchCount; i++) {
+			batches.add(new ArrayList<>());
+		}
+		for (int i = 0; i < count; i++) {
+			batches.get(batchOf[i]).add(documents.get(i));
+		}
+		return batches;
+	}
+
+	/**
+	 * The way documents are distributed over the batches.
+	 */
+	public enum Packing {
+
+		/**
+		 * Fill the batches one after the other, in input order.
+		 */
+		SEQUENTIAL,
+
+		/**
+		 * Place the documents, largest first, into the first batch with enough room left.
+		 * The documents of a batch are not contiguous in the input anymore, but keep
+		 * their relative input order.
+		 */
+		FIRST_FIT_DECREASING
+
+	}
+
 }
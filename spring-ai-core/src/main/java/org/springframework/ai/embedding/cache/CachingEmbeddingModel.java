@@ -0,0 +1,332 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.embedding.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.EmbeddingResponseMetadata;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link EmbeddingModel} decorator caching embeddings in an {@link EmbeddingCache}.
+ * Entries are content-addressed: the key is a SHA-256 hash of the cache namespace, all
+ * the request options and the embedded text.
+ *
+ * <p>
+ * Options left unset fall back to the defaults of the delegate model, which are not part
+ * of the key. The default namespace is therefore unique to the delegate instance, and
+ * caches {@link EmbeddingCache#isShared() shared} beyond it, such as the
+ * {@link FileSystemEmbeddingCache}, require an explicit namespace identifying the model
+ * and its default options.
+ *
+ * <p>
+ * Batch calls take part in the cache: only the texts missing from the cache are sent to
+ * the delegate, in a single request, and the cached embeddings are merged back in the
+ * order of the request. Single documents are keyed by their content formatted with
+ * {@link MetadataMode#EMBED}, matching what embedding models embed by default.
+ *
+ * <p>
+ * Every lookup is recorded as a {@code spring.ai.embedding.cache} observation with a
+ * {@code hit}, {@code miss} or {@code eviction} event per entry, which the default meter
+ * observation handler turns into counters.
+ *
+ * @since 1.0.0
+ */
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+	/**
+	 * Name of the cache lookup observations.
+	 */
+	public static final String OBSERVATION_NAME = "spring.ai.embedding.cache";
+
+	static final Observation.Event HIT = Observation.Event.of("hit");
+
+	static final Observation.Event MISS = Observation.Event.of("miss");
+
+	static final Observation.Event EVICTION = Observation.Event.of("eviction");
+
+	private static final EmbeddingOptions DEFAULT_OPTIONS = EmbeddingOptionsBuilder.builder().build();
+
+	/**
+	 * Identifiers of the delegate instances using the default namespace.
+	 */
+	private static final Map<EmbeddingModel, String> DELEGATE_IDS = new WeakHashMap<>();
+
+	private static final AtomicLong DELEGATE_ID_SEQUENCE = new AtomicLong();
+
+	private final EmbeddingModel delegate;
+
+	private final EmbeddingCache cache;
+
+	private final String namespace;
+
+	private final ObservationRegistry observationRegistry;
+
+	protected CachingEmbeddingModel(Builder builder) {
+		this.delegate = builder.delegate;
+		this.cache = builder.cache;
+		this.namespace = (builder.namespace != null) ? builder.namespace : defaultNamespace(builder.delegate);
+		this.observationRegistry = builder.observationRegistry;
+	}
+
+	public static Builder builder(EmbeddingModel delegate, EmbeddingCache cache) {
+		return new Builder(delegate, cache);
+	}
+
+	private static String defaultNamespace(EmbeddingModel delegate) {
+		synchronized (DELEGATE_IDS) {
+			return DELEGATE_IDS.computeIfAbsent(delegate,
+					model -> model.getClass().getName() + '#' + DELEGATE_ID_SEQUENCE.incrementAndGet());
+		}
+	}
+
+	@Override
+	public EmbeddingResponse call(EmbeddingRequest request) {
+		EmbeddingOptions options = (request.getOptions() != null) ? request.getOptions() : DEFAULT_OPTIONS;
+		Lookup lookup = lookup(request.getInstructions(), options);
+		EmbeddingResponseMetadata metadata = new EmbeddingResponseMetadata();
+		if (!lookup.misses.isEmpty()) {
+			List<String> texts = lookup.misses.stream().map(request.getInstructions()::get).toList();
+			EmbeddingResponse response = lookup.complete(
+					() -> this.delegate.call(new EmbeddingRequest(texts, request.getOptions())),
+					r -> r.getResults().stream().map(Embedding::getOutput).toList());
+			metadata = response.getMetadata();
+		}
+		List<Embedding> embeddings = new ArrayList<>(lookup.embeddings.length);
+		for (int i = 0; i < lookup.embeddings.length; i++) {
+			embeddings.add(new Embedding(lookup.embeddings[i], i));
+		}
+		return new EmbeddingResponse(embeddings, metadata);
+	}
+
+	@Override
+	public float[] embed(Document document) {
+		Assert.notNull(document, "Document must not be null");
+		Lookup lookup = lookup(List.of(document.getFormattedContent(MetadataMode.EMBED)), DEFAULT_OPTIONS);
+		if (!lookup.misses.isEmpty()) {
+			lookup.complete(() -> List.of(this.delegate.embed(document)), Function.identity());
+		}
+		return lookup.embeddings[0];
+	}
+
+	@Override
+	public List<float[]> embed(List<Document> documents, EmbeddingOptions options, BatchingStrategy batchingStrategy) {
+		Assert.notNull(documents, "Documents must not be null");
+		Lookup lookup = lookup(documents.stream().map(Document::getText).toList(), options);
+		if (!lookup.misses.isEmpty()) {
+			List<Document> missing = lookup.misses.stream().map(documents::get).toList();
+			lookup.complete(() -> this.delegate.embed(missing, options, batchingStrategy), Function.identity());
+		}
+		return List.of(lookup.embeddings);
+	}
+
+	@Override
+	public int dimensions() {
+		return this.delegate.dimensions();
+	}
+
+	private Lookup lookup(List<String> texts, EmbeddingOptions options) {
+		Observation observation = Observation.createNotStarted(OBSERVATION_NAME, this.observationRegistry)
+			.lowCardinalityKeyValue("spring.ai.embedding.cache.type", this.cache.getClass().getSimpleName())
+			.start();
+		try {
+			String prefix = this.namespace + '\u0000' + options.getClass().getName() + '\u0000'
+					+ ModelOptionsUtils.toJsonString(options) + '\u0000';
+			Lookup lookup = new Lookup(texts.size(), observation);
+			Map<String, Integer> missingKeys = new HashMap<>();
+			for (int i = 0; i < texts.size(); i++) {
+				String key = key(prefix, texts.get(i));
+				lookup.keys[i] = key;
+				Integer duplicateOf = missingKeys.get(key);
+				float[] embedding = (duplicateOf == null) ? this.cache.get(key) : null;
+				if (embedding != null) {
+					lookup.embeddings[i] = embedding;
+					observation.event(HIT);
+				}
+				else if (duplicateOf != null) {
+					lookup.duplicateOf[i] = duplicateOf;
+					observation.event(HIT);
+				}
+				else {
+					missingKeys.put(key, i);
+					lookup.misses.add(i);
+					observation.event(MISS);
+				}
+			}
+			if (lookup.misses.isEmpty()) {
+				observation.stop();
+			}
+			return lookup;
+		}
+		catch (RuntimeException ex) {
+			observation.error(ex);
+			observation.stop();
+			throw ex;
+		}
+	}
+
+	private static String key(String prefix, @Nullable String text) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(prefix.getBytes(StandardCharsets.UTF_8));
+			digest.update(Objects.toString(text, "").getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest.digest());
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Result of a cache lookup, completed with the embeddings of the misses. Texts
+	 * repeated within a lookup are only embedded once. The observation stays open until
+	 * the misses are embedded, so that the evictions caused by caching them are recorded
+	 * with it.
+	 */
+	private final class Lookup {
+
+		final String[] keys;
+
+		final float[][] embeddings;
+
+		final int[] duplicateOf;
+
+		final List<Integer> misses = new ArrayList<>();
+
+		final Observation observation;
+
+		Lookup(int size, Observation observation) {
+			this.keys = new String[size];
+			this.embeddings = new float[size][];
+			this.duplicateOf = new int[size];
+			Arrays.fill(this.duplicateOf, -1);
+			this.observation = observation;
+		}
+
+		<T> T complete(Supplier<T> call, Function<T, List<float[]>> extractor) {
+			try {
+				T result = call.get();
+				List<float[]> missingEmbeddings = extractor.apply(result);
+				Assert.isTrue(missingEmbeddings.size() == this.misses.size(),
+						"Embeddings must have the same number as that of the missing texts");
+				for (int i = 0; i < this.misses.size(); i++) {
+					int index = this.misses.get(i);
+					this.embeddings[index] = missingEmbeddings.get(i);
+					int evicted = CachingEmbeddingModel.this.cache.put(this.keys[index], missingEmbeddings.get(i));
+					for (int e = 0; e < evicted; e++) {
+						this.observation.event(EVICTION);
+					}
+				}
+				for (int i = 0; i < this.duplicateOf.length; i++) {
+					if (this.duplicateOf[i] >= 0) {
+						this.embeddings[i] = this.embeddings[this.duplicateOf[i]].clone();
+					}
+				}
+				return result;
+			}
+			catch (RuntimeException ex) {
+				this.observation.error(ex);
+				throw ex;
+			}
+			finally {
+				this.observation.stop();
+			}
+		}
+
+	}
+
+	public static final class Builder {
+
+		private final EmbeddingModel delegate;
+
+		private final EmbeddingCache cache;
+
+		@Nullable
+		private String namespace;
+
+		private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+		private Builder(EmbeddingModel delegate, EmbeddingCache cache) {
+			Assert.notNull(delegate, "Delegate EmbeddingModel must not be null");
+			Assert.notNull(cache, "EmbeddingCache must not be null");
+			this.delegate = delegate;
+			this.cache = cache;
+		}
+
+		/**
+		 * Sets the namespace of the cache keys, which separates the entries of models
+		 * sharing a cache. It should identify the delegate model along with its default
+		 * options, such as its default model name. Defaults to a namespace unique to the
+		 * delegate instance, and is required with an {@link EmbeddingCache#isShared()
+		 * shared} cache.
+		 * @param namespace the namespace
+		 * @return the builder instance
+		 */
+		public Builder namespace(String namespace) {
+			Assert.hasText(namespace, "Namespace must not be empty");
+			this.namespace = namespace;
+			return this;
+		}
+
+		/**
+		 * Sets the registry recording the cache lookup observations.
+		 * @param observationRegistry the observation registry
+		 * @return the builder instance
+		 */
+		public Builder observationRegistry(ObservationRegistry observationRegistry) {
+			Assert.notNull(observationRegistry, "ObservationRegistry must not be null");
+			this.observationRegistry = observationRegistry;
+			return this;
+		}
+
+		public CachingEmbeddingModel build() {
+			Assert.isTrue(this.namespace != null || !this.cache.isShared(),
+					() -> "A namespace identifying the model and its default options is required with the shared "
+							+ this.cache.getClass().getSimpleName());
+			return new CachingEmbeddingModel(this);
+		}
+
+	}
+
+}
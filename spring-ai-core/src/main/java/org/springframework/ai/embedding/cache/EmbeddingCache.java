@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.embedding.cache;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Storage backend of the {@link CachingEmbeddingModel}. Entries are addressed by an
+ * opaque key derived from the embedding model, its options and the embedded text. The
+ * implementations must be safe for concurrent use.
+ *
+ * @since 1.0.0
+ * @see InMemoryEmbeddingCache
+ * @see FileSystemEmbeddingCache
+ */
+public interface EmbeddingCache {
+
+	/**
+	 * Return the embedding cached under the given key.
+	 * @param key the cache key
+	 * @return the cached embedding, or null if the key is not cached
+	 */
+	@Nullable
+	float[] get(String key);
+
+	/**
+	 * Cache the given embedding under the given key, replacing any existing entry.
+	 * @param key the cache key
+	 * @param embedding the embedding to cache
+	 * @return the number of entries evicted to make room for the new entry
+	 */
+	int put(String key, float[] embedding);
+
+	/**
+	 * Remove all cached embeddings.
+	 */
+	void clear();
+
+	/**
+	 * Tell whether the entries are visible beyond this instance, for instance because
+	 * they survive restarts. The {@link CachingEmbeddingModel} requires an explicit
+	 * namespace with shared caches, as the default options of a model may change between
+	 * the processes using the cache.
+	 * @return true if the cache is shared, false by default
+	 */
+	default boolean isShared() {
+		return false;
+	}
+
+}
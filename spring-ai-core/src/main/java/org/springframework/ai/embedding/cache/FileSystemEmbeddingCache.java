@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.embedding.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Disk-backed {@link EmbeddingCache} storing every embedding as a little-endian float
+ * file below a root directory, sharded by the first two characters of the key. Entries
+ * survive restarts and are never evicted. Writes go through a temporary file that is
+ * atomically moved into place, so concurrent readers never see partial entries.
+ *
+ * <p>
+ * Keys must be valid file names, which holds for the hexadecimal keys computed by the
+ * {@link CachingEmbeddingModel}.
+ *
+ * @since 1.0.0
+ */
+public class FileSystemEmbeddingCache implements EmbeddingCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(FileSystemEmbeddingCache.class);
+
+	private static final String EXTENSION = ".emb";
+
+	private final Path directory;
+
+	/**
+	 * Create a new cache.
+	 * @param directory the root directory of the cache, created if needed
+	 */
+	public FileSystemEmbeddingCache(Path directory) {
+		Assert.notNull(directory, "Directory must not be null");
+		this.directory = directory;
+		try {
+			Files.createDirectories(directory);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to create embedding cache directory " + directory, ex);
+		}
+	}
+
+	@Override
+	@Nullable
+	public float[] get(String key) {
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path(key))).order(ByteOrder.LITTLE_ENDIAN);
+			float[] embedding = new float[buffer.remaining() / Float.BYTES];
+			buffer.asFloatBuffer().get(embedding);
+			return embedding;
+		}
+		catch (NoSuchFileException ex) {
+			return null;
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to read cached embedding {}", key, ex);
+			return null;
+		}
+	}
+
+	@Override
+	public int put(String key, float[] embedding) {
+		Path path = path(key);
+		ByteBuffer buffer = ByteBuffer.allocate(embedding.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.asFloatBuffer().put(embedding);
+		try {
+			Files.createDirectories(path.getParent());
+			Path temp = Files.createTempFile(path.getParent(), key, ".tmp");
+			try {
+				Files.write(temp, buffer.array());
+				try {
+					Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+				catch (AtomicMoveNotSupportedException ex) {
+					Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+			finally {
+				Files.deleteIfExists(temp);
+			}
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to write cached embedding {}", key, ex);
+		}
+		return 0;
+	}
+
+	@Override
+	public void clear() {
+		try (Stream<Path> shards = Files.list(this.directory)) {
+			for (Path shard : shards.toList()) {
+				FileSystemUtils.deleteRecursively(shard);
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to clear embedding cache directory " + this.directory, ex);
+		}
+	}
+
+	@Override
+	public boolean isShared() {
+		return true;
+	}
+
+	private Path path(String key) {
+		Assert.hasText(key, "Key must not be empty");
+		String shard = (key.length() > 2) ? key.substring(0, 2) : "_";
+		return this.directory.resolve(shard).resolve(key + EXTENSION);
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.embedding.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * In-process {@link EmbeddingCache} bounded by the approximate number of bytes used by
+ * its entries. When the bound is exceeded, the least recently used entries are evicted.
+ *
+ * <p>
+ * The size of an entry accounts for the key characters, the embedding floats and a fixed
+ * per-entry overhead, so that the bound holds regardless of the embedding dimensions.
+ * Embeddings are copied when cached and when returned, so callers cannot alter the cached
+ * entries.
+ *
+ * @since 1.0.0
+ */
+public class InMemoryEmbeddingCache implements EmbeddingCache {
+
+	/**
+	 * Approximate overhead of an entry: map node, key string and embedding array headers.
+	 */
+	static final int ENTRY_OVERHEAD_BYTES = 96;
+
+	private final long maxSizeInBytes;
+
+	private final Lock lock = new ReentrantLock();
+
+	private final LinkedHashMap<String, float[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long sizeInBytes;
+
+	/**
+	 * Create a new cache.
+	 * @param maxSizeInBytes the maximum approximate size of the cached entries
+	 */
+	public InMemoryEmbeddingCache(long maxSizeInBytes) {
+		Assert.isTrue(maxSizeInBytes > 0, "MaxSizeInBytes must be positive");
+		this.maxSizeInBytes = maxSizeInBytes;
+	}
+
+	@Override
+	@Nullable
+	public float[] get(String key) {
+		this.lock.lock();
+		try {
+			float[] embedding = this.entries.get(key);
+			return (embedding != null) ? embedding.clone() : null;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public int put(String key, float[] embedding) {
+		long entrySize = sizeOf(key, embedding);
+		if (entrySize > this.maxSizeInBytes) {
+			return 0;
+		}
+		float[] copy = embedding.clone();
+		this.lock.lock();
+		try {
+			float[] previous = this.entries.put(key, copy);
+			if (previous != null) {
+				this.sizeInBytes -= sizeOf(key, previous);
+			}
+			this.sizeInBytes += entrySize;
+
+			int evicted = 0;
+			Iterator<Map.Entry<String, float[]>> iterator = this.entries.entrySet().iterator();
+			while (this.sizeInBytes > this.maxSizeInBytes && iterator.hasNext()) {
+				Map.Entry<String, float[]> eldest = iterator.next();
+				if (eldest.getKey().equals(key)) {
+					continue;
+				}
+				this.sizeInBytes -= sizeOf(eldest.getKey(), eldest.getValue());
+				iterator.remove();
+				evicted++;
+			}
+			return evicted;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		this.lock.lock();
+		try {
+			this.entries.clear();
+			this.sizeInBytes = 0;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the number of cached entries.
+	 * @return the number of entries
+	 */
+	public int size() {
+		this.lock.lock();
+		try {
+			return this.entries.size();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the approximate size of the cached entries.
+	 * @return the size in bytes
+	 */
+	public long sizeInBytes() {
+		this.lock.lock();
+		try {
+			return this.sizeInBytes;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	static long sizeOf(String key, float[] embedding) {
+		return ENTRY_OVERHEAD_BYTES + 2L * key.length() + (long) Float.BYTES * embedding.length;
+	}
+
+}
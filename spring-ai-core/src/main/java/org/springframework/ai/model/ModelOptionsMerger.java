@@ -0,0 +1,487 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.model;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
+import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonMerge;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Merges options objects property by property, with the semantics of a JSON round trip
+ * through {@link ModelOptionsUtils#OBJECT_MAPPER}, but without the serialization.
+ *
+ * <p>
+ * The JSON properties of every class are introspected once with Jackson and turned into
+ * method handles reading and writing them. Values are copied as they are when the source
+ * and target properties are declared with the same type, and converted with
+ * {@link ObjectMapper#convertValue(Object, JavaType)} otherwise, lists and maps being
+ * copied. Classes relying on Jackson features that change the JSON representation beyond
+ * plain properties, such as custom serializers, type information or any-setters, are not
+ * supported, and are left to the JSON round trip.
+ *
+ * @since 1.0.0
+ */
+final class ModelOptionsMerger {
+
+	private static final List<Class<? extends Annotation>> UNSUPPORTED_CLASS_ANNOTATIONS = List.of(JsonSerialize.class,
+			JsonDeserialize.class, JsonTypeInfo.class, JsonSubTypes.class, JsonIgnoreProperties.class,
+			JsonIncludeProperties.class, JsonIdentityInfo.class, JsonNaming.class, JsonFormat.class);
+
+	private static final List<Class<? extends Annotation>> UNSUPPORTED_MEMBER_ANNOTATIONS = List.of(JsonSerialize.class,
+			JsonDeserialize.class, JsonFormat.class, JsonRawValue.class, JsonUnwrapped.class, JsonTypeInfo.class,
+			JsonView.class, JsonMerge.class, JsonManagedReference.class, JsonBackReference.class,
+			JsonIdentityInfo.class, JsonAlias.class, JsonSetter.class, JsonAnyGetter.class, JsonAnySetter.class,
+			JsonValue.class);
+
+	private static final Map<Class<?>, Optional<PropertyReaders>> READERS = new ConcurrentHashMap<>();
+
+	private static final Map<Class<?>, Optional<PropertyWriters>> WRITERS = new ConcurrentHashMap<>();
+
+	private final ObjectMapper objectMapper;
+
+	ModelOptionsMerger(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Tell whether the given objects can be merged into the given class.
+	 * @param source the source object, possibly null
+	 * @param target the target object, possibly null
+	 * @param clazz the class of the merged object
+	 * @return true if {@link #merge} supports the given types
+	 */
+	boolean supports(@Nullable Object source, @Nullable Object target, Class<?> clazz) {
+		return (source == null || readers(source.getClass()) != null)
+				&& (target == null || readers(target.getClass()) != null) && writers(clazz) != null;
+	}
+
+	/**
+	 * Merge the non-null properties of the source into the non-null properties of the
+	 * target, keeping only the accepted properties, into a new instance of the given
+	 * class. Only call after {@link #supports} returned true for the same types.
+	 * @param source the source object, possibly null
+	 * @param target the target object, possibly null
+	 * @param clazz the class of the merged object
+	 * @param acceptedFieldNames the JSON names of the properties to merge
+	 * @return the merged object
+	 */
+	<T> T merge(@Nullable Object source, @Nullable Object target, Class<T> clazz, List<String> acceptedFieldNames) {
+		PropertyReaders sourceReaders = (source != null) ? readers(source.getClass()) : null;
+		PropertyReaders targetReaders = (target != null) ? readers(target.getClass()) : null;
+		PropertyWriters writers = writers(clazz);
+		boolean[] accepted = writers.accepted(acceptedFieldNames);
+		Object[] values = new Object[writers.properties.length];
+		for (int i = 0; i < values.length; i++) {
+			WritableProperty property = writers.properties[i];
+			if (!accepted[i]) {
+				continue;
+			}
+			Object value = (sourceReaders != null) ? read(sourceReaders, source, property) : null;
+			if (value == null && targetReaders != null) {
+				value = read(targetReaders, target, property);
+			}
+			values[i] = value;
+		}
+		return clazz.cast(writers.create(values));
+	}
+
+	@Nullable
+	private Object read(PropertyReaders readers, Object bean, WritableProperty property) {
+		ReadableProperty readable = readers.properties.get(property.name());
+		if (readable == null) {
+			return null;
+		}
+		Object value = invoke(readable.getter(), bean);
+		if (value == null || !readable.included(value)) {
+			return null;
+		}
+		if (readable.type().equals(property.type())) {
+			return copyContainer(value, property.type());
+		}
+		return this.objectMapper.convertValue(value, property.type());
+	}
+
+	/**
+	 * Copy lists and maps, which the JSON round trip would not share between the source
+	 * and the merged object. Their elements, like any other value, are shared.
+	 */
+	private Object copyContainer(Object value, JavaType type) {
+		if (value instanceof List<?> list && type.getRawClass().isAssignableFrom(ArrayList.class)) {
+			return new ArrayList<>(list);
+		}
+		if (value instanceof Map<?, ?> map && type.getRawClass().isAssignableFrom(LinkedHashMap.class)) {
+			return new LinkedHashMap<>(map);
+		}
+		if (value instanceof Collection<?> || value instanceof Map<?, ?>) {
+			return this.objectMapper.convertValue(value, type);
+		}
+		return value;
+	}
+
+	@Nullable
+	private PropertyReaders readers(Class<?> type) {
+		return READERS.computeIfAbsent(type, key -> Optional.ofNullable(introspectReaders(key))).orElse(null);
+	}
+
+	@Nullable
+	private PropertyWriters writers(Class<?> type) {
+		return WRITERS.computeIfAbsent(type, key -> Optional.ofNullable(introspectWriters(key))).orElse(null);
+	}
+
+	@Nullable
+	private PropertyReaders introspectReaders(Class<?> type) {
+		if (Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type) || type.isArray()
+				|| hasAnyAnnotation(type, UNSUPPORTED_CLASS_ANNOTATIONS)) {
+			return null;
+		}
+		try {
+			SerializationConfig config = this.objectMapper.getSerializationConfig();
+			BeanDescription description = config.introspect(this.objectMapper.constructType(type));
+			if (description.findAnyGetter() != null || description.findJsonValueAccessor() != null) {
+				return null;
+			}
+			JsonInclude.Value classInclusion = description.findPropertyInclusion(config.getDefaultPropertyInclusion());
+			Map<String, ReadableProperty> properties = new HashMap<>();
+			for (BeanPropertyDefinition definition : description.findProperties()) {
+				AnnotatedMember accessor = definition.getAccessor();
+				if (!definition.couldSerialize() || accessor == null) {
+					continue;
+				}
+				if (hasAnyAnnotation(definition, UNSUPPORTED_MEMBER_ANNOTATIONS)) {
+					return null;
+				}
+				JsonInclude.Include inclusion = classInclusion.withOverrides(definition.findInclusion())
+					.getValueInclusion();
+				if (inclusion == JsonInclude.Include.NON_DEFAULT || inclusion == JsonInclude.Include.CUSTOM) {
+					return null;
+				}
+				properties.put(definition.getName(),
+						new ReadableProperty(accessor.getType(), getter(accessor.getMember()), inclusion));
+			}
+			return new PropertyReaders(properties);
+		}
+		catch (ReflectiveOperationException | RuntimeException ex) {
+			return null;
+		}
+	}
+
+	@Nullable
+	private PropertyWriters introspectWriters(Class<?> type) {
+		if (Modifier.isAbstract(type.getModifiers()) || type.isInterface() || Map.class.isAssignableFrom(type)
+				|| Collection.class.isAssignableFrom(type) || type.isArray()
+				|| hasAnyAnnotation(type, UNSUPPORTED_CLASS_ANNOTATIONS)) {
+			return null;
+		}
+		try {
+			for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+				if (constructor.isAnnotationPresent(JsonCreator.class)) {
+					return null;
+				}
+			}
+			for (Method method : type.getDeclaredMethods()) {
+				if (method.isAnnotationPresent(JsonCreator.class)) {
+					return null;
+				}
+			}
+			return type.isRecord() ? introspectRecordWriters(type) : introspectBeanWriters(type);
+		}
+		catch (ReflectiveOperationException | RuntimeException ex) {
+			return null;
+		}
+	}
+
+	@Nullable
+	private PropertyWriters introspectRecordWriters(Class<?> type) throws ReflectiveOperationException {
+		RecordComponent[] components = type.getRecordComponents();
+		Class<?>[] parameterTypes = new Class<?>[components.length];
+		WritableProperty[] properties = new WritableProperty[components.length];
+		Object[] defaults = new Object[components.length];
+		for (int i = 0; i < components.length; i++) {
+			RecordComponent component = components[i];
+			Field field = type.getDeclaredField(component.getName());
+			if (field.isAnnotationPresent(JsonIgnore.class) || hasAnyAnnotation(field, UNSUPPORTED_MEMBER_ANNOTATIONS)
+					|| hasAnyAnnotation(component.getAccessor(), UNSUPPORTED_MEMBER_ANNOTATIONS)) {
+				return null;
+			}
+			JsonProperty jsonProperty = field.getAnnotation(JsonProperty.class);
+			String name = (jsonProperty != null && !jsonProperty.value().isEmpty()) ? jsonProperty.value()
+					: component.getName();
+			parameterTypes[i] = component.getType();
+			properties[i] = new WritableProperty(name, this.objectMapper.constructType(component.getGenericType()),
+					null);
+			defaults[i] = component.getType().isPrimitive() ? Array.get(Array.newInstance(component.getType(), 1), 0)
+					: null;
+		}
+		Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+		MethodHandle factory = lookup(constructor).unreflectConstructor(constructor)
+			.asSpreader(Object[].class, components.length)
+			.asType(MethodType.methodType(Object.class, Object[].class));
+		return new PropertyWriters(properties, null, factory, defaults);
+	}
+
+	@Nullable
+	private PropertyWriters introspectBeanWriters(Class<?> type) throws ReflectiveOperationException {
+		Constructor<?> constructor = type.getDeclaredConstructor();
+		BeanDescription description = this.objectMapper.getDeserializationConfig()
+			.introspect(this.objectMapper.constructType(type));
+		if (description.findAnySetterAccessor() != null) {
+			return null;
+		}
+		List<BeanPropertyDefinition> definitions = description.findProperties()
+			.stream()
+			.filter(BeanPropertyDefinition::couldDeserialize)
+			.toList();
+		WritableProperty[] properties = new WritableProperty[definitions.size()];
+		for (int i = 0; i < properties.length; i++) {
+			BeanPropertyDefinition definition = definitions.get(i);
+			if (definition.getConstructorParameter() != null
+					|| hasAnyAnnotation(definition, UNSUPPORTED_MEMBER_ANNOTATIONS)) {
+				return null;
+			}
+			AnnotatedMember mutator = (definition.getSetter() != null) ? definition.getSetter() : definition.getField();
+			if (mutator == null) {
+				return null;
+			}
+			JavaType propertyType = (definition.getSetter() != null) ? definition.getSetter().getParameterType(0)
+					: mutator.getType();
+			properties[i] = new WritableProperty(definition.getName(), propertyType, setter(mutator.getMember()));
+		}
+		MethodHandle factory = lookup(constructor).unreflectConstructor(constructor)
+			.asType(MethodType.methodType(Object.class));
+		return new PropertyWriters(properties, factory, null, null);
+	}
+
+	private static MethodHandle getter(Member member) throws IllegalAccessException {
+		MethodHandle handle = (member instanceof Method method) ? lookup(method).unreflect(method)
+				: lookup((Field) member).unreflectGetter((Field) member);
+		return handle.asType(MethodType.methodType(Object.class, Object.class));
+	}
+
+	private static MethodHandle setter(Member member) throws IllegalAccessException {
+		MethodHandle handle = (member instanceof Method method) ? lookup(method).unreflect(method)
+				: lookup((Field) member).unreflectSetter((Field) member);
+		return handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+	}
+
+	private static MethodHandles.Lookup lookup(AccessibleObject member) {
+		member.setAccessible(true);
+		return MethodHandles.lookup();
+	}
+
+	private static boolean hasAnyAnnotation(BeanPropertyDefinition definition,
+			List<Class<? extends Annotation>> annotations) {
+		for (AnnotatedMember member : Arrays.asList(definition.getAccessor(), definition.getMutator(),
+				definition.getField(), definition.getGetter(), definition.getSetter())) {
+			if (member != null) {
+				for (Class<? extends Annotation> annotation : annotations) {
+					if (member.hasAnnotation(annotation)) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean hasAnyAnnotation(java.lang.reflect.AnnotatedElement element,
+			List<Class<? extends Annotation>> annotations) {
+		for (Class<? extends Annotation> annotation : annotations) {
+			if (element.isAnnotationPresent(annotation)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Object invoke(MethodHandle getter, Object bean) {
+		try {
+			return (Object) getter.invokeExact(bean);
+		}
+		catch (RuntimeException | Error ex) {
+			throw ex;
+		}
+		catch (Throwable ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private record ReadableProperty(JavaType type, MethodHandle getter, JsonInclude.Include inclusion) {
+
+		boolean included(Object value) {
+			return switch (this.inclusion) {
+				case NON_ABSENT -> !(value instanceof Optional<?> optional) || optional.isPresent();
+				case NON_EMPTY -> !isEmpty(value);
+				default -> true;
+			};
+		}
+
+		private static boolean isEmpty(Object value) {
+			if (value instanceof Optional<?> optional) {
+				return optional.isEmpty();
+			}
+			if (value instanceof CharSequence text) {
+				return text.isEmpty();
+			}
+			if (value instanceof Collection<?> collection) {
+				return collection.isEmpty();
+			}
+			if (value instanceof Map<?, ?> map) {
+				return map.isEmpty();
+			}
+			return value.getClass().isArray() && Array.getLength(value) == 0;
+		}
+
+	}
+
+	private record PropertyReaders(Map<String, ReadableProperty> properties) {
+
+	}
+
+	private record AcceptedProperties(List<String> names, boolean[] mask) {
+
+	}
+
+	private record WritableProperty(String name, JavaType type, @Nullable MethodHandle setter) {
+
+	}
+
+	/**
+	 * Creates instances of a class from property values, either through the canonical
+	 * constructor of a record, or through the default constructor and the setters of a
+	 * bean.
+	 */
+	private static final class PropertyWriters {
+
+		private final WritableProperty[] properties;
+
+		@Nullable
+		private final MethodHandle beanFactory;
+
+		@Nullable
+		private final MethodHandle recordFactory;
+
+		@Nullable
+		private final Object[] recordDefaults;
+
+		/**
+		 * The properties accepted for the last list of names, which callers usually pass
+		 * as the same instance for every merge.
+		 */
+		@Nullable
+		private volatile AcceptedProperties lastAccepted;
+
+		PropertyWriters(WritableProperty[] properties, @Nullable MethodHandle beanFactory,
+				@Nullable MethodHandle recordFactory, @Nullable Object[] recordDefaults) {
+			this.properties = properties;
+			this.beanFactory = beanFactory;
+			this.recordFactory = recordFactory;
+			this.recordDefaults = recordDefaults;
+		}
+
+		boolean[] accepted(List<String> names) {
+			AcceptedProperties accepted = this.lastAccepted;
+			if (accepted == null || accepted.names() != names) {
+				boolean[] mask = new boolean[this.properties.length];
+				for (int i = 0; i < mask.length; i++) {
+					mask[i] = names.contains(this.properties[i].name());
+				}
+				accepted = new AcceptedProperties(names, mask);
+				this.lastAccepted = accepted;
+			}
+			return accepted.mask();
+		}
+
+		Object create(Object[] values) {
+			try {
+				if (this.recordFactory != null) {
+					for (int i = 0; i < values.length; i++) {
+						if (values[i] == null) {
+							values[i] = this.recordDefaults[i];
+						}
+					}
+					return (Object) this.recordFactory.invokeExact(values);
+				}
+				Object bean = (Object) this.beanFactory.invokeExact();
+				for (int i = 0; i < values.length; i++) {
+					if (values[i] != null) {
+						this.properties[i].setter().invokeExact(bean, values[i]);
+					}
+				}
+				return bean;
+			}
+			catch (RuntimeException | Error ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+	}
+
+}
@@ -71,6 +71,8 @@ public abstract class ModelOptionsUtils {
 		.addModules(JacksonUtils.instantiateAvailableModules())
 		.build();
 
+	private static final ModelOptionsMerger OPTIONS_MERGER = new ModelOptionsMerger(OBJECT_MAPPER);
+
 	private static final List<String> BEAN_MERGE_FIELD_EXCISIONS = List.of("class");
 
 	private static final ConcurrentHashMap<Class<?>, List<String>> REQUEST_FIELD_NAMES_PER_CLASS = new ConcurrentHashMap<Class<?>, List<String>>();
@@ -155,10 +157,6 @@ public abstract class ModelOptionsUtils {
 	 */
 	public static <T> T merge(Object source, Object target, Class<T> clazz, List<String> acceptedFieldNames) {
 
-		if (source == null) {
-			source = Map.of();
-		}
-
 		List<String> requestFieldNames = CollectionUtils.isEmpty(acceptedFieldNames)
 				? REQUEST_FIELD_NAMES_PER_CLASS.computeIfAbsent(clazz, ModelOptionsUtils::getJsonPropertyValues)
 				: acceptedFieldNames;
@@ -167,6 +165,14 @@ public abstract class ModelOptionsUtils {
 			throw new IllegalArgumentException("No @JsonProperty fields found in the " + clazz.getName());
 		}
 
+		if (OPTIONS_MERGER.supports(source, target, clazz)) {
+			return OPTIONS_MERGER.merge(source, target, clazz, requestFieldNames);
+		}
+
+		if (source == null) {
+			source = Map.of();
+		}
+
 		Map<String, Object> sourceMap = ModelOptionsUtils.objectToMap(source);
 		Map<String, Object> targetMap = ModelOptionsUtils.objectToMap(target);
 
@@ -16,16 +16,26 @@
 
 package org.springframework.ai.model.function;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.module.jsonSchema.JsonSchema;
 import com.fasterxml.jackson.module.jsonSchema.JsonSchemaGenerator;
@@ -34,6 +44,7 @@ import org.slf4j.LoggerFactory;
 
 import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
@@ -48,6 +59,10 @@ import org.springframework.util.ReflectionUtils;
  * <li>Special handling for {@link ToolContext} parameters</li>
  * </ul>
  * Automatically infers the input parameters JSON schema from method's argument types.
+ * <p>
+ * The parameters are analyzed once, when the callback is created. On every call, the JSON
+ * arguments are bound to the parameters while streaming through the input, and the method
+ * is invoked through a {@link MethodHandle} when it is accessible.
  *
  * @author Christian Tzolov
  * @since 1.0.0
@@ -98,6 +113,23 @@ public class MethodInvokingFunctionCallback implements FunctionCallback {
 	 */
 	private final Function<Object, String> responseConverter;
 
+	/**
+	 * The method parameters, in declaration order.
+	 */
+	private final ParameterBinding[] parameters;
+
+	/**
+	 * The index of the parameters, by name.
+	 */
+	private final Map<String, Integer> parameterIndex;
+
+	/**
+	 * Invoker of the method, taking the arguments as an array and returning the result as
+	 * an object. Null if the method cannot be accessed through a method handle.
+	 */
+	@Nullable
+	private final MethodHandle methodHandle;
+
 	MethodInvokingFunctionCallback(Object functionObject, Method method, String description, ObjectMapper mapper,
 			String name, Function<Object, String> responseConverter) {
 
@@ -123,6 +155,31 @@ public class MethodInvokingFunctionCallback implements FunctionCallback {
 		this.inputSchema = this.generateJsonSchema(methodParameters);
 
 		logger.debug("Generated JSON Schema: {}", this.inputSchema);
+
+		Parameter[] methodParams = method.getParameters();
+		this.parameters = new ParameterBinding[methodParams.length];
+		this.parameterIndex = new HashMap<>();
+		for (int i = 0; i < methodParams.length; i++) {
+			this.parameters[i] = new ParameterBinding(methodParams[i], mapper);
+			this.parameterIndex.put(methodParams[i].getName(), i);
+		}
+		this.methodHandle = createMethodHandle(method, functionObject);
+	}
+
+	@Nullable
+	private static MethodHandle createMethodHandle(Method method, Object functionObject) {
+		MethodHandle handle;
+		try {
+			handle = MethodHandles.publicLookup().unreflect(method);
+		}
+		catch (IllegalAccessException ex) {
+			return null;
+		}
+		if (!Modifier.isStatic(method.getModifiers())) {
+			handle = handle.bindTo(functionObject);
+		}
+		return handle.asSpreader(Object[].class, method.getParameterCount())
+			.asType(MethodType.methodType(Object.class, Object[].class));
 	}
 
 	@Override
@@ -158,20 +215,9 @@ public class MethodInvokingFunctionCallback implements FunctionCallback {
 				throw new IllegalArgumentException("Configured method does not accept ToolContext as input parameter!");
 			}
 
-			@SuppressWarnings("unchecked")
-			Map<String, Object> map = this.mapper.readValue(functionInput, Map.class);
+			Object[] methodArgs = this.bindArguments(functionInput, toolContext);
 
-			// ReflectionUtils.findMethod
-			Object[] methodArgs = Stream.of(this.method.getParameters()).map(parameter -> {
-				Class<?> type = parameter.getType();
-				if (ClassUtils.isAssignable(type, ToolContext.class)) {
-					return toolContext;
-				}
-				Object rawValue = map.get(parameter.getName());
-				return this.toJavaType(rawValue, type);
-			}).toArray();
-
-			Object response = ReflectionUtils.invokeMethod(this.method, this.functionObject, methodArgs);
+			Object response = this.invoke(methodArgs);
 
 			var returnType = this.method.getReturnType();
 			if (returnType == Void.TYPE) {
@@ -190,6 +236,75 @@ public class MethodInvokingFunctionCallback implements FunctionCallback {
 		}
 	}
 
+	/**
+	 * Binds the JSON arguments to the method parameters, reading the input once.
+	 * Arguments not matching a parameter are skipped, and parameters without an argument
+	 * are bound to null.
+	 */
+	private Object[] bindArguments(String functionInput, ToolContext toolContext) throws Exception {
+		Object[] methodArgs = new Object[this.parameters.length];
+		try (JsonParser parser = this.mapper.createParser(functionInput)) {
+			JsonToken token = parser.nextToken();
+			if (token == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					Integer index = this.parameterIndex.get(parser.currentName());
+					parser.nextToken();
+					if (index != null && !this.parameters[index].toolContext()) {
+						methodArgs[index] = this.readArgument(this.parameters[index], parser);
+					}
+					else {
+						parser.skipChildren();
+					}
+				}
+			}
+			else if (token != JsonToken.VALUE_NULL) {
+				throw MismatchedInputException.from(parser, Map.class,
+						"Expected a JSON object with the function arguments");
+			}
+		}
+		for (int i = 0; i < this.parameters.length; i++) {
+			ParameterBinding parameter = this.parameters[i];
+			if (parameter.toolContext()) {
+				methodArgs[i] = toolContext;
+			}
+			else if (methodArgs[i] == null && parameter.type().isPrimitive()) {
+				throw new IllegalArgumentException(
+						"No value provided for the primitive parameter '" + parameter.name() + "'");
+			}
+		}
+		return methodArgs;
+	}
+
+	@Nullable
+	private Object readArgument(ParameterBinding parameter, JsonParser parser) throws Exception {
+		JsonToken token = parser.currentToken();
+		if (token == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		if (parameter.reader() != null) {
+			return parameter.reader().readValue(parser);
+		}
+		// Simple types are converted from the text of scalar values.
+		Object value = token.isScalarValue() ? parser.getText() : this.mapper.readValue(parser, Object.class);
+		return this.toJavaType(value, parameter.type());
+	}
+
+	@Nullable
+	private Object invoke(Object[] methodArgs) {
+		if (this.methodHandle == null) {
+			return ReflectionUtils.invokeMethod(this.method, this.functionObject, methodArgs);
+		}
+		try {
+			return (Object) this.methodHandle.invokeExact(methodArgs);
+		}
+		catch (RuntimeException | Error ex) {
+			throw ex;
+		}
+		catch (Throwable ex) {
+			throw new UndeclaredThrowableException(ex);
+		}
+	}
+
 	/**
 	 * Generates a JSON schema from the given named classes.
 	 * @param namedClasses The named classes to generate the schema from.
@@ -271,4 +386,30 @@ public class MethodInvokingFunctionCallback implements FunctionCallback {
 		}
 	}
 
+	/**
+	 * Precomputed binding of a method parameter.
+	 *
+	 * @param name the parameter name
+	 * @param type the parameter type
+	 * @param toolContext whether the parameter receives the {@link ToolContext}
+	 * @param reader the reader of the JSON argument, or null for simple types converted
+	 * with {@link #toJavaType(Object, Class)}
+	 */
+	private record ParameterBinding(String name, Class<?> type, boolean toolContext, @Nullable ObjectReader reader) {
+
+		ParameterBinding(Parameter parameter, ObjectMapper mapper) {
+			this(parameter.getName(), parameter.getType(),
+					ClassUtils.isAssignable(parameter.getType(), ToolContext.class),
+					isSimpleType(parameter.getType()) ? null : mapper.readerFor(parameter.getType()));
+		}
+
+		private static boolean isSimpleType(Class<?> type) {
+			Class<?> resolved = ClassUtils.resolvePrimitiveIfNecessary(type);
+			return resolved == String.class || resolved == Integer.class || resolved == Long.class
+					|| resolved == Double.class || resolved == Float.class || resolved == Boolean.class
+					|| resolved.isEnum() || ClassUtils.isAssignable(resolved, ToolContext.class);
+		}
+
+	}
+
 }
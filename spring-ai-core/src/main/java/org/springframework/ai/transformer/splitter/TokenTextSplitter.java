@@ -16,7 +16,9 @@
 
 package org.springframework.ai.transformer.splitter;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.knuddels.jtokkit.Encodings;
@@ -30,6 +32,12 @@ import org.springframework.util.Assert;
 /**
  * A {@link TextSplitter} that splits text into chunks of a target size in tokens.
  *
+ * <p>
+ * The text is encoded once. Chunks are windows over the resulting token array, decoded
+ * straight from the UTF-8 bytes of the text through per-token byte offsets, so neither
+ * the tokens are boxed nor is a truncated chunk re-encoded to find where the next chunk
+ * starts.
+ *
  * @author Raphael Yu
  * @author Christian Tzolov
  * @author Ricken Bazolo
@@ -64,6 +72,10 @@ public class TokenTextSplitter extends TextSplitter {
 
 	private final boolean keepSeparator;
 
+	// Decoded byte length of every token seen so far, indexed by token, 0 if unknown.
+	// Racing updates can only lose entries, which are then computed again.
+	private volatile int[] tokenByteLengths = new int[0];
+
 	public TokenTextSplitter() {
 		this(DEFAULT_CHUNK_SIZE, MIN_CHUNK_SIZE_CHARS, MIN_CHUNK_LENGTH_TO_EMBED, MAX_NUM_CHUNKS, KEEP_SEPARATOR);
 	}
@@ -95,16 +107,19 @@ public class TokenTextSplitter extends TextSplitter {
 			return new ArrayList<>();
 		}
 
-		List<Integer> tokens = getEncodedTokens(text);
+		IntArrayList tokens = this.encoding.encode(text);
+		byte[] bytes = this.encoding.decodeBytes(tokens);
+		int[] offsets = byteOffsets(tokens, bytes.length);
 		List<String> chunks = new ArrayList<>();
+		int start = 0;
 		int num_chunks = 0;
-		while (!tokens.isEmpty() && num_chunks < this.maxNumChunks) {
-			List<Integer> chunk = tokens.subList(0, Math.min(chunkSize, tokens.size()));
-			String chunkText = decodeTokens(chunk);
+		while (start < tokens.size() && num_chunks < this.maxNumChunks) {
+			int end = Math.min(start + chunkSize, tokens.size());
+			String chunkText = decode(bytes, offsets[start], offsets[end]);
 
 			// Skip the chunk if it is empty or whitespace
 			if (chunkText.trim().isEmpty()) {
-				tokens = tokens.subList(chunk.size(), tokens.size());
+				start = end;
 				continue;
 			}
 
@@ -115,6 +130,8 @@ public class TokenTextSplitter extends TextSplitter {
 			if (lastPunctuation != -1 && lastPunctuation > this.minChunkSizeChars) {
 				// Truncate the chunk text at the punctuation mark
 				chunkText = chunkText.substring(0, lastPunctuation + 1);
+				// The next chunk starts with the first token that begins after the mark
+				end = firstTokenFrom(offsets, start, end, lastPunctuationByte(bytes, offsets[start], offsets[end]) + 1);
 			}
 
 			String chunkTextToAppend = (this.keepSeparator) ? chunkText.trim()
@@ -123,15 +140,14 @@ public class TokenTextSplitter extends TextSplitter {
 				chunks.add(chunkTextToAppend);
 			}
 
-			// Remove the tokens corresponding to the chunk text from the remaining tokens
-			tokens = tokens.subList(getEncodedTokens(chunkText).size(), tokens.size());
-
+			start = end;
 			num_chunks++;
 		}
 
 		// Handle the remaining tokens
-		if (!tokens.isEmpty()) {
-			String remaining_text = decodeTokens(tokens).replace(System.lineSeparator(), " ").trim();
+		if (start < tokens.size()) {
+			String remaining_text = decode(bytes, offsets[start], bytes.length).replace(System.lineSeparator(), " ")
+				.trim();
 			if (remaining_text.length() > this.minChunkLengthToEmbed) {
 				chunks.add(remaining_text);
 			}
@@ -140,16 +156,56 @@ public class TokenTextSplitter extends TextSplitter {
 		return chunks;
 	}
 
-	private List<Integer> getEncodedTokens(String text) {
-		Assert.notNull(text, "Text must not be null");
-		return this.encoding.encode(text).boxed();
+	private static String decode(byte[] bytes, int from, int to) {
+		return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * The punctuation marks are ASCII, and ASCII bytes never occur inside a multi-byte
+	 * UTF-8 sequence, so the last mark of the decoded chunk is the last mark byte of the
+	 * chunk.
+	 */
+	private static int lastPunctuationByte(byte[] bytes, int from, int to) {
+		for (int i = to - 1; i >= from; i--) {
+			byte b = bytes[i];
+			if (b == '.' || b == '?' || b == '!' || b == '\n') {
+				return i;
+			}
+		}
+		throw new IllegalStateException("No punctuation mark in chunk");
 	}
 
-	private String decodeTokens(List<Integer> tokens) {
-		Assert.notNull(tokens, "Tokens must not be null");
-		var tokensIntArray = new IntArrayList(tokens.size());
-		tokens.forEach(tokensIntArray::add);
-		return this.encoding.decode(tokensIntArray);
+	private static int firstTokenFrom(int[] offsets, int start, int end, int byteOffset) {
+		int token = start + 1;
+		while (token < end && offsets[token] < byteOffset) {
+			token++;
+		}
+		return token;
+	}
+
+	private int[] byteOffsets(IntArrayList tokens, int length) {
+		int[] offsets = new int[tokens.size() + 1];
+		for (int i = 0; i < tokens.size(); i++) {
+			offsets[i + 1] = offsets[i] + tokenByteLength(tokens.get(i));
+		}
+		Assert.state(offsets[tokens.size()] == length, "Token byte lengths do not add up to the decoded text");
+		return offsets;
+	}
+
+	private int tokenByteLength(int token) {
+		int[] lengths = this.tokenByteLengths;
+		if (token < lengths.length && lengths[token] != 0) {
+			return lengths[token];
+		}
+		IntArrayList single = new IntArrayList(1);
+		single.add(token);
+		int length = this.encoding.decodeBytes(single).length;
+		if (token >= lengths.length) {
+			lengths = Arrays.copyOf(lengths, Math.max(token + 1, lengths.length * 2));
+		}
+		lengths[token] = length;
+		this.tokenByteLengths = lengths;
+		return length;
 	}
 
 	public static final class Builder {
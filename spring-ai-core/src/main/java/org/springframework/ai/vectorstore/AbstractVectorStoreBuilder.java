@@ -17,6 +17,8 @@
 package org.springframework.ai.vectorstore;
 
 import io.micrometer.observation.ObservationRegistry;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
@@ -44,6 +46,8 @@ public abstract class AbstractVectorStoreBuilder<T extends AbstractVectorStoreBu
 
 	protected BatchingStrategy batchingStrategy = new TokenCountBatchingStrategy();
 
+	protected Scheduler blockingScheduler = Schedulers.boundedElastic();
+
 	public AbstractVectorStoreBuilder(EmbeddingModel embeddingModel) {
 		Assert.notNull(embeddingModel, "EmbeddingModel must be configured");
 		this.embeddingModel = embeddingModel;
@@ -57,6 +61,10 @@ public abstract class AbstractVectorStoreBuilder<T extends AbstractVectorStoreBu
 		return this.batchingStrategy;
 	}
 
+	public Scheduler getBlockingScheduler() {
+		return this.blockingScheduler;
+	}
+
 	public ObservationRegistry getObservationRegistry() {
 		return this.observationRegistry;
 	}
@@ -100,4 +108,19 @@ public abstract class AbstractVectorStoreBuilder<T extends AbstractVectorStoreBu
 		return self();
 	}
 
+	/**
+	 * Sets the scheduler running the blocking operations of the asynchronous methods of
+	 * vector stores without a non-blocking client. Defaults to
+	 * {@link Schedulers#boundedElastic()}, which runs on virtual threads on Java 21 and
+	 * later when the {@code reactor.schedulers.defaultBoundedElasticOnVirtualThreads}
+	 * system property is set.
+	 * @param blockingScheduler the scheduler to use
+	 * @return the builder instance
+	 */
+	public T blockingScheduler(Scheduler blockingScheduler) {
+		Assert.notNull(blockingScheduler, "BlockingScheduler must not be null");
+		this.blockingScheduler = blockingScheduler;
+		return self();
+	}
+
 }
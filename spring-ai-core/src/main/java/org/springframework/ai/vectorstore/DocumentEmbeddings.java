@@ -0,0 +1,164 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import org.springframework.ai.document.Document;
+import org.springframework.util.Assert;
+
+/**
+ * A batch of {@link Document}s paired with their embeddings by position: the embedding at
+ * index {@code i} is the one of the document at index {@code i}. Vector stores use it to
+ * write documents along with their vectors without looking documents up in the batch, so
+ * equal or repeated documents each keep their own embedding.
+ *
+ * @since 1.0.0
+ * @see org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore#embedDocuments(List)
+ */
+public final class DocumentEmbeddings implements Iterable<DocumentEmbeddings.Entry> {
+
+	private final List<Document> documents;
+
+	private final List<float[]> embeddings;
+
+	private DocumentEmbeddings(List<Document> documents, List<float[]> embeddings) {
+		this.documents = documents;
+		this.embeddings = embeddings;
+	}
+
+	/**
+	 * Pair the given documents with their embeddings.
+	 * @param documents the documents
+	 * @param embeddings the embeddings, in the same order as the documents
+	 * @return the document embeddings
+	 */
+	public static DocumentEmbeddings of(List<Document> documents, List<float[]> embeddings) {
+		Assert.notNull(documents, "Documents must not be null");
+		Assert.notNull(embeddings, "Embeddings must not be null");
+		Assert.isTrue(documents.size() == embeddings.size(),
+				() -> "Embeddings must have the same number as that of the documents, expected " + documents.size()
+						+ " but got " + embeddings.size());
+		return new DocumentEmbeddings(documents, embeddings);
+	}
+
+	public int size() {
+		return this.documents.size();
+	}
+
+	public boolean isEmpty() {
+		return this.documents.isEmpty();
+	}
+
+	public Document getDocument(int index) {
+		return this.documents.get(index);
+	}
+
+	public float[] getEmbedding(int index) {
+		return this.embeddings.get(index);
+	}
+
+	public List<Document> getDocuments() {
+		return this.documents;
+	}
+
+	public List<float[]> getEmbeddings() {
+		return this.embeddings;
+	}
+
+	/**
+	 * Perform the given action for each document and its embedding, in order.
+	 * @param action the action to perform
+	 */
+	public void forEach(BiConsumer<Document, float[]> action) {
+		Assert.notNull(action, "Action must not be null");
+		for (int i = 0; i < this.documents.size(); i++) {
+			action.accept(this.documents.get(i), this.embeddings.get(i));
+		}
+	}
+
+	/**
+	 * Map each document and its embedding to a value, in order.
+	 * @param mapper the function mapping a document and its embedding
+	 * @param <T> the type of the mapped values
+	 * @return the mapped values, in the order of the documents
+	 */
+	public <T> List<T> map(BiFunction<Document, float[], T> mapper) {
+		Assert.notNull(mapper, "Mapper must not be null");
+		List<T> results = new ArrayList<>(this.documents.size());
+		for (int i = 0; i < this.documents.size(); i++) {
+			results.add(mapper.apply(this.documents.get(i), this.embeddings.get(i)));
+		}
+		return results;
+	}
+
+	/**
+	 * Split the batch into consecutive batches of at most the given size, as views of
+	 * this one.
+	 * @param batchSize the maximum size of each batch
+	 * @return the batches, in order
+	 */
+	public List<DocumentEmbeddings> batches(int batchSize) {
+		Assert.isTrue(batchSize > 0, "Batch size must be positive");
+		List<DocumentEmbeddings> batches = new ArrayList<>((this.documents.size() + batchSize - 1) / batchSize);
+		for (int from = 0; from < this.documents.size(); from += batchSize) {
+			int to = Math.min(from + batchSize, this.documents.size());
+			batches.add(new DocumentEmbeddings(this.documents.subList(from, to), this.embeddings.subList(from, to)));
+		}
+		return batches;
+	}
+
+	@Override
+	public Iterator<Entry> iterator() {
+		return new Iterator<>() {
+
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return this.index < DocumentEmbeddings.this.documents.size();
+			}
+
+			@Override
+			public Entry next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				int current = this.index++;
+				return new Entry(DocumentEmbeddings.this.documents.get(current),
+						DocumentEmbeddings.this.embeddings.get(current));
+			}
+
+		};
+	}
+
+	/**
+	 * A document along with its embedding.
+	 *
+	 * @param document the document
+	 * @param embedding the embedding of the document
+	 */
+	public record Entry(Document document, float[] embedding) {
+
+	}
+
+}
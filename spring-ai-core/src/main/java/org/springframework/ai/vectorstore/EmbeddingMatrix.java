@@ -0,0 +1,783 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentMetadata;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Row-oriented storage for the {@link SimpleVectorStore}. All embeddings are packed into
+ * contiguous primitive {@code float} blocks of fixed row count, next to their precomputed
+ * norms, while the id, text and metadata of every row are kept in parallel arrays. Rows
+ * are dense: removing a row moves the last row into its slot.
+ *
+ * <p>
+ * Blocks are either heap arrays or read-only views of a memory-mapped snapshot file, see
+ * {@link #replaceAll}. Mapped blocks are searched in place, through a small per-search
+ * buffer, and are only copied to the heap, one block at a time, when one of their rows is
+ * written.
+ *
+ * <p>
+ * The exact search scores one block at a time with the batch kernel of the
+ * {@link SimilarityKernel}, selects the best rows with a bounded min-heap and only
+ * materializes {@link Document} instances for the selected rows. Metadata filters are
+ * evaluated before a row is scored, and optional per-key inverted indexes narrow equality
+ * and inclusion filters to a candidate set of rows up front.
+ *
+ * <p>
+ * The matrix is safe for concurrent use: searches share a read lock while mutations take
+ * the write lock.
+ *
+ * @since 1.0.0
+ */
+final class EmbeddingMatrix {
+
+	/**
+	 * Number of rows per block. Blocks are allocated on demand so growing the matrix
+	 * never copies existing embeddings.
+	 */
+	static final int BLOCK_ROWS = 4096;
+
+	/**
+	 * Number of rows of a mapped block copied at once into the search buffer.
+	 */
+	private static final int MAPPED_CHUNK_ROWS = 64;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, Integer> rows = new HashMap<>();
+
+	/**
+	 * Optional inverted indexes: metadata key to normalized value to the matching rows.
+	 */
+	private final Map<String, Map<Object, BitSet>> metadataIndexes = new HashMap<>();
+
+	private int dimensions = -1;
+
+	private FloatBuffer[] blocks = new FloatBuffer[0];
+
+	private float[] norms = new float[0];
+
+	private String[] ids = new String[0];
+
+	private String[] texts = new String[0];
+
+	private Map<String, Object>[] metadata = newMetadataArray(0);
+
+	private int size;
+
+	EmbeddingMatrix() {
+		this(Set.of());
+	}
+
+	/**
+	 * Create a new matrix.
+	 * @param indexedMetadataKeys the metadata keys to maintain inverted indexes for
+	 */
+	EmbeddingMatrix(Set<String> indexedMetadataKeys) {
+		indexedMetadataKeys.forEach(key -> this.metadataIndexes.put(key, new HashMap<>()));
+	}
+
+	/**
+	 * Insert or replace the given rows.
+	 * @param contents the rows to store
+	 */
+	void putAll(List<SimpleVectorStoreContent> contents) {
+		this.lock.writeLock().lock();
+		try {
+			for (SimpleVectorStoreContent content : contents) {
+				put(content.getId(), content.getText(), content.getMetadata(), content.getEmbedding());
+			}
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove the rows with the given ids, ignoring unknown ids.
+	 * @param idList the ids of the rows to remove
+	 */
+	void removeAll(List<String> idList) {
+		this.lock.writeLock().lock();
+		try {
+			for (String id : idList) {
+				remove(id);
+			}
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove the rows whose metadata matches the given filter.
+	 * @param filterExpression the metadata filter
+	 * @return the ids of the removed rows
+	 */
+	List<String> removeMatching(Filter.Expression filterExpression) {
+		Predicate<Map<String, Object>> filter = FilterExpressionEvaluator.compile(filterExpression);
+		this.lock.writeLock().lock();
+		try {
+			BitSet candidates = candidates(filterExpression);
+			List<String> removed = new ArrayList<>();
+			for (int row = 0; row < this.size; row++) {
+				if ((candidates == null || candidates.get(row)) && filter.test(this.metadata[row])) {
+					removed.add(this.ids[row]);
+				}
+			}
+			removed.forEach(this::remove);
+			return removed;
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	void clear() {
+		this.lock.writeLock().lock();
+		try {
+			this.rows.clear();
+			this.metadataIndexes.values().forEach(Map::clear);
+			this.dimensions = -1;
+			this.blocks = new FloatBuffer[0];
+			this.norms = new float[0];
+			this.ids = new String[0];
+			this.texts = new String[0];
+			this.metadata = newMetadataArray(0);
+			this.size = 0;
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	int size() {
+		this.lock.readLock().lock();
+		try {
+			return this.size;
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Exact top-K search by cosine similarity over all rows.
+	 * @param query the query embedding
+	 * @param topK the maximum number of results
+	 * @param similarityThreshold the minimum similarity of the returned documents
+	 * @return the matching documents ordered by decreasing similarity
+	 */
+	List<Document> search(float[] query, int topK, double similarityThreshold) {
+		return search(query, topK, similarityThreshold, null);
+	}
+
+	/**
+	 * Exact top-K search by cosine similarity.
+	 * @param query the query embedding
+	 * @param topK the maximum number of results
+	 * @param similarityThreshold the minimum similarity of the returned documents
+	 * @param filterExpression optional metadata filter, evaluated before any similarity
+	 * is computed
+	 * @return the matching documents ordered by decreasing similarity
+	 */
+	List<Document> search(float[] query, int topK, double similarityThreshold,
+			@Nullable Filter.Expression filterExpression) {
+		Assert.notNull(query, "Vectors must not be null");
+		float queryNorm = (float) Math.sqrt(SimpleVectorStore.EmbeddingMath.norm(query));
+		if (queryNorm == 0) {
+			throw new IllegalArgumentException("Vectors cannot have zero norm");
+		}
+		if (topK <= 0) {
+			return List.of();
+		}
+		Predicate<Map<String, Object>> filter = (filterExpression != null)
+				? FilterExpressionEvaluator.compile(filterExpression) : null;
+
+		this.lock.readLock().lock();
+		try {
+			if (this.size == 0) {
+				return List.of();
+			}
+			if (query.length != this.dimensions) {
+				throw new IllegalArgumentException("Vectors lengths must be equal");
+			}
+
+			NeighborQueue top = new NeighborQueue(Math.min(topK, this.size), false);
+			if (filter == null) {
+				scoreAll(query, queryNorm, topK, similarityThreshold, top);
+			}
+			else {
+				scoreMatching(query, queryNorm, topK, similarityThreshold, filter, candidates(filterExpression), top);
+			}
+
+			Document[] documents = new Document[top.size()];
+			for (int i = documents.length - 1; i >= 0; i--) {
+				float similarity = top.topScore();
+				documents[i] = toDocument(top.pop(), similarity);
+			}
+			return List.of(documents);
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Return the number of rows that may match the given filter according to the inverted
+	 * indexes, or the total number of rows if the indexes cannot narrow the filter.
+	 * @param filterExpression the metadata filter
+	 * @return an upper bound of the number of matching rows
+	 */
+	int estimateMatches(Filter.Expression filterExpression) {
+		this.lock.readLock().lock();
+		try {
+			BitSet candidates = candidates(filterExpression);
+			return (candidates != null) ? candidates.cardinality() : this.size;
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Return a predicate telling whether the metadata of the row with a given id matches
+	 * the filter. Unknown ids never match.
+	 * @param filterExpression the metadata filter
+	 * @return the id predicate
+	 */
+	Predicate<String> idFilter(Filter.Expression filterExpression) {
+		Predicate<Map<String, Object>> filter = FilterExpressionEvaluator.compile(filterExpression);
+		return id -> {
+			this.lock.readLock().lock();
+			try {
+				Integer row = this.rows.get(id);
+				return row != null && filter.test(this.metadata[row]);
+			}
+			finally {
+				this.lock.readLock().unlock();
+			}
+		};
+	}
+
+	/**
+	 * Materialize the row with the given id as a search result.
+	 * @param id the row id
+	 * @param similarity the similarity score of the row
+	 * @return the document or null if the row no longer exists
+	 */
+	@Nullable
+	Document getDocument(String id, double similarity) {
+		this.lock.readLock().lock();
+		try {
+			Integer row = this.rows.get(id);
+			return (row != null) ? toDocument(row, similarity) : null;
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Return the number of blocks still backed by a memory-mapped snapshot.
+	 * @return the number of mapped blocks
+	 */
+	int mappedBlockCount() {
+		this.lock.readLock().lock();
+		try {
+			int count = 0;
+			for (FloatBuffer block : this.blocks) {
+				if (!block.hasArray()) {
+					count++;
+				}
+			}
+			return count;
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Return the ids of all rows.
+	 * @return a snapshot of the row ids
+	 */
+	List<String> ids() {
+		this.lock.readLock().lock();
+		try {
+			return List.of(Arrays.copyOf(this.ids, this.size));
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Visit a snapshot of every row, for instance to serialize the store.
+	 * @param consumer the row consumer
+	 */
+	void forEach(Consumer<SimpleVectorStoreContent> consumer) {
+		this.lock.readLock().lock();
+		try {
+			for (int row = 0; row < this.size; row++) {
+				consumer.accept(new SimpleVectorStoreContent(this.ids[row], this.texts[row], this.metadata[row],
+						embedding(row)));
+			}
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Hand the raw rows to the given writer while holding the read lock. The arrays must
+	 * not be modified nor retained by the writer.
+	 * @param writer the rows writer
+	 * @throws IOException if the writer fails
+	 */
+	void export(RowsWriter writer) throws IOException {
+		this.lock.readLock().lock();
+		try {
+			writer.write(Math.max(this.dimensions, 0), this.size, this.blocks, this.ids, this.texts, this.metadata);
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Return the lock guarding the matrix. It is shared with the {@link HnswIndex}
+	 * reading the embeddings of the matrix, whose methods below must be called with the
+	 * lock held.
+	 * @return the lock of the matrix
+	 */
+	ReadWriteLock lock() {
+		return this.lock;
+	}
+
+	/**
+	 * Return the number of dimensions of the embeddings, or -1 if the matrix is empty.
+	 * The caller must hold the lock.
+	 * @return the number of dimensions
+	 */
+	int dimensions() {
+		return this.dimensions;
+	}
+
+	/**
+	 * Copy the normalized embedding of the row with the given id. The caller must hold
+	 * the lock.
+	 * @param id the row id
+	 * @param target the array receiving the normalized embedding, of
+	 * {@link #dimensions()} length
+	 * @return false if there is no such row
+	 */
+	boolean unitEmbedding(String id, float[] target) {
+		Integer row = this.rows.get(id);
+		if (row == null) {
+			return false;
+		}
+		this.blocks[row / BLOCK_ROWS].get((row % BLOCK_ROWS) * this.dimensions, target, 0, this.dimensions);
+		float norm = this.norms[row];
+		for (int i = 0; i < this.dimensions; i++) {
+			target[i] = (norm != 0) ? target[i] / norm : 0;
+		}
+		return true;
+	}
+
+	/**
+	 * Cosine similarity between a normalized vector and the embedding of the row with the
+	 * given id, computed in place. The caller must hold the lock.
+	 * @param unitVector the normalized vector, of {@link #dimensions()} length
+	 * @param id the row id
+	 * @return the similarity, 0 for a zero embedding, or negative infinity if there is no
+	 * such row
+	 */
+	float similarity(float[] unitVector, String id) {
+		Integer row = this.rows.get(id);
+		if (row == null) {
+			return Float.NEGATIVE_INFINITY;
+		}
+		float norm = this.norms[row];
+		if (norm == 0) {
+			return 0;
+		}
+		FloatBuffer block = this.blocks[row / BLOCK_ROWS];
+		int offset = (row % BLOCK_ROWS) * this.dimensions;
+		float dotProduct;
+		if (block.hasArray()) {
+			dotProduct = SimilarityKernels.get().dotProduct(unitVector, block.array(), block.arrayOffset() + offset);
+		}
+		else {
+			dotProduct = 0;
+			for (int i = 0; i < this.dimensions; i++) {
+				dotProduct += unitVector[i] * block.get(offset + i);
+			}
+		}
+		return dotProduct / norm;
+	}
+
+	/**
+	 * Replace the whole content of the matrix with the given rows. The blocks are adopted
+	 * as-is and must hold {@link #BLOCK_ROWS} rows of {@code dimensions} floats each,
+	 * except for the last one that may only hold the remaining rows. Blocks without a
+	 * backing array, such as memory-mapped ones, are treated as read-only.
+	 * @param dimensions the number of dimensions of every embedding
+	 * @param size the number of rows
+	 * @param blocks the embedding blocks
+	 * @param ids the ids of the rows
+	 * @param texts the texts of the rows
+	 * @param metadata the metadata of the rows
+	 */
+	void replaceAll(int dimensions, int size, FloatBuffer[] blocks, String[] ids, String[] texts,
+			Map<String, Object>[] metadata) {
+		Assert.isTrue(blocks.length * (long) BLOCK_ROWS >= size, "Not enough blocks for " + size + " rows");
+		Assert.isTrue(ids.length >= size && texts.length >= size && metadata.length >= size,
+				"Not enough ids, texts or metadata for " + size + " rows");
+		if (size == 0) {
+			clear();
+			return;
+		}
+		float[] newNorms = new float[size];
+		for (int row = 0; row < size; row++) {
+			newNorms[row] = norm(blocks[row / BLOCK_ROWS], (row % BLOCK_ROWS) * dimensions, dimensions);
+		}
+
+		this.lock.writeLock().lock();
+		try {
+			this.rows.clear();
+			this.metadataIndexes.values().forEach(Map::clear);
+			this.dimensions = dimensions;
+			this.blocks = blocks;
+			this.norms = newNorms;
+			this.ids = Arrays.copyOf(ids, size);
+			this.texts = Arrays.copyOf(texts, size);
+			this.metadata = newMetadataArray(size);
+			this.size = size;
+			for (int row = 0; row < size; row++) {
+				this.metadata[row] = Collections.unmodifiableMap(new HashMap<>(metadata[row]));
+				this.rows.put(this.ids[row], row);
+				index(row);
+			}
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private static float norm(FloatBuffer block, int offset, int dimensions) {
+		double sum = 0;
+		for (int i = offset; i < offset + dimensions; i++) {
+			float value = block.get(i);
+			sum += value * value;
+		}
+		return (float) Math.sqrt(sum);
+	}
+
+	private void scoreAll(float[] query, float queryNorm, int topK, double similarityThreshold, NeighborQueue top) {
+		SimilarityKernel kernel = SimilarityKernels.get();
+		float[] dotProducts = new float[Math.min(BLOCK_ROWS, this.size)];
+		float[] chunk = null;
+		float[] chunkDotProducts = null;
+		for (int first = 0; first < this.size; first += BLOCK_ROWS) {
+			int rowCount = Math.min(BLOCK_ROWS, this.size - first);
+			FloatBuffer block = this.blocks[first / BLOCK_ROWS];
+			if (block.hasArray()) {
+				kernel.dotProducts(query, block.array(), block.arrayOffset(), rowCount, dotProducts);
+			}
+			else {
+				if (chunk == null) {
+					chunk = new float[MAPPED_CHUNK_ROWS * this.dimensions];
+					chunkDotProducts = new float[MAPPED_CHUNK_ROWS];
+				}
+				for (int chunkFirst = 0; chunkFirst < rowCount; chunkFirst += MAPPED_CHUNK_ROWS) {
+					int chunkRows = Math.min(MAPPED_CHUNK_ROWS, rowCount - chunkFirst);
+					block.get(chunkFirst * this.dimensions, chunk, 0, chunkRows * this.dimensions);
+					kernel.dotProducts(query, chunk, 0, chunkRows, chunkDotProducts);
+					System.arraycopy(chunkDotProducts, 0, dotProducts, chunkFirst, chunkRows);
+				}
+			}
+			for (int i = 0; i < rowCount; i++) {
+				collect(first + i, dotProducts[i], queryNorm, topK, similarityThreshold, top);
+			}
+		}
+	}
+
+	private void scoreMatching(float[] query, float queryNorm, int topK, double similarityThreshold,
+			Predicate<Map<String, Object>> filter, @Nullable BitSet candidates, NeighborQueue top) {
+		SimilarityKernel kernel = SimilarityKernels.get();
+		float[] embedding = null;
+		int row = (candidates != null) ? candidates.nextSetBit(0) : 0;
+		while (row >= 0 && row < this.size) {
+			if (filter.test(this.metadata[row])) {
+				FloatBuffer block = this.blocks[row / BLOCK_ROWS];
+				int offset = (row % BLOCK_ROWS) * this.dimensions;
+				float dotProduct;
+				if (block.hasArray()) {
+					dotProduct = kernel.dotProduct(query, block.array(), block.arrayOffset() + offset);
+				}
+				else {
+					if (embedding == null) {
+						embedding = new float[this.dimensions];
+					}
+					block.get(offset, embedding, 0, this.dimensions);
+					dotProduct = kernel.dotProduct(query, embedding, 0);
+				}
+				collect(row, dotProduct, queryNorm, topK, similarityThreshold, top);
+			}
+			row = (candidates != null) ? candidates.nextSetBit(row + 1) : row + 1;
+		}
+	}
+
+	private void collect(int row, float dotProduct, float queryNorm, int topK, double similarityThreshold,
+			NeighborQueue top) {
+		float norm = this.norms[row];
+		if (norm == 0) {
+			throw new IllegalArgumentException("Vectors cannot have zero norm");
+		}
+		float similarity = (float) (dotProduct / ((double) queryNorm * norm));
+		if (similarity >= similarityThreshold) {
+			top.insertWithOverflow(row, similarity, topK);
+		}
+	}
+
+	/**
+	 * Narrow the filter to a candidate set using the inverted indexes. Only equality and
+	 * inclusion on indexed keys, combined with AND and OR, can be narrowed. The returned
+	 * rows are a superset of the matching rows and the filter must still be evaluated.
+	 * @return the candidate rows or null if the indexes cannot narrow the filter
+	 */
+	@Nullable
+	private BitSet candidates(Filter.Operand operand) {
+		if (this.metadataIndexes.isEmpty()) {
+			return null;
+		}
+		if (operand instanceof Filter.Group group) {
+			return candidates(group.content());
+		}
+		if (!(operand instanceof Filter.Expression expression)) {
+			return null;
+		}
+		switch (expression.type()) {
+			case AND: {
+				BitSet left = candidates(expression.left());
+				BitSet right = candidates(expression.right());
+				if (left == null || right == null) {
+					return (left != null) ? left : right;
+				}
+				left.and(right);
+				return left;
+			}
+			case OR: {
+				BitSet left = candidates(expression.left());
+				BitSet right = candidates(expression.right());
+				if (left == null || right == null) {
+					return null;
+				}
+				left.or(right);
+				return left;
+			}
+			case EQ:
+			case IN: {
+				Map<Object, BitSet> index = this.metadataIndexes.get(FilterExpressionEvaluator.key(expression.left()));
+				if (index == null || !(expression.right() instanceof Filter.Value value)) {
+					return null;
+				}
+				BitSet result = new BitSet();
+				if (value.value() instanceof Collection<?> values) {
+					values.forEach(element -> orInto(result, index.get(FilterExpressionEvaluator.normalize(element))));
+				}
+				else {
+					orInto(result, index.get(FilterExpressionEvaluator.normalize(value.value())));
+				}
+				return result;
+			}
+			default:
+				return null;
+		}
+	}
+
+	private static void orInto(BitSet target, @Nullable BitSet rows) {
+		if (rows != null) {
+			target.or(rows);
+		}
+	}
+
+	private void index(int row) {
+		this.metadataIndexes.forEach((key, index) -> {
+			Object value = FilterExpressionEvaluator.normalize(this.metadata[row].get(key));
+			if (value != null) {
+				index.computeIfAbsent(value, v -> new BitSet()).set(row);
+			}
+		});
+	}
+
+	private void unindex(int row) {
+		this.metadataIndexes.forEach((key, index) -> {
+			Object value = FilterExpressionEvaluator.normalize(this.metadata[row].get(key));
+			BitSet rows = (value != null) ? index.get(value) : null;
+			if (rows != null) {
+				rows.clear(row);
+				if (rows.isEmpty()) {
+					index.remove(value);
+				}
+			}
+		});
+	}
+
+	private void put(String id, String text, Map<String, Object> metadata, float[] embedding) {
+		if (this.dimensions < 0) {
+			this.dimensions = embedding.length;
+		}
+		else if (embedding.length != this.dimensions) {
+			throw new IllegalArgumentException("Embedding of document " + id + " has " + embedding.length
+					+ " dimensions, expected " + this.dimensions);
+		}
+
+		Integer existing = this.rows.get(id);
+		int row;
+		if (existing != null) {
+			row = existing;
+			unindex(row);
+		}
+		else {
+			row = this.size++;
+			ensureCapacity(this.size);
+			this.rows.put(id, row);
+		}
+
+		float[] block = writableBlock(row / BLOCK_ROWS);
+		System.arraycopy(embedding, 0, block, (row % BLOCK_ROWS) * this.dimensions, this.dimensions);
+		this.norms[row] = (float) Math.sqrt(SimpleVectorStore.EmbeddingMath.norm(embedding));
+		this.ids[row] = id;
+		this.texts[row] = text;
+		this.metadata[row] = Collections.unmodifiableMap(new HashMap<>(metadata));
+		index(row);
+	}
+
+	private void remove(String id) {
+		Integer removed = this.rows.remove(id);
+		if (removed == null) {
+			return;
+		}
+		int row = removed;
+		int last = --this.size;
+		unindex(row);
+		if (row != last) {
+			unindex(last);
+			float[] block = writableBlock(row / BLOCK_ROWS);
+			this.blocks[last / BLOCK_ROWS].get((last % BLOCK_ROWS) * this.dimensions, block,
+					(row % BLOCK_ROWS) * this.dimensions, this.dimensions);
+			this.norms[row] = this.norms[last];
+			this.ids[row] = this.ids[last];
+			this.texts[row] = this.texts[last];
+			this.metadata[row] = this.metadata[last];
+			this.rows.put(this.ids[row], row);
+			index(row);
+		}
+		this.ids[last] = null;
+		this.texts[last] = null;
+		this.metadata[last] = null;
+	}
+
+	private float[] embedding(int row) {
+		float[] embedding = new float[this.dimensions];
+		this.blocks[row / BLOCK_ROWS].get((row % BLOCK_ROWS) * this.dimensions, embedding, 0, this.dimensions);
+		return embedding;
+	}
+
+	/**
+	 * Return the array backing the given block, first copying a mapped block to the heap.
+	 */
+	private float[] writableBlock(int blockIndex) {
+		FloatBuffer block = this.blocks[blockIndex];
+		if (block.hasArray() && block.arrayOffset() == 0) {
+			return block.array();
+		}
+		float[] copy = new float[BLOCK_ROWS * this.dimensions];
+		block.get(0, copy, 0, block.limit());
+		this.blocks[blockIndex] = FloatBuffer.wrap(copy);
+		return copy;
+	}
+
+	private Document toDocument(int row, double similarity) {
+		Map<String, Object> documentMetadata = new HashMap<>(this.metadata[row]);
+		documentMetadata.put(DocumentMetadata.DISTANCE.value(), 1.0 - similarity);
+		return Document.builder()
+			.id(this.ids[row])
+			.text(this.texts[row])
+			.metadata(documentMetadata)
+			.score(similarity)
+			.build();
+	}
+
+	private void ensureCapacity(int rowCount) {
+		int blockCount = (rowCount + BLOCK_ROWS - 1) / BLOCK_ROWS;
+		if (blockCount > this.blocks.length) {
+			this.blocks = Arrays.copyOf(this.blocks, blockCount);
+			for (int i = 0; i < blockCount; i++) {
+				if (this.blocks[i] == null) {
+					this.blocks[i] = FloatBuffer.wrap(new float[BLOCK_ROWS * this.dimensions]);
+				}
+			}
+		}
+		if (rowCount > this.norms.length) {
+			int capacity = Math.max(rowCount, this.norms.length + (this.norms.length >> 1) + 16);
+			this.norms = Arrays.copyOf(this.norms, capacity);
+			this.ids = Arrays.copyOf(this.ids, capacity);
+			this.texts = Arrays.copyOf(this.texts, capacity);
+			this.metadata = Arrays.copyOf(this.metadata, capacity);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	static Map<String, Object>[] newMetadataArray(int length) {
+		return new Map[length];
+	}
+
+	/**
+	 * Receives the raw rows of the matrix, see {@link #export(RowsWriter)}.
+	 */
+	@FunctionalInterface
+	interface RowsWriter {
+
+		void write(int dimensions, int size, FloatBuffer[] blocks, String[] ids, String[] texts,
+				Map<String, Object>[] metadata) throws IOException;
+
+	}
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.lang.Nullable;
+
+/**
+ * Compiles a portable {@link Filter.Expression} into a {@link Predicate} evaluated
+ * in-memory against document metadata.
+ *
+ * <p>
+ * Numeric values are compared by value regardless of their Java type, strings are
+ * compared lexicographically and values of different types never match. A missing
+ * metadata key fails every comparison, while {@code NE} and {@code NIN} are the exact
+ * negations of {@code EQ} and {@code IN} and therefore match documents without the key.
+ *
+ * @since 1.0.0
+ */
+final class FilterExpressionEvaluator {
+
+	private FilterExpressionEvaluator() {
+	}
+
+	/**
+	 * Compile the given expression.
+	 * @param expression the filter expression
+	 * @return a predicate over document metadata
+	 */
+	static Predicate<Map<String, Object>> compile(Filter.Expression expression) {
+		return compileOperand(expression);
+	}
+
+	/**
+	 * Return the metadata key referenced by the given operand, without outer quotes.
+	 * @param operand the key operand
+	 * @return the metadata key
+	 */
+	static String key(Filter.Operand operand) {
+		if (!(operand instanceof Filter.Key key)) {
+			throw new IllegalArgumentException("Expected a filter key but got: " + operand);
+		}
+		String name = key.key().trim();
+		if (name.length() > 1
+				&& ((name.startsWith("\"") && name.endsWith("\"")) || (name.startsWith("'") && name.endsWith("'")))) {
+			return name.substring(1, name.length() - 1);
+		}
+		return name;
+	}
+
+	/**
+	 * Return the canonical form of a value used for equality checks: integral numbers
+	 * become {@link Long} and other numbers {@link Double}, so that for instance
+	 * {@code 2020}, {@code 2020L} and {@code 2020.0} are equal.
+	 * @param value the value to normalize
+	 * @return the normalized value
+	 */
+	@Nullable
+	static Object normalize(@Nullable Object value) {
+		if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+			return ((Number) value).longValue();
+		}
+		if (value instanceof BigInteger bigInteger && bigInteger.bitLength() < 64) {
+			return bigInteger.longValue();
+		}
+		if (value instanceof Number number) {
+			double doubleValue = number.doubleValue();
+			if (doubleValue == Math.rint(doubleValue) && Math.abs(doubleValue) < 0x1p63) {
+				return (long) doubleValue;
+			}
+			return doubleValue;
+		}
+		return value;
+	}
+
+	private static Predicate<Map<String, Object>> compileOperand(Filter.Operand operand) {
+		if (operand instanceof Filter.Group group) {
+			return compileOperand(group.content());
+		}
+		if (!(operand instanceof Filter.Expression expression)) {
+			throw new IllegalArgumentException("Expected a filter expression or group but got: " + operand);
+		}
+		return switch (expression.type()) {
+			case AND -> compileOperand(expression.left()).and(compileOperand(expression.right()));
+			case OR -> compileOperand(expression.left()).or(compileOperand(expression.right()));
+			case NOT -> compileOperand(expression.left()).negate();
+			case EQ -> equalTo(key(expression.left()), value(expression.right()));
+			case NE -> equalTo(key(expression.left()), value(expression.right())).negate();
+			case IN -> in(key(expression.left()), value(expression.right()));
+			case NIN -> in(key(expression.left()), value(expression.right())).negate();
+			case GT -> compare(key(expression.left()), value(expression.right()), c -> c > 0);
+			case GTE -> compare(key(expression.left()), value(expression.right()), c -> c >= 0);
+			case LT -> compare(key(expression.left()), value(expression.right()), c -> c < 0);
+			case LTE -> compare(key(expression.left()), value(expression.right()), c -> c <= 0);
+		};
+	}
+
+	private static Predicate<Map<String, Object>> equalTo(String key, Object value) {
+		Object expected = normalize(value);
+		return metadata -> {
+			Object actual = metadata.get(key);
+			return actual != null && expected.equals(normalize(actual));
+		};
+	}
+
+	private static Predicate<Map<String, Object>> in(String key, Object value) {
+		if (!(value instanceof Collection<?> values)) {
+			throw new IllegalArgumentException("The IN and NIN operators expect a list of values but got: " + value);
+		}
+		Set<Object> expected = new HashSet<>();
+		values.forEach(element -> expected.add(normalize(element)));
+		return metadata -> {
+			Object actual = metadata.get(key);
+			return actual != null && expected.contains(normalize(actual));
+		};
+	}
+
+	private static Predicate<Map<String, Object>> compare(String key, Object value, IntPredicate accept) {
+		return metadata -> {
+			Object actual = metadata.get(key);
+			if (actual instanceof Number actualNumber && value instanceof Number expectedNumber) {
+				return accept.test(Double.compare(actualNumber.doubleValue(), expectedNumber.doubleValue()));
+			}
+			if (actual instanceof String actualString && value instanceof String expectedString) {
+				return accept.test(actualString.compareTo(expectedString));
+			}
+			if (actual instanceof Boolean actualBoolean && value instanceof Boolean expectedBoolean) {
+				return accept.test(actualBoolean.compareTo(expectedBoolean));
+			}
+			return false;
+		};
+	}
+
+	private static Object value(Filter.Operand operand) {
+		if (!(operand instanceof Filter.Value value) || value.value() == null) {
+			throw new IllegalArgumentException("Expected a filter value but got: " + operand);
+		}
+		return value.value();
+	}
+
+}
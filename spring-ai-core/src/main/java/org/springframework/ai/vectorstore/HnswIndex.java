@@ -0,0 +1,506 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Predicate;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * In-memory Hierarchical Navigable Small World (HNSW) graph used by the
+ * {@link SimpleVectorStore} for approximate nearest neighbour search. The index only
+ * holds the graph: the embeddings are read in place from the rows of the
+ * {@link EmbeddingMatrix} of the store, by document id, so they are not stored twice.
+ * Queries are normalized so that the cosine similarity reduces to a dot product divided
+ * by the precomputed norm of the row.
+ *
+ * <p>
+ * Deletes and updates mark the affected nodes as deleted. Deleted nodes are never
+ * returned, they keep routing searches through the graph while their id is still stored,
+ * and the graph is rebuilt from the live nodes once the deleted nodes outnumber them.
+ *
+ * <p>
+ * The index is safe for concurrent use. It shares the lock of the matrix: searches hold
+ * the read lock while inserts and deletes take the write lock.
+ *
+ * @see <a href="https://arxiv.org/abs/1603.09320">Efficient and robust approximate
+ * nearest neighbor search using Hierarchical Navigable Small World graphs</a>
+ * @since 1.0.0
+ */
+final class HnswIndex {
+
+	private final int m;
+
+	private final int maxConnectionsLevel0;
+
+	private final int efConstruction;
+
+	private final int efSearch;
+
+	private final double levelMultiplier;
+
+	private final SplittableRandom random = new SplittableRandom(42);
+
+	private final EmbeddingMatrix matrix;
+
+	private final ReadWriteLock lock;
+
+	private final Map<String, Integer> nodeIds = new HashMap<>();
+
+	private List<Node> nodes = new ArrayList<>();
+
+	private int entryPoint = -1;
+
+	private int maxLevel = -1;
+
+	private int deletedCount;
+
+	/**
+	 * Create a new index.
+	 * @param matrix the matrix holding the embeddings of the indexed ids
+	 * @param m the number of bi-directional links created for every new node on each
+	 * level above the base layer. The base layer allows {@code 2 * m} links.
+	 * @param efConstruction the size of the dynamic candidate list used while inserting
+	 * @param efSearch the size of the dynamic candidate list used while searching
+	 */
+	HnswIndex(EmbeddingMatrix matrix, int m, int efConstruction, int efSearch) {
+		Assert.notNull(matrix, "Matrix must not be null");
+		Assert.isTrue(m >= 2, "M must be at least 2");
+		Assert.isTrue(efConstruction >= 1, "efConstruction must be positive");
+		Assert.isTrue(efSearch >= 1, "efSearch must be positive");
+		this.m = m;
+		this.maxConnectionsLevel0 = 2 * m;
+		this.efConstruction = Math.max(efConstruction, m);
+		this.efSearch = efSearch;
+		this.levelMultiplier = 1 / Math.log(m);
+		this.matrix = matrix;
+		this.lock = matrix.lock();
+	}
+
+	/**
+	 * Insert or replace the nodes of the given ids, using their current embeddings in the
+	 * matrix. Ids without a row in the matrix are ignored.
+	 * @param ids the document ids
+	 */
+	void addAll(List<String> ids) {
+		this.lock.writeLock().lock();
+		try {
+			for (String id : ids) {
+				float[] vector = unitEmbedding(id);
+				if (vector != null) {
+					insert(id, vector);
+				}
+			}
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove the vector associated with the given id, if present.
+	 * @param id the document id
+	 */
+	void remove(String id) {
+		this.lock.writeLock().lock();
+		try {
+			Integer node = this.nodeIds.remove(id);
+			if (node != null) {
+				markDeleted(node);
+				if (this.deletedCount > this.nodes.size() - this.deletedCount) {
+					rebuild();
+				}
+			}
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove all vectors from the index.
+	 */
+	void clear() {
+		this.lock.writeLock().lock();
+		try {
+			this.nodes = new ArrayList<>();
+			this.nodeIds.clear();
+			this.entryPoint = -1;
+			this.maxLevel = -1;
+			this.deletedCount = 0;
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	int size() {
+		this.lock.readLock().lock();
+		try {
+			return this.nodeIds.size();
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Approximate top-K search by cosine similarity.
+	 * @param query the query embedding
+	 * @param topK the maximum number of results
+	 * @return the matching ids ordered by decreasing similarity
+	 */
+	List<Match> search(float[] query, int topK) {
+		return search(query, topK, null);
+	}
+
+	/**
+	 * Approximate top-K search by cosine similarity restricted to the ids accepted by the
+	 * given filter. Rejected nodes are still traversed so that the graph stays connected,
+	 * but they are never collected as results.
+	 * @param query the query embedding
+	 * @param topK the maximum number of results
+	 * @param filter optional predicate on the ids of the nodes to collect
+	 * @return the matching ids ordered by decreasing similarity
+	 */
+	List<Match> search(float[] query, int topK, @Nullable Predicate<String> filter) {
+		if (topK <= 0) {
+			return List.of();
+		}
+		float[] vector = normalize(query);
+		this.lock.readLock().lock();
+		try {
+			if (this.entryPoint < 0) {
+				return List.of();
+			}
+			if (vector.length != this.matrix.dimensions()) {
+				throw new IllegalArgumentException("Vectors lengths must be equal");
+			}
+			int current = greedySearch(vector, this.entryPoint, this.maxLevel, 1);
+			int ef = Math.max(this.efSearch, topK);
+			NeighborQueue results = searchLayer(vector, current, ef, 0, true, filter);
+			while (results.size() > topK) {
+				results.pop();
+			}
+			Match[] matches = new Match[results.size()];
+			for (int i = matches.length - 1; i >= 0; i--) {
+				float score = results.topScore();
+				matches[i] = new Match(this.nodes.get(results.pop()).id, score);
+			}
+			return List.of(matches);
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	private boolean accept(int nodeId, boolean liveOnly, @Nullable Predicate<String> filter) {
+		Node node = this.nodes.get(nodeId);
+		if (liveOnly && node.deleted) {
+			return false;
+		}
+		return filter == null || filter.test(node.id);
+	}
+
+	private void insert(String id, float[] vector) {
+		Integer existing = this.nodeIds.get(id);
+		if (existing != null) {
+			markDeleted(existing);
+		}
+
+		int level = randomLevel();
+		int nodeId = this.nodes.size();
+		Node node = new Node(id, level, this.m, this.maxConnectionsLevel0);
+		this.nodes.add(node);
+		this.nodeIds.put(id, nodeId);
+
+		if (this.entryPoint < 0) {
+			this.entryPoint = nodeId;
+			this.maxLevel = level;
+			return;
+		}
+
+		int current = greedySearch(vector, this.entryPoint, this.maxLevel, level + 1);
+		for (int l = Math.min(level, this.maxLevel); l >= 0; l--) {
+			NeighborQueue candidates = searchLayer(vector, current, this.efConstruction, l, false, null);
+			int[] selected = selectNeighbors(candidates, maxConnections(l));
+			for (int neighbor : selected) {
+				node.addNeighbor(l, neighbor);
+				connect(neighbor, nodeId, l);
+			}
+			current = selected.length > 0 ? selected[0] : current;
+		}
+
+		if (level > this.maxLevel) {
+			this.maxLevel = level;
+			this.entryPoint = nodeId;
+		}
+
+		if (existing != null && this.deletedCount > this.nodes.size() - this.deletedCount) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Greedy descent from the given level down to (and including) {@code stopLevel},
+	 * following the single best neighbour on each layer.
+	 */
+	private int greedySearch(float[] vector, int entry, int fromLevel, int stopLevel) {
+		int current = entry;
+		float currentScore = similarity(vector, current);
+		for (int l = fromLevel; l >= stopLevel; l--) {
+			boolean changed = true;
+			while (changed) {
+				changed = false;
+				Node node = this.nodes.get(current);
+				int[] neighbors = node.neighbors[l];
+				int count = node.neighborCounts[l];
+				for (int i = 0; i < count; i++) {
+					float score = similarity(vector, neighbors[i]);
+					if (score > currentScore) {
+						currentScore = score;
+						current = neighbors[i];
+						changed = true;
+					}
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Beam search on a single layer.
+	 * @param liveOnly if true, deleted nodes are traversed but not collected
+	 * @param filter optional predicate on the ids of the nodes to collect
+	 * @return a min-heap with at most {@code ef} nodes, worst score on top
+	 */
+	private NeighborQueue searchLayer(float[] vector, int entry, int ef, int level, boolean liveOnly,
+			@Nullable Predicate<String> filter) {
+		BitSet visited = new BitSet(this.nodes.size());
+		NeighborQueue candidates = new NeighborQueue(ef, true);
+		NeighborQueue results = new NeighborQueue(ef + 1, false);
+
+		float entryScore = similarity(vector, entry);
+		visited.set(entry);
+		candidates.add(entry, entryScore);
+		if (accept(entry, liveOnly, filter)) {
+			results.add(entry, entryScore);
+		}
+
+		while (!candidates.isEmpty()) {
+			float candidateScore = candidates.topScore();
+			if (results.size() >= ef && candidateScore < results.topScore()) {
+				break;
+			}
+			Node candidate = this.nodes.get(candidates.pop());
+			int[] neighbors = candidate.neighbors[level];
+			int count = candidate.neighborCounts[level];
+			for (int i = 0; i < count; i++) {
+				int neighbor = neighbors[i];
+				if (visited.get(neighbor)) {
+					continue;
+				}
+				visited.set(neighbor);
+				float score = similarity(vector, neighbor);
+				if (results.size() < ef || score > results.topScore()) {
+					candidates.add(neighbor, score);
+					if (accept(neighbor, liveOnly, filter)) {
+						results.add(neighbor, score);
+						if (results.size() > ef) {
+							results.pop();
+						}
+					}
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Neighbour selection heuristic (algorithm 4 of the HNSW paper). A candidate is kept
+	 * only if it is closer to the base vector than to any neighbour selected so far,
+	 * which favours links in diverse directions. Remaining slots are filled with the
+	 * closest discarded candidates.
+	 * @param candidates min-heap of candidates, consumed by this method
+	 * @return the selected neighbours ordered by decreasing similarity
+	 */
+	private int[] selectNeighbors(NeighborQueue candidates, int maxConnections) {
+		int size = candidates.size();
+		int[] ordered = new int[size];
+		float[] orderedScores = new float[size];
+		for (int i = size - 1; i >= 0; i--) {
+			orderedScores[i] = candidates.topScore();
+			ordered[i] = candidates.pop();
+		}
+
+		int[] selected = new int[Math.min(size, maxConnections)];
+		int selectedCount = 0;
+		boolean[] discarded = new boolean[size];
+		float[] candidateVector = new float[this.matrix.dimensions()];
+		for (int i = 0; i < size && selectedCount < selected.length; i++) {
+			boolean keep = true;
+			if (selectedCount > 0 && !this.matrix.unitEmbedding(this.nodes.get(ordered[i]).id, candidateVector)) {
+				// Deleted node whose embedding is gone, only kept if there is room left
+				keep = false;
+			}
+			for (int j = 0; keep && j < selectedCount; j++) {
+				if (similarity(candidateVector, selected[j]) > orderedScores[i]) {
+					keep = false;
+					break;
+				}
+			}
+			if (keep) {
+				selected[selectedCount++] = ordered[i];
+			}
+			else {
+				discarded[i] = true;
+			}
+		}
+		for (int i = 0; i < size && selectedCount < selected.length; i++) {
+			if (discarded[i]) {
+				selected[selectedCount++] = ordered[i];
+			}
+		}
+		return selectedCount == selected.length ? selected : Arrays.copyOf(selected, selectedCount);
+	}
+
+	/**
+	 * Add a link from {@code from} to {@code to}, pruning the link list of {@code from}
+	 * with the selection heuristic when it overflows.
+	 */
+	private void connect(int from, int to, int level) {
+		Node node = this.nodes.get(from);
+		int maxConnections = maxConnections(level);
+		if (node.neighborCounts[level] < maxConnections) {
+			node.addNeighbor(level, to);
+			return;
+		}
+		float[] vector = unitEmbedding(node.id);
+		if (vector == null) {
+			// Deleted node whose embedding is gone, it only routes through its links
+			return;
+		}
+		NeighborQueue candidates = new NeighborQueue(maxConnections + 1, false);
+		int[] neighbors = node.neighbors[level];
+		for (int i = 0; i < node.neighborCounts[level]; i++) {
+			candidates.add(neighbors[i], similarity(vector, neighbors[i]));
+		}
+		candidates.add(to, similarity(vector, to));
+		int[] selected = selectNeighbors(candidates, maxConnections);
+		System.arraycopy(selected, 0, neighbors, 0, selected.length);
+		node.neighborCounts[level] = selected.length;
+	}
+
+	private void markDeleted(int node) {
+		Node deleted = this.nodes.get(node);
+		if (!deleted.deleted) {
+			deleted.deleted = true;
+			this.deletedCount++;
+		}
+	}
+
+	private void rebuild() {
+		List<Node> live = this.nodes.stream().filter(node -> !node.deleted).toList();
+		this.nodes = new ArrayList<>(live.size());
+		this.nodeIds.clear();
+		this.entryPoint = -1;
+		this.maxLevel = -1;
+		this.deletedCount = 0;
+		for (Node node : live) {
+			float[] vector = unitEmbedding(node.id);
+			if (vector != null) {
+				insert(node.id, vector);
+			}
+		}
+	}
+
+	private int maxConnections(int level) {
+		return level == 0 ? this.maxConnectionsLevel0 : this.m;
+	}
+
+	private int randomLevel() {
+		double r = 1.0 - this.random.nextDouble();
+		return (int) (-Math.log(r) * this.levelMultiplier);
+	}
+
+	private float similarity(float[] vector, int node) {
+		return this.matrix.similarity(vector, this.nodes.get(node).id);
+	}
+
+	@Nullable
+	private float[] unitEmbedding(String id) {
+		float[] vector = new float[Math.max(this.matrix.dimensions(), 0)];
+		return this.matrix.unitEmbedding(id, vector) ? vector : null;
+	}
+
+	private static float[] normalize(float[] embedding) {
+		float norm = (float) Math.sqrt(SimpleVectorStore.EmbeddingMath.norm(embedding));
+		float[] vector = new float[embedding.length];
+		if (norm == 0) {
+			return vector;
+		}
+		for (int i = 0; i < embedding.length; i++) {
+			vector[i] = embedding[i] / norm;
+		}
+		return vector;
+	}
+
+	/**
+	 * A search result.
+	 *
+	 * @param id the document id
+	 * @param score the cosine similarity between the query and the document embedding
+	 */
+	record Match(String id, float score) {
+
+	}
+
+	private static final class Node {
+
+		private final String id;
+
+		private final int[][] neighbors;
+
+		private final int[] neighborCounts;
+
+		private boolean deleted;
+
+		Node(String id, int level, int m, int maxConnectionsLevel0) {
+			this.id = id;
+			this.neighbors = new int[level + 1][];
+			this.neighborCounts = new int[level + 1];
+			for (int l = 0; l <= level; l++) {
+				this.neighbors[l] = new int[l == 0 ? maxConnectionsLevel0 : m];
+			}
+		}
+
+		void addNeighbor(int level, int neighbor) {
+			this.neighbors[level][this.neighborCounts[level]++] = neighbor;
+		}
+
+	}
+
+}
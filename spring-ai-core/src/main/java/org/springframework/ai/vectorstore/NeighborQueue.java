@@ -0,0 +1,175 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import java.util.Arrays;
+
+/**
+ * A binary heap of {@code (node, score)} pairs backed by primitive arrays. Depending on
+ * the ordering, the top of the queue is either the highest scoring node (max-heap) or the
+ * lowest scoring node (min-heap). Used by the in-memory vector store for graph traversal
+ * and bounded top-K selection without boxing.
+ *
+ * @since 1.0.0
+ */
+final class NeighborQueue {
+
+	private final boolean maxHeap;
+
+	private int[] nodes;
+
+	private float[] scores;
+
+	private int size;
+
+	/**
+	 * Create a new queue.
+	 * @param initialCapacity the initial capacity, grown on demand
+	 * @param maxHeap if true the top of the queue is the highest score, otherwise the
+	 * lowest score
+	 */
+	NeighborQueue(int initialCapacity, boolean maxHeap) {
+		int capacity = Math.max(initialCapacity, 1);
+		this.nodes = new int[capacity];
+		this.scores = new float[capacity];
+		this.maxHeap = maxHeap;
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	void clear() {
+		this.size = 0;
+	}
+
+	void add(int node, float score) {
+		if (this.size == this.nodes.length) {
+			int capacity = this.nodes.length << 1;
+			this.nodes = Arrays.copyOf(this.nodes, capacity);
+			this.scores = Arrays.copyOf(this.scores, capacity);
+		}
+		this.nodes[this.size] = node;
+		this.scores[this.size] = score;
+		siftUp(this.size++);
+	}
+
+	/**
+	 * Add the given pair keeping at most {@code maxSize} elements. For a min-heap this
+	 * retains the {@code maxSize} highest scores seen so far.
+	 * @param node the node
+	 * @param score the node score
+	 * @param maxSize the maximum number of elements to retain
+	 * @return true if the node was added
+	 */
+	boolean insertWithOverflow(int node, float score, int maxSize) {
+		if (this.size < maxSize) {
+			add(node, score);
+			return true;
+		}
+		if (this.size == 0 || !isBetterThanTop(score)) {
+			return false;
+		}
+		this.nodes[0] = node;
+		this.scores[0] = score;
+		siftDown(0);
+		return true;
+	}
+
+	int topNode() {
+		return this.nodes[0];
+	}
+
+	float topScore() {
+		return this.scores[0];
+	}
+
+	/**
+	 * Remove the top of the queue.
+	 * @return the removed node
+	 */
+	int pop() {
+		int top = this.nodes[0];
+		this.size--;
+		if (this.size > 0) {
+			this.nodes[0] = this.nodes[this.size];
+			this.scores[0] = this.scores[this.size];
+			siftDown(0);
+		}
+		return top;
+	}
+
+	int nodeAt(int index) {
+		return this.nodes[index];
+	}
+
+	float scoreAt(int index) {
+		return this.scores[index];
+	}
+
+	private boolean isBetterThanTop(float score) {
+		// For a min-heap holding the best candidates a higher score displaces the top.
+		return this.maxHeap ? score < this.scores[0] : score > this.scores[0];
+	}
+
+	private boolean outranks(int i, int j) {
+		return this.maxHeap ? this.scores[i] > this.scores[j] : this.scores[i] < this.scores[j];
+	}
+
+	private void siftUp(int index) {
+		int i = index;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!outranks(i, parent)) {
+				break;
+			}
+			swap(i, parent);
+			i = parent;
+		}
+	}
+
+	private void siftDown(int index) {
+		int i = index;
+		while (true) {
+			int left = (i << 1) + 1;
+			if (left >= this.size) {
+				break;
+			}
+			int right = left + 1;
+			int child = (right < this.size && outranks(right, left)) ? right : left;
+			if (!outranks(child, i)) {
+				break;
+			}
+			swap(i, child);
+			i = child;
+		}
+	}
+
+	private void swap(int i, int j) {
+		int node = this.nodes[i];
+		this.nodes[i] = this.nodes[j];
+		this.nodes[j] = node;
+		float score = this.scores[i];
+		this.scores[i] = this.scores[j];
+		this.scores[j] = score;
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+/**
+ * Portable {@link SimilarityKernel} based on plain loops.
+ *
+ * @since 1.0.0
+ */
+final class ScalarSimilarityKernel implements SimilarityKernel {
+
+	static final ScalarSimilarityKernel INSTANCE = new ScalarSimilarityKernel();
+
+	private ScalarSimilarityKernel() {
+	}
+
+	@Override
+	public float dotProduct(float[] x, float[] data, int offset) {
+		float result = 0;
+		for (int i = 0; i < x.length; i++) {
+			result += x[i] * data[offset + i];
+		}
+		return result;
+	}
+
+	@Override
+	public void dotProductAndNorms(float[] x, float[] y, float[] result) {
+		float dot = 0;
+		float normX = 0;
+		float normY = 0;
+		for (int i = 0; i < x.length; i++) {
+			dot += x[i] * y[i];
+			normX += x[i] * x[i];
+			normY += y[i] * y[i];
+		}
+		result[0] = dot;
+		result[1] = normX;
+		result[2] = normY;
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.ai.vectorstore;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 import org.springframework.ai.document.Document;
@@ -59,16 +60,24 @@ public final class SearchRequest {
 	@Nullable
 	private Filter.Expression filterExpression;
 
+	@Nullable
+	private float[] queryEmbedding;
+
 	/**
 	 * Copy an existing {@link SearchRequest.Builder} instance.
 	 * @param originalSearchRequest {@link SearchRequest} instance to copy.
 	 * @return Returns new {@link SearchRequest.Builder} instance.
 	 */
 	public static Builder from(SearchRequest originalSearchRequest) {
-		return builder().query(originalSearchRequest.getQuery())
+		Builder builder = builder().query(originalSearchRequest.getQuery())
 			.topK(originalSearchRequest.getTopK())
 			.similarityThreshold(originalSearchRequest.getSimilarityThreshold())
-			.filterExpression(originalSearchRequest.getFilterExpression());
+			.filterExpression(originalSearchRequest.getFilterExpression())
+			.queryEmbedding(originalSearchRequest.getQueryEmbedding());
+		if (originalSearchRequest.hasQueryEmbedding()) {
+			builder.embeddedQuery = originalSearchRequest.getQuery();
+		}
+		return builder;
 	}
 
 	public String getQuery() {
@@ -92,10 +101,26 @@ public final class SearchRequest {
 		return this.filterExpression != null;
 	}
 
+	/**
+	 * Return the precomputed embedding of the query, used by the vector stores instead of
+	 * embedding the query text. The returned array must not be modified.
+	 * @return the query embedding, or null if the query text is to be embedded
+	 */
+	@Nullable
+	public float[] getQueryEmbedding() {
+		return this.queryEmbedding;
+	}
+
+	public boolean hasQueryEmbedding() {
+		return this.queryEmbedding != null;
+	}
+
 	@Override
 	public String toString() {
 		return "SearchRequest{" + "query='" + this.query + '\'' + ", topK=" + this.topK + ", similarityThreshold="
-				+ this.similarityThreshold + ", filterExpression=" + this.filterExpression + '}';
+				+ this.similarityThreshold + ", filterExpression=" + this.filterExpression
+				+ ((this.queryEmbedding != null) ? ", queryEmbedding=float[" + this.queryEmbedding.length + "]" : "")
+				+ '}';
 	}
 
 	@Override
@@ -109,12 +134,14 @@ public final class SearchRequest {
 		SearchRequest that = (SearchRequest) o;
 		return this.topK == that.topK && Double.compare(that.similarityThreshold, this.similarityThreshold) == 0
 				&& Objects.equals(this.query, that.query)
-				&& Objects.equals(this.filterExpression, that.filterExpression);
+				&& Objects.equals(this.filterExpression, that.filterExpression)
+				&& Arrays.equals(this.queryEmbedding, that.queryEmbedding);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.query, this.topK, this.similarityThreshold, this.filterExpression);
+		return 31 * Objects.hash(this.query, this.topK, this.similarityThreshold, this.filterExpression)
+				+ Arrays.hashCode(this.queryEmbedding);
 	}
 
 	/**
@@ -133,11 +160,24 @@ public final class SearchRequest {
 		private final SearchRequest searchRequest = new SearchRequest();
 
 		/**
-		 * @param query Text to use for embedding similarity comparison.
+		 * Query text of the embedding copied by {@link SearchRequest#from}, if any.
+		 */
+		@Nullable
+		private String embeddedQuery;
+
+		/**
+		 * @param query Text to use for embedding similarity comparison. On a builder
+		 * created with {@link SearchRequest#from}, setting a different text clears the
+		 * copied query embedding. A {@link #queryEmbedding(float[]) query embedding} set
+		 * on this builder is kept and wins over the text.
 		 * @return this builder.
 		 */
 		public Builder query(String query) {
 			Assert.notNull(query, "Query can not be null.");
+			if (this.embeddedQuery != null && !query.equals(this.embeddedQuery)) {
+				this.searchRequest.queryEmbedding = null;
+				this.embeddedQuery = null;
+			}
 			this.searchRequest.query = query;
 			return this;
 		}
@@ -277,6 +317,21 @@ public final class SearchRequest {
 			return this;
 		}
 
+		/**
+		 * @param queryEmbedding precomputed embedding of the query, used instead of
+		 * embedding the query text, for instance when the same query is sent to several
+		 * vector stores. It must have been computed with the embedding model of the
+		 * vector store. The array is copied, so later changes to it do not affect the
+		 * request. The 'null' value stands for embedding the query text.
+		 * @return this builder.
+		 */
+		public Builder queryEmbedding(@Nullable float[] queryEmbedding) {
+			Assert.isTrue(queryEmbedding == null || queryEmbedding.length > 0, "Query embedding can not be empty.");
+			this.searchRequest.queryEmbedding = (queryEmbedding != null) ? queryEmbedding.clone() : null;
+			this.embeddedQuery = null;
+			return this;
+		}
+
 		public SearchRequest build() {
 			return this.searchRequest;
 		}
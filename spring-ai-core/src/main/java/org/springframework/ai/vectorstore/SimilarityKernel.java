@@ -0,0 +1,65 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+/**
+ * Low level distance computations used by the in-memory vector store. Implementations do
+ * not validate their arguments: callers are responsible for passing arrays of matching
+ * lengths and in-range offsets.
+ *
+ * @since 1.0.0
+ * @see SimilarityKernels#get()
+ */
+interface SimilarityKernel {
+
+	/**
+	 * Dot product of {@code x} and the {@code x.length} floats of {@code data} starting
+	 * at {@code offset}.
+	 * @param x the first vector
+	 * @param data the array holding the second vector
+	 * @param offset the offset of the second vector in {@code data}
+	 * @return the dot product
+	 */
+	float dotProduct(float[] x, float[] data, int offset);
+
+	/**
+	 * Computes the dot product of {@code x} and {@code y} and the squared norms of both
+	 * vectors in a single pass.
+	 * @param x the first vector
+	 * @param y the second vector
+	 * @param result array of at least 3 elements receiving the dot product, the squared
+	 * norm of {@code x} and the squared norm of {@code y}, in that order
+	 */
+	void dotProductAndNorms(float[] x, float[] y, float[] result);
+
+	/**
+	 * Dot products of one query against {@code rows} consecutive vectors of
+	 * {@code query.length} floats stored in {@code data} from {@code offset}.
+	 * @param query the query vector
+	 * @param data the array holding the row vectors
+	 * @param offset the offset of the first row in {@code data}
+	 * @param rows the number of rows
+	 * @param result array of at least {@code rows} elements receiving the dot products
+	 */
+	default void dotProducts(float[] query, float[] data, int offset, int rows, float[] result) {
+		int dimensions = query.length;
+		for (int row = 0; row < rows; row++) {
+			result[row] = dotProduct(query, data, offset + row * dimensions);
+		}
+	}
+
+}
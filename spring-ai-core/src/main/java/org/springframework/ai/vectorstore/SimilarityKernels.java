@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Selects the {@link SimilarityKernel} used by the in-memory vector store. The Vector API
+ * implementation is used when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector} and the platform offers wide enough SIMD
+ * registers, otherwise the scalar implementation is used. Setting the
+ * {@value #VECTOR_API_ENABLED_PROPERTY} system property to {@code false} forces the
+ * scalar implementation. The Vector API implementation is compiled from a separate source
+ * set, so that it is the only class referencing the incubating module, and is only loaded
+ * reflectively.
+ *
+ * @since 1.0.0
+ */
+final class SimilarityKernels {
+
+	static final String VECTOR_API_ENABLED_PROPERTY = "spring.ai.vectorstore.vector-api.enabled";
+
+	private static final String VECTOR_MODULE_NAME = "jdk.incubator.vector";
+
+	private static final String VECTOR_KERNEL_CLASS_NAME = "org.springframework.ai.vectorstore.VectorApiSimilarityKernel";
+
+	private static final Logger logger = LoggerFactory.getLogger(SimilarityKernels.class);
+
+	private static final SimilarityKernel INSTANCE = load();
+
+	private SimilarityKernels() {
+	}
+
+	/**
+	 * Return the kernel selected for this JVM.
+	 * @return the similarity kernel
+	 */
+	static SimilarityKernel get() {
+		return INSTANCE;
+	}
+
+	static SimilarityKernel load() {
+		if (!Boolean.parseBoolean(System.getProperty(VECTOR_API_ENABLED_PROPERTY, "true"))
+				|| ModuleLayer.boot().findModule(VECTOR_MODULE_NAME).isEmpty()) {
+			return ScalarSimilarityKernel.INSTANCE;
+		}
+		try {
+			SimilarityKernel kernel = (SimilarityKernel) Class.forName(VECTOR_KERNEL_CLASS_NAME)
+				.getDeclaredConstructor()
+				.newInstance();
+			logger.debug("Using the Vector API similarity kernel");
+			return kernel;
+		}
+		catch (ReflectiveOperationException | LinkageError | RuntimeException ex) {
+			logger.debug("Vector API similarity kernel not available, falling back to the scalar kernel", ex);
+			return ScalarSimilarityKernel.INSTANCE;
+		}
+	}
+
+}
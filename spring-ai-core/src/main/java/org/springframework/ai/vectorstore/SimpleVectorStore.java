@@ -16,25 +16,27 @@
 
 package org.springframework.ai.vectorstore;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.function.Predicate;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.json.JsonMapper;
@@ -42,24 +44,47 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingBatchExecutor;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.observation.conventions.VectorStoreSimilarityMetric;
 import org.springframework.ai.util.JacksonUtils;
+import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
 import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * SimpleVectorStore is a simple implementation of the VectorStore interface.
  *
- * It also provides methods to save the current state of the vectors to a file, and to
- * load vectors from a file.
+ * It also provides methods to save the current state of the vectors to a file, either as
+ * JSON or as a compact binary snapshot, and to load vectors from a file.
  *
  * For a deeper understanding of the mathematical concepts and computations involved in
  * calculating similarity scores among vectors, refer to this
  * [resource](https://docs.spring.io/spring-ai/reference/api/vectordbs.html#_understanding_vectors).
  *
+ * The embeddings are packed into contiguous primitive blocks with precomputed norms. By
+ * default, the similarity search performs an exact, brute-force comparison against every
+ * stored embedding, keeping only the best top-K rows in a bounded heap. For larger stores
+ * an approximate HNSW graph index can be enabled through
+ * {@link SimpleVectorStoreBuilder#indexType(SimpleIndexType)}, trading some recall for
+ * sub-linear search time.
+ *
+ * Documents are embedded in the batches of the configured {@link BatchingStrategy},
+ * optionally several batches at a time through an {@link EmbeddingBatchExecutor}, and
+ * inserted in bulk.
+ *
+ * Metadata filter expressions are evaluated in-memory before any similarity is computed.
+ * Equality and inclusion filters on the keys configured through
+ * {@link SimpleVectorStoreBuilder#indexedMetadataKeys(String...)} are first narrowed with
+ * inverted indexes, so that only candidate rows are inspected.
+ *
  * @author Raphael Yu
  * @author Dingmeng Xue
  * @author Mark Pollack
@@ -74,11 +99,27 @@ public class SimpleVectorStore extends AbstractObservationVectorStore {
 
 	private final ObjectMapper objectMapper;
 
-	protected Map<String, SimpleVectorStoreContent> store = new ConcurrentHashMap<>();
+	/**
+	 * Below this fraction of candidate rows, a filtered search scans the candidates
+	 * exactly instead of walking the HNSW graph, which would mostly visit rejected nodes.
+	 */
+	private static final double EXACT_FILTERED_SEARCH_RATIO = 0.1;
+
+	private final EmbeddingMatrix store;
+
+	@Nullable
+	private final EmbeddingBatchExecutor embeddingBatchExecutor;
+
+	@Nullable
+	private final HnswIndex index;
 
 	protected SimpleVectorStore(SimpleVectorStoreBuilder builder) {
 		super(builder);
 		this.objectMapper = JsonMapper.builder().addModules(JacksonUtils.instantiateAvailableModules()).build();
+		this.store = new EmbeddingMatrix(builder.indexedMetadataKeys);
+		this.embeddingBatchExecutor = builder.embeddingBatchExecutor;
+		this.index = (builder.indexType == SimpleIndexType.HNSW)
+				? new HnswIndex(this.store, builder.hnswM, builder.hnswEfConstruction, builder.hnswEfSearch) : null;
 	}
 
 	/**
@@ -96,47 +137,100 @@ public class SimpleVectorStore extends AbstractObservationVectorStore {
 			throw new IllegalArgumentException("Documents list cannot be empty");
 		}
 
-		for (Document document : documents) {
-			logger.info("Calling EmbeddingModel for document id = {}", document.getId());
-			float[] embedding = this.embeddingModel.embed(document);
-			SimpleVectorStoreContent storeContent = new SimpleVectorStoreContent(document.getId(), document.getText(),
-					document.getMetadata(), embedding);
-			this.store.put(document.getId(), storeContent);
+		putContents(embed(documents));
+	}
+
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
+		List<Document> documents = documentEmbeddings.getDocuments();
+		if (documents.isEmpty()) {
+			throw new IllegalArgumentException("Documents list cannot be empty");
+		}
+		List<SimpleVectorStoreContent> contents = new ArrayList<>(documents.size());
+		addContents(contents, documents, documentEmbeddings.getEmbeddings());
+		putContents(contents);
+	}
+
+	/**
+	 * Add already embedded contents to the store, replacing the ones with the same id.
+	 */
+	private void putContents(List<SimpleVectorStoreContent> contents) {
+		this.store.putAll(contents);
+		if (this.index != null) {
+			this.index.addAll(contents.stream().map(SimpleVectorStoreContent::getId).toList());
+		}
+	}
+
+	/**
+	 * Embed the documents in the batches of the configured {@link BatchingStrategy},
+	 * concurrently when an {@link EmbeddingBatchExecutor} is configured.
+	 */
+	private List<SimpleVectorStoreContent> embed(List<Document> documents) {
+		EmbeddingOptions options = EmbeddingOptionsBuilder.builder().build();
+		List<float[]> embeddings = (this.embeddingBatchExecutor != null)
+				? this.embeddingBatchExecutor.embed(this.embeddingModel, documents, options, this.batchingStrategy)
+				: this.embeddingModel.embed(documents, options, this.batchingStrategy);
+		Assert.isTrue(embeddings.size() == documents.size(),
+				"Embeddings must have the same number as that of the documents");
+		List<SimpleVectorStoreContent> contents = new ArrayList<>(documents.size());
+		addContents(contents, documents, embeddings);
+		return contents;
+	}
+
+	private static void addContents(List<SimpleVectorStoreContent> contents, List<Document> batch,
+			List<float[]> embeddings) {
+		for (int i = 0; i < batch.size(); i++) {
+			Document document = batch.get(i);
+			contents.add(new SimpleVectorStoreContent(document.getId(), document.getText(), document.getMetadata(),
+					embeddings.get(i)));
 		}
 	}
 
 	@Override
 	public Optional<Boolean> doDelete(List<String> idList) {
-		for (String id : idList) {
-			this.store.remove(id);
+		this.store.removeAll(idList);
+		if (this.index != null) {
+			idList.forEach(this.index::remove);
 		}
 		return Optional.of(true);
 	}
 
+	@Override
+	protected void doDelete(Filter.Expression filterExpression) {
+		List<String> removed = this.store.removeMatching(filterExpression);
+		if (this.index != null) {
+			removed.forEach(this.index::remove);
+		}
+	}
+
 	@Override
 	public List<Document> doSimilaritySearch(SearchRequest request) {
-		if (request.getFilterExpression() != null) {
-			throw new UnsupportedOperationException(
-					"The [" + this.getClass() + "] doesn't support metadata filtering!");
-		}
-
-		float[] userQueryEmbedding = getUserQueryEmbedding(request.getQuery());
-		return this.store.values()
-			.stream()
-			.map(content -> content
-				.toDocument(EmbeddingMath.cosineSimilarity(userQueryEmbedding, content.getEmbedding())))
-			.filter(document -> document.getScore() >= request.getSimilarityThreshold())
-			.sorted(Comparator.comparing(Document::getScore).reversed())
-			.limit(request.getTopK())
-			.toList();
+		float[] userQueryEmbedding = embedQuery(request);
+		Filter.Expression filterExpression = request.getFilterExpression();
+		if (this.index != null && (filterExpression == null || !preferExactFilteredSearch(filterExpression))) {
+			Predicate<String> filter = (filterExpression != null) ? this.store.idFilter(filterExpression) : null;
+			return this.index.search(userQueryEmbedding, request.getTopK(), filter)
+				.stream()
+				.filter(match -> match.score() >= request.getSimilarityThreshold())
+				.map(match -> this.store.getDocument(match.id(), match.score()))
+				.filter(Objects::nonNull)
+				.toList();
+		}
+		return this.store.search(userQueryEmbedding, request.getTopK(), request.getSimilarityThreshold(),
+				filterExpression);
+	}
+
+	private boolean preferExactFilteredSearch(Filter.Expression filterExpression) {
+		int size = this.store.size();
+		return this.store.estimateMatches(filterExpression) <= size * EXACT_FILTERED_SEARCH_RATIO;
 	}
 
 	/**
-	 * Serialize the vector store content into a file in JSON format.
+	 * Serialize the vector store content into a file in JSON format. The content is
+	 * streamed to the file one document at a time.
 	 * @param file the file to save the vector store content
 	 */
 	public void save(File file) {
-		String json = getVectorDbAsJson();
 		try {
 			if (!file.exists()) {
 				logger.info("Creating new vector store file: {}", file);
@@ -153,10 +247,8 @@ public class SimpleVectorStore extends AbstractObservationVectorStore {
 			else {
 				logger.info("Overwriting existing vector store file: {}", file);
 			}
-			try (OutputStream stream = new FileOutputStream(file);
-					Writer writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8)) {
-				writer.write(json);
-				writer.flush();
+			try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(file))) {
+				writeVectorDbAsJson(stream);
 			}
 		}
 		catch (IOException ex) {
@@ -174,15 +266,42 @@ public class SimpleVectorStore extends AbstractObservationVectorStore {
 	}
 
 	/**
-	 * Deserialize the vector store content from a file in JSON format into memory.
+	 * Serialize the vector store content into a file in the binary snapshot format. The
+	 * snapshot stores the embeddings as a raw float matrix protected by checksums and is
+	 * much more compact and faster to load than JSON. It can be read back with
+	 * {@link #load(File)}.
+	 * @param file the file to save the vector store content
+	 */
+	public void saveSnapshot(File file) {
+		try {
+			logger.info("Saving vector store snapshot: {}", file);
+			SimpleVectorStoreSnapshot.write(this.store, file.toPath(), this.objectMapper);
+		}
+		catch (IOException ex) {
+			logger.error("IOException occurred while saving vector store snapshot.", ex);
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Deserialize the vector store content from a file into memory. Both the JSON format
+	 * written by {@link #save(File)} and the binary snapshot format written by
+	 * {@link #saveSnapshot(File)} are supported. The embeddings of a binary snapshot are
+	 * memory-mapped and searched in place, without being parsed nor copied to the heap,
+	 * so the file must not be modified while it is in use. Blocks of embeddings are only
+	 * copied to the heap once documents in them are added or deleted.
 	 * @param file the file to load the vector store content
 	 */
 	public void load(File file) {
-		TypeReference<HashMap<String, SimpleVectorStoreContent>> typeRef = new TypeReference<>() {
-
-		};
 		try {
-			this.store = this.objectMapper.readValue(file, typeRef);
+			if (SimpleVectorStoreSnapshot.isSnapshot(file.toPath())) {
+				SimpleVectorStoreSnapshot.read(file.toPath(), this.objectMapper, this.store);
+				rebuildIndex();
+				return;
+			}
+			try (InputStream stream = new FileInputStream(file)) {
+				loadJson(stream);
+			}
 		}
 		catch (IOException ex) {
 			throw new RuntimeException(ex);
@@ -190,35 +309,65 @@ public class SimpleVectorStore extends AbstractObservationVectorStore {
 	}
 
 	/**
-	 * Deserialize the vector store content from a resource in JSON format into memory.
+	 * Deserialize the vector store content from a resource into memory. Resources
+	 * resolving to a file support the same formats as {@link #load(File)}, other
+	 * resources must be in JSON format.
 	 * @param resource the resource to load the vector store content
 	 */
 	public void load(Resource resource) {
-		TypeReference<HashMap<String, SimpleVectorStoreContent>> typeRef = new TypeReference<>() {
-
-		};
 		try {
-			this.store = this.objectMapper.readValue(resource.getInputStream(), typeRef);
+			if (resource.isFile()) {
+				load(resource.getFile());
+				return;
+			}
+			try (InputStream stream = resource.getInputStream()) {
+				loadJson(stream);
+			}
 		}
 		catch (IOException ex) {
 			throw new RuntimeException(ex);
 		}
 	}
 
-	private String getVectorDbAsJson() {
-		ObjectWriter objectWriter = this.objectMapper.writerWithDefaultPrettyPrinter();
-		String json;
-		try {
-			json = objectWriter.writeValueAsString(this.store);
+	private void loadJson(InputStream stream) throws IOException {
+		List<SimpleVectorStoreContent> contents = new ArrayList<>();
+		try (JsonParser parser = this.objectMapper.createParser(stream)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new IOException("Expected a JSON object of vector store documents");
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				parser.nextToken();
+				contents.add(parser.readValueAs(SimpleVectorStoreContent.class));
+			}
 		}
-		catch (JsonProcessingException e) {
-			throw new RuntimeException("Error serializing documentMap to JSON.", e);
+		this.store.clear();
+		this.store.putAll(contents);
+		rebuildIndex();
+	}
+
+	private void rebuildIndex() {
+		if (this.index != null) {
+			this.index.clear();
+			this.index.addAll(this.store.ids());
 		}
-		return json;
 	}
 
-	private float[] getUserQueryEmbedding(String query) {
-		return this.embeddingModel.embed(query);
+	private void writeVectorDbAsJson(OutputStream stream) throws IOException {
+		ObjectWriter objectWriter = this.objectMapper.writerWithDefaultPrettyPrinter();
+		try (JsonGenerator generator = objectWriter.createGenerator(stream, JsonEncoding.UTF8)) {
+			generator.writeStartObject();
+			this.store.export((dimensions, size, blocks, ids, texts, metadata) -> {
+				for (int row = 0; row < size; row++) {
+					float[] embedding = new float[dimensions];
+					blocks[row / EmbeddingMatrix.BLOCK_ROWS].get((row % EmbeddingMatrix.BLOCK_ROWS) * dimensions,
+							embedding, 0, dimensions);
+					generator.writeFieldName(ids[row]);
+					objectWriter.writeValue(generator,
+							new SimpleVectorStoreContent(ids[row], texts[row], metadata[row], embedding));
+				}
+			});
+			generator.writeEndObject();
+		}
 	}
 
 	@Override
@@ -230,6 +379,11 @@ public class SimpleVectorStore extends AbstractObservationVectorStore {
 			.similarityMetric(VectorStoreSimilarityMetric.COSINE.value());
 	}
 
+	/**
+	 * Vector math used for the similarity computations. Delegates to a SIMD
+	 * implementation based on the incubating Vector API when the JVM is started with
+	 * {@code --add-modules jdk.incubator.vector}, and to plain loops otherwise.
+	 */
 	public static final class EmbeddingMath {
 
 		private EmbeddingMath() {
@@ -244,9 +398,11 @@ public class SimpleVectorStore extends AbstractObservationVectorStore {
 				throw new IllegalArgumentException("Vectors lengths must be equal");
 			}
 
-			float dotProduct = dotProduct(vectorX, vectorY);
-			float normX = norm(vectorX);
-			float normY = norm(vectorY);
+			float[] dotProductAndNorms = new float[3];
+			SimilarityKernels.get().dotProductAndNorms(vectorX, vectorY, dotProductAndNorms);
+			float dotProduct = dotProductAndNorms[0];
+			float normX = dotProductAndNorms[1];
+			float normY = dotProductAndNorms[2];
 
 			if (normX == 0 || normY == 0) {
 				throw new IllegalArgumentException("Vectors cannot have zero norm");
@@ -259,13 +415,7 @@ public class SimpleVectorStore extends AbstractObservationVectorStore {
 			if (vectorX.length != vectorY.length) {
 				throw new IllegalArgumentException("Vectors lengths must be equal");
 			}
-
-			float result = 0;
-			for (int i = 0; i < vectorX.length; ++i) {
-				result += vectorX[i] * vectorY[i];
-			}
-
-			return result;
+			return SimilarityKernels.get().dotProduct(vectorX, vectorY, 0);
 		}
 
 		public static float norm(float[] vector) {
@@ -274,12 +424,130 @@ public class SimpleVectorStore extends AbstractObservationVectorStore {
 
 	}
 
+	/**
+	 * The index used by the {@link SimpleVectorStore} to answer similarity searches.
+	 */
+	public enum SimpleIndexType {
+
+		/**
+		 * Performs exact nearest neighbor search by comparing the query with every stored
+		 * embedding, which provides perfect recall.
+		 */
+		NONE,
+		/**
+		 * Maintains an in-memory Hierarchical Navigable Small World graph, providing
+		 * approximate nearest neighbor search in sub-linear time. The graph is updated on
+		 * every add and delete, costs extra memory per entry and makes inserts slower.
+		 */
+		HNSW
+
+	}
+
 	public static final class SimpleVectorStoreBuilder extends AbstractVectorStoreBuilder<SimpleVectorStoreBuilder> {
 
+		public static final int DEFAULT_HNSW_M = 16;
+
+		public static final int DEFAULT_HNSW_EF_CONSTRUCTION = 200;
+
+		public static final int DEFAULT_HNSW_EF_SEARCH = 64;
+
+		private SimpleIndexType indexType = SimpleIndexType.NONE;
+
+		private int hnswM = DEFAULT_HNSW_M;
+
+		private int hnswEfConstruction = DEFAULT_HNSW_EF_CONSTRUCTION;
+
+		private int hnswEfSearch = DEFAULT_HNSW_EF_SEARCH;
+
+		private Set<String> indexedMetadataKeys = Set.of();
+
+		@Nullable
+		private EmbeddingBatchExecutor embeddingBatchExecutor;
+
 		private SimpleVectorStoreBuilder(EmbeddingModel embeddingModel) {
 			super(embeddingModel);
 		}
 
+		/**
+		 * Sets the index used for similarity searches. Defaults to
+		 * {@link SimpleIndexType#NONE}.
+		 * @param indexType the index type
+		 * @return the builder instance
+		 */
+		public SimpleVectorStoreBuilder indexType(SimpleIndexType indexType) {
+			Assert.notNull(indexType, "IndexType must not be null");
+			this.indexType = indexType;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of links per node on the upper layers of the HNSW
+		 * graph. The base layer allows twice as many. Higher values improve recall at the
+		 * cost of memory and insert time. Only used with {@link SimpleIndexType#HNSW}.
+		 * @param m the maximum number of links, at least 2
+		 * @return the builder instance
+		 */
+		public SimpleVectorStoreBuilder hnswM(int m) {
+			Assert.isTrue(m >= 2, "M must be at least 2");
+			this.hnswM = m;
+			return this;
+		}
+
+		/**
+		 * Sets the size of the candidate list used while inserting into the HNSW graph.
+		 * Higher values build a better graph at the cost of insert time. Only used with
+		 * {@link SimpleIndexType#HNSW}.
+		 * @param efConstruction the candidate list size
+		 * @return the builder instance
+		 */
+		public SimpleVectorStoreBuilder hnswEfConstruction(int efConstruction) {
+			Assert.isTrue(efConstruction > 0, "efConstruction must be positive");
+			this.hnswEfConstruction = efConstruction;
+			return this;
+		}
+
+		/**
+		 * Sets the size of the candidate list used while searching the HNSW graph. The
+		 * effective value is never lower than the requested top-K. Higher values improve
+		 * recall at the cost of search time. Only used with {@link SimpleIndexType#HNSW}.
+		 * @param efSearch the candidate list size
+		 * @return the builder instance
+		 */
+		public SimpleVectorStoreBuilder hnswEfSearch(int efSearch) {
+			Assert.isTrue(efSearch > 0, "efSearch must be positive");
+			this.hnswEfSearch = efSearch;
+			return this;
+		}
+
+		/**
+		 * Sets the metadata keys to maintain inverted indexes for, such as a tenant id.
+		 * Equality and inclusion filters on these keys only inspect the matching rows
+		 * instead of every stored document.
+		 * @param keys the metadata keys to index
+		 * @return the builder instance
+		 */
+		public SimpleVectorStoreBuilder indexedMetadataKeys(String... keys) {
+			Assert.notNull(keys, "Keys must not be null");
+			Assert.noNullElements(keys, "Keys must not contain null elements");
+			this.indexedMetadataKeys = Set.copyOf(Arrays.asList(keys));
+			return this;
+		}
+
+		/**
+		 * Sets the executor embedding several document batches, as produced by the
+		 * {@link BatchingStrategy}, concurrently when adding documents, with retries and
+		 * an adaptive concurrency limit. By default, the batches are embedded one after
+		 * the other on the calling thread.
+		 * @param embeddingBatchExecutor the batch executor, or null to embed the batches
+		 * sequentially
+		 * @return the builder instance
+		 */
+		public SimpleVectorStoreBuilder embeddingBatchExecutor(
+				@Nullable EmbeddingBatchExecutor embeddingBatchExecutor) {
+			this.embeddingBatchExecutor = embeddingBatchExecutor;
+			return this;
+		}
+
 		@Override
 		public SimpleVectorStore build() {
 			return new SimpleVectorStore(this);
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Binary snapshot format of the {@link SimpleVectorStore}.
+ *
+ * <p>
+ * A snapshot consists of a fixed-size header, followed by the embeddings as a dense
+ * little-endian {@code float} matrix, followed by the id, text and JSON metadata of every
+ * row. The header holds a magic number, the format version, the matrix shape, the length
+ * of both sections and a CRC-32 checksum of each of them.
+ *
+ * <p>
+ * Saving streams the rows straight from the {@link EmbeddingMatrix} to a temporary file
+ * that atomically replaces the target once complete. Loading maps the matrix section with
+ * {@link FileChannel#map} and hands read-only views of the mapping to the
+ * {@link EmbeddingMatrix} as its blocks: the embeddings are neither parsed nor copied to
+ * the heap, and stay in the page cache shared with the file. A file that was loaded must
+ * therefore not be modified in place, which {@link #write} never does.
+ *
+ * @since 1.0.0
+ */
+final class SimpleVectorStoreSnapshot {
+
+	static final int MAGIC = 0x53564153;
+
+	static final int VERSION = 1;
+
+	static final int HEADER_SIZE = 48;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+
+	};
+
+	private SimpleVectorStoreSnapshot() {
+	}
+
+	/**
+	 * Tell whether the given file starts with the snapshot magic number.
+	 * @param file the file to check
+	 * @return true if the file is a binary snapshot
+	 * @throws IOException if the file cannot be read
+	 */
+	static boolean isSnapshot(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			return readFully(channel, magic, 0) && magic.getInt(0) == MAGIC;
+		}
+	}
+
+	/**
+	 * Write the content of the matrix to the given file.
+	 * @param matrix the matrix to save
+	 * @param file the target file
+	 * @param objectMapper the mapper used for the metadata
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	static void write(EmbeddingMatrix matrix, Path file, ObjectMapper objectMapper) throws IOException {
+		Path parent = file.toAbsolutePath().getParent();
+		Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING)) {
+				matrix.export((dimensions, size, blocks, ids, texts, metadata) -> {
+					channel.position(HEADER_SIZE);
+					CRC32 vectorsChecksum = new CRC32();
+					writeVectors(channel, dimensions, size, blocks, vectorsChecksum);
+					long recordsStart = channel.position();
+
+					CRC32 recordsChecksum = new CRC32();
+					DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+							new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), recordsChecksum));
+					for (int row = 0; row < size; row++) {
+						writeString(out, ids[row]);
+						writeString(out, texts[row]);
+						byte[] json = objectMapper.writeValueAsBytes(metadata[row]);
+						out.writeInt(json.length);
+						out.write(json);
+					}
+					out.flush();
+
+					ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+					header.putInt(MAGIC)
+						.putInt(VERSION)
+						.putInt(dimensions)
+						.putInt(size)
+						.putLong(recordsStart - HEADER_SIZE)
+						.putLong(channel.position() - recordsStart)
+						.putLong(vectorsChecksum.getValue())
+						.putLong(recordsChecksum.getValue())
+						.flip();
+					while (header.hasRemaining()) {
+						channel.write(header, header.position());
+					}
+				});
+				channel.force(true);
+			}
+			try {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Replace the content of the matrix with the snapshot stored in the given file.
+	 * @param file the snapshot file
+	 * @param objectMapper the mapper used for the metadata
+	 * @param matrix the matrix to load into
+	 * @throws IOException if the snapshot cannot be read or is corrupted
+	 */
+	static void read(Path file, ObjectMapper objectMapper, EmbeddingMatrix matrix) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			if (!readFully(channel, header, 0) || header.getInt(0) != MAGIC) {
+				throw new IOException("Not a SimpleVectorStore snapshot: " + file);
+			}
+			int version = header.getInt(4);
+			if (version != VERSION) {
+				throw new IOException("Unsupported SimpleVectorStore snapshot version " + version + " in " + file);
+			}
+			int dimensions = header.getInt(8);
+			int size = header.getInt(12);
+			long vectorsLength = header.getLong(16);
+			long recordsLength = header.getLong(24);
+			if (dimensions < 0 || size < 0 || vectorsLength != (long) size * dimensions * Float.BYTES
+					|| HEADER_SIZE + vectorsLength + recordsLength != channel.size()) {
+				throw new IOException("Truncated or inconsistent SimpleVectorStore snapshot: " + file);
+			}
+
+			CRC32 vectorsChecksum = new CRC32();
+			FloatBuffer[] blocks = mapVectors(channel, dimensions, size, vectorsChecksum);
+			verify(vectorsChecksum, header.getLong(32), file);
+
+			String[] ids = new String[size];
+			String[] texts = new String[size];
+			Map<String, Object>[] metadata = EmbeddingMatrix.newMetadataArray(size);
+			CRC32 recordsChecksum = new CRC32();
+			channel.position(HEADER_SIZE + vectorsLength);
+			DataInputStream in = new DataInputStream(new CheckedInputStream(
+					new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE), recordsChecksum));
+			for (int row = 0; row < size; row++) {
+				ids[row] = readString(in);
+				texts[row] = readString(in);
+				byte[] json = new byte[in.readInt()];
+				in.readFully(json);
+				metadata[row] = objectMapper.readValue(json, METADATA_TYPE);
+			}
+			verify(recordsChecksum, header.getLong(40), file);
+
+			matrix.replaceAll(dimensions, size, blocks, ids, texts, metadata);
+		}
+	}
+
+	private static void writeVectors(FileChannel channel, int dimensions, int size, FloatBuffer[] blocks,
+			CRC32 checksum) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		FloatBuffer floats = buffer.asFloatBuffer();
+		for (int first = 0; first < size; first += EmbeddingMatrix.BLOCK_ROWS) {
+			FloatBuffer block = blocks[first / EmbeddingMatrix.BLOCK_ROWS];
+			int length = Math.min(EmbeddingMatrix.BLOCK_ROWS, size - first) * dimensions;
+			for (int offset = 0; offset < length; offset += floats.capacity()) {
+				int count = Math.min(floats.capacity(), length - offset);
+				floats.clear();
+				floats.put(0, block, offset, count);
+				buffer.clear().limit(count * Float.BYTES);
+				checksum.update(buffer.duplicate());
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Map the matrix section, one read-only mapping per block of the
+	 * {@link EmbeddingMatrix}. The mappings outlive the channel.
+	 */
+	private static FloatBuffer[] mapVectors(FileChannel channel, int dimensions, int size, CRC32 checksum)
+			throws IOException {
+		int blockCount = (size + EmbeddingMatrix.BLOCK_ROWS - 1) / EmbeddingMatrix.BLOCK_ROWS;
+		FloatBuffer[] blocks = new FloatBuffer[blockCount];
+		long blockBytes = (long) EmbeddingMatrix.BLOCK_ROWS * dimensions * Float.BYTES;
+		for (int i = 0; i < blockCount; i++) {
+			int rows = Math.min(EmbeddingMatrix.BLOCK_ROWS, size - i * EmbeddingMatrix.BLOCK_ROWS);
+			ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + i * blockBytes,
+					(long) rows * dimensions * Float.BYTES);
+			checksum.update(mapped.duplicate());
+			blocks[i] = mapped.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+		}
+		return blocks;
+	}
+
+	private static void writeString(DataOutputStream out, @Nullable String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	@Nullable
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void verify(CRC32 checksum, long expected, Path file) throws IOException {
+		if (checksum.getValue() != expected) {
+			throw new IOException("Checksum mismatch in SimpleVectorStore snapshot: " + file);
+		}
+	}
+
+}
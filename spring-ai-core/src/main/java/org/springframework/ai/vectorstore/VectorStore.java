@@ -20,13 +20,18 @@ import java.util.List;
 import java.util.Optional;
 
 import io.micrometer.observation.ObservationRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentWriter;
 import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
 import org.springframework.ai.vectorstore.observation.DefaultVectorStoreObservationConvention;
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationConvention;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * The {@code VectorStore} interface defines the operations for managing and querying
@@ -35,6 +40,14 @@ import org.springframework.lang.Nullable;
  * similarity searches based on vector representations of data rather than exact matches.
  * This interface allows for adding, deleting, and searching documents based on their
  * similarity to a given query.
+ *
+ * <p>
+ * The {@code Async} operations do not block the calling thread, but most of them still
+ * perform blocking I/O: unless a vector store overrides them with its non-blocking
+ * client, they run the blocking operation on a scheduler thread, which stays occupied
+ * until the operation completes. Among the vector stores shipped with Spring AI, only the
+ * Cassandra and Elasticsearch similarity searches are non-blocking; adding and deleting
+ * documents always run on the scheduler.
  */
 public interface VectorStore extends DocumentWriter {
 
@@ -49,6 +62,30 @@ public interface VectorStore extends DocumentWriter {
 	 */
 	void add(List<Document> documents);
 
+	/**
+	 * Adds documents along with embeddings computed beforehand, for instance with
+	 * {@link #embed(String)}, so that the vector store does not embed them again. The
+	 * default implementation ignores the embeddings and calls {@link #add(List)}.
+	 * @param documentEmbeddings the documents to store, paired with their embeddings.
+	 */
+	default void addEmbedded(DocumentEmbeddings documentEmbeddings) {
+		Assert.notNull(documentEmbeddings, "Document embeddings must not be null");
+		add(documentEmbeddings.getDocuments());
+	}
+
+	/**
+	 * Embeds the given text with the embedding model of the vector store, for instance to
+	 * search with it as a {@link SearchRequest.Builder#queryEmbedding(float[]) query
+	 * embedding} and {@link #addEmbedded(DocumentEmbeddings) store} it without embedding
+	 * the text twice.
+	 * @param text the text to embed.
+	 * @return the embedding, or empty if the vector store does not expose its embedding
+	 * model.
+	 */
+	default Optional<float[]> embed(String text) {
+		return Optional.empty();
+	}
+
 	@Override
 	default void accept(List<Document> documents) {
 		add(documents);
@@ -62,6 +99,30 @@ public interface VectorStore extends DocumentWriter {
 	@Nullable
 	Optional<Boolean> delete(List<String> idList);
 
+	/**
+	 * Deletes every document whose metadata matches the given filter expression. Vector
+	 * stores supporting it run the deletion as a single server-side operation, which is
+	 * much cheaper than looking the documents up to delete them by id.
+	 * @param filterExpression the filter expression selecting the documents to remove.
+	 * @throws UnsupportedOperationException if the vector store does not support deleting
+	 * documents by filter expression.
+	 */
+	default void delete(Filter.Expression filterExpression) {
+		throw new UnsupportedOperationException(getName() + " does not support deleting documents by filter");
+	}
+
+	/**
+	 * Deletes every document whose metadata matches the given textual filter expression,
+	 * as parsed by the {@link FilterExpressionTextParser}.
+	 * @param filterExpression the textual filter expression, e.g.
+	 * {@code "source == 'x.pdf'"}.
+	 * @see #delete(Filter.Expression)
+	 */
+	default void delete(String filterExpression) {
+		Assert.hasText(filterExpression, "Filter expression must not be empty");
+		this.delete(new FilterExpressionTextParser().parse(filterExpression));
+	}
+
 	/**
 	 * Retrieves documents by query embedding similarity and metadata filters to retrieve
 	 * exactly the number of nearest-neighbor results that match the request criteria.
@@ -84,6 +145,47 @@ public interface VectorStore extends DocumentWriter {
 		return this.similaritySearch(SearchRequest.builder().query(query).build());
 	}
 
+	/**
+	 * Adds list of {@link Document}s to the vector store without blocking the calling
+	 * thread. The default implementation runs {@link #add(List)} on the
+	 * {@link Schedulers#boundedElastic() bounded elastic scheduler}.
+	 * @param documents the list of documents to store.
+	 * @return a {@link Mono} completing once the documents are stored.
+	 */
+	default Mono<Void> addAsync(List<Document> documents) {
+		return Mono.<Void>fromRunnable(() -> add(documents)).subscribeOn(Schedulers.boundedElastic());
+	}
+
+	/**
+	 * Deletes documents from the vector store without blocking the calling thread. The
+	 * default implementation runs {@link #delete(List)} on the
+	 * {@link Schedulers#boundedElastic() bounded elastic scheduler}.
+	 * @param idList list of document ids for which documents will be removed.
+	 * @return a {@link Mono} emitting true if the documents were successfully deleted, or
+	 * completing empty if the vector store does not tell.
+	 */
+	default Mono<Boolean> deleteAsync(List<String> idList) {
+		return Mono.fromCallable(() -> delete(idList))
+			.flatMap(Mono::justOrEmpty)
+			.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	/**
+	 * Retrieves documents by query embedding similarity and metadata filters without
+	 * blocking the calling thread. The default implementation runs
+	 * {@link #similaritySearch(SearchRequest)} on the {@link Schedulers#boundedElastic()
+	 * bounded elastic scheduler}.
+	 * @param request Search request for set search parameters, such as the query text,
+	 * topK, similarity threshold and metadata filter expressions.
+	 * @return a {@link Mono} emitting the documents that match the query request
+	 * conditions.
+	 */
+	default Mono<List<Document>> similaritySearchAsync(SearchRequest request) {
+		return Mono.fromCallable(() -> similaritySearch(request))
+			.defaultIfEmpty(List.of())
+			.subscribeOn(Schedulers.boundedElastic());
+	}
+
 	/**
 	 * Builder interface for creating VectorStore instances. Implements a fluent builder
 	 * pattern for configuring observation-related settings.
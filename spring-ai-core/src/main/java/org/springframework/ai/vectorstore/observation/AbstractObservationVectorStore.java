@@ -18,16 +18,26 @@ package org.springframework.ai.vectorstore.observation;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 
+import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * Abstract base class for {@link VectorStore} implementations that provides observation
@@ -50,12 +60,16 @@ public abstract class AbstractObservationVectorStore implements VectorStore {
 
 	protected final BatchingStrategy batchingStrategy;
 
+	protected final Scheduler blockingScheduler;
+
 	private AbstractObservationVectorStore(EmbeddingModel embeddingModel, ObservationRegistry observationRegistry,
-			@Nullable VectorStoreObservationConvention customObservationConvention, BatchingStrategy batchingStrategy) {
+			@Nullable VectorStoreObservationConvention customObservationConvention, BatchingStrategy batchingStrategy,
+			Scheduler blockingScheduler) {
 		this.embeddingModel = embeddingModel;
 		this.observationRegistry = observationRegistry;
 		this.customObservationConvention = customObservationConvention;
 		this.batchingStrategy = batchingStrategy;
+		this.blockingScheduler = blockingScheduler;
 	}
 
 	/**
@@ -65,7 +79,7 @@ public abstract class AbstractObservationVectorStore implements VectorStore {
 	 */
 	public AbstractObservationVectorStore(AbstractVectorStoreBuilder<?> builder) {
 		this(builder.getEmbeddingModel(), builder.getObservationRegistry(), builder.getCustomObservationConvention(),
-				builder.getBatchingStrategy());
+				builder.getBatchingStrategy(), builder.getBlockingScheduler());
 	}
 
 	/**
@@ -85,6 +99,30 @@ public abstract class AbstractObservationVectorStore implements VectorStore {
 			.observe(() -> this.doAdd(documents));
 	}
 
+	/**
+	 * Add the documents with their precomputed embeddings through
+	 * {@link #doAdd(DocumentEmbeddings)}.
+	 * @param documentEmbeddings the documents to add, paired with their embeddings
+	 */
+	@Override
+	public void addEmbedded(DocumentEmbeddings documentEmbeddings) {
+		Assert.notNull(documentEmbeddings, "Document embeddings must not be null");
+
+		VectorStoreObservationContext observationContext = this
+			.createObservationContextBuilder(VectorStoreObservationContext.Operation.ADD.value())
+			.build();
+
+		VectorStoreObservationDocumentation.AI_VECTOR_STORE
+			.observation(this.customObservationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
+					this.observationRegistry)
+			.observe(() -> this.doAdd(documentEmbeddings));
+	}
+
+	@Override
+	public Optional<float[]> embed(String text) {
+		return Optional.of(this.embeddingModel.embed(text));
+	}
+
 	@Override
 	@Nullable
 	public Optional<Boolean> delete(List<String> deleteDocIds) {
@@ -99,6 +137,20 @@ public abstract class AbstractObservationVectorStore implements VectorStore {
 			.observe(() -> this.doDelete(deleteDocIds));
 	}
 
+	@Override
+	public void delete(Filter.Expression filterExpression) {
+		Assert.notNull(filterExpression, "Filter expression must not be null");
+
+		VectorStoreObservationContext observationContext = this
+			.createObservationContextBuilder(VectorStoreObservationContext.Operation.DELETE.value())
+			.build();
+
+		VectorStoreObservationDocumentation.AI_VECTOR_STORE
+			.observation(this.customObservationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
+					this.observationRegistry)
+			.observe(() -> this.doDelete(filterExpression));
+	}
+
 	@Override
 	@Nullable
 	public List<Document> similaritySearch(SearchRequest request) {
@@ -106,6 +158,7 @@ public abstract class AbstractObservationVectorStore implements VectorStore {
 		VectorStoreObservationContext searchObservationContext = this
 			.createObservationContextBuilder(VectorStoreObservationContext.Operation.QUERY.value())
 			.queryRequest(request)
+			.queryEmbeddingSkipped(request.hasQueryEmbedding())
 			.build();
 
 		return VectorStoreObservationDocumentation.AI_VECTOR_STORE
@@ -118,12 +171,126 @@ public abstract class AbstractObservationVectorStore implements VectorStore {
 			});
 	}
 
+	@Override
+	public Mono<Void> addAsync(List<Document> documents) {
+		VectorStoreObservationContext observationContext = this
+			.createObservationContextBuilder(VectorStoreObservationContext.Operation.ADD.value())
+			.build();
+
+		return observeAsync(observationContext, () -> this.doAddAsync(documents));
+	}
+
+	@Override
+	public Mono<Boolean> deleteAsync(List<String> idList) {
+		VectorStoreObservationContext observationContext = this
+			.createObservationContextBuilder(VectorStoreObservationContext.Operation.DELETE.value())
+			.build();
+
+		return observeAsync(observationContext, () -> this.doDeleteAsync(idList));
+	}
+
+	@Override
+	public Mono<List<Document>> similaritySearchAsync(SearchRequest request) {
+		VectorStoreObservationContext searchObservationContext = this
+			.createObservationContextBuilder(VectorStoreObservationContext.Operation.QUERY.value())
+			.queryRequest(request)
+			.queryEmbeddingSkipped(request.hasQueryEmbedding())
+			.build();
+
+		return observeAsync(searchObservationContext,
+				() -> this.doSimilaritySearchAsync(request).doOnNext(searchObservationContext::setQueryResponse));
+	}
+
+	private <T> Mono<T> observeAsync(VectorStoreObservationContext observationContext, Supplier<Mono<T>> operation) {
+		return Mono.deferContextual(contextView -> {
+			Observation observation = VectorStoreObservationDocumentation.AI_VECTOR_STORE.observation(
+					this.customObservationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
+					this.observationRegistry);
+
+			observation.parentObservation(contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null)).start();
+
+			// @formatter:off
+			return Mono.defer(operation)
+				.doOnError(observation::error)
+				.doFinally(s -> observation.stop())
+				.contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation));
+			// @formatter:on
+		});
+	}
+
+	/**
+	 * Embed the given documents in the batches of the configured
+	 * {@link BatchingStrategy}.
+	 * @param documents the documents to embed
+	 * @return the documents paired with their embeddings, in the same order
+	 */
+	protected DocumentEmbeddings embedDocuments(List<Document> documents) {
+		return DocumentEmbeddings.of(documents,
+				this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(), this.batchingStrategy));
+	}
+
+	/**
+	 * Return the embedding to search the given request with: the precomputed query
+	 * embedding of the request if it has one, or else the embedding of the query text.
+	 * @param request the search request
+	 * @return the query embedding
+	 */
+	protected float[] embedQuery(SearchRequest request) {
+		float[] queryEmbedding = request.getQueryEmbedding();
+		return (queryEmbedding != null) ? queryEmbedding : this.embeddingModel.embed(request.getQuery());
+	}
+
+	/**
+	 * Asynchronous variant of {@link #embedQuery(SearchRequest)}, embedding the query
+	 * text on the blocking scheduler when the request has no precomputed embedding.
+	 * @param request the search request
+	 * @return a {@link Mono} emitting the query embedding
+	 */
+	protected Mono<float[]> embedQueryAsync(SearchRequest request) {
+		float[] queryEmbedding = request.getQueryEmbedding();
+		return (queryEmbedding != null) ? Mono.just(queryEmbedding)
+				: fromBlocking(() -> this.embeddingModel.embed(request.getQuery()));
+	}
+
+	/**
+	 * Adapt a blocking operation to a {@link Mono} running it on the blocking scheduler
+	 * of the vector store, within the scope of the current observation so that the
+	 * observations of the embedding model are nested under the vector store one.
+	 * @param operation the blocking operation
+	 * @param <T> the type of the operation result
+	 * @return a {@link Mono} emitting the result of the operation, if not null
+	 */
+	protected <T> Mono<T> fromBlocking(Callable<T> operation) {
+		return Mono.deferContextual(contextView -> {
+			Observation observation = contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+			return Mono.fromCallable(() -> {
+				if (observation == null) {
+					return operation.call();
+				}
+				try (Observation.Scope scope = observation.openScope()) {
+					return operation.call();
+				}
+			}).subscribeOn(this.blockingScheduler);
+		});
+	}
+
 	/**
 	 * Perform the actual add operation.
 	 * @param documents the documents to add
 	 */
 	public abstract void doAdd(List<Document> documents);
 
+	/**
+	 * Perform the actual add operation of documents that are already embedded. Delegates
+	 * to {@link #doAdd(List)} by default, which embeds the documents again: stores should
+	 * override it to write the given embeddings, typically having {@link #doAdd(List)}
+	 * call it with the result of {@link #embedDocuments(List)}.
+	 * @param documentEmbeddings the documents to add, paired with their embeddings
+	 */
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
+		doAdd(documentEmbeddings.getDocuments());
+	}
+
 	/**
 	 * Perform the actual delete operation.
 	 * @param idList the list of document IDs to delete
@@ -131,6 +298,14 @@ public abstract class AbstractObservationVectorStore implements VectorStore {
 	 */
 	public abstract Optional<Boolean> doDelete(List<String> idList);
 
+	/**
+	 * Perform the actual delete by filter expression operation. Not supported by default.
+	 * @param filterExpression the filter expression selecting the documents to delete
+	 */
+	protected void doDelete(Filter.Expression filterExpression) {
+		throw new UnsupportedOperationException(getName() + " does not support deleting documents by filter");
+	}
+
 	/**
 	 * Perform the actual similarity search operation.
 	 * @param request the search request
@@ -138,6 +313,45 @@ public abstract class AbstractObservationVectorStore implements VectorStore {
 	 */
 	public abstract List<Document> doSimilaritySearch(SearchRequest request);
 
+	/**
+	 * Perform the actual add operation without blocking the calling thread. Defaults to
+	 * running {@link #doAdd(List)} on the blocking scheduler, holding one of its threads
+	 * for the whole operation; vector stores with a non-blocking client can override it.
+	 * @param documents the documents to add
+	 * @return a {@link Mono} completing once the documents are added
+	 */
+	protected Mono<Void> doAddAsync(List<Document> documents) {
+		return fromBlocking(() -> {
+			this.doAdd(documents);
+			return null;
+		});
+	}
+
+	/**
+	 * Perform the actual delete operation without blocking the calling thread. Defaults
+	 * to running {@link #doDelete(List)} on the blocking scheduler, holding one of its
+	 * threads for the whole operation; vector stores with a non-blocking client can
+	 * override it.
+	 * @param idList the list of document IDs to delete
+	 * @return a {@link Mono} emitting true if the documents were successfully deleted
+	 */
+	protected Mono<Boolean> doDeleteAsync(List<String> idList) {
+		return fromBlocking(() -> this.doDelete(idList)).flatMap(Mono::justOrEmpty);
+	}
+
+	/**
+	 * Perform the actual similarity search operation without blocking the calling thread.
+	 * Defaults to running {@link #doSimilaritySearch(SearchRequest)} on the blocking
+	 * scheduler, holding one of its threads for the whole operation; vector stores with a
+	 * non-blocking client can override it.
+	 * @param request the search request
+	 * @return a {@link Mono} emitting the documents that match the query request
+	 * conditions
+	 */
+	protected Mono<List<Document>> doSimilaritySearchAsync(SearchRequest request) {
+		return fromBlocking(() -> this.doSimilaritySearch(request)).defaultIfEmpty(List.of());
+	}
+
 	/**
 	 * Create a new {@link VectorStoreObservationContext.Builder} instance.
 	 * @param operationName the operation name
@@ -59,7 +59,8 @@ public class DefaultVectorStoreObservationConvention implements VectorStoreObser
 
 	@Override
 	public KeyValues getLowCardinalityKeyValues(VectorStoreObservationContext context) {
-		return KeyValues.of(springAiKind(), dbSystem(context), dbOperationName(context));
+		return KeyValues.of(springAiKind(), dbSystem(context), dbOperationName(context),
+				queryEmbeddingSkipped(context));
 	}
 
 	protected KeyValue springAiKind() {
@@ -74,6 +75,11 @@ public class DefaultVectorStoreObservationConvention implements VectorStoreObser
 		return KeyValue.of(LowCardinalityKeyNames.DB_OPERATION_NAME, context.getOperationName());
 	}
 
+	protected KeyValue queryEmbeddingSkipped(VectorStoreObservationContext context) {
+		return KeyValue.of(LowCardinalityKeyNames.DB_VECTOR_QUERY_EMBEDDING_SKIPPED,
+				String.valueOf(context.isQueryEmbeddingSkipped()));
+	}
+
 	@Override
 	public KeyValues getHighCardinalityKeyValues(VectorStoreObservationContext context) {
 		var keyValues = KeyValues.empty();
@@ -64,6 +64,8 @@ public class VectorStoreObservationContext extends Observation.Context {
 	@Nullable
 	private List<Document> queryResponse;
 
+	private boolean queryEmbeddingSkipped;
+
 	public VectorStoreObservationContext(String databaseSystem, String operationName) {
 		Assert.hasText(databaseSystem, "databaseSystem cannot be null or empty");
 		Assert.hasText(operationName, "operationName cannot be null or empty");
@@ -150,6 +152,19 @@ public class VectorStoreObservationContext extends Observation.Context {
 		this.queryResponse = queryResponse;
 	}
 
+	/**
+	 * Whether the query was searched with the precomputed embedding of the request,
+	 * skipping the call to the embedding model.
+	 * @return true if the query was not embedded by the vector store
+	 */
+	public boolean isQueryEmbeddingSkipped() {
+		return this.queryEmbeddingSkipped;
+	}
+
+	public void setQueryEmbeddingSkipped(boolean queryEmbeddingSkipped) {
+		this.queryEmbeddingSkipped = queryEmbeddingSkipped;
+	}
+
 	public enum Operation {
 
 		/**
@@ -215,6 +230,11 @@ public class VectorStoreObservationContext extends Observation.Context {
 			return this;
 		}
 
+		public Builder queryEmbeddingSkipped(boolean queryEmbeddingSkipped) {
+			this.context.setQueryEmbeddingSkipped(queryEmbeddingSkipped);
+			return this;
+		}
+
 		public Builder similarityMetric(String similarityMetric) {
 			this.context.setSimilarityMetric(similarityMetric);
 			return this;
@@ -86,6 +86,17 @@ public enum VectorStoreObservationDocumentation implements ObservationDocumentat
 			public String asString() {
 				return VectorStoreObservationAttributes.DB_SYSTEM.value();
 			}
+		},
+
+		/**
+		 * Whether the search query used a precomputed embedding, skipping the call to the
+		 * embedding model. Always false for operations other than queries.
+		 */
+		DB_VECTOR_QUERY_EMBEDDING_SKIPPED {
+			@Override
+			public String asString() {
+				return "db.vector.query.embedding.skipped";
+			}
 		}
 
 	}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link SimilarityKernel} using the SIMD instructions of the platform through the
+ * incubating Vector API. This class must only be loaded when the
+ * {@code jdk.incubator.vector} module is part of the boot layer, see
+ * {@link SimilarityKernels}.
+ *
+ * @since 1.0.0
+ */
+final class VectorApiSimilarityKernel implements SimilarityKernel {
+
+	private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+	/**
+	 * Narrower species are not worth the overhead over the scalar loop.
+	 */
+	private static final int MIN_LANES = 4;
+
+	VectorApiSimilarityKernel() {
+		if (SPECIES.length() < MIN_LANES) {
+			throw new IllegalStateException("The preferred float species only has " + SPECIES.length() + " lanes");
+		}
+	}
+
+	@Override
+	public float dotProduct(float[] x, float[] data, int offset) {
+		int length = x.length;
+		int bound = SPECIES.loopBound(length);
+		FloatVector acc = FloatVector.zero(SPECIES);
+		int i = 0;
+		for (; i < bound; i += SPECIES.length()) {
+			FloatVector a = FloatVector.fromArray(SPECIES, x, i);
+			FloatVector b = FloatVector.fromArray(SPECIES, data, offset + i);
+			acc = a.fma(b, acc);
+		}
+		float result = acc.reduceLanes(VectorOperators.ADD);
+		for (; i < length; i++) {
+			result += x[i] * data[offset + i];
+		}
+		return result;
+	}
+
+	@Override
+	public void dotProductAndNorms(float[] x, float[] y, float[] result) {
+		int length = x.length;
+		int bound = SPECIES.loopBound(length);
+		FloatVector dotAcc = FloatVector.zero(SPECIES);
+		FloatVector normXAcc = FloatVector.zero(SPECIES);
+		FloatVector normYAcc = FloatVector.zero(SPECIES);
+		int i = 0;
+		for (; i < bound; i += SPECIES.length()) {
+			FloatVector a = FloatVector.fromArray(SPECIES, x, i);
+			FloatVector b = FloatVector.fromArray(SPECIES, y, i);
+			dotAcc = a.fma(b, dotAcc);
+			normXAcc = a.fma(a, normXAcc);
+			normYAcc = b.fma(b, normYAcc);
+		}
+		float dot = dotAcc.reduceLanes(VectorOperators.ADD);
+		float normX = normXAcc.reduceLanes(VectorOperators.ADD);
+		float normY = normYAcc.reduceLanes(VectorOperators.ADD);
+		for (; i < length; i++) {
+			dot += x[i] * y[i];
+			normX += x[i] * x[i];
+			normY += y[i] * y[i];
+		}
+		result[0] = dot;
+		result[1] = normX;
+		result[2] = normY;
+	}
+
+	/**
+	 * Processes four rows per iteration so every query lane loaded from memory is reused
+	 * four times.
+	 */
+	@Override
+	public void dotProducts(float[] query, float[] data, int offset, int rows, float[] result) {
+		int dimensions = query.length;
+		int bound = SPECIES.loopBound(dimensions);
+		int row = 0;
+		for (; row + 4 <= rows; row += 4) {
+			int o0 = offset + row * dimensions;
+			int o1 = o0 + dimensions;
+			int o2 = o1 + dimensions;
+			int o3 = o2 + dimensions;
+			FloatVector acc0 = FloatVector.zero(SPECIES);
+			FloatVector acc1 = FloatVector.zero(SPECIES);
+			FloatVector acc2 = FloatVector.zero(SPECIES);
+			FloatVector acc3 = FloatVector.zero(SPECIES);
+			int i = 0;
+			for (; i < bound; i += SPECIES.length()) {
+				FloatVector q = FloatVector.fromArray(SPECIES, query, i);
+				acc0 = q.fma(FloatVector.fromArray(SPECIES, data, o0 + i), acc0);
+				acc1 = q.fma(FloatVector.fromArray(SPECIES, data, o1 + i), acc1);
+				acc2 = q.fma(FloatVector.fromArray(SPECIES, data, o2 + i), acc2);
+				acc3 = q.fma(FloatVector.fromArray(SPECIES, data, o3 + i), acc3);
+			}
+			float r0 = acc0.reduceLanes(VectorOperators.ADD);
+			float r1 = acc1.reduceLanes(VectorOperators.ADD);
+			float r2 = acc2.reduceLanes(VectorOperators.ADD);
+			float r3 = acc3.reduceLanes(VectorOperators.ADD);
+			for (; i < dimensions; i++) {
+				float q = query[i];
+				r0 += q * data[o0 + i];
+				r1 += q * data[o1 + i];
+				r2 += q * data[o2 + i];
+				r3 += q * data[o3 + i];
+			}
+			result[row] = r0;
+			result[row + 1] = r1;
+			result[row + 2] = r2;
+			result[row + 3] = r3;
+		}
+		for (; row < rows; row++) {
+			result[row] = dotProduct(query, data, offset + row * dimensions);
+		}
+	}
+
+}
@@ -27,6 +27,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.PromptChatMemoryAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.memory.InMemoryChatMemory;
@@ -191,4 +192,62 @@ public class ChatClientAdvisorTests {
 		assertThat(userMessage.getText()).isEqualToIgnoringWhitespace("What is my name?");
 	}
 
+	@Test
+	public void messageChatMemoryWithinTokenBudget() {
+
+		given(this.chatModel.call(this.promptCaptor.capture()))
+			.willReturn(new ChatResponse(List.of(new Generation(new AssistantMessage("Hello John")))))
+			.willReturn(new ChatResponse(List.of(new Generation(new AssistantMessage("Your name is John")))));
+
+		ChatMemory chatMemory = new InMemoryChatMemory();
+
+		var chatClient = ChatClient.builder(this.chatModel)
+			.defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).chatMemoryTokenBudget(3).build())
+			.build();
+
+		chatClient.prompt().user("my name is John").call().content();
+		chatClient.prompt().user("What is my name?").call().content();
+
+		assertThat(this.promptCaptor.getValue().getInstructions()).extracting(Message::getText)
+			.containsExactly("Hello John", "What is my name?");
+	}
+
+	@Test
+	public void messageChatMemoryWithinTokenBudgetOfPlainChatMemory() {
+
+		given(this.chatModel.call(this.promptCaptor.capture()))
+			.willReturn(new ChatResponse(List.of(new Generation(new AssistantMessage("Hello John")))))
+			.willReturn(new ChatResponse(List.of(new Generation(new AssistantMessage("Your name is John")))));
+
+		InMemoryChatMemory delegate = new InMemoryChatMemory();
+		ChatMemory chatMemory = new ChatMemory() {
+
+			@Override
+			public void add(String conversationId, List<Message> messages) {
+				delegate.add(conversationId, messages);
+			}
+
+			@Override
+			public List<Message> get(String conversationId, int lastN) {
+				return delegate.get(conversationId, lastN);
+			}
+
+			@Override
+			public void clear(String conversationId) {
+				delegate.clear(conversationId);
+			}
+
+		};
+
+		var chatClient = ChatClient.builder(this.chatModel)
+			.defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).chatMemoryTokenBudget(3).build())
+			.build();
+
+		chatClient.prompt().user("my name is John").call().content();
+		chatClient.prompt().user("What is my name?").call().content();
+
+		assertThat(this.promptCaptor.getValue().getInstructions()).extracting(Message::getText)
+			.containsExactly("Hello John", "What is my name?");
+	}
+
 }
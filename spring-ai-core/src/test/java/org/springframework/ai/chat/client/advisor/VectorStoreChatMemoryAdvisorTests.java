@@ -0,0 +1,148 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.client.advisor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link VectorStoreChatMemoryAdvisor}.
+ */
+@ExtendWith(MockitoExtension.class)
+class VectorStoreChatMemoryAdvisorTests {
+
+	@Mock
+	ChatModel chatModel;
+
+	@Mock
+	VectorStore vectorStore;
+
+	@Captor
+	ArgumentCaptor<List<Document>> documentsCaptor;
+
+	@Test
+	void writesConversationInTheBackgroundInOneBatch() {
+		given(this.chatModel.call(any(Prompt.class)))
+			.willReturn(new ChatResponse(List.of(new Generation(new AssistantMessage("Hello John")))));
+		given(this.vectorStore.similaritySearch(any(SearchRequest.class)))
+			.willReturn(List.of(new Document("my favourite color is blue")));
+		List<Runnable> writes = new ArrayList<>();
+
+		String content = ChatClient.builder(this.chatModel)
+			.build()
+			.prompt()
+			.user("my name is John")
+			.advisors(VectorStoreChatMemoryAdvisor.builder(this.vectorStore)
+				.writeExecutor(writes::add)
+				.conversationId("42")
+				.build())
+			.call()
+			.content();
+
+		assertThat(content).isEqualTo("Hello John");
+		verify(this.vectorStore, never()).add(anyList());
+		assertThat(writes).hasSize(1);
+
+		writes.get(0).run();
+
+		verify(this.vectorStore).add(this.documentsCaptor.capture());
+		assertThat(this.documentsCaptor.getValue()).extracting(Document::getText)
+			.containsExactly("my name is John", "Hello John");
+		assertThat(this.documentsCaptor.getValue())
+			.allSatisfy(document -> assertThat(document.getMetadata()).containsEntry("conversationId", "42"));
+	}
+
+	@Test
+	void embedsUserTextOnceToSearchAndStoreIt() {
+		float[] embedding = { 0.1f, 0.2f, 0.3f };
+		given(this.chatModel.call(any(Prompt.class)))
+			.willReturn(new ChatResponse(List.of(new Generation(new AssistantMessage("Hello John")))));
+		given(this.vectorStore.embed("my name is John")).willReturn(Optional.of(embedding));
+		given(this.vectorStore.similaritySearch(any(SearchRequest.class))).willReturn(List.of());
+
+		ChatClient.builder(this.chatModel)
+			.build()
+			.prompt()
+			.user("my name is John")
+			.advisors(VectorStoreChatMemoryAdvisor.builder(this.vectorStore)
+				.writeExecutor(Runnable::run)
+				.conversationId("42")
+				.build())
+			.call()
+			.content();
+
+		ArgumentCaptor<SearchRequest> searchRequest = ArgumentCaptor.forClass(SearchRequest.class);
+		verify(this.vectorStore).similaritySearch(searchRequest.capture());
+		assertThat(searchRequest.getValue().getQueryEmbedding()).isEqualTo(embedding);
+
+		ArgumentCaptor<DocumentEmbeddings> documentEmbeddings = ArgumentCaptor.forClass(DocumentEmbeddings.class);
+		verify(this.vectorStore).addEmbedded(documentEmbeddings.capture());
+		assertThat(documentEmbeddings.getValue().getDocuments()).extracting(Document::getText)
+			.containsExactly("my name is John");
+		assertThat(documentEmbeddings.getValue().getEmbedding(0)).isSameAs(embedding);
+
+		verify(this.vectorStore).add(this.documentsCaptor.capture());
+		assertThat(this.documentsCaptor.getValue()).extracting(Document::getText).containsExactly("Hello John");
+		verify(this.vectorStore, times(1)).embed(any());
+	}
+
+	@Test
+	void writesOnTheCallingThreadWithSynchronousExecutor() {
+		given(this.chatModel.call(any(Prompt.class)))
+			.willReturn(new ChatResponse(List.of(new Generation(new AssistantMessage("Hello John")))));
+		given(this.vectorStore.similaritySearch(any(SearchRequest.class))).willReturn(List.of());
+
+		ChatClient.builder(this.chatModel)
+			.build()
+			.prompt()
+			.user("my name is John")
+			.advisors(new VectorStoreChatMemoryAdvisor(this.vectorStore, "default", 10, "{long_term_memory}", 0,
+					Runnable::run))
+			.call()
+			.content();
+
+		verify(this.vectorStore, times(2)).add(anyList());
+	}
+
+}
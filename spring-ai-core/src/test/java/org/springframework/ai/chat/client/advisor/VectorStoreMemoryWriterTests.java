@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.client.advisor;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Unit tests for {@link VectorStoreMemoryWriter}.
+ */
+class VectorStoreMemoryWriterTests {
+
+	private final VectorStore vectorStore = mock(VectorStore.class);
+
+	@Test
+	void drainsDocumentsOfRejectedWriteWithNextWrite() {
+		AtomicBoolean reject = new AtomicBoolean(true);
+		Executor executor = task -> {
+			if (reject.get()) {
+				throw new RejectedExecutionException("Saturated");
+			}
+			task.run();
+		};
+		VectorStoreMemoryWriter writer = new VectorStoreMemoryWriter(this.vectorStore, executor);
+		Document first = new Document("first");
+		Document second = new Document("second");
+
+		writer.write(List.of(first));
+		verifyNoInteractions(this.vectorStore);
+
+		reject.set(false);
+		writer.write(List.of(second));
+		verify(this.vectorStore).add(List.of(first, second));
+	}
+
+}
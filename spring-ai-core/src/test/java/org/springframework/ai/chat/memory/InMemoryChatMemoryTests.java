@@ -0,0 +1,256 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.memory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.model.MediaContent;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link InMemoryChatMemory}.
+ */
+class InMemoryChatMemoryTests {
+
+	@Test
+	void returnsLastMessagesInOrder() {
+		InMemoryChatMemory chatMemory = new InMemoryChatMemory();
+		chatMemory.add("1", messages("a", "b"));
+		chatMemory.add("1", new UserMessage("c"));
+
+		assertThat(texts(chatMemory.get("1", 2))).containsExactly("b", "c");
+		assertThat(texts(chatMemory.get("1", 10))).containsExactly("a", "b", "c");
+		assertThat(chatMemory.get("1", 0)).isEmpty();
+		assertThat(chatMemory.get("2", 10)).isEmpty();
+
+		chatMemory.clear("1");
+		assertThat(chatMemory.get("1", 10)).isEmpty();
+	}
+
+	@Test
+	void keepsOnlyMostRecentMessages() {
+		InMemoryChatMemory chatMemory = InMemoryChatMemory.builder().maxMessages(3).build();
+		chatMemory.add("1", messages("a", "b"));
+		chatMemory.add("1", messages("c", "d"));
+
+		assertThat(texts(chatMemory.get("1", 10))).containsExactly("b", "c", "d");
+
+		chatMemory.add("1", messages("e", "f", "g", "h"));
+		assertThat(texts(chatMemory.get("1", 10))).containsExactly("f", "g", "h");
+		assertThat(texts(chatMemory.get("1", 2))).containsExactly("g", "h");
+	}
+
+	@Test
+	void wrapsAroundLazilyAllocatedChunks() {
+		int capacity = InMemoryChatMemory.CHUNK_SIZE * 2 + 3;
+		InMemoryChatMemory chatMemory = InMemoryChatMemory.builder().maxMessages(capacity).build();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < capacity * 3; i++) {
+			chatMemory.add("1", new UserMessage(String.valueOf(i)));
+			expected.add(String.valueOf(i));
+			List<String> last = expected.subList(Math.max(0, expected.size() - capacity), expected.size());
+			assertThat(texts(chatMemory.get("1", Integer.MAX_VALUE))).containsExactlyElementsOf(last);
+		}
+	}
+
+	@Test
+	void returnsLongestSuffixWithinTokenBudget() {
+		AtomicInteger estimates = new AtomicInteger();
+		InMemoryChatMemory chatMemory = InMemoryChatMemory.builder().tokenCountEstimator(new TokenCountEstimator() {
+
+			@Override
+			public int estimate(String text) {
+				estimates.incrementAndGet();
+				return text.length();
+			}
+
+			@Override
+			public int estimate(MediaContent content) {
+				return estimate(content.getText());
+			}
+
+			@Override
+			public int estimate(Iterable<MediaContent> messages) {
+				throw new UnsupportedOperationException();
+			}
+
+		}).build();
+		chatMemory.add("1", messages("aaaa", "bb", "ccc", "d"));
+		assertThat(texts(chatMemory.get("1", 10))).hasSize(4);
+		assertThat(estimates).hasValue(0);
+
+		assertThat(texts(chatMemory.get("1", 10, 6))).containsExactly("bb", "ccc", "d");
+		assertThat(texts(chatMemory.get("1", 10, 5))).containsExactly("ccc", "d");
+		assertThat(texts(chatMemory.get("1", 1, 100))).containsExactly("d");
+		assertThat(chatMemory.get("1", 10, 0)).isEmpty();
+		assertThat(estimates).hasValue(4);
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedConversations() {
+		AtomicLong time = new AtomicLong();
+		InMemoryChatMemory chatMemory = InMemoryChatMemory.builder()
+			.maxConversations(2)
+			.ticker(time::incrementAndGet)
+			.build();
+		chatMemory.add("1", new UserMessage("a"));
+		chatMemory.add("2", new UserMessage("b"));
+		chatMemory.get("1", 1);
+		chatMemory.add("3", new UserMessage("c"));
+
+		assertThat(chatMemory.get("1", 1)).hasSize(1);
+		assertThat(chatMemory.get("2", 1)).isEmpty();
+		assertThat(chatMemory.get("3", 1)).hasSize(1);
+	}
+
+	@Test
+	void evictsIdleConversations() {
+		AtomicLong time = new AtomicLong();
+		InMemoryChatMemory chatMemory = InMemoryChatMemory.builder()
+			.idleTimeout(Duration.ofNanos(10))
+			.ticker(time::get)
+			.build();
+		chatMemory.add("1", new UserMessage("a"));
+		chatMemory.add("2", new UserMessage("b"));
+
+		time.set(8);
+		assertThat(chatMemory.get("1", 1)).hasSize(1);
+
+		time.set(15);
+		assertThat(chatMemory.get("1", 1)).hasSize(1);
+		assertThat(chatMemory.get("2", 1)).isEmpty();
+
+		time.set(30);
+		chatMemory.add("1", new UserMessage("c"));
+		assertThat(texts(chatMemory.get("1", 10))).containsExactly("c");
+	}
+
+	@Test
+	void doesNotEvictConversationWithAppendInProgress() throws Exception {
+		AtomicLong time = new AtomicLong();
+		InMemoryChatMemory chatMemory = InMemoryChatMemory.builder()
+			.maxConversations(1)
+			.ticker(time::incrementAndGet)
+			.build();
+		CountDownLatch appending = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Message> blocking = new ArrayList<>(messages("a", "b")) {
+
+			@Override
+			public Message get(int index) {
+				if (index == 1) {
+					appending.countDown();
+					await(release);
+				}
+				return super.get(index);
+			}
+
+		};
+		CompletableFuture<Void> append = CompletableFuture.runAsync(() -> chatMemory.add("1", blocking));
+		assertThat(appending.await(5, TimeUnit.SECONDS)).isTrue();
+
+		chatMemory.add("2", new UserMessage("c"));
+		assertThat(texts(chatMemory.get("1", 10))).containsExactly("a");
+		release.countDown();
+		append.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void appendsToNewConversationAfterClear() {
+		InMemoryChatMemory chatMemory = new InMemoryChatMemory();
+		chatMemory.add("1", new UserMessage("a"));
+		chatMemory.clear("1");
+		chatMemory.add("1", new UserMessage("b"));
+
+		assertThat(texts(chatMemory.get("1", 10))).containsExactly("b");
+	}
+
+	@Test
+	void concurrentAppendsKeepEveryMessage() throws Exception {
+		int threads = 8;
+		int messagesPerThread = 1000;
+		InMemoryChatMemory chatMemory = InMemoryChatMemory.builder().maxMessages(threads * messagesPerThread).build();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<CompletableFuture<Void>> futures = IntStream.range(0, threads)
+				.mapToObj(thread -> CompletableFuture.runAsync(() -> {
+					await(start);
+					for (int i = 0; i < messagesPerThread; i += 2) {
+						chatMemory.add("1", messages(thread + ":" + i, thread + ":" + (i + 1)));
+					}
+				}, executor))
+				.toList();
+			start.countDown();
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		List<String> texts = texts(chatMemory.get("1", Integer.MAX_VALUE));
+		assertThat(texts).hasSize(threads * messagesPerThread);
+		for (int thread = 0; thread < threads; thread++) {
+			String prefix = thread + ":";
+			assertThat(texts.stream().filter(text -> text.startsWith(prefix)).toList())
+				.containsExactlyElementsOf(IntStream.range(0, messagesPerThread).mapToObj(i -> prefix + i).toList());
+		}
+		for (int i = 0; i < texts.size(); i += 2) {
+			String first = texts.get(i);
+			String second = texts.get(i + 1);
+			assertThat(second.substring(0, second.indexOf(':'))).isEqualTo(first.substring(0, first.indexOf(':')));
+		}
+	}
+
+	private static List<Message> messages(String... texts) {
+		List<Message> messages = new ArrayList<>();
+		for (String text : texts) {
+			messages.add(new UserMessage(text));
+		}
+		return messages;
+	}
+
+	private static List<String> texts(List<Message> messages) {
+		return messages.stream().map(Message::getText).toList();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.memory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Unit tests for {@link WriteBehindChatMemory}.
+ */
+class WriteBehindChatMemoryTests {
+
+	private final BlockingChatMemory delegate = new BlockingChatMemory();
+
+	@AfterEach
+	void release() {
+		this.delegate.gate.countDown();
+	}
+
+	@Test
+	void coalescesPendingMessagesPerConversation() throws InterruptedException {
+		WriteBehindChatMemory chatMemory = WriteBehindChatMemory.builder(this.delegate).build();
+		chatMemory.add("1", new UserMessage("a"));
+		assertThat(this.delegate.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		chatMemory.add("1", new UserMessage("b"));
+		chatMemory.add("2", new UserMessage("c"));
+		chatMemory.add("1", List.of(new UserMessage("d"), new UserMessage("e")));
+		this.delegate.gate.countDown();
+		chatMemory.close();
+
+		assertThat(this.delegate.writes).containsExactly("1:[a]", "1:[b, d, e]", "2:[c]");
+		assertThat(texts(this.delegate.get("1", 10))).containsExactly("a", "b", "d", "e");
+	}
+
+	@Test
+	void servesRecentMessagesFromCacheBeforeTheyAreWritten() throws InterruptedException {
+		WriteBehindChatMemory chatMemory = WriteBehindChatMemory.builder(this.delegate).cachedMessages(2).build();
+		assertThat(chatMemory.get("1", 10)).isEmpty();
+
+		chatMemory.add("1", List.of(new UserMessage("a"), new UserMessage("b")));
+		assertThat(this.delegate.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		chatMemory.add("1", new UserMessage("c"));
+
+		assertThat(texts(chatMemory.get("1", 2))).containsExactly("b", "c");
+		assertThat(this.delegate.writes).isEmpty();
+
+		this.delegate.gate.countDown();
+		assertThat(texts(chatMemory.get("1", 10))).containsExactly("a", "b", "c");
+		assertThat(this.delegate.writes).containsExactly("1:[a, b]", "1:[c]");
+	}
+
+	@Test
+	void appliesBackPressureWhenTooManyMessagesArePending() throws InterruptedException {
+		WriteBehindChatMemory chatMemory = WriteBehindChatMemory.builder(this.delegate)
+			.maxPendingMessages(2)
+			.addTimeout(Duration.ofMillis(50))
+			.build();
+		chatMemory.add("1", new UserMessage("a"));
+		assertThat(this.delegate.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		chatMemory.add("1", new UserMessage("b"));
+
+		assertThatThrownBy(() -> chatMemory.add("1", new UserMessage("c"))).isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("Timed out");
+
+		this.delegate.gate.countDown();
+		chatMemory.add("1", new UserMessage("c"));
+		chatMemory.close();
+		assertThat(texts(this.delegate.get("1", 10))).containsExactly("a", "b", "c");
+	}
+
+	@Test
+	void clearWaitsForPendingMessages() {
+		WriteBehindChatMemory chatMemory = WriteBehindChatMemory.builder(this.delegate).build();
+		this.delegate.gate.countDown();
+		chatMemory.add("1", new UserMessage("a"));
+		chatMemory.clear("1");
+
+		assertThat(chatMemory.get("1", 10)).isEmpty();
+		assertThat(this.delegate.get("1", 10)).isEmpty();
+		chatMemory.close();
+	}
+
+	@Test
+	void forwardsReadsWithinTokenBudgetToTokenAwareDelegate() {
+		WriteBehindChatMemory chatMemory = WriteBehindChatMemory.builder(this.delegate).build();
+		this.delegate.gate.countDown();
+		chatMemory.add("1", List.of(new UserMessage("a"), new UserMessage("b"), new UserMessage("c")));
+
+		assertThat(chatMemory).isInstanceOf(TokenAwareChatMemory.class);
+		assertThat(texts(((TokenAwareChatMemory) chatMemory).get("1", 10, 2))).containsExactly("b", "c");
+		chatMemory.close();
+	}
+
+	@Test
+	void isNotTokenAwareWithPlainDelegate() {
+		ChatMemory plain = new ChatMemory() {
+
+			@Override
+			public void add(String conversationId, List<Message> messages) {
+			}
+
+			@Override
+			public List<Message> get(String conversationId, int lastN) {
+				return List.of();
+			}
+
+			@Override
+			public void clear(String conversationId) {
+			}
+
+		};
+		WriteBehindChatMemory chatMemory = WriteBehindChatMemory.builder(plain).build();
+
+		assertThat(chatMemory).isNotInstanceOf(TokenAwareChatMemory.class);
+		chatMemory.close();
+	}
+
+	@Test
+	void rejectsMessagesOnceClosed() {
+		WriteBehindChatMemory chatMemory = WriteBehindChatMemory.builder(this.delegate).build();
+		chatMemory.close();
+
+		assertThatThrownBy(() -> chatMemory.add("1", new UserMessage("a"))).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void failsInsteadOfBlockingOnceFlusherStops() throws InterruptedException {
+		WriteBehindChatMemory chatMemory = WriteBehindChatMemory.builder(this.delegate).build();
+		this.delegate.failure = new AssertionError("Delegate failure");
+		chatMemory.add("1", new UserMessage("a"));
+		assertThat(this.delegate.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		chatMemory.add("1", new UserMessage("b"));
+		this.delegate.gate.countDown();
+
+		assertTimeoutPreemptively(Duration.ofSeconds(5),
+				() -> assertThatIllegalStateException().isThrownBy(() -> chatMemory.get("1", 10))
+					.withMessageContaining("flusher has stopped"));
+		assertThatIllegalStateException().isThrownBy(() -> chatMemory.add("2", new UserMessage("c")))
+			.withMessageContaining("flusher has stopped");
+	}
+
+	private static List<String> texts(List<Message> messages) {
+		return messages.stream().map(Message::getText).toList();
+	}
+
+	/**
+	 * Records every write and blocks the writes until the gate opens.
+	 */
+	private static final class BlockingChatMemory extends InMemoryChatMemory {
+
+		final CountDownLatch entered = new CountDownLatch(1);
+
+		final CountDownLatch gate = new CountDownLatch(1);
+
+		final List<String> writes = new CopyOnWriteArrayList<>();
+
+		@Nullable
+		volatile Error failure;
+
+		@Override
+		public void add(String conversationId, List<Message> messages) {
+			this.entered.countDown();
+			try {
+				this.gate.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			if (this.failure != null) {
+				throw this.failure;
+			}
+			super.add(conversationId, messages);
+			this.writes.add(conversationId + ":" + texts(messages));
+		}
+
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.client.advisor.api.AdvisedResponse;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.AssistantMessage.ToolCall;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link MessageAggregator}.
+ */
+class MessageAggregatorTests {
+
+	@Test
+	void aggregatesTextMetadataAndUsage() {
+		List<ChatResponse> aggregated = new ArrayList<>();
+		Flux<ChatResponse> chunks = Flux.just(
+				chunk(new Generation(new AssistantMessage("Hello", Map.of("id", "1"))), "chat-1", "", 10, 0, 0),
+				chunk(new Generation(new AssistantMessage(" world", Map.of("role", "ASSISTANT")),
+						ChatGenerationMetadata.builder().finishReason("STOP").build()), "", "gpt", 0, 5, 15));
+
+		List<ChatResponse> streamed = new MessageAggregator().aggregate(chunks, aggregated::add).collectList().block();
+
+		assertThat(streamed).hasSize(2);
+		assertThat(aggregated).hasSize(1);
+		ChatResponse response = aggregated.get(0);
+		assertThat(response.getResult().getOutput().getText()).isEqualTo("Hello world");
+		assertThat(response.getResult().getOutput().getMetadata()).containsEntry("id", "1")
+			.containsEntry("role", "ASSISTANT");
+		assertThat(response.getResult().getMetadata().getFinishReason()).isEqualTo("STOP");
+		assertThat(response.getMetadata().getId()).isEqualTo("chat-1");
+		assertThat(response.getMetadata().getModel()).isEqualTo("gpt");
+		assertThat(response.getMetadata().getUsage().getPromptTokens()).isEqualTo(10);
+		assertThat(response.getMetadata().getUsage().getGenerationTokens()).isEqualTo(5);
+		assertThat(response.getMetadata().getUsage().getTotalTokens()).isEqualTo(15);
+	}
+
+	@Test
+	void aggregatesEachGenerationByIndex() {
+		List<ChatResponse> aggregated = new ArrayList<>();
+		Flux<ChatResponse> chunks = Flux.just(chunk(List.of(generation("A", 0), generation("B", 1)), "", "", 0, 0, 0),
+				chunk(List.of(generation("b", 1)), "", "", 0, 0, 0),
+				chunk(List.of(generation("a", 0)), "", "", 0, 0, 0));
+
+		new MessageAggregator().aggregate(chunks, aggregated::add).blockLast();
+
+		assertThat(aggregated.get(0).getResults()).extracting(generation -> generation.getOutput().getText())
+			.containsExactly("Aa", "Bb");
+	}
+
+	@Test
+	void aggregatesToolCallDeltas() {
+		List<ChatResponse> aggregated = new ArrayList<>();
+		Flux<ChatResponse> chunks = Flux.just(toolCallChunk(new ToolCall("call-1", "function", "weather", "{\"ci")),
+				toolCallChunk(new ToolCall("", "", "", "ty\":\"Paris\"}")),
+				toolCallChunk(new ToolCall("call-2", "function", "time", "{}")));
+
+		new MessageAggregator().aggregate(chunks, aggregated::add).blockLast();
+
+		assertThat(aggregated.get(0).getResult().getOutput().getToolCalls()).containsExactly(
+				new ToolCall("call-1", "function", "weather", "{\"city\":\"Paris\"}"),
+				new ToolCall("call-2", "function", "time", "{}"));
+	}
+
+	@Test
+	void keepsWholeToolCallsWithoutIdApart() {
+		List<ChatResponse> aggregated = new ArrayList<>();
+		Flux<ChatResponse> chunks = Flux
+			.just(chunk(
+					new Generation(new AssistantMessage("", Map.of(),
+							List.of(new ToolCall("", "function", "weather", "{\"city\":\"Paris\"}"),
+									new ToolCall("", "function", "weather", "{\"city\":\"Rome\"}")))),
+					"", "", 0, 0, 0));
+
+		new MessageAggregator().aggregate(chunks, aggregated::add).blockLast();
+
+		assertThat(aggregated.get(0).getResult().getOutput().getToolCalls()).containsExactly(
+				new ToolCall("", "function", "weather", "{\"city\":\"Paris\"}"),
+				new ToolCall("", "function", "weather", "{\"city\":\"Rome\"}"));
+	}
+
+	@Test
+	void scopesStateToEachSubscription() {
+		List<ChatResponse> aggregated = new ArrayList<>();
+		Flux<ChatResponse> flux = new MessageAggregator()
+			.aggregate(Flux.just(chunk(new Generation(new AssistantMessage("Hi")), "", "", 0, 0, 0)), aggregated::add);
+
+		flux.blockLast();
+		flux.blockLast();
+
+		assertThat(aggregated).extracting(response -> response.getResult().getOutput().getText())
+			.containsExactly("Hi", "Hi");
+	}
+
+	@Test
+	void aggregatesAdvisedResponses() {
+		List<AdvisedResponse> aggregated = new ArrayList<>();
+		Flux<AdvisedResponse> chunks = Flux.just(
+				new AdvisedResponse(chunk(new Generation(new AssistantMessage("Hello")), "", "", 0, 0, 0),
+						Map.of("a", 1)),
+				new AdvisedResponse(chunk(new Generation(new AssistantMessage(" there")), "", "", 0, 0, 0),
+						Map.of("b", 2)));
+
+		new MessageAggregator().aggregateAdvisedResponse(chunks, aggregated::add).blockLast();
+
+		assertThat(aggregated).hasSize(1);
+		assertThat(aggregated.get(0).response().getResult().getOutput().getText()).isEqualTo("Hello there");
+		assertThat(aggregated.get(0).adviseContext()).containsEntry("a", 1).containsEntry("b", 2);
+	}
+
+	private static Generation generation(String text, int index) {
+		return new Generation(new AssistantMessage(text, Map.of("index", index)));
+	}
+
+	private static ChatResponse toolCallChunk(ToolCall toolCall) {
+		return chunk(new Generation(new AssistantMessage("", Map.of(), List.of(toolCall))), "", "", 0, 0, 0);
+	}
+
+	private static ChatResponse chunk(Generation generation, String id, String model, long promptTokens,
+			long generationTokens, long totalTokens) {
+		return chunk(List.of(generation), id, model, promptTokens, generationTokens, totalTokens);
+	}
+
+	private static ChatResponse chunk(List<Generation> generations, String id, String model, long promptTokens,
+			long generationTokens, long totalTokens) {
+		return new ChatResponse(generations,
+				ChatResponseMetadata.builder()
+					.id(id)
+					.model(model)
+					.usage(new MessageAggregator.DefaultUsage(promptTokens, generationTokens, totalTokens))
+					.build());
+	}
+
+}
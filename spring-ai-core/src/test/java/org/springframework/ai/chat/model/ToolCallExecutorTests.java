@@ -0,0 +1,177 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.AssistantMessage.ToolCall;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage.ToolResponse;
+import org.springframework.ai.model.function.FunctionCallback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Unit tests for {@link ToolCallExecutor}.
+ */
+class ToolCallExecutorTests {
+
+	@Test
+	void returnsResultsInToolCallOrder() {
+		ToolCallExecutor executor = ToolCallExecutor.builder().build();
+		List<ToolCall> toolCalls = toolCalls(5);
+
+		List<String> results = executor.execute(toolCalls, toolCall -> {
+			sleep(50L * (5 - Integer.parseInt(toolCall.id())));
+			return "result-" + toolCall.id();
+		});
+
+		assertThat(results).containsExactly("result-0", "result-1", "result-2", "result-3", "result-4");
+	}
+
+	@Test
+	void runsToolCallsConcurrentlyWithinTheCap() {
+		ToolCallExecutor executor = ToolCallExecutor.builder().maxConcurrency(3).build();
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+
+		long start = System.nanoTime();
+		executor.execute(toolCalls(9), toolCall -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			sleep(200);
+			inFlight.decrementAndGet();
+			return toolCall.id();
+		});
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertThat(maxInFlight.get()).isEqualTo(3);
+		assertThat(elapsedMillis).isLessThan(9 * 200);
+	}
+
+	@Test
+	void failsAndInterruptsToolCallsExceedingTheTimeout() throws InterruptedException {
+		ToolCallExecutor executor = ToolCallExecutor.builder().timeout(Duration.ofMillis(200)).build();
+		CountDownLatch interrupted = new CountDownLatch(1);
+
+		assertThatThrownBy(() -> executor.execute(toolCalls(2), toolCall -> {
+			if (toolCall.id().equals("0")) {
+				return "fast";
+			}
+			try {
+				Thread.sleep(10_000);
+			}
+			catch (InterruptedException ex) {
+				interrupted.countDown();
+			}
+			return "slow";
+		})).isInstanceOf(IllegalStateException.class).hasMessageContaining("tool-1").hasMessageContaining("PT0.2S");
+
+		assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void propagatesToolCallErrors() {
+		ToolCallExecutor executor = ToolCallExecutor.builder().build();
+
+		assertThatThrownBy(() -> executor.execute(toolCalls(3), toolCall -> {
+			if (toolCall.id().equals("1")) {
+				throw new IllegalArgumentException("Invalid arguments");
+			}
+			return toolCall.id();
+		})).isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid arguments");
+	}
+
+	@Test
+	void executesFunctionsConcurrentlyWhenConfigured() {
+		TestToolCallSupport toolCallSupport = new TestToolCallSupport();
+		toolCallSupport.setToolCallExecutor(ToolCallExecutor.builder().build());
+		AssistantMessage assistantMessage = new AssistantMessage("", Map.of(),
+				List.of(new ToolCall("a", "function", "slow", "{}"), new ToolCall("b", "function", "fast", "{}")));
+
+		long start = System.nanoTime();
+		ToolResponseMessage response = toolCallSupport.executeFunctions(assistantMessage, new ToolContext(Map.of()));
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertThat(response.getResponses()).extracting(ToolResponse::id, ToolResponse::name, ToolResponse::responseData)
+			.containsExactly(tuple("a", "slow", "slow result"), tuple("b", "fast", "fast result"));
+		assertThat(elapsedMillis).isLessThan(400);
+	}
+
+	private static List<ToolCall> toolCalls(int count) {
+		List<ToolCall> toolCalls = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			toolCalls.add(new ToolCall(String.valueOf(i), "function", "tool-" + i, "{}"));
+		}
+		return toolCalls;
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	static class TestToolCallSupport extends AbstractToolCallSupport {
+
+		TestToolCallSupport() {
+			super(null);
+			this.functionCallbackRegister.put("slow", new SleepingFunctionCallback("slow", 250));
+			this.functionCallbackRegister.put("fast", new SleepingFunctionCallback("fast", 250));
+		}
+
+	}
+
+	record SleepingFunctionCallback(String name, long millis) implements FunctionCallback {
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public String getDescription() {
+			return this.name;
+		}
+
+		@Override
+		public String getInputTypeSchema() {
+			return "{}";
+		}
+
+		@Override
+		public String call(String functionInput) {
+			sleep(this.millis);
+			return this.name + " result";
+		}
+
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.prompt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ByteArrayResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link CompiledPromptTemplate}.
+ */
+class CompiledPromptTemplateTests {
+
+	private static final String[] PIECES = { "text", " ", "\t", "  ", "\n", "\r\n", "{a}", "{b}", "{list}", "{c1_d}",
+			"more text, with punctuation: 'quotes' and \"double quotes\"." };
+
+	private static final Object[] VALUES = { "", "x", "line1\nline2", "line1\r\nline2\n", "\n", "  indented\n\nafter",
+			List.of("a", "b\nc"), new String[] { "d", "e" }, new int[] { 1, 2 }, Map.of("key", "value"), 42, true,
+			null };
+
+	@Test
+	void shouldCacheCompiledTemplates() {
+		CompiledPromptTemplate template = CompiledPromptTemplate.of("Hello {name}!");
+
+		assertThat(CompiledPromptTemplate.of("Hello {name}!")).isSameAs(template);
+		assertThat(template.getInputVariables()).containsExactly("name");
+		assertThat(template.render(Map.of("name", "Alice"))).isEqualTo("Hello Alice!");
+		assertThat(template.render(Map.of("name", "Bob", "unused", 1))).isEqualTo("Hello Bob!");
+	}
+
+	@Test
+	void shouldCompileUncachedTemplates() {
+		CompiledPromptTemplate cached = CompiledPromptTemplate.of("Hi {name}, {question}");
+		CompiledPromptTemplate compiled = CompiledPromptTemplate.compile("Hi {name}, {question}");
+
+		assertThat(compiled).isNotSameAs(cached).isNotSameAs(CompiledPromptTemplate.compile("Hi {name}, {question}"));
+		assertThat(CompiledPromptTemplate.of("Hi {name}, {question}")).isSameAs(cached);
+		assertThat(compiled.render(Map.of("name", "Alice", "question", "why?"))).isEqualTo("Hi Alice, why?");
+	}
+
+	@Test
+	void shouldDetectSimpleTemplates() {
+		assertThat(CompiledPromptTemplate.parseSimpleTemplate("Hello {name},\n  {greeting}\r\n")).isNotNull();
+		assertThat(CompiledPromptTemplate.parseSimpleTemplate("{items:{x|{x}}}")).isNull();
+		assertThat(CompiledPromptTemplate.parseSimpleTemplate("{person.name}")).isNull();
+		assertThat(CompiledPromptTemplate.parseSimpleTemplate("{if(flag)}yes{endif}")).isNull();
+		assertThat(CompiledPromptTemplate.parseSimpleTemplate("\\{escaped}")).isNull();
+		assertThat(CompiledPromptTemplate.parseSimpleTemplate("{ name }")).isNull();
+		assertThat(CompiledPromptTemplate.parseSimpleTemplate("{true}")).isNull();
+	}
+
+	@Test
+	void shouldRenderLikePromptTemplate() {
+		Random random = new Random(42);
+		for (int i = 0; i < 5000; i++) {
+			StringBuilder text = new StringBuilder();
+			int pieces = 1 + random.nextInt(12);
+			for (int p = 0; p < pieces; p++) {
+				text.append(PIECES[random.nextInt(PIECES.length)]);
+			}
+			Map<String, Object> model = new HashMap<>();
+			for (String name : List.of("a", "b", "list", "c1_d")) {
+				model.put(name, VALUES[random.nextInt(VALUES.length)]);
+			}
+			String template = text.toString();
+
+			assertThat(CompiledPromptTemplate.of(template).render(model))
+				.as("template %s with %s", Arrays.toString(template.toCharArray()), model)
+				.isEqualTo(new PromptTemplate(template).render(model));
+		}
+	}
+
+	@Test
+	void shouldRenderComplexTemplatesLikePromptTemplate() {
+		Map<String, Object> model = Map.of("items", List.of("a", "b"), "flag", true);
+		for (String template : List.of("{items:{x|[{x}]}}", "{items:{x|{x}\n}}{flag}", "{if(flag)}yes{else}no{endif}",
+				"\\{not a variable} {flag}")) {
+			CompiledPromptTemplate compiled = CompiledPromptTemplate.of(template);
+
+			assertThat(compiled.render(model)).isEqualTo(new PromptTemplate(template).render(model));
+			assertThat(compiled.render(model)).isEqualTo(new PromptTemplate(template).render(model));
+		}
+	}
+
+	@Test
+	void shouldRenderResourcesAndRejectMissingVariables() {
+		CompiledPromptTemplate template = CompiledPromptTemplate.of("Context: {context} for {question}");
+
+		assertThat(template.render(Map.of("context", new ByteArrayResource("docs".getBytes()), "question", "q")))
+			.isEqualTo("Context: docs for q");
+		assertThatThrownBy(() -> template.render(Map.of("context", "docs"))).isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("question");
+	}
+
+	@Test
+	void shouldRenderConcurrently() throws InterruptedException {
+		CompiledPromptTemplate template = CompiledPromptTemplate.of("{items:{x|{x}{suffix}}}");
+		List<Thread> threads = new ArrayList<>();
+		List<Throwable> errors = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			String suffix = String.valueOf(t);
+			Thread thread = new Thread(() -> {
+				try {
+					for (int i = 0; i < 2000; i++) {
+						assertThat(template.render(Map.of("items", List.of("a", "b"), "suffix", suffix)))
+							.isEqualTo("a" + suffix + "b" + suffix);
+					}
+				}
+				catch (Throwable ex) {
+					synchronized (errors) {
+						errors.add(ex);
+					}
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertThat(errors).isEmpty();
+	}
+
+	@Test
+	void shouldRenderSystemTemplatesLikePromptTemplate() {
+		String system = """
+				You are a helpful assistant for {company}.
+				Answer the question of {user} in {language}, using the context below.
+				---------------------
+				{context}
+				---------------------
+				""";
+		String complex = "Answer using these facts: {facts:{f|- {f}\n}}and reply in {language}.";
+		Map<String, Object> model = Map.of("company", "ACME", "user", "Alice", "language", "English", "context",
+				"Some retrieved context.\nWith several lines.", "facts", List.of("one", "two", "three"));
+
+		for (String template : List.of(system, complex)) {
+			assertThat(CompiledPromptTemplate.of(template).render(model))
+				.isEqualTo(new PromptTemplate(template, model).render());
+		}
+	}
+
+}
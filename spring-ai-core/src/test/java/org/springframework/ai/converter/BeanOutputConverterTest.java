@@ -35,6 +35,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.ParameterizedTypeReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * @author Sebastian Ullrich
@@ -57,6 +58,51 @@ class BeanOutputConverterTest {
 		assertThat(objectMapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)).isFalse();
 	}
 
+	@Test
+	void shouldReuseCompiledSchemaForSameType() {
+		var first = new BeanOutputConverter<>(TestClass.class);
+		var second = new BeanOutputConverter<>(new ParameterizedTypeReference<TestClass>() {
+
+		});
+
+		assertThat(second.getObjectMapper()).isSameAs(first.getObjectMapper());
+		assertThat(second.getJsonSchema()).isSameAs(first.getJsonSchema());
+		assertThat(second.getFormat()).isSameAs(first.getFormat());
+		assertThat(second.convert("{ \"someString\": \"some value\" }").getSomeString()).isEqualTo("some value");
+	}
+
+	@Test
+	void shouldReuseCompiledSchemaForSameParameterizedType() {
+		var first = new BeanOutputConverter<>(new ParameterizedTypeReference<List<TestClass>>() {
+
+		});
+		var second = new BeanOutputConverter<>(new ParameterizedTypeReference<List<TestClass>>() {
+
+		});
+
+		assertThat(second.getJsonSchema()).isSameAs(first.getJsonSchema());
+		assertThat(second.convert("[{ \"someString\": \"some value\" }]")).singleElement()
+			.extracting(TestClass::getSomeString)
+			.isEqualTo("some value");
+	}
+
+	@Test
+	void shouldNotCacheReadersOfCustomObjectMapper() {
+		ObjectMapper objectMapper = new ObjectMapper();
+		var shared = new BeanOutputConverter<>(TestClass.class);
+		var strict = new BeanOutputConverter<>(TestClass.class, objectMapper);
+
+		assertThat(strict.getJsonSchema()).isEqualTo(shared.getJsonSchema());
+		assertThatThrownBy(() -> strict.convert("{ \"someString\": \"some value\", \"other\": 1 }"))
+			.isInstanceOf(RuntimeException.class);
+
+		objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		var lenient = new BeanOutputConverter<>(TestClass.class, objectMapper);
+
+		assertThat(lenient.convert("{ \"someString\": \"some value\", \"other\": 1 }").getSomeString())
+			.isEqualTo("some value");
+	}
+
 	static class TestClass {
 
 		private String someString;
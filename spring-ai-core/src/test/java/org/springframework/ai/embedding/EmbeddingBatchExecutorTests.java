@@ -0,0 +1,189 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.embedding;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link EmbeddingBatchExecutor}.
+ */
+class EmbeddingBatchExecutorTests {
+
+	private static final BatchingStrategy SINGLETON_BATCHES = documents -> documents.stream().map(List::of).toList();
+
+	private final EmbeddingOptions options = EmbeddingOptionsBuilder.builder().build();
+
+	@Test
+	void reassemblesEmbeddingsInInputOrderWithBoundedConcurrency() {
+		TestEmbeddingModel model = new TestEmbeddingModel();
+		List<Document> documents = documents(20);
+		EmbeddingBatchExecutor executor = EmbeddingBatchExecutor.builder().maxConcurrency(4).build();
+
+		List<float[]> embeddings = executor.embed(model, documents, this.options, SINGLETON_BATCHES);
+
+		assertThat(embeddings).extracting(embedding -> (int) embedding[0])
+			.containsExactlyElementsOf(IntStream.range(0, 20).boxed().toList());
+		assertThat(model.maxInFlight.get()).isBetween(2, 4);
+	}
+
+	@Test
+	void mapsEmbeddingsBackWhenBatchesAreReordered() {
+		BatchingStrategy reversed = documents -> {
+			List<List<Document>> batches = new ArrayList<>(
+					List.of(documents.subList(0, 3), documents.subList(3, 7), documents.subList(7, documents.size())));
+			Collections.reverse(batches);
+			return batches;
+		};
+		EmbeddingBatchExecutor executor = EmbeddingBatchExecutor.builder().build();
+
+		List<float[]> embeddings = executor.embed(new TestEmbeddingModel(), documents(10), this.options, reversed);
+
+		assertThat(embeddings).extracting(embedding -> (int) embedding[0])
+			.containsExactlyElementsOf(IntStream.range(0, 10).boxed().toList());
+	}
+
+	@Test
+	void backsOffAndRetriesTransientErrors() {
+		TestEmbeddingModel model = new TestEmbeddingModel();
+		model.failures.set(3);
+		EmbeddingBatchExecutor executor = EmbeddingBatchExecutor.builder()
+			.maxConcurrency(4)
+			.initialBackoff(Duration.ofMillis(10))
+			.build();
+
+		List<float[]> embeddings = executor.embed(model, documents(8), this.options, SINGLETON_BATCHES);
+
+		assertThat(embeddings).extracting(embedding -> (int) embedding[0])
+			.containsExactlyElementsOf(IntStream.range(0, 8).boxed().toList());
+		assertThat(model.calls.get()).isEqualTo(11);
+	}
+
+	@Test
+	void failsWhenTransientErrorsPersist() {
+		TestEmbeddingModel model = new TestEmbeddingModel();
+		model.failures.set(Integer.MAX_VALUE);
+		EmbeddingBatchExecutor executor = EmbeddingBatchExecutor.builder()
+			.maxConcurrency(1)
+			.maxAttempts(2)
+			.initialBackoff(Duration.ofMillis(1))
+			.build();
+
+		assertThatThrownBy(() -> executor.embed(model, documents(3), this.options, SINGLETON_BATCHES))
+			.isInstanceOf(TooManyRequests.class);
+		assertThat(model.calls.get()).isEqualTo(2);
+	}
+
+	@Test
+	void failsFastOnNonTransientErrors() {
+		EmbeddingModel model = new TestEmbeddingModel() {
+
+			@Override
+			public EmbeddingResponse call(EmbeddingRequest request) {
+				throw new IllegalArgumentException("Invalid input");
+			}
+
+		};
+		EmbeddingBatchExecutor executor = EmbeddingBatchExecutor.builder().build();
+
+		assertThatThrownBy(() -> executor.embed(model, documents(3), this.options, SINGLETON_BATCHES))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Invalid input");
+	}
+
+	@Test
+	void detectsTransientErrorsInCauseChain() {
+		assertThat(EmbeddingBatchExecutor.isTransient(new IllegalStateException(new TooManyRequests()))).isTrue();
+		assertThat(EmbeddingBatchExecutor.isTransient(new IllegalStateException("Boom"))).isFalse();
+	}
+
+	@Test
+	void abstractEmbeddingModelUsesConfiguredBatchExecutor() {
+		TestEmbeddingModel model = new TestEmbeddingModel();
+		model.setBatchExecutor(EmbeddingBatchExecutor.builder().maxConcurrency(3).build());
+
+		List<float[]> embeddings = model.embed(documents(12), this.options, SINGLETON_BATCHES);
+
+		assertThat(embeddings).extracting(embedding -> (int) embedding[0])
+			.containsExactlyElementsOf(IntStream.range(0, 12).boxed().toList());
+		assertThat(model.maxInFlight.get()).isGreaterThan(1);
+	}
+
+	private static List<Document> documents(int count) {
+		return IntStream.range(0, count).mapToObj(i -> new Document(String.valueOf(i))).toList();
+	}
+
+	/**
+	 * Returns the numeric value of the text as embedding, with a delay inversely
+	 * proportional to it so that batches complete out of order.
+	 */
+	static class TestEmbeddingModel extends AbstractEmbeddingModel {
+
+		final AtomicInteger calls = new AtomicInteger();
+
+		final AtomicInteger failures = new AtomicInteger();
+
+		final AtomicInteger inFlight = new AtomicInteger();
+
+		final AtomicInteger maxInFlight = new AtomicInteger();
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			this.calls.incrementAndGet();
+			this.maxInFlight.accumulateAndGet(this.inFlight.incrementAndGet(), Math::max);
+			try {
+				if (this.failures.getAndDecrement() > 0) {
+					throw new TooManyRequests();
+				}
+				List<Embedding> embeddings = new ArrayList<>();
+				for (String text : request.getInstructions()) {
+					embeddings.add(new Embedding(new float[] { Float.parseFloat(text) }, embeddings.size()));
+				}
+				Thread.sleep(Math.max(1, 20 - Integer.parseInt(request.getInstructions().get(0))));
+				return new EmbeddingResponse(embeddings);
+			}
+			catch (InterruptedException ex) {
+				throw new IllegalStateException(ex);
+			}
+			finally {
+				this.inFlight.decrementAndGet();
+			}
+		}
+
+		@Override
+		public float[] embed(Document document) {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+	static class TooManyRequests extends RuntimeException {
+
+	}
+
+}
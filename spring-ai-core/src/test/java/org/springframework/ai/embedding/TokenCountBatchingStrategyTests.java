@@ -18,11 +18,19 @@ package org.springframework.ai.embedding;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.ai.document.ContentFormatter;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy.Packing;
+import org.springframework.ai.model.MediaContent;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 
@@ -36,6 +44,8 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
  */
 public class TokenCountBatchingStrategyTests {
 
+	private static final ContentFormatter TEXT_ONLY = (document, mode) -> document.getText();
+
 	@Test
 	void batchEmbeddingHappyPath() {
 		TokenCountBatchingStrategy tokenCountBatchingStrategy = new TokenCountBatchingStrategy();
@@ -54,4 +64,105 @@ public class TokenCountBatchingStrategyTests {
 			.isInstanceOf(IllegalArgumentException.class);
 	}
 
+	@Test
+	void formatsEachDocumentOnce() {
+		AtomicInteger formatted = new AtomicInteger();
+		ContentFormatter formatter = (document, mode) -> {
+			formatted.incrementAndGet();
+			return document.getText();
+		};
+		TokenCountBatchingStrategy strategy = new TokenCountBatchingStrategy(new LengthTokenCountEstimator(), 10, 0,
+				formatter, MetadataMode.NONE);
+
+		List<List<Document>> batches = strategy
+			.batch(List.of(new Document("aaaa"), new Document("bbbb"), new Document("cccc")));
+
+		assertThat(formatted).hasValue(3);
+		assertThat(batches).extracting(List::size).containsExactly(2, 1);
+	}
+
+	@Test
+	void keepsEqualDocuments() {
+		Document document = new Document("1", "aaaa", Map.of());
+		TokenCountBatchingStrategy strategy = new TokenCountBatchingStrategy(new LengthTokenCountEstimator(), 10, 0,
+				TEXT_ONLY, MetadataMode.NONE);
+
+		List<List<Document>> batches = strategy.batch(List.of(document, document, document));
+
+		assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(3);
+	}
+
+	@Test
+	void firstFitDecreasingNeedsFewerBatches() {
+		List<Document> documents = new ArrayList<>();
+		for (String text : List.of("aaaaaa", "bbbbbbb", "cccc", "ddd", "ee", "fff")) {
+			documents.add(new Document(text));
+		}
+		TokenCountBatchingStrategy sequential = new TokenCountBatchingStrategy(new LengthTokenCountEstimator(), 10, 0,
+				TEXT_ONLY, MetadataMode.NONE);
+		TokenCountBatchingStrategy packed = new TokenCountBatchingStrategy(new LengthTokenCountEstimator(), 10, 0,
+				TEXT_ONLY, MetadataMode.NONE, Packing.FIRST_FIT_DECREASING);
+
+		List<List<Document>> batches = packed.batch(documents);
+
+		assertThat(sequential.batch(documents)).hasSize(4);
+		assertThat(batches).hasSize(3);
+		assertThat(batches).allSatisfy(
+				batch -> assertThat(batch.stream().mapToInt(d -> d.getText().length()).sum()).isLessThanOrEqualTo(10));
+		assertThat(batches.get(0)).extracting(Document::getText).containsExactly("bbbbbbb", "ddd");
+		assertThat(batches.get(1)).extracting(Document::getText).containsExactly("aaaaaa", "cccc");
+		assertThat(batches.get(2)).extracting(Document::getText).containsExactly("ee", "fff");
+	}
+
+	@Test
+	void embeddingsFollowInputOrderWithFirstFitDecreasing() {
+		List<Document> documents = List.of(new Document("aa"), new Document("bbbbbbbb"), new Document("ccc"),
+				new Document("dddddd"));
+		TokenCountBatchingStrategy packed = new TokenCountBatchingStrategy(new LengthTokenCountEstimator(), 10, 0,
+				TEXT_ONLY, MetadataMode.NONE, Packing.FIRST_FIT_DECREASING);
+		AtomicInteger calls = new AtomicInteger();
+		EmbeddingModel embeddingModel = new EmbeddingModel() {
+
+			@Override
+			public EmbeddingResponse call(EmbeddingRequest request) {
+				calls.incrementAndGet();
+				List<Embedding> embeddings = new ArrayList<>();
+				for (String text : request.getInstructions()) {
+					embeddings.add(new Embedding(new float[] { text.length() }, embeddings.size()));
+				}
+				return new EmbeddingResponse(embeddings);
+			}
+
+			@Override
+			public float[] embed(Document document) {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+
+		List<float[]> embeddings = embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(), packed);
+
+		assertThat(calls).hasValue(2);
+		assertThat(embeddings).extracting(embedding -> embedding[0]).containsExactly(2f, 8f, 3f, 6f);
+	}
+
+	private static final class LengthTokenCountEstimator implements TokenCountEstimator {
+
+		@Override
+		public int estimate(String text) {
+			return text.length();
+		}
+
+		@Override
+		public int estimate(MediaContent content) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int estimate(Iterable<MediaContent> messages) {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
 }
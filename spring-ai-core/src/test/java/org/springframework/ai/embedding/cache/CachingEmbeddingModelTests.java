@@ -0,0 +1,257 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.embedding.cache;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link CachingEmbeddingModel} and its cache backends.
+ */
+class CachingEmbeddingModelTests {
+
+	@TempDir
+	Path tempDir;
+
+	private final RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+
+	@Test
+	void onlySendsMissesToDelegateAndMergesInOrder() {
+		EmbeddingModel model = CachingEmbeddingModel.builder(this.delegate, new InMemoryEmbeddingCache(1 << 20))
+			.build();
+
+		model.embed(List.of("b", "d"));
+		List<float[]> embeddings = model.embed(List.of("a", "b", "c", "d", "a"));
+
+		assertThat(embeddings).extracting(embedding -> embedding[0]).containsExactly(1f, 2f, 3f, 4f, 1f);
+		assertThat(this.delegate.requests).containsExactly(List.of("b", "d"), List.of("a", "c"));
+
+		model.embed(List.of("a", "b", "c", "d"));
+		assertThat(this.delegate.requests).hasSize(2);
+	}
+
+	@Test
+	void cachesDocumentBatches() {
+		EmbeddingModel model = CachingEmbeddingModel.builder(this.delegate, new InMemoryEmbeddingCache(1 << 20))
+			.build();
+		List<Document> documents = List.of(new Document("a"), new Document("b"), new Document("c"));
+
+		model.embed(documents.subList(1, 2), EmbeddingOptionsBuilder.builder().build(),
+				new TokenCountBatchingStrategy());
+		List<float[]> embeddings = model.embed(documents, EmbeddingOptionsBuilder.builder().build(),
+				new TokenCountBatchingStrategy());
+
+		assertThat(embeddings).extracting(embedding -> embedding[0]).containsExactly(1f, 2f, 3f);
+		assertThat(this.delegate.requests).containsExactly(List.of("b"), List.of("a", "c"));
+	}
+
+	@Test
+	void keysIncludeModelOptions() {
+		EmbeddingModel model = CachingEmbeddingModel.builder(this.delegate, new InMemoryEmbeddingCache(1 << 20))
+			.build();
+
+		model.call(new EmbeddingRequest(List.of("a"), EmbeddingOptionsBuilder.builder().withModel("small").build()));
+		model.call(new EmbeddingRequest(List.of("a"), EmbeddingOptionsBuilder.builder().withModel("large").build()));
+		model.call(new EmbeddingRequest(List.of("a"), EmbeddingOptionsBuilder.builder().withModel("small").build()));
+
+		assertThat(this.delegate.requests).hasSize(2);
+	}
+
+	@Test
+	void keysIncludeAllModelOptions() {
+		EmbeddingModel model = CachingEmbeddingModel.builder(this.delegate, new InMemoryEmbeddingCache(1 << 20))
+			.build();
+
+		model.call(new EmbeddingRequest(List.of("a"), new TaskTypeOptions("query")));
+		model.call(new EmbeddingRequest(List.of("a"), new TaskTypeOptions("document")));
+		model.call(new EmbeddingRequest(List.of("a"), new TaskTypeOptions("query")));
+
+		assertThat(this.delegate.requests).hasSize(2);
+	}
+
+	@Test
+	void separatesDelegatesSharingCacheWithDefaultNamespace() {
+		InMemoryEmbeddingCache cache = new InMemoryEmbeddingCache(1 << 20);
+		RecordingEmbeddingModel otherDelegate = new RecordingEmbeddingModel();
+
+		CachingEmbeddingModel.builder(this.delegate, cache).build().embed(List.of("a"));
+		CachingEmbeddingModel.builder(otherDelegate, cache).build().embed(List.of("a"));
+		CachingEmbeddingModel.builder(this.delegate, cache).build().embed(List.of("a"));
+
+		assertThat(this.delegate.requests).hasSize(1);
+		assertThat(otherDelegate.requests).hasSize(1);
+	}
+
+	@Test
+	void requiresNamespaceWithSharedCache() {
+		FileSystemEmbeddingCache cache = new FileSystemEmbeddingCache(this.tempDir.resolve("cache"));
+
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> CachingEmbeddingModel.builder(this.delegate, cache).build())
+			.withMessageContaining("namespace");
+	}
+
+	@Test
+	void inMemoryCacheCopiesEmbeddings() {
+		InMemoryEmbeddingCache cache = new InMemoryEmbeddingCache(1 << 20);
+		float[] embedding = { 1f, 2f };
+
+		cache.put("k", embedding);
+		embedding[0] = 9f;
+		cache.get("k")[1] = 9f;
+
+		assertThat(cache.get("k")).containsExactly(1f, 2f);
+	}
+
+	@Test
+	void inMemoryCacheEvictsLeastRecentlyUsedEntriesBeyondSizeBound() {
+		long entrySize = InMemoryEmbeddingCache.sizeOf("k1", new float[4]);
+		InMemoryEmbeddingCache cache = new InMemoryEmbeddingCache(entrySize * 2);
+
+		assertThat(cache.put("k1", new float[4])).isZero();
+		assertThat(cache.put("k2", new float[4])).isZero();
+		cache.get("k1");
+		assertThat(cache.put("k3", new float[4])).isEqualTo(1);
+
+		assertThat(cache.get("k1")).isNotNull();
+		assertThat(cache.get("k2")).isNull();
+		assertThat(cache.get("k3")).isNotNull();
+		assertThat(cache.sizeInBytes()).isEqualTo(entrySize * 2);
+	}
+
+	@Test
+	void fileSystemCacheSurvivesNewInstances() {
+		EmbeddingModel model = CachingEmbeddingModel
+			.builder(this.delegate, new FileSystemEmbeddingCache(this.tempDir.resolve("cache")))
+			.namespace("letters")
+			.build();
+		model.embed(List.of("a", "b"));
+
+		EmbeddingModel restarted = CachingEmbeddingModel
+			.builder(this.delegate, new FileSystemEmbeddingCache(this.tempDir.resolve("cache")))
+			.namespace("letters")
+			.build();
+		List<float[]> embeddings = restarted.embed(List.of("b", "a"));
+
+		assertThat(embeddings).extracting(embedding -> embedding[0]).containsExactly(2f, 1f);
+		assertThat(this.delegate.requests).hasSize(1);
+	}
+
+	@Test
+	void recordsHitMissAndEvictionEvents() {
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+		long entrySize = InMemoryEmbeddingCache.sizeOf("x".repeat(64), new float[1]);
+		EmbeddingModel model = CachingEmbeddingModel.builder(this.delegate, new InMemoryEmbeddingCache(entrySize * 2))
+			.observationRegistry(observationRegistry)
+			.build();
+
+		model.embed(List.of("a", "b"));
+		model.embed(List.of("a", "c"));
+
+		assertThat(count(meterRegistry, "hit")).isEqualTo(1);
+		assertThat(count(meterRegistry, "miss")).isEqualTo(3);
+		assertThat(count(meterRegistry, "eviction")).isEqualTo(1);
+	}
+
+	private static double count(MeterRegistry meterRegistry, String event) {
+		return meterRegistry.find(CachingEmbeddingModel.OBSERVATION_NAME + "." + event)
+			.counters()
+			.stream()
+			.mapToDouble(Counter::count)
+			.sum();
+	}
+
+	/**
+	 * Provider specific options, set on top of the portable ones.
+	 */
+	static class TaskTypeOptions implements EmbeddingOptions {
+
+		private final String taskType;
+
+		TaskTypeOptions(String taskType) {
+			this.taskType = taskType;
+		}
+
+		public String getTaskType() {
+			return this.taskType;
+		}
+
+		@Override
+		public String getModel() {
+			return null;
+		}
+
+		@Override
+		public Integer getDimensions() {
+			return null;
+		}
+
+	}
+
+	/**
+	 * Embeds a letter as its position in the alphabet and records the requests.
+	 */
+	static class RecordingEmbeddingModel implements EmbeddingModel {
+
+		final List<List<String>> requests = new ArrayList<>();
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			this.requests.add(request.getInstructions());
+			List<Embedding> embeddings = new ArrayList<>();
+			for (String text : request.getInstructions()) {
+				embeddings.add(new Embedding(new float[] { text.charAt(0) - 'a' + 1 }, embeddings.size()));
+			}
+			return new EmbeddingResponse(embeddings);
+		}
+
+		@Override
+		public float[] embed(Document document) {
+			return embed(document.getText());
+		}
+
+		@Override
+		public int dimensions() {
+			return 1;
+		}
+
+	}
+
+}
@@ -16,8 +16,10 @@
 
 package org.springframework.ai.model;
 
+import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.junit.jupiter.api.Test;
 
@@ -53,6 +55,58 @@ public class ModelOptionsUtilsTests {
 		assertThat(specificOptions2.getSpecificField()).isEqualTo("SpecificField");
 	}
 
+	@Test
+	public void mergeIntoRecord() {
+		TestSpecificOptions options = new TestSpecificOptions();
+		options.setName("John");
+		options.setAge(30);
+		TestRequest defaults = new TestRequest("Mike", 40L, List.of("stop"), Map.of("key", "value"), 0.5, true);
+
+		ModelOptionsMerger merger = new ModelOptionsMerger(ModelOptionsUtils.OBJECT_MAPPER);
+		assertThat(merger.supports(options, defaults, TestRequest.class)).isTrue();
+		assertThat(merger.supports(Map.of(), defaults, TestRequest.class)).isFalse();
+
+		TestRequest request = ModelOptionsUtils.merge(options, defaults, TestRequest.class);
+
+		assertThat(request).isEqualTo(new TestRequest("John", 30L, List.of("stop"), Map.of("key", "value"), 0.5, true));
+		assertThat(request.stop()).isNotSameAs(defaults.stop());
+		assertThat(request.metadata()).isNotSameAs(defaults.metadata());
+		assertThat(ModelOptionsUtils.merge(null, defaults, TestRequest.class)).isEqualTo(defaults);
+		assertThat(ModelOptionsUtils.merge(options, null, TestRequest.class))
+			.isEqualTo(new TestRequest("John", 30L, null, null, null, false));
+	}
+
+	@Test
+	public void mergeSkipsEmptyValuesExcludedFromJson() {
+		TestNonEmptyOptions options = new TestNonEmptyOptions();
+		options.setStop(List.of());
+		options.setName("");
+		TestRequest defaults = new TestRequest("Mike", null, List.of("stop"), null, null, false);
+
+		TestRequest request = ModelOptionsUtils.merge(options, defaults, TestRequest.class);
+
+		assertThat(request.name()).isEqualTo("Mike");
+		assertThat(request.stop()).containsExactly("stop");
+	}
+
+	@Test
+	public void mergeMatchesJsonRoundTrip() {
+		TestSpecificOptions options = new TestSpecificOptions();
+		options.setName("John");
+		options.setSpecificField("specific");
+		TestRequest defaults = new TestRequest("Mike", 40L, List.of("a", "b"), Map.of("key", 1), 0.5, true);
+		List<String> acceptedFieldNames = List.of("name", "age", "stop", "temperature");
+
+		Map<String, Object> merged = ModelOptionsUtils.objectToMap(defaults);
+		merged.putAll(ModelOptionsUtils.objectToMap(options));
+		merged.keySet().retainAll(acceptedFieldNames);
+
+		assertThat(ModelOptionsUtils.merge(options, defaults, TestRequest.class, acceptedFieldNames))
+			.isEqualTo(ModelOptionsUtils.mapToClass(merged, TestRequest.class));
+		assertThat(ModelOptionsUtils.merge(Map.of("name", "John"), defaults, TestRequest.class))
+			.isEqualTo(new TestRequest("John", 40L, List.of("a", "b"), Map.of("key", 1), 0.5, true));
+	}
+
 	@Test
 	public void objectToMap() {
 		TestPortableOptionsImpl portableOptions = new TestPortableOptionsImpl();
@@ -229,4 +283,37 @@ public class ModelOptionsUtilsTests {
 
 	}
 
+	public record TestRequest(@JsonProperty("name") String name, @JsonProperty("age") Long age,
+			@JsonProperty("stop") List<String> stop, @JsonProperty("metadata") Map<String, Object> metadata,
+			@JsonProperty("temperature") Double temperature, @JsonProperty("stream") boolean stream) {
+
+	}
+
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	public static class TestNonEmptyOptions {
+
+		@JsonProperty("name")
+		private String name;
+
+		@JsonProperty("stop")
+		private List<String> stop;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public List<String> getStop() {
+			return this.stop;
+		}
+
+		public void setStop(List<String> stop) {
+			this.stop = stop;
+		}
+
+	}
+
 }
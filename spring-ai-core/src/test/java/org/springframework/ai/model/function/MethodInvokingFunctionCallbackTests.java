@@ -24,7 +24,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.ai.chat.model.ToolContext;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * @author Christian Tzolov
@@ -114,6 +117,76 @@ public class MethodInvokingFunctionCallbackTests {
 		assertThat(arguments.get("method called")).isEqualTo("argumentLessReturnVoid");
 	}
 
+	@Test
+	public void bindsArgumentsByNameAndSkipsUnknownOnes() {
+
+		var functionCallback = FunctionCallback.builder()
+			.method("myStaticMethod", String.class, Unit.class, int.class, MyRecord.class, List.class)
+			.description("weather at location")
+			.targetClass(TestClassWithFunctionMethods.class)
+			.build();
+
+		String response = functionCallback.call("""
+				{
+				  "intList": [4, 5],
+				  "unknown": { "nested": [1, { "deep": true }] },
+				  "record": { "bar": "bar", "foo": "foo" },
+				  "intNumber": "7",
+				  "city": "Sofia",
+				  "unit": "FAHRENHEIT"
+				}
+				""");
+
+		assertThat(response).isEqualTo("23");
+		assertThat(arguments).containsEntry("city", "Sofia")
+			.containsEntry("unit", Unit.FAHRENHEIT)
+			.containsEntry("intNumber", 7)
+			.containsEntry("record", new MyRecord("foo", "bar"))
+			.containsEntry("intList", List.of(4, 5));
+	}
+
+	@Test
+	public void bindsToolContext() {
+
+		var functionCallback = FunctionCallback.builder()
+			.method("methodWithToolContext", String.class, ToolContext.class)
+			.description("weather at location")
+			.targetObject(new TestClassWithFunctionMethods())
+			.build();
+
+		String response = functionCallback.call("{ \"city\": \"Sofia\" }", new ToolContext(Map.of("user", "Alice")));
+
+		assertThat(response).isEqualTo("Sofia for Alice");
+	}
+
+	@Test
+	public void rejectsMissingPrimitiveArguments() {
+
+		var functionCallback = FunctionCallback.builder()
+			.method("myStaticMethod", String.class, Unit.class, int.class, MyRecord.class, List.class)
+			.description("weather at location")
+			.targetClass(TestClassWithFunctionMethods.class)
+			.build();
+
+		assertThatThrownBy(() -> functionCallback.call("{ \"city\": \"Sofia\" }"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("intNumber");
+	}
+
+	@Test
+	public void propagatesMethodExceptions() {
+
+		var functionCallback = FunctionCallback.builder()
+			.method("failingMethod", String.class)
+			.description("weather at location")
+			.targetClass(TestClassWithFunctionMethods.class)
+			.build();
+
+		assertThatThrownBy(() -> functionCallback.call("{ \"city\": \"Sofia\" }"))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessage("No weather for Sofia");
+	}
+
 	record MyRecord(String foo, String bar) {
 	}
 
@@ -125,6 +198,14 @@ public class MethodInvokingFunctionCallbackTests {
 
 	public static class TestClassWithFunctionMethods {
 
+		public static String failingMethod(String city) {
+			throw new IllegalStateException("No weather for " + city);
+		}
+
+		public String methodWithToolContext(String city, ToolContext toolContext) {
+			return city + " for " + toolContext.getContext().get("user");
+		}
+
 		public static void argumentLessReturnVoid() {
 			arguments.put("method called", "argumentLessReturnVoid");
 		}
@@ -16,13 +16,24 @@
 
 package org.springframework.ai.transformer.splitter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import com.knuddels.jtokkit.api.IntArrayList;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.springframework.ai.document.DefaultContentFormatter;
 import org.springframework.ai.document.Document;
+import org.springframework.core.io.DefaultResourceLoader;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -31,6 +42,8 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 public class TokenTextSplitterTest {
 
+	private static final Logger logger = LoggerFactory.getLogger(TokenTextSplitterTest.class);
+
 	@Test
 	public void testTokenTextSplitterBuilderWithDefaultValues() {
 
@@ -112,4 +125,88 @@ public class TokenTextSplitterTest {
 		assertThat(chunks.get(2).getMetadata()).containsKeys("key2", "key3").doesNotContainKeys("key1");
 	}
 
+	@Test
+	public void testSplitsLongTextsLikeReencodingSplitter() throws IOException {
+		ReencodingTokenTextSplitter reencodingSplitter = new ReencodingTokenTextSplitter();
+		for (String text : List.of(books(200_000), logs(200_000))) {
+			TokenTextSplitter splitter = new TokenTextSplitter(800, 350, 5, 100_000, true);
+
+			assertThat(splitter.doSplit(text, 800)).hasSizeGreaterThan(20)
+				.isEqualTo(reencodingSplitter.doSplit(text, 800));
+		}
+	}
+
+	/**
+	 * Repeat the sample book until the text is at least the given length.
+	 */
+	private static String books(int length) throws IOException {
+		String book = new DefaultResourceLoader().getResource("classpath:text_source.txt")
+			.getContentAsString(StandardCharsets.UTF_8);
+		StringBuilder books = new StringBuilder();
+		while (books.length() < length) {
+			books.append(book).append("\n\n");
+		}
+		return books.toString();
+	}
+
+	/**
+	 * Generate log lines, with non-ASCII characters, until the text is at least the given
+	 * length.
+	 */
+	private static String logs(int length) {
+		Random random = new Random(42);
+		String[] levels = { "INFO", "DEBUG", "WARN", "ERROR" };
+		StringBuilder logs = new StringBuilder();
+		while (logs.length() < length) {
+			logs.append(String.format(
+					"2024-05-%02dT%02d:%02d:%02d.%03dZ %-5s [worker-%d] o.s.a.Service - Request %d "
+							+ "handled in %d ms, payload size %d bytes, user=ünïcødé-%d%n",
+					1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60),
+					random.nextInt(1000), levels[random.nextInt(levels.length)], random.nextInt(16),
+					random.nextInt(1_000_000), random.nextInt(500), random.nextInt(100_000), random.nextInt(100)));
+		}
+		return logs.toString();
+	}
+
+	/**
+	 * The former implementation, boxing the tokens and re-encoding every truncated chunk.
+	 */
+	private static final class ReencodingTokenTextSplitter {
+
+		private final Encoding encoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
+		List<String> doSplit(String text, int chunkSize) {
+			List<Integer> tokens = this.encoding.encode(text).boxed();
+			List<String> chunks = new ArrayList<>();
+			int numChunks = 0;
+			while (!tokens.isEmpty() && numChunks < 100_000) {
+				List<Integer> chunk = tokens.subList(0, Math.min(chunkSize, tokens.size()));
+				String chunkText = decode(chunk);
+				if (chunkText.trim().isEmpty()) {
+					tokens = tokens.subList(chunk.size(), tokens.size());
+					continue;
+				}
+				int lastPunctuation = Math.max(chunkText.lastIndexOf('.'), Math.max(chunkText.lastIndexOf('?'),
+						Math.max(chunkText.lastIndexOf('!'), chunkText.lastIndexOf('\n'))));
+				if (lastPunctuation != -1 && lastPunctuation > 350) {
+					chunkText = chunkText.substring(0, lastPunctuation + 1);
+				}
+				String chunkTextToAppend = chunkText.trim();
+				if (chunkTextToAppend.length() > 5) {
+					chunks.add(chunkTextToAppend);
+				}
+				tokens = tokens.subList(this.encoding.encode(chunkText).size(), tokens.size());
+				numChunks++;
+			}
+			return chunks;
+		}
+
+		private String decode(List<Integer> tokens) {
+			IntArrayList array = new IntArrayList(tokens.size());
+			tokens.forEach(array::add);
+			return this.encoding.decode(array);
+		}
+
+	}
+
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link DocumentEmbeddings}.
+ */
+class DocumentEmbeddingsTests {
+
+	@Test
+	void pairsDocumentsWithEmbeddingsByPosition() {
+		List<Document> documents = documents(3);
+		List<float[]> embeddings = embeddings(3);
+
+		DocumentEmbeddings documentEmbeddings = DocumentEmbeddings.of(documents, embeddings);
+
+		assertThat(documentEmbeddings.size()).isEqualTo(3);
+		assertThat(documentEmbeddings.getDocument(1)).isSameAs(documents.get(1));
+		assertThat(documentEmbeddings.getEmbedding(1)).isSameAs(embeddings.get(1));
+		assertThat(documentEmbeddings).extracting(DocumentEmbeddings.Entry::embedding)
+			.containsExactlyElementsOf(embeddings);
+		assertThat(documentEmbeddings.map((document, embedding) -> document.getId() + "=" + embedding[0]))
+			.containsExactly("0=0.0", "1=1.0", "2=2.0");
+	}
+
+	@Test
+	void keepsTheEmbeddingOfEachEqualDocument() {
+		Document document = new Document("1", "same content", Map.of());
+		Document equalDocument = new Document("1", "same content", Map.of());
+		List<float[]> embeddings = embeddings(2);
+
+		List<float[]> paired = new ArrayList<>();
+		DocumentEmbeddings.of(List.of(document, equalDocument), embeddings)
+			.forEach((doc, embedding) -> paired.add(embedding));
+
+		assertThat(document).isEqualTo(equalDocument);
+		assertThat(paired).containsExactlyElementsOf(embeddings);
+	}
+
+	@Test
+	void splitsIntoBatches() {
+		DocumentEmbeddings documentEmbeddings = DocumentEmbeddings.of(documents(5), embeddings(5));
+
+		List<DocumentEmbeddings> batches = documentEmbeddings.batches(2);
+
+		assertThat(batches).extracting(DocumentEmbeddings::size).containsExactly(2, 2, 1);
+		assertThat(batches.get(2).getDocument(0).getId()).isEqualTo("4");
+		assertThat(batches.get(2).getEmbedding(0)).containsExactly(4f);
+		assertThat(DocumentEmbeddings.of(List.of(), List.of()).batches(2)).isEmpty();
+	}
+
+	@Test
+	void rejectsMisalignedEmbeddings() {
+		assertThatThrownBy(() -> DocumentEmbeddings.of(documents(3), embeddings(2)))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("expected 3 but got 2");
+		assertThatThrownBy(() -> DocumentEmbeddings.of(documents(1), embeddings(1)).batches(0))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static List<Document> documents(int count) {
+		List<Document> documents = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			documents.add(new Document(String.valueOf(i), "content " + i, Map.of()));
+		}
+		return documents;
+	}
+
+	private static List<float[]> embeddings(int count) {
+		List<float[]> embeddings = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			embeddings.add(new float[] { i });
+		}
+		return embeddings;
+	}
+
+}
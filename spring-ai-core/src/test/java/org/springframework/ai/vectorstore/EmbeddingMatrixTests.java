@@ -0,0 +1,185 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentMetadata;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link EmbeddingMatrix}.
+ */
+class EmbeddingMatrixTests {
+
+	private final EmbeddingMatrix matrix = new EmbeddingMatrix();
+
+	@Test
+	void searchReturnsTopKOrderedBySimilarity() {
+		this.matrix.putAll(List.of(content("a", 1f, 0f), content("b", 0f, 1f), content("c", 1f, 1f)));
+
+		List<Document> results = this.matrix.search(new float[] { 1f, 0.1f }, 2, 0.0);
+
+		assertThat(results).extracting(Document::getId).containsExactly("a", "c");
+		assertThat(results.get(0).getScore()).isGreaterThan(results.get(1).getScore());
+		assertThat(results.get(0).getMetadata()).containsEntry("key", "a")
+			.containsKey(DocumentMetadata.DISTANCE.value());
+	}
+
+	@Test
+	void searchAppliesSimilarityThreshold() {
+		this.matrix.putAll(List.of(content("a", 1f, 0f), content("b", 0f, 1f)));
+
+		assertThat(this.matrix.search(new float[] { 1f, 0f }, 5, 0.5)).extracting(Document::getId).containsExactly("a");
+	}
+
+	@Test
+	void readsNormalizedEmbeddingsInPlace() {
+		this.matrix.putAll(List.of(content("a", 3f, 4f), content("b", 0f, 2f)));
+		float[] unit = new float[2];
+
+		assertThat(this.matrix.unitEmbedding("a", unit)).isTrue();
+		assertThat(unit).containsExactly(0.6f, 0.8f);
+		assertThat(this.matrix.similarity(unit, "b")).isEqualTo(0.8f);
+		assertThat(this.matrix.similarity(unit, "unknown")).isEqualTo(Float.NEGATIVE_INFINITY);
+		assertThat(this.matrix.unitEmbedding("unknown", unit)).isFalse();
+	}
+
+	@Test
+	void putReplacesExistingRow() {
+		this.matrix.putAll(List.of(content("a", 1f, 0f), content("b", 0f, 1f)));
+		this.matrix.putAll(List.of(content("a", 0f, 1f)));
+
+		assertThat(this.matrix.size()).isEqualTo(2);
+		List<Document> results = this.matrix.search(new float[] { 1f, 0f }, 5, 0.5);
+		assertThat(results).isEmpty();
+	}
+
+	@Test
+	void removeMovesLastRowIntoFreedSlot() {
+		this.matrix.putAll(List.of(content("a", 1f, 0f), content("b", 0f, 1f), content("c", 1f, 1f)));
+
+		this.matrix.removeAll(List.of("a", "unknown"));
+
+		assertThat(this.matrix.size()).isEqualTo(2);
+		assertThat(this.matrix.getDocument("a", 1.0)).isNull();
+		assertThat(this.matrix.getDocument("c", 1.0)).isNotNull();
+		assertThat(this.matrix.search(new float[] { 1f, 1f }, 5, 0.0)).extracting(Document::getId)
+			.containsExactly("c", "b");
+	}
+
+	@Test
+	void searchSpansMultipleBlocks() {
+		Random random = new Random(3);
+		List<SimpleVectorStoreContent> contents = new ArrayList<>();
+		for (int i = 0; i < EmbeddingMatrix.BLOCK_ROWS * 2 + 17; i++) {
+			contents.add(content(String.valueOf(i), random.nextFloat() - 0.5f, random.nextFloat() - 0.5f,
+					random.nextFloat() - 0.5f));
+		}
+		this.matrix.putAll(contents);
+		this.matrix.removeAll(List.of("0", "5000"));
+
+		float[] query = { 0.3f, -0.2f, 0.9f };
+		List<String> expected = contents.stream()
+			.filter(content -> !content.getId().equals("0") && !content.getId().equals("5000"))
+			.sorted(Comparator.comparingDouble((SimpleVectorStoreContent content) -> -SimpleVectorStore.EmbeddingMath
+				.cosineSimilarity(query, content.getEmbedding())))
+			.limit(10)
+			.map(SimpleVectorStoreContent::getId)
+			.toList();
+
+		assertThat(this.matrix.search(query, 10, 0.0)).extracting(Document::getId).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void rejectsMismatchedDimensions() {
+		this.matrix.putAll(List.of(content("a", 1f, 0f)));
+
+		assertThatThrownBy(() -> this.matrix.putAll(List.of(content("b", 1f, 0f, 0f))))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> this.matrix.search(new float[] { 1f, 0f, 0f }, 1, 0.0))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Vectors lengths must be equal");
+	}
+
+	@Test
+	void forEachReturnsStoredContent() {
+		SimpleVectorStoreContent content = content("a", 1f, 2f);
+		this.matrix.putAll(List.of(content));
+
+		List<SimpleVectorStoreContent> contents = new ArrayList<>();
+		this.matrix.forEach(contents::add);
+
+		assertThat(contents).containsExactly(content);
+	}
+
+	@Test
+	void searchEvaluatesFilterBeforeScoring() {
+		this.matrix.putAll(List.of(content("a", 1f, 0f), content("b", 0f, 1f), content("c", 1f, 1f)));
+
+		Filter.Expression filter = new FilterExpressionTextParser().parse("key in ['b', 'c']");
+
+		assertThat(this.matrix.search(new float[] { 1f, 0f }, 5, 0.0, filter)).extracting(Document::getId)
+			.containsExactly("c", "b");
+	}
+
+	@Test
+	void invertedIndexesFollowUpdatesAndRemovals() {
+		EmbeddingMatrix indexed = new EmbeddingMatrix(Set.of("tenant"));
+		indexed.putAll(List.of(tenantContent("a", "t1", 1f, 0f), tenantContent("b", "t2", 0f, 1f),
+				tenantContent("c", "t1", 1f, 1f)));
+		FilterExpressionBuilder b = new FilterExpressionBuilder();
+		Filter.Expression tenant1 = b.eq("tenant", "t1").build();
+
+		assertThat(indexed.estimateMatches(tenant1)).isEqualTo(2);
+		assertThat(indexed.estimateMatches(b.eq("other", "x").build())).isEqualTo(3);
+
+		indexed.removeAll(List.of("a"));
+		indexed.putAll(List.of(tenantContent("b", "t1", 0f, 1f)));
+
+		assertThat(indexed.estimateMatches(tenant1)).isEqualTo(2);
+		assertThat(indexed.estimateMatches(b.in("tenant", "t1", "t2").build())).isEqualTo(2);
+		assertThat(indexed.search(new float[] { 1f, 0f }, 5, 0.0, tenant1)).extracting(Document::getId)
+			.containsExactly("c", "b");
+		assertThat(
+				indexed.search(new float[] { 1f, 0f }, 5, 0.0, b.and(b.eq("tenant", "t1"), b.eq("key", "b")).build()))
+			.extracting(Document::getId)
+			.containsExactly("b");
+	}
+
+	private static SimpleVectorStoreContent tenantContent(String id, String tenant, float... embedding) {
+		return new SimpleVectorStoreContent(id, "text " + id, Map.of("key", id, "tenant", tenant), embedding);
+	}
+
+	private static SimpleVectorStoreContent content(String id, float... embedding) {
+		return new SimpleVectorStoreContent(id, "text " + id, Map.of("key", id), embedding);
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.Filter.ExpressionType;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link FilterExpressionEvaluator}.
+ */
+class FilterExpressionEvaluatorTests {
+
+	private static final Map<String, Object> METADATA = Map.of("country", "BG", "year", 2020L, "price", 9.5, "active",
+			true);
+
+	private final FilterExpressionTextParser parser = new FilterExpressionTextParser();
+
+	@Test
+	void equalityComparesNumbersByValue() {
+		assertThat(matches("year == 2020")).isTrue();
+		assertThat(matches("year == 2020.0")).isTrue();
+		assertThat(matches("year != 2020")).isFalse();
+		assertThat(matches("country == 'BG'")).isTrue();
+		assertThat(matches("country == 2020")).isFalse();
+		assertThat(matches("active == true")).isTrue();
+	}
+
+	@Test
+	void rangeComparisons() {
+		assertThat(matches("year >= 2020 && year < 2021")).isTrue();
+		assertThat(matches("price > 9")).isTrue();
+		assertThat(matches("price <= 9")).isFalse();
+		assertThat(matches("country > 'AA'")).isTrue();
+		assertThat(matches("country > 1")).isFalse();
+	}
+
+	@Test
+	void inclusion() {
+		assertThat(matches("country in ['BG', 'NL']")).isTrue();
+		assertThat(matches("year in [2019, 2020]")).isTrue();
+		assertThat(matches("country nin ['BG', 'NL']")).isFalse();
+	}
+
+	@Test
+	void logicalOperatorsAndGroups() {
+		assertThat(matches("country == 'NL' || (year == 2020 && active == true)")).isTrue();
+		assertThat(matches("country == 'NL' && (year == 2020 || active == true)")).isFalse();
+		assertThat(matches("NOT(country == 'NL')")).isTrue();
+	}
+
+	@Test
+	void missingKeyFailsComparisonsButMatchesNegations() {
+		assertThat(matches("genre == 'drama'")).isFalse();
+		assertThat(matches("genre > 'a'")).isFalse();
+		assertThat(matches("genre in ['drama']")).isFalse();
+		assertThat(matches("genre != 'drama'")).isTrue();
+		assertThat(matches("genre nin ['drama']")).isTrue();
+	}
+
+	@Test
+	void quotedKeysAreUnwrapped() {
+		FilterExpressionBuilder b = new FilterExpressionBuilder();
+
+		assertThat(FilterExpressionEvaluator.compile(b.eq("\"country\"", "BG").build()).test(METADATA)).isTrue();
+	}
+
+	@Test
+	void inRequiresListOfValues() {
+		Filter.Expression expression = new Filter.Expression(ExpressionType.IN, new Filter.Key("country"),
+				new Filter.Value("BG"));
+
+		assertThatThrownBy(() -> FilterExpressionEvaluator.compile(expression))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private boolean matches(String filter) {
+		return FilterExpressionEvaluator.compile(this.parser.parse(filter)).test(METADATA);
+	}
+
+}
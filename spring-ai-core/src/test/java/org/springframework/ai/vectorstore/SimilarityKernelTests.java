@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Verifies that the selected {@link SimilarityKernel} agrees with the scalar kernel.
+ */
+class SimilarityKernelTests {
+
+	private final SimilarityKernel scalar = ScalarSimilarityKernel.INSTANCE;
+
+	private final SimilarityKernel selected = SimilarityKernels.get();
+
+	private final Random random = new Random(11);
+
+	@Test
+	void vectorApiKernelIsSelectedWhenModuleIsPresent() {
+		// The build adds the module to the tests, so that they exercise this kernel
+		assertThat(ModuleLayer.boot().findModule("jdk.incubator.vector")).isPresent();
+		assertThat(this.selected.getClass().getName())
+			.isEqualTo("org.springframework.ai.vectorstore.VectorApiSimilarityKernel");
+	}
+
+	@Test
+	void scalarKernelIsSelectedWhenVectorApiIsDisabled() {
+		System.setProperty(SimilarityKernels.VECTOR_API_ENABLED_PROPERTY, "false");
+		try {
+			assertThat(SimilarityKernels.load()).isSameAs(ScalarSimilarityKernel.INSTANCE);
+		}
+		finally {
+			System.clearProperty(SimilarityKernels.VECTOR_API_ENABLED_PROPERTY);
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 3, 7, 8, 17, 64, 385, 1536 })
+	void dotProductMatchesScalarKernel(int dimensions) {
+		float[] x = randomVector(dimensions);
+		float[] data = randomVector(dimensions + 5);
+
+		assertThat(this.selected.dotProduct(x, data, 5)).isCloseTo(this.scalar.dotProduct(x, data, 5),
+				within(1e-3f * dimensions));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 3, 7, 8, 17, 64, 385, 1536 })
+	void dotProductAndNormsMatchScalarKernel(int dimensions) {
+		float[] x = randomVector(dimensions);
+		float[] y = randomVector(dimensions);
+		float[] expected = new float[3];
+		float[] actual = new float[3];
+
+		this.scalar.dotProductAndNorms(x, y, expected);
+		this.selected.dotProductAndNorms(x, y, actual);
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(actual[i]).isCloseTo(expected[i], within(1e-3f * dimensions));
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 3, 4, 9, 33 })
+	void dotProductsMatchScalarKernel(int rows) {
+		int dimensions = 385;
+		float[] query = randomVector(dimensions);
+		float[] data = randomVector(dimensions * (rows + 2));
+		float[] expected = new float[rows];
+		float[] actual = new float[rows];
+
+		this.scalar.dotProducts(query, data, dimensions, rows, expected);
+		this.selected.dotProducts(query, data, dimensions, rows, actual);
+
+		for (int row = 0; row < rows; row++) {
+			assertThat(actual[row]).isCloseTo(expected[row], within(1e-3f * dimensions));
+		}
+	}
+
+	private float[] randomVector(int dimensions) {
+		float[] vector = new float[dimensions];
+		for (int i = 0; i < dimensions; i++) {
+			vector[i] = this.random.nextFloat() * 2 - 1;
+		}
+		return vector;
+	}
+
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SimpleVectorStore.SimpleIndexType;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the HNSW index mode of the {@link SimpleVectorStore}, including its recall
+ * compared with the exact, brute-force search.
+ */
+class SimpleVectorStoreHnswTests {
+
+	private static final int DIMENSIONS = 32;
+
+	@TempDir
+	Path tempDir;
+
+	private final FixedEmbeddingModel embeddingModel = new FixedEmbeddingModel();
+
+	@Test
+	void shouldFindNearestDocuments() {
+		SimpleVectorStore vectorStore = hnswStore();
+		this.embeddingModel.register("a", new float[] { 1f, 0f, 0f });
+		this.embeddingModel.register("b", new float[] { 0f, 1f, 0f });
+		this.embeddingModel.register("c", new float[] { 0.9f, 0.1f, 0f });
+		this.embeddingModel.register("query", new float[] { 1f, 0.05f, 0f });
+
+		vectorStore.add(List.of(new Document("a"), new Document("b"), new Document("c")));
+
+		List<Document> results = vectorStore.similaritySearch(SearchRequest.builder().query("query").topK(2).build());
+		assertThat(results).extracting(Document::getText).containsExactly("a", "c");
+		assertThat(results.get(0).getScore()).isGreaterThan(results.get(1).getScore());
+	}
+
+	@Test
+	void shouldApplySimilarityThreshold() {
+		SimpleVectorStore vectorStore = hnswStore();
+		this.embeddingModel.register("a", new float[] { 1f, 0f, 0f });
+		this.embeddingModel.register("b", new float[] { 0f, 1f, 0f });
+		this.embeddingModel.register("query", new float[] { 1f, 0f, 0f });
+
+		vectorStore.add(List.of(new Document("a"), new Document("b")));
+
+		List<Document> results = vectorStore
+			.similaritySearch(SearchRequest.builder().query("query").topK(2).similarityThreshold(0.5).build());
+		assertThat(results).extracting(Document::getText).containsExactly("a");
+	}
+
+	@Test
+	void shouldNotReturnDeletedOrReplacedDocuments() {
+		SimpleVectorStore vectorStore = hnswStore();
+		this.embeddingModel.register("a", new float[] { 1f, 0f, 0f });
+		this.embeddingModel.register("b", new float[] { 0f, 1f, 0f });
+		this.embeddingModel.register("b2", new float[] { 0f, 0f, 1f });
+		this.embeddingModel.register("query", new float[] { 0f, 1f, 0f });
+
+		vectorStore
+			.add(List.of(Document.builder().id("1").text("a").build(), Document.builder().id("2").text("b").build()));
+		vectorStore.add(List.of(Document.builder().id("2").text("b2").build()));
+
+		List<Document> results = vectorStore.similaritySearch(SearchRequest.builder().query("query").topK(5).build());
+		assertThat(results).extracting(Document::getText).containsExactlyInAnyOrder("a", "b2");
+
+		vectorStore.delete(List.of("1"));
+		results = vectorStore.similaritySearch(SearchRequest.builder().query("query").topK(5).build());
+		assertThat(results).extracting(Document::getId).containsExactly("2");
+	}
+
+	@Test
+	void shouldKeepRecallAfterMassDeletion() {
+		Random random = new Random(7);
+		SimpleVectorStore exact = SimpleVectorStore.builder(this.embeddingModel).build();
+		SimpleVectorStore approximate = hnswStore();
+		List<Document> documents = randomDocuments(random, 2_000);
+		exact.add(documents);
+		approximate.add(documents);
+
+		List<String> deleted = documents.stream().limit(1_500).map(Document::getId).toList();
+		exact.delete(deleted);
+		approximate.delete(deleted);
+
+		this.embeddingModel.register("query", randomVector(random));
+		List<Document> results = approximate.similaritySearch(SearchRequest.builder().query("query").topK(50).build());
+		assertThat(results).hasSize(50).extracting(Document::getId).doesNotContainAnyElementsOf(deleted);
+		assertThat(recall(exact, approximate, random, null)).isGreaterThanOrEqualTo(0.9);
+	}
+
+	@Test
+	void shouldRebuildIndexOnLoad() {
+		SimpleVectorStore vectorStore = hnswStore();
+		this.embeddingModel.register("a", new float[] { 1f, 0f, 0f });
+		this.embeddingModel.register("b", new float[] { 0f, 1f, 0f });
+		this.embeddingModel.register("query", new float[] { 0f, 1f, 0f });
+		vectorStore.add(List.of(new Document("a"), new Document("b")));
+
+		File file = this.tempDir.resolve("store.json").toFile();
+		vectorStore.save(file);
+
+		SimpleVectorStore loaded = hnswStore();
+		loaded.load(file);
+		List<Document> results = loaded.similaritySearch(SearchRequest.builder().query("query").topK(1).build());
+		assertThat(results).extracting(Document::getText).containsExactly("b");
+	}
+
+	@Test
+	void shouldOnlyReturnDocumentsMatchingFilter() {
+		Random random = new Random(5);
+		SimpleVectorStore exact = SimpleVectorStore.builder(this.embeddingModel).build();
+		SimpleVectorStore approximate = hnswStore();
+		List<Document> documents = randomDocuments(random, 1_000);
+		for (int i = 0; i < documents.size(); i++) {
+			documents.get(i).getMetadata().put("tenant", "t" + (i % 2));
+		}
+		exact.add(documents);
+		approximate.add(documents);
+
+		this.embeddingModel.register("query", randomVector(random));
+		SearchRequest request = SearchRequest.builder()
+			.query("query")
+			.topK(10)
+			.filterExpression("tenant == 't1'")
+			.build();
+
+		assertThat(approximate.similaritySearch(request)).hasSize(10)
+			.allSatisfy(document -> assertThat(document.getMetadata()).containsEntry("tenant", "t1"));
+		assertThat(recall(exact, approximate, random, "tenant == 't1'")).isGreaterThanOrEqualTo(0.9);
+	}
+
+	@Test
+	void shouldUseExactSearchForSelectiveIndexedFilter() {
+		Random random = new Random(9);
+		SimpleVectorStore vectorStore = SimpleVectorStore.builder(this.embeddingModel)
+			.indexType(SimpleIndexType.HNSW)
+			.indexedMetadataKeys("tenant")
+			.build();
+		List<Document> documents = randomDocuments(random, 500);
+		for (int i = 0; i < documents.size(); i++) {
+			documents.get(i).getMetadata().put("tenant", (i < 5) ? "small" : "large");
+		}
+		vectorStore.add(documents);
+
+		float[] query = randomVector(random);
+		this.embeddingModel.register("query", query);
+		List<Document> results = vectorStore.similaritySearch(
+				SearchRequest.builder().query("query").topK(10).filterExpression("tenant == 'small'").build());
+		List<String> expected = documents.subList(0, 5)
+			.stream()
+			.filter(document -> SimpleVectorStore.EmbeddingMath.cosineSimilarity(query,
+					this.embeddingModel.embed(document)) >= 0)
+			.map(Document::getId)
+			.toList();
+		assertThat(results).extracting(Document::getId).containsExactlyInAnyOrderElementsOf(expected);
+	}
+
+	@Test
+	void shouldRecallBruteForceResults() {
+		Random random = new Random(42);
+		List<Document> documents = randomDocuments(random, 1_000);
+
+		SimpleVectorStore exact = SimpleVectorStore.builder(this.embeddingModel).build();
+		SimpleVectorStore approximate = hnswStore();
+		exact.add(documents);
+		approximate.add(documents);
+
+		assertThat(recall(exact, approximate, random, null)).isGreaterThanOrEqualTo(0.9);
+	}
+
+	@Test
+	void shouldRecallBruteForceResultsAfterUpdates() {
+		Random random = new Random(3);
+		List<Document> documents = randomDocuments(random, 1_000);
+		SimpleVectorStore exact = SimpleVectorStore.builder(this.embeddingModel).build();
+		SimpleVectorStore approximate = hnswStore();
+		exact.add(documents);
+		approximate.add(documents);
+
+		// Move a third of the documents to new embeddings under the same ids
+		List<Document> updated = new ArrayList<>();
+		for (int i = 0; i < documents.size(); i += 3) {
+			String text = "updated-" + i;
+			this.embeddingModel.register(text, randomVector(random));
+			updated.add(Document.builder().id(documents.get(i).getId()).text(text).build());
+		}
+		exact.add(updated);
+		approximate.add(updated);
+
+		assertThat(recall(exact, approximate, random, null)).isGreaterThanOrEqualTo(0.9);
+	}
+
+	/**
+	 * Recall@10 of the approximate store over 50 random queries, taking the results of
+	 * the exact store as the ground truth.
+	 */
+	private double recall(SimpleVectorStore exact, SimpleVectorStore approximate, Random random,
+			@Nullable String filterExpression) {
+		int hits = 0;
+		int expected = 0;
+		for (int i = 0; i < 50; i++) {
+			String query = "recall-query-" + i;
+			this.embeddingModel.register(query, randomVector(random));
+			SearchRequest.Builder request = SearchRequest.builder().query(query).topK(10);
+			if (filterExpression != null) {
+				request.filterExpression(filterExpression);
+			}
+
+			Set<String> expectedIds = new HashSet<>(
+					exact.similaritySearch(request.build()).stream().map(Document::getId).toList());
+			expected += expectedIds.size();
+			hits += (int) approximate.similaritySearch(request.build())
+				.stream()
+				.map(Document::getId)
+				.filter(expectedIds::contains)
+				.count();
+		}
+		return (double) hits / expected;
+	}
+
+	private SimpleVectorStore hnswStore() {
+		return SimpleVectorStore.builder(this.embeddingModel).indexType(SimpleIndexType.HNSW).build();
+	}
+
+	private List<Document> randomDocuments(Random random, int count) {
+		List<Document> documents = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String text = "document-" + i;
+			this.embeddingModel.register(text, randomVector(random));
+			documents.add(new Document(text));
+		}
+		return documents;
+	}
+
+	private static float[] randomVector(Random random) {
+		float[] vector = new float[DIMENSIONS];
+		for (int i = 0; i < DIMENSIONS; i++) {
+			vector[i] = (float) random.nextGaussian();
+		}
+		return vector;
+	}
+
+	/**
+	 * Returns pre-registered embeddings keyed by text.
+	 */
+	static class FixedEmbeddingModel implements EmbeddingModel {
+
+		private final Map<String, float[]> embeddings = new ConcurrentHashMap<>();
+
+		void register(String text, float[] embedding) {
+			this.embeddings.put(text, embedding);
+		}
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			List<Embedding> results = new ArrayList<>();
+			for (int i = 0; i < request.getInstructions().size(); i++) {
+				results.add(new Embedding(this.embeddings.get(request.getInstructions().get(i)), i));
+			}
+			return new EmbeddingResponse(results);
+		}
+
+		@Override
+		public float[] embed(Document document) {
+			return this.embeddings.get(document.getText());
+		}
+
+		@Override
+		public int dimensions() {
+			return DIMENSIONS;
+		}
+
+	}
+
+}
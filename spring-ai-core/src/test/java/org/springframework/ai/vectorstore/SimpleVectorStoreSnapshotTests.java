@@ -0,0 +1,196 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SimpleVectorStoreHnswTests.FixedEmbeddingModel;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the binary snapshot format of the {@link SimpleVectorStore}.
+ */
+class SimpleVectorStoreSnapshotTests {
+
+	private static final int DIMENSIONS = 32;
+
+	@TempDir
+	Path tempDir;
+
+	private final FixedEmbeddingModel embeddingModel = new FixedEmbeddingModel();
+
+	@Test
+	void shouldRoundTripDocuments() {
+		this.embeddingModel.register("a", new float[] { 1f, 0f, 0f });
+		this.embeddingModel.register("b", new float[] { 0f, 1f, 0f });
+		this.embeddingModel.register("query", new float[] { 1f, 0.1f, 0f });
+		SimpleVectorStore vectorStore = SimpleVectorStore.builder(this.embeddingModel).build();
+		vectorStore.add(List.of(Document.builder().id("1").text("a").metadata(Map.of("year", 2020)).build(),
+				Document.builder().id("2").text("b").metadata(Map.of("country", "BG")).build()));
+
+		File file = this.tempDir.resolve("store.bin").toFile();
+		vectorStore.saveSnapshot(file);
+
+		SimpleVectorStore loaded = SimpleVectorStore.builder(this.embeddingModel).build();
+		loaded.load(file);
+		List<Document> results = loaded.similaritySearch(SearchRequest.builder().query("query").topK(2).build());
+		assertThat(results).extracting(Document::getId).containsExactly("1", "2");
+		assertThat(results.get(0).getText()).isEqualTo("a");
+		assertThat(results.get(0).getMetadata()).containsEntry("year", 2020);
+		assertThat(results.get(1).getMetadata()).containsEntry("country", "BG");
+		assertThat(results.get(0).getScore()).isEqualTo(
+				vectorStore.similaritySearch(SearchRequest.builder().query("query").topK(1).build()).get(0).getScore());
+	}
+
+	@Test
+	void shouldRoundTripEmptyStore() {
+		File file = this.tempDir.resolve("empty.bin").toFile();
+		SimpleVectorStore.builder(this.embeddingModel).build().saveSnapshot(file);
+
+		SimpleVectorStore loaded = SimpleVectorStore.builder(this.embeddingModel).build();
+		loaded.load(file);
+
+		this.embeddingModel.register("query", new float[] { 1f, 0f });
+		assertThat(loaded.similaritySearch(SearchRequest.builder().query("query").build())).isEmpty();
+	}
+
+	@Test
+	void shouldDetectCorruptedSnapshot() throws IOException {
+		this.embeddingModel.register("a", new float[] { 1f, 0f, 0f });
+		SimpleVectorStore vectorStore = SimpleVectorStore.builder(this.embeddingModel).build();
+		vectorStore.add(List.of(new Document("a")));
+		File file = this.tempDir.resolve("corrupted.bin").toFile();
+		vectorStore.saveSnapshot(file);
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(SimpleVectorStoreSnapshot.HEADER_SIZE + 1);
+			raf.write(raf.read() ^ 0xFF);
+		}
+
+		assertThatThrownBy(() -> vectorStore.load(file)).isInstanceOf(RuntimeException.class)
+			.hasCauseInstanceOf(IOException.class)
+			.hasMessageContaining("Checksum mismatch");
+	}
+
+	@Test
+	void shouldRejectUnsupportedVersion() throws IOException {
+		this.embeddingModel.register("a", new float[] { 1f, 0f, 0f });
+		SimpleVectorStore vectorStore = SimpleVectorStore.builder(this.embeddingModel).build();
+		vectorStore.add(List.of(new Document("a")));
+		File file = this.tempDir.resolve("future.bin").toFile();
+		vectorStore.saveSnapshot(file);
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(4);
+			raf.write(SimpleVectorStoreSnapshot.VERSION + 1);
+		}
+
+		assertThatThrownBy(() -> vectorStore.load(file)).isInstanceOf(RuntimeException.class)
+			.hasMessageContaining("Unsupported SimpleVectorStore snapshot version");
+	}
+
+	@Test
+	void shouldSearchMappedSnapshotInPlace() throws IOException {
+		Random random = new Random(2);
+		List<SimpleVectorStoreContent> contents = new ArrayList<>();
+		for (int i = 0; i < EmbeddingMatrix.BLOCK_ROWS + 100; i++) {
+			float[] embedding = new float[DIMENSIONS];
+			for (int d = 0; d < DIMENSIONS; d++) {
+				embedding[d] = (float) random.nextGaussian();
+			}
+			contents.add(new SimpleVectorStoreContent("id-" + i, "document-" + i, Map.of("index", i), embedding));
+		}
+		EmbeddingMatrix matrix = new EmbeddingMatrix();
+		matrix.putAll(contents);
+		ObjectMapper objectMapper = new ObjectMapper();
+		Path file = this.tempDir.resolve("mapped.bin");
+		SimpleVectorStoreSnapshot.write(matrix, file, objectMapper);
+
+		EmbeddingMatrix loaded = new EmbeddingMatrix();
+		SimpleVectorStoreSnapshot.read(file, objectMapper, loaded);
+
+		assertThat(loaded.mappedBlockCount()).isEqualTo(2);
+		float[] query = contents.get(4100).getEmbedding();
+		Filter.Expression filter = new FilterExpressionTextParser().parse("index >= 4000");
+		assertThat(ids(loaded.search(query, 5, -1.0))).isEqualTo(ids(matrix.search(query, 5, -1.0)))
+			.startsWith("id-4100");
+		assertThat(ids(loaded.search(query, 5, -1.0, filter))).isEqualTo(ids(matrix.search(query, 5, -1.0, filter)));
+		assertThat(loaded.mappedBlockCount()).isEqualTo(2);
+
+		// Only the written block is copied to the heap
+		loaded.removeAll(List.of("id-4100"));
+		matrix.removeAll(List.of("id-4100"));
+		assertThat(loaded.mappedBlockCount()).isEqualTo(1);
+		assertThat(ids(loaded.search(query, 5, -1.0))).isEqualTo(ids(matrix.search(query, 5, -1.0)))
+			.doesNotContain("id-4100");
+	}
+
+	private static List<String> ids(List<Document> documents) {
+		return documents.stream().map(Document::getId).toList();
+	}
+
+	@Test
+	void snapshotIsSmallerThanJsonAndSearchesAlike() {
+		Random random = new Random(1);
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < EmbeddingMatrix.BLOCK_ROWS + 100; i++) {
+			float[] embedding = new float[DIMENSIONS];
+			for (int d = 0; d < DIMENSIONS; d++) {
+				embedding[d] = (float) random.nextGaussian();
+			}
+			String text = "document-" + i;
+			this.embeddingModel.register(text, embedding);
+			documents.add(Document.builder().text(text).metadata(Map.of("index", i)).build());
+		}
+		SimpleVectorStore vectorStore = SimpleVectorStore.builder(this.embeddingModel).build();
+		vectorStore.add(documents);
+
+		File json = this.tempDir.resolve("store.json").toFile();
+		File snapshot = this.tempDir.resolve("store.bin").toFile();
+		vectorStore.save(json);
+		vectorStore.saveSnapshot(snapshot);
+
+		SimpleVectorStore fromJson = SimpleVectorStore.builder(this.embeddingModel).build();
+		fromJson.load(json);
+		SimpleVectorStore fromSnapshot = SimpleVectorStore.builder(this.embeddingModel).build();
+		fromSnapshot.load(snapshot);
+
+		assertThat(snapshot.length()).isLessThan(json.length());
+		this.embeddingModel.register("query", this.embeddingModel.embed(documents.get(4100)));
+		SearchRequest request = SearchRequest.builder().query("query").topK(5).build();
+		assertThat(fromSnapshot.similaritySearch(request)).extracting(Document::getId)
+			.containsExactlyElementsOf(fromJson.similaritySearch(request).stream().map(Document::getId).toList())
+			.startsWith(documents.get(4100).getId());
+	}
+
+}
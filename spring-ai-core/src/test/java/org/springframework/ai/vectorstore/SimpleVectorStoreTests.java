@@ -19,12 +19,16 @@ package org.springframework.ai.vectorstore;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -33,13 +37,20 @@ import org.junit.jupiter.api.io.CleanupMode;
 import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingBatchExecutor;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
 import org.springframework.core.io.Resource;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class SimpleVectorStoreTests {
@@ -56,7 +67,10 @@ class SimpleVectorStoreTests {
 		this.mockEmbeddingModel = mock(EmbeddingModel.class);
 		when(this.mockEmbeddingModel.dimensions()).thenReturn(3);
 		when(this.mockEmbeddingModel.embed(any(String.class))).thenReturn(new float[] { 0.1f, 0.2f, 0.3f });
-		when(this.mockEmbeddingModel.embed(any(Document.class))).thenReturn(new float[] { 0.1f, 0.2f, 0.3f });
+		when(this.mockEmbeddingModel.embed(anyList(), any(), any())).thenAnswer(invocation -> {
+			List<Document> documents = invocation.getArgument(0);
+			return documents.stream().map(document -> new float[] { 0.1f, 0.2f, 0.3f }).toList();
+		});
 		this.vectorStore = new SimpleVectorStore(SimpleVectorStore.builder(this.mockEmbeddingModel));
 	}
 
@@ -109,6 +123,25 @@ class SimpleVectorStoreTests {
 		assertThat(this.vectorStore.similaritySearch("test")).isEmpty();
 	}
 
+	@Test
+	void shouldDeleteDocumentsMatchingFilterExpression() {
+		this.vectorStore = new SimpleVectorStore(
+				SimpleVectorStore.builder(this.mockEmbeddingModel).indexedMetadataKeys("source"));
+		this.vectorStore.add(List.of(new Document("1", "first chunk", Map.of("source", "x.pdf", "page", 1)),
+				new Document("2", "second chunk", Map.of("source", "x.pdf", "page", 2)),
+				new Document("3", "other chunk", Map.of("source", "y.pdf", "page", 1))));
+
+		this.vectorStore.delete("source == 'x.pdf' && page > 1");
+		assertThat(this.vectorStore.similaritySearch(SearchRequest.builder().query("chunk").topK(10).build()))
+			.extracting(Document::getId)
+			.containsExactlyInAnyOrder("1", "3");
+
+		this.vectorStore.delete("source == 'x.pdf'");
+		assertThat(this.vectorStore.similaritySearch(SearchRequest.builder().query("chunk").topK(10).build()))
+			.extracting(Document::getId)
+			.containsExactly("3");
+	}
+
 	@Test
 	void shouldHandleDeleteOfNonexistentDocument() {
 		this.vectorStore.delete(List.of("nonexistent-id"));
@@ -131,6 +164,34 @@ class SimpleVectorStoreTests {
 		assertThat(results).isEmpty();
 	}
 
+	@Test
+	void shouldSearchWithPrecomputedQueryEmbedding() {
+		Document doc = Document.builder().id("1").text("test content").build();
+		this.vectorStore.add(List.of(doc));
+
+		SearchRequest request = SearchRequest.builder()
+			.query("query")
+			.queryEmbedding(new float[] { 0.1f, 0.2f, 0.3f })
+			.similarityThreshold(0.99f)
+			.build();
+
+		assertThat(this.vectorStore.similaritySearch(request)).extracting(Document::getId).containsExactly("1");
+		verify(this.mockEmbeddingModel, never()).embed(any(String.class));
+	}
+
+	@Test
+	void shouldAddDocumentsWithPrecomputedEmbeddings() {
+		float[] embedding = this.vectorStore.embed("test content").orElseThrow();
+		Document doc = Document.builder().id("1").text("test content").build();
+
+		this.vectorStore.addEmbedded(DocumentEmbeddings.of(List.of(doc), List.of(embedding)));
+
+		SearchRequest request = SearchRequest.builder().queryEmbedding(embedding).similarityThreshold(0.99f).build();
+		assertThat(this.vectorStore.similaritySearch(request)).extracting(Document::getId).containsExactly("1");
+		verify(this.mockEmbeddingModel, times(1)).embed(any(String.class));
+		verify(this.mockEmbeddingModel, never()).embed(anyList(), any(), any());
+	}
+
 	@Test
 	void shouldSaveAndLoadVectorStore() throws IOException {
 		Document doc = Document.builder()
@@ -173,6 +234,76 @@ class SimpleVectorStoreTests {
 			.hasCauseInstanceOf(IOException.class);
 	}
 
+	@Test
+	void shouldEmbedDocumentsInBatches() {
+		this.vectorStore.add(List.of(new Document("a"), new Document("b"), new Document("c")));
+
+		verify(this.mockEmbeddingModel, times(1)).embed(anyList(), any(), any());
+		verify(this.mockEmbeddingModel, never()).embed(any(Document.class));
+	}
+
+	@Test
+	void shouldEmbedBatchesConcurrentlyWithBatchExecutor() {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		SimpleVectorStoreHnswTests.FixedEmbeddingModel embeddingModel = new SimpleVectorStoreHnswTests.FixedEmbeddingModel() {
+
+			@Override
+			public EmbeddingResponse call(EmbeddingRequest request) {
+				maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(20);
+					return super.call(request);
+				}
+				catch (InterruptedException ex) {
+					throw new IllegalStateException(ex);
+				}
+				finally {
+					inFlight.decrementAndGet();
+				}
+			}
+
+		};
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			embeddingModel.register("doc-" + i, new float[] { 1f, i, 0f });
+			documents.add(Document.builder().id(String.valueOf(i)).text("doc-" + i).build());
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			SimpleVectorStore store = SimpleVectorStore.builder(embeddingModel)
+				.batchingStrategy(docs -> docs.stream().map(List::of).toList())
+				.embeddingBatchExecutor(EmbeddingBatchExecutor.builder().maxConcurrency(3).executor(executor).build())
+				.build();
+			store.add(documents);
+
+			assertThat(maxInFlight.get()).isBetween(2, 3);
+			for (int i = 0; i < 12; i++) {
+				embeddingModel.register("query", new float[] { 1f, i, 0f });
+				assertThat(store.similaritySearch(SearchRequest.builder().query("query").topK(1).build()))
+					.extracting(Document::getId)
+					.containsExactly(String.valueOf(i));
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void shouldPropagateEmbeddingFailureOfConcurrentBatch() {
+		EmbeddingModel failingModel = mock(EmbeddingModel.class);
+		when(failingModel.call(any())).thenThrow(new IllegalStateException("Rate limited"));
+		SimpleVectorStore store = SimpleVectorStore.builder(failingModel)
+			.batchingStrategy(docs -> docs.stream().map(List::of).toList())
+			.embeddingBatchExecutor(EmbeddingBatchExecutor.builder().maxConcurrency(2).build())
+			.build();
+
+		assertThatThrownBy(() -> store.add(List.of(new Document("a"), new Document("b"), new Document("c"))))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessage("Rate limited");
+	}
+
 	@Test
 	void shouldHandleConcurrentOperations() throws InterruptedException {
 		int numThreads = 10;
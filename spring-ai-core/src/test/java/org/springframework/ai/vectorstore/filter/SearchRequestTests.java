@@ -62,6 +62,38 @@ public class SearchRequestTests {
 		assertThat(newRequest.getSimilarityThreshold()).isEqualTo(originalRequest.getSimilarityThreshold());
 	}
 
+	@Test
+	public void queryEmbedding() {
+		float[] embedding = { 0.1f, 0.2f };
+		var request = SearchRequest.builder().query("Query").queryEmbedding(embedding).build();
+		assertThat(request.hasQueryEmbedding()).isTrue();
+		assertThat(request.getQueryEmbedding()).isEqualTo(embedding).isNotSameAs(embedding);
+
+		var copy = SearchRequest.from(request).topK(10).build();
+		assertThat(copy.getQueryEmbedding()).isEqualTo(embedding);
+		assertThat(SearchRequest.from(request).build()).isEqualTo(request).hasSameHashCodeAs(request);
+
+		var newQuery = SearchRequest.from(request).query("Other query").build();
+		assertThat(newQuery.hasQueryEmbedding()).isFalse();
+
+		var sameQuery = SearchRequest.from(request).query("Query").build();
+		assertThat(sameQuery.getQueryEmbedding()).isEqualTo(embedding);
+
+		var embeddingFirst = SearchRequest.builder().queryEmbedding(embedding).query("Query").build();
+		assertThat(embeddingFirst.getQuery()).isEqualTo("Query");
+		assertThat(embeddingFirst.getQueryEmbedding()).isEqualTo(embedding);
+
+		var replaced = SearchRequest.from(request).queryEmbedding(embedding).query("Other query").build();
+		assertThat(replaced.getQueryEmbedding()).isEqualTo(embedding);
+
+		embedding[0] = 0.5f;
+		assertThat(request.getQueryEmbedding()).containsExactly(0.1f, 0.2f);
+
+		assertThatThrownBy(() -> SearchRequest.builder().queryEmbedding(new float[0]))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("Query embedding can not be empty.");
+	}
+
 	@Test
 	public void queryString() {
 		var emptyRequest = SearchRequest.builder().build();
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore.observation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the asynchronous operations of {@link AbstractObservationVectorStore}.
+ */
+class AbstractObservationVectorStoreTests {
+
+	private final List<VectorStoreObservationContext> observations = new CopyOnWriteArrayList<>();
+
+	private final List<String> embeddingThreads = new CopyOnWriteArrayList<>();
+
+	private EmbeddingModel embeddingModel;
+
+	private SimpleVectorStore vectorStore;
+
+	@BeforeEach
+	void setUp() {
+		this.embeddingModel = mock(EmbeddingModel.class);
+		when(this.embeddingModel.dimensions()).thenReturn(3);
+		when(this.embeddingModel.embed(any(String.class))).thenAnswer(invocation -> {
+			this.embeddingThreads.add(Thread.currentThread().getName());
+			return new float[] { 0.1f, 0.2f, 0.3f };
+		});
+		when(this.embeddingModel.embed(anyList(), any(), any())).thenAnswer(invocation -> {
+			List<Document> documents = invocation.getArgument(0);
+			return documents.stream().map(document -> new float[] { 0.1f, 0.2f, 0.3f }).toList();
+		});
+
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+
+			@Override
+			public void onStop(Observation.Context context) {
+				AbstractObservationVectorStoreTests.this.observations.add((VectorStoreObservationContext) context);
+			}
+
+			@Override
+			public boolean supportsContext(Observation.Context context) {
+				return context instanceof VectorStoreObservationContext;
+			}
+
+		});
+
+		this.vectorStore = SimpleVectorStore.builder(this.embeddingModel)
+			.observationRegistry(observationRegistry)
+			.blockingScheduler(Schedulers.newBoundedElastic(2, 10, "vector-store"))
+			.build();
+	}
+
+	@Test
+	void addsSearchesAndDeletesAsynchronously() {
+		Document document = Document.builder().id("1").text("content").metadata(Map.of("key", "value")).build();
+
+		this.vectorStore.addAsync(List.of(document)).block();
+		List<Document> results = this.vectorStore
+			.similaritySearchAsync(SearchRequest.builder().query("content").build())
+			.block();
+		Boolean deleted = this.vectorStore.deleteAsync(List.of("1")).block();
+
+		assertThat(results).extracting(Document::getId).containsExactly("1");
+		assertThat(deleted).isTrue();
+		assertThat(this.vectorStore.similaritySearch("content")).isEmpty();
+		assertThat(this.embeddingThreads.get(0)).startsWith("vector-store");
+	}
+
+	@Test
+	void observesAsynchronousOperations() {
+		this.vectorStore.addAsync(List.of(new Document("1", "content", Map.of()))).block();
+		this.vectorStore
+			.similaritySearchAsync(
+					SearchRequest.builder().query("content").queryEmbedding(new float[] { 1, 2, 3 }).build())
+			.block();
+
+		// observations are stopped once the Mono has terminated
+		await().atMost(Duration.ofSeconds(5))
+			.untilAsserted(
+					() -> assertThat(this.observations).extracting(VectorStoreObservationContext::getOperationName)
+						.containsExactly("add", "query"));
+		VectorStoreObservationContext query = this.observations.get(1);
+		assertThat(query.isQueryEmbeddingSkipped()).isTrue();
+		assertThat(query.getQueryResponse()).extracting(Document::getId).containsExactly("1");
+		verify(this.embeddingModel, never()).embed(any(String.class));
+	}
+
+}
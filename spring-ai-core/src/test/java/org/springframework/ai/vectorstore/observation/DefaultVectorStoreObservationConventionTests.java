@@ -71,7 +71,8 @@ class DefaultVectorStoreObservationConventionTests {
 		assertThat(this.observationConvention.getLowCardinalityKeyValues(observationContext)).contains(
 				KeyValue.of(LowCardinalityKeyNames.SPRING_AI_KIND.asString(), SpringAiKind.VECTOR_STORE.value()),
 				KeyValue.of(LowCardinalityKeyNames.DB_OPERATION_NAME.asString(), "query"),
-				KeyValue.of(LowCardinalityKeyNames.DB_SYSTEM.asString(), "my_database"));
+				KeyValue.of(LowCardinalityKeyNames.DB_SYSTEM.asString(), "my_database"),
+				KeyValue.of(LowCardinalityKeyNames.DB_VECTOR_QUERY_EMBEDDING_SKIPPED.asString(), "false"));
 	}
 
 	@Test
@@ -87,15 +88,17 @@ class DefaultVectorStoreObservationConventionTests {
 				.query("VDB QUERY")
 				.filterExpression("country == 'UK' && year >= 2020")
 				.build())
+			.queryEmbeddingSkipped(true)
 			.build();
 
 		List<Document> queryResponseDocs = List.of(new Document("doc1"), new Document("doc2"));
 
 		observationContext.setQueryResponse(queryResponseDocs);
 
-		assertThat(this.observationConvention.getLowCardinalityKeyValues(observationContext))
-			.contains(KeyValue.of(LowCardinalityKeyNames.DB_OPERATION_NAME.asString(),
-					VectorStoreObservationContext.Operation.QUERY.value));
+		assertThat(this.observationConvention.getLowCardinalityKeyValues(observationContext)).contains(
+				KeyValue.of(LowCardinalityKeyNames.DB_OPERATION_NAME.asString(),
+						VectorStoreObservationContext.Operation.QUERY.value),
+				KeyValue.of(LowCardinalityKeyNames.DB_VECTOR_QUERY_EMBEDDING_SKIPPED.asString(), "true"));
 
 		// Optional, filter only added content
 		assertThat(this.observationConvention.getHighCardinalityKeyValues(observationContext))
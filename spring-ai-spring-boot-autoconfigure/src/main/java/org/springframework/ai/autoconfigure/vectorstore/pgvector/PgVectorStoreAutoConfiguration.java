@@ -75,6 +75,8 @@ public class PgVectorStoreAutoConfiguration {
 			.customObservationConvention(customObservationConvention.getIfAvailable(() -> null))
 			.batchingStrategy(batchingStrategy)
 			.maxDocumentBatchSize(properties.getMaxDocumentBatchSize())
+			.ingestMode(properties.getIngestMode())
+			.deferIndexCreation(properties.isDeferIndexCreation())
 			.build();
 	}
 
@@ -20,6 +20,7 @@ import org.springframework.ai.autoconfigure.vectorstore.CommonVectorStorePropert
 import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
 import org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgDistanceType;
 import org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgIndexType;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgIngestMode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -51,6 +52,10 @@ public class PgVectorStoreProperties extends CommonVectorStoreProperties {
 
 	private int maxDocumentBatchSize = PgVectorStore.MAX_DOCUMENT_BATCH_SIZE;
 
+	private PgIngestMode ingestMode = PgIngestMode.INSERT;
+
+	private boolean deferIndexCreation = false;
+
 	public int getDimensions() {
 		return this.dimensions;
 	}
@@ -115,4 +120,20 @@ public class PgVectorStoreProperties extends CommonVectorStoreProperties {
 		this.maxDocumentBatchSize = maxDocumentBatchSize;
 	}
 
+	public PgIngestMode getIngestMode() {
+		return this.ingestMode;
+	}
+
+	public void setIngestMode(PgIngestMode ingestMode) {
+		this.ingestMode = ingestMode;
+	}
+
+	public boolean isDeferIndexCreation() {
+		return this.deferIndexCreation;
+	}
+
+	public void setDeferIndexCreation(boolean deferIndexCreation) {
+		this.deferIndexCreation = deferIndexCreation;
+	}
+
 }
@@ -21,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
 import org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgDistanceType;
 import org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgIndexType;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgIngestMode;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -40,6 +41,8 @@ public class PgVectorStorePropertiesTests {
 		assertThat(props.isSchemaValidation()).isFalse();
 		assertThat(props.getSchemaName()).isEqualTo(PgVectorStore.DEFAULT_SCHEMA_NAME);
 		assertThat(props.getTableName()).isEqualTo(PgVectorStore.DEFAULT_TABLE_NAME);
+		assertThat(props.getIngestMode()).isEqualTo(PgIngestMode.INSERT);
+		assertThat(props.isDeferIndexCreation()).isFalse();
 
 	}
 
@@ -55,6 +58,8 @@ public class PgVectorStorePropertiesTests {
 		props.setSchemaValidation(true);
 		props.setSchemaName("my_vector_schema");
 		props.setTableName("my_vector_table");
+		props.setIngestMode(PgIngestMode.COPY);
+		props.setDeferIndexCreation(true);
 
 		assertThat(props.getDimensions()).isEqualTo(1536);
 		assertThat(props.getDistanceType()).isEqualTo(PgDistanceType.EUCLIDEAN_DISTANCE);
@@ -64,6 +69,8 @@ public class PgVectorStorePropertiesTests {
 		assertThat(props.isSchemaValidation()).isTrue();
 		assertThat(props.getSchemaName()).isEqualTo("my_vector_schema");
 		assertThat(props.getTableName()).isEqualTo("my_vector_table");
+		assertThat(props.getIngestMode()).isEqualTo(PgIngestMode.COPY);
+		assertThat(props.isDeferIndexCreation()).isTrue();
 	}
 
 }
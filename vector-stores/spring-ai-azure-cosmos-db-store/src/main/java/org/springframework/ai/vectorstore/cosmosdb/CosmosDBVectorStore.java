@@ -59,9 +59,9 @@ import reactor.core.publisher.Flux;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
@@ -216,19 +216,20 @@ public class CosmosDBVectorStore extends AbstractObservationVectorStore implemen
 
 	@Override
 	public void doAdd(List<Document> documents) {
+		doAdd(embedDocuments(documents));
+	}
 
-		// Batch the documents based on the batching strategy
-		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-				this.batchingStrategy);
-
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
 		// Create a list to hold both the CosmosItemOperation and the corresponding
 		// document ID
-		List<ImmutablePair<String, CosmosItemOperation>> itemOperationsWithIds = documents.stream().map(doc -> {
-			CosmosItemOperation operation = CosmosBulkOperations.getCreateItemOperation(
-					mapCosmosDocument(doc, embeddings.get(documents.indexOf(doc))), new PartitionKey(doc.getId()));
-			return new ImmutablePair<>(doc.getId(), operation); // Pair the document ID
-			// with the operation
-		}).toList();
+		List<ImmutablePair<String, CosmosItemOperation>> itemOperationsWithIds = documentEmbeddings
+			.map((doc, embedding) -> {
+				CosmosItemOperation operation = CosmosBulkOperations
+					.getCreateItemOperation(mapCosmosDocument(doc, embedding), new PartitionKey(doc.getId()));
+				// Pair the document ID with the operation
+				return new ImmutablePair<>(doc.getId(), operation);
+			});
 
 		try {
 			// Extract just the CosmosItemOperations from the pairs
@@ -307,7 +308,7 @@ public class CosmosDBVectorStore extends AbstractObservationVectorStore implemen
 		}
 
 		// Convert query into vector embedding
-		float[] embedding = this.embeddingModel.embed(request.getQuery());
+		float[] embedding = embedQuery(request);
 
 		logger.info("similarity threshold: {}", request.getSimilarityThreshold());
 
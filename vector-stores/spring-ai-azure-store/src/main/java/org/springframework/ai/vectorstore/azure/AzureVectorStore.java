@@ -48,11 +48,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.model.EmbeddingUtils;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.observation.conventions.VectorStoreSimilarityMetric;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
@@ -158,13 +158,15 @@ public class AzureVectorStore extends AbstractObservationVectorStore implements
 			return; // nothing to do;
 		}
 
-		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-				this.batchingStrategy);
+		doAdd(embedDocuments(documents));
+	}
 
-		final var searchDocuments = documents.stream().map(document -> {
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
+		final var searchDocuments = documentEmbeddings.map((document, embedding) -> {
 			SearchDocument searchDocument = new SearchDocument();
 			searchDocument.put(ID_FIELD_NAME, document.getId());
-			searchDocument.put(EMBEDDING_FIELD_NAME, embeddings.get(documents.indexOf(document)));
+			searchDocument.put(EMBEDDING_FIELD_NAME, embedding);
 			searchDocument.put(CONTENT_FIELD_NAME, document.getText());
 			searchDocument.put(METADATA_FIELD_NAME, new JSONObject(document.getMetadata()).toJSONString());
 
@@ -177,7 +179,7 @@ public class AzureVectorStore extends AbstractObservationVectorStore implements
 			}
 
 			return searchDocument;
-		}).toList();
+		});
 
 		IndexDocumentsResult result = this.searchClient.uploadDocuments(searchDocuments);
 
@@ -229,7 +231,7 @@ public class AzureVectorStore extends AbstractObservationVectorStore implements
 
 		Assert.notNull(request, "The search request must not be null.");
 
-		var searchEmbedding = this.embeddingModel.embed(request.getQuery());
+		var searchEmbedding = embedQuery(request);
 
 		final var vectorQuery = new VectorizedQuery(EmbeddingUtils.toList(searchEmbedding))
 			.setKNearestNeighborsCount(request.getTopK())
@@ -17,10 +17,15 @@
 package org.springframework.ai.chat.memory.cassandra;
 
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicLong;
 
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.Row;
@@ -33,6 +38,7 @@ import com.datastax.oss.driver.api.querybuilder.select.Select;
 import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
 
 import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.WriteBehindChatMemory;
 import org.springframework.ai.chat.memory.cassandra.CassandraChatMemoryConfig.SchemaColumn;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
@@ -45,6 +51,12 @@ import org.springframework.ai.chat.messages.UserMessage;
  *
  * For example @see org.springframework.ai.chat.memory.cassandra.CassandraChatMemory
  *
+ * Adding several messages at once pipelines their inserts with {@code executeAsync}, at
+ * most {@value #MAX_IN_FLIGHT_WRITES} at a time, so it takes a few round-trips instead of
+ * one per message. To take the writes off the request thread altogether, wrap the memory
+ * in a {@link WriteBehindChatMemory} with {@code newestFirst(true)}, which coalesces the
+ * pending messages of every conversation into such multi-message adds.
+ *
  * @author Mick Semb Wever
  * @since 1.0.0
  */
@@ -52,6 +64,8 @@ public final class CassandraChatMemory implements ChatMemory {
 
 	public static final String CONVERSATION_TS = CassandraChatMemory.class.getSimpleName() + "_message_timestamp";
 
+	static final int MAX_IN_FLIGHT_WRITES = 16;
+
 	final CassandraChatMemoryConfig conf;
 
 	private final PreparedStatement addUserStmt;
@@ -78,16 +92,61 @@ public final class CassandraChatMemory implements ChatMemory {
 	@Override
 	public void add(String conversationId, List<Message> messages) {
 		final AtomicLong instantSeq = new AtomicLong(Instant.now().toEpochMilli());
-		messages.forEach(msg -> {
-			if (msg.getMetadata().containsKey(CONVERSATION_TS)) {
-				msg.getMetadata().put(CONVERSATION_TS, Instant.ofEpochMilli(instantSeq.getAndIncrement()));
+		Deque<CompletableFuture<?>> inFlight = new ArrayDeque<>(MAX_IN_FLIGHT_WRITES);
+		RuntimeException failure = null;
+		try {
+			for (Message msg : messages) {
+				// distinct timestamps keep the messages of one call apart and in order
+				if (!msg.getMetadata().containsKey(CONVERSATION_TS)) {
+					msg.getMetadata().put(CONVERSATION_TS, Instant.ofEpochMilli(instantSeq.getAndIncrement()));
+				}
+				BoundStatement stmt = bind(conversationId, msg);
+				if (inFlight.size() == MAX_IN_FLIGHT_WRITES) {
+					await(inFlight.poll());
+				}
+				inFlight.add(this.conf.session.executeAsync(stmt).toCompletableFuture());
+			}
+		}
+		catch (RuntimeException ex) {
+			failure = ex;
+		}
+		// writes already sent are awaited even when a later one could not be sent
+		for (CompletableFuture<?> future : inFlight) {
+			try {
+				await(future);
+			}
+			catch (RuntimeException ex) {
+				if (null == failure) {
+					failure = ex;
+				}
+				else if (failure != ex) {
+					failure.addSuppressed(ex);
+				}
+			}
+		}
+		if (null != failure) {
+			throw failure;
+		}
+	}
+
+	private static void await(CompletableFuture<?> future) {
+		try {
+			future.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
 			}
-			add(conversationId, msg);
-		});
+			throw ex;
+		}
 	}
 
 	@Override
 	public void add(String sessionId, Message msg) {
+		this.conf.session.execute(bind(sessionId, msg));
+	}
+
+	private BoundStatement bind(String sessionId, Message msg) {
 
 		Preconditions.checkArgument(
 				!msg.getMetadata().containsKey(CONVERSATION_TS)
@@ -111,7 +170,7 @@ public final class CassandraChatMemory implements ChatMemory {
 		builder = builder.setInstant(CassandraChatMemoryConfig.DEFAULT_EXCHANGE_ID_NAME, instant)
 			.setString("message", msg.getText());
 
-		this.conf.session.execute(builder.build());
+		return builder.build();
 	}
 
 	PreparedStatement getStatement(Message msg) {
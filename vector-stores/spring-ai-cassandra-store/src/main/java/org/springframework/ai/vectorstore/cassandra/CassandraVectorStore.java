@@ -35,6 +35,7 @@ import java.util.stream.Stream;
 
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.CqlSessionBuilder;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
@@ -62,18 +63,19 @@ import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting
 import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
 
 import org.springframework.ai.cassandra.SchemaUtil;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.model.EmbeddingUtils;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.observation.conventions.VectorStoreSimilarityMetric;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
@@ -268,14 +270,17 @@ public class CassandraVectorStore extends AbstractObservationVectorStore impleme
 
 	@Override
 	public void doAdd(List<Document> documents) {
-		var futures = new CompletableFuture[documents.size()];
+		doAdd(embedDocuments(documents));
+	}
 
-		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-				this.batchingStrategy);
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
+		var futures = new CompletableFuture[documentEmbeddings.size()];
 
-		int i = 0;
-		for (Document d : documents) {
-			futures[i++] = CompletableFuture.runAsync(() -> {
+		for (int i = 0; i < documentEmbeddings.size(); i++) {
+			Document d = documentEmbeddings.getDocument(i);
+			float[] embedding = documentEmbeddings.getEmbedding(i);
+			futures[i] = CompletableFuture.runAsync(() -> {
 				List<Object> primaryKeyValues = this.documentIdTranslator.apply(d.getId());
 
 				BoundStatementBuilder builder = prepareAddStatement(d.getMetadata().keySet()).boundStatementBuilder();
@@ -285,8 +290,7 @@ public class CassandraVectorStore extends AbstractObservationVectorStore impleme
 				}
 
 				builder = builder.setString(this.schema.content(), d.getText())
-					.setVector(this.schema.embedding(),
-							CqlVector.newInstance(EmbeddingUtils.toList(embeddings.get(documents.indexOf(d)))),
+					.setVector(this.schema.embedding(), CqlVector.newInstance(EmbeddingUtils.toList(embedding)),
 							Float.class);
 
 				for (var metadataColumn : this.schema.metadataColumns()
@@ -319,9 +323,49 @@ public class CassandraVectorStore extends AbstractObservationVectorStore impleme
 
 	@Override
 	public List<Document> doSimilaritySearch(SearchRequest request) {
+		SimpleStatement s = similaritySearchStatement(request, embedQuery(request));
+		List<Document> documents = new ArrayList<>();
+		for (Row row : this.session.execute(s)) {
+			float score = row.getFloat(0);
+			if (score < request.getSimilarityThreshold()) {
+				break;
+			}
+			documents.add(toDocument(row, score));
+		}
+		return documents;
+	}
+
+	/**
+	 * Runs the similarity search with the asynchronous API of the driver, only embedding
+	 * the query text on the blocking scheduler.
+	 */
+	@Override
+	protected Mono<List<Document>> doSimilaritySearchAsync(SearchRequest request) {
+		return embedQueryAsync(request)
+			.flatMap(embedding -> Mono
+				.fromCompletionStage(() -> this.session.executeAsync(similaritySearchStatement(request, embedding))))
+			.flatMap(resultSet -> collectDocuments(resultSet, request, new ArrayList<>()));
+	}
+
+	private Mono<List<Document>> collectDocuments(AsyncResultSet resultSet, SearchRequest request,
+			List<Document> documents) {
+		for (Row row : resultSet.currentPage()) {
+			float score = row.getFloat(0);
+			if (score < request.getSimilarityThreshold()) {
+				return Mono.just(documents);
+			}
+			documents.add(toDocument(row, score));
+		}
+		if (!resultSet.hasMorePages()) {
+			return Mono.just(documents);
+		}
+		return Mono.fromCompletionStage(resultSet::fetchNextPage)
+			.flatMap(nextPage -> collectDocuments(nextPage, request, documents));
+	}
+
+	private SimpleStatement similaritySearchStatement(SearchRequest request, float[] queryEmbedding) {
 		Preconditions.checkArgument(request.getTopK() <= 1000);
-		var embedding = toFloatArray(this.embeddingModel.embed(request.getQuery()));
-		CqlVector<Float> cqlVector = CqlVector.newInstance(embedding);
+		CqlVector<Float> cqlVector = CqlVector.newInstance(toFloatArray(queryEmbedding));
 
 		String whereClause = "";
 		if (request.hasFilterExpression()) {
@@ -332,33 +376,25 @@ public class CassandraVectorStore extends AbstractObservationVectorStore impleme
 		}
 
 		String query = String.format(this.similarityStmt, cqlVector, whereClause, cqlVector, request.getTopK());
-		List<Document> documents = new ArrayList<>();
 		logger.trace("Executing {}", query);
-		SimpleStatement s = SimpleStatement.newInstance(query).setExecutionProfileName(DRIVER_PROFILE_SEARCH);
+		return SimpleStatement.newInstance(query).setExecutionProfileName(DRIVER_PROFILE_SEARCH);
+	}
 
-		for (Row row : this.session.execute(s)) {
-			float score = row.getFloat(0);
-			if (score < request.getSimilarityThreshold()) {
-				break;
+	private Document toDocument(Row row, float score) {
+		Map<String, Object> docFields = new HashMap<>();
+		docFields.put(DocumentMetadata.DISTANCE.value(), 1 - score);
+		for (var metadata : this.schema.metadataColumns()) {
+			var value = row.get(metadata.name(), metadata.javaType());
+			if (null != value) {
+				docFields.put(metadata.name(), value);
 			}
-			Map<String, Object> docFields = new HashMap<>();
-			docFields.put(DocumentMetadata.DISTANCE.value(), 1 - score);
-			for (var metadata : this.schema.metadataColumns()) {
-				var value = row.get(metadata.name(), metadata.javaType());
-				if (null != value) {
-					docFields.put(metadata.name(), value);
-				}
-			}
-			Document doc = Document.builder()
-				.id(getDocumentId(row))
-				.text(row.getString(this.schema.content()))
-				.metadata(docFields)
-				.score((double) score)
-				.build();
-
-			documents.add(doc);
 		}
-		return documents;
+		return Document.builder()
+			.id(getDocumentId(row))
+			.text(row.getString(this.schema.content()))
+			.metadata(docFields)
+			.score((double) score)
+			.build();
 	}
 
 	void checkSchemaValid() {
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.memory.cassandra;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link CassandraChatMemory}.
+ */
+class CassandraChatMemoryTests {
+
+	private static final Executor LATER = CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS);
+
+	private final CqlSession session = mock(CqlSession.class);
+
+	private CassandraChatMemory memory;
+
+	@BeforeEach
+	void setUp() {
+		Metadata metadata = mock(Metadata.class);
+		KeyspaceMetadata keyspace = mock(KeyspaceMetadata.class);
+		TableMetadata table = mock(TableMetadata.class);
+		given(this.session.getMetadata()).willReturn(metadata);
+		given(metadata.getKeyspace(anyString())).willReturn(Optional.of(keyspace));
+		given(keyspace.getTable(anyString())).willReturn(Optional.of(table));
+		given(table.getColumn(anyString())).willReturn(Optional.of(mock(ColumnMetadata.class)));
+		given(table.getColumn(any(CqlIdentifier.class))).willReturn(Optional.of(mock(ColumnMetadata.class)));
+
+		PreparedStatement prepared = mock(PreparedStatement.class);
+		BoundStatementBuilder builder = mock(BoundStatementBuilder.class, RETURNS_SELF);
+		given(builder.build()).willReturn(mock(BoundStatement.class));
+		given(prepared.boundStatementBuilder()).willReturn(builder);
+		given(this.session.prepare(any(SimpleStatement.class))).willReturn(prepared);
+
+		this.memory = CassandraChatMemory
+			.create(CassandraChatMemoryConfig.builder().withCqlSession(this.session).disallowSchemaChanges().build());
+	}
+
+	@Test
+	void boundsInFlightWrites() {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		given(this.session.executeAsync(any(BoundStatement.class))).willAnswer(invocation -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			return CompletableFuture.supplyAsync(() -> {
+				inFlight.decrementAndGet();
+				return mock(AsyncResultSet.class);
+			}, LATER);
+		});
+
+		this.memory.add("conversation", messages(3 * CassandraChatMemory.MAX_IN_FLIGHT_WRITES));
+
+		verify(this.session, times(3 * CassandraChatMemory.MAX_IN_FLIGHT_WRITES))
+			.executeAsync(any(BoundStatement.class));
+		assertThat(maxInFlight.get()).isEqualTo(CassandraChatMemory.MAX_IN_FLIGHT_WRITES);
+		assertThat(inFlight.get()).isZero();
+	}
+
+	@Test
+	void rethrowsDriverExceptionOfFailedWrite() {
+		DriverTimeoutException timeout = new DriverTimeoutException("Query timed out");
+		given(this.session.executeAsync(any(BoundStatement.class))).willReturn(CompletableFuture.failedFuture(timeout));
+
+		assertThatThrownBy(() -> this.memory.add("conversation", messages(2))).isSameAs(timeout);
+	}
+
+	@Test
+	void awaitsSentWritesWhenBindingFails() {
+		CompletableFuture<AsyncResultSet> sent = CompletableFuture.supplyAsync(() -> mock(AsyncResultSet.class), LATER);
+		given(this.session.executeAsync(any(BoundStatement.class))).willReturn(sent);
+
+		List<Message> messages = messages(1);
+		messages.add(new SystemMessage("not stored"));
+
+		assertThatIllegalArgumentException().isThrownBy(() -> this.memory.add("conversation", messages));
+		assertThat(sent).isCompleted();
+	}
+
+	private static List<Message> messages(int count) {
+		List<Message> messages = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			messages.add(new UserMessage("message " + i));
+		}
+		return messages;
+	}
+
+}
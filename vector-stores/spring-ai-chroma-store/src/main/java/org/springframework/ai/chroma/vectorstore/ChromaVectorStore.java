@@ -33,11 +33,11 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.util.JacksonUtils;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
@@ -135,20 +135,22 @@ public class ChromaVectorStore extends AbstractObservationVectorStore implements
 			return;
 		}
 
+		doAdd(embedDocuments(documents));
+	}
+
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
 		List<String> ids = new ArrayList<>();
 		List<Map<String, Object>> metadatas = new ArrayList<>();
 		List<String> contents = new ArrayList<>();
 		List<float[]> embeddings = new ArrayList<>();
 
-		List<float[]> documentEmbeddings = this.embeddingModel.embed(documents,
-				EmbeddingOptionsBuilder.builder().build(), this.batchingStrategy);
-
-		for (Document document : documents) {
+		documentEmbeddings.forEach((document, embedding) -> {
 			ids.add(document.getId());
 			metadatas.add(document.getMetadata());
 			contents.add(document.getText());
-			embeddings.add(documentEmbeddings.get(documents.indexOf(document)));
-		}
+			embeddings.add(embedding);
+		});
 
 		this.chromaApi.upsertEmbeddings(this.collectionId,
 				new AddEmbeddingsRequest(ids, embeddings, metadatas, contents));
@@ -167,7 +169,7 @@ public class ChromaVectorStore extends AbstractObservationVectorStore implements
 		String query = request.getQuery();
 		Assert.notNull(query, "Query string must not be null");
 
-		float[] embedding = this.embeddingModel.embed(query);
+		float[] embedding = embedQuery(request);
 
 		Map<String, Object> where = (request.getFilterExpression() != null)
 				? jsonToMap(this.filterExpressionConverter.convertExpression(request.getFilterExpression())) : null;
@@ -198,7 +198,7 @@ public class CoherenceVectorStore extends AbstractObservationVectorStore impleme
 	@Override
 	public List<Document> doSimilaritySearch(SearchRequest request) {
 		// From the provided query, generate a vector using the embedding model
-		final Float32Vector vector = toFloat32Vector(this.embeddingModel.embed(request.getQuery()));
+		final Float32Vector vector = toFloat32Vector(embedQuery(request));
 
 		Expression expression = request.getFilterExpression();
 		final Filter<?> filter = expression == null ? null : FILTER_EXPRESSION_CONVERTER.convert(expression);
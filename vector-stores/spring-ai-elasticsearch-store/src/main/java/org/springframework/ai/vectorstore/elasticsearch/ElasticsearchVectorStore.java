@@ -23,6 +23,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch.core.BulkRequest;
 import co.elastic.clients.elasticsearch.core.BulkResponse;
@@ -37,17 +38,18 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.elasticsearch.client.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.model.EmbeddingUtils;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.observation.conventions.VectorStoreSimilarityMetric;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
@@ -156,6 +158,8 @@ public class ElasticsearchVectorStore extends AbstractObservationVectorStore imp
 
 	private final ElasticsearchClient elasticsearchClient;
 
+	private final ElasticsearchAsyncClient elasticsearchAsyncClient;
+
 	private final ElasticsearchVectorStoreOptions options;
 
 	private final FilterExpressionConverter filterExpressionConverter;
@@ -176,10 +180,17 @@ public class ElasticsearchVectorStore extends AbstractObservationVectorStore imp
 				new JacksonJsonpMapper(
 						new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false))))
 			.withTransportOptions(t -> t.addHeader("user-agent", "spring-ai elastic-java/" + version));
+		this.elasticsearchAsyncClient = new ElasticsearchAsyncClient(this.elasticsearchClient._transport(),
+				this.elasticsearchClient._transportOptions());
 	}
 
 	@Override
 	public void doAdd(List<Document> documents) {
+		doAdd(embedDocuments(documents));
+	}
+
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
 		// For the index to be present, either it must be pre-created or set the
 		// initializeSchema to true.
 		if (!indexExists()) {
@@ -187,15 +198,12 @@ public class ElasticsearchVectorStore extends AbstractObservationVectorStore imp
 		}
 		BulkRequest.Builder bulkRequestBuilder = new BulkRequest.Builder();
 
-		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-				this.batchingStrategy);
-
-		for (Document document : documents) {
+		documentEmbeddings.forEach((document, embedding) -> {
 			ElasticSearchDocument doc = new ElasticSearchDocument(document.getId(), document.getText(),
-					document.getMetadata(), embeddings.get(documents.indexOf(document)));
+					document.getMetadata(), embedding);
 			bulkRequestBuilder.operations(
 					op -> op.index(idx -> idx.index(this.options.getIndexName()).id(document.getId()).document(doc)));
-		}
+		});
 		BulkResponse bulkRequest = bulkRequest(bulkRequestBuilder.build());
 		if (bulkRequest.errors()) {
 			List<BulkResponseItem> bulkResponseItems = bulkRequest.items();
@@ -234,24 +242,8 @@ public class ElasticsearchVectorStore extends AbstractObservationVectorStore imp
 	public List<Document> doSimilaritySearch(SearchRequest searchRequest) {
 		Assert.notNull(searchRequest, "The search request must not be null.");
 		try {
-			float threshold = (float) searchRequest.getSimilarityThreshold();
-			// reverting l2_norm distance to its original value
-			if (this.options.getSimilarity().equals(SimilarityFunction.l2_norm)) {
-				threshold = 1 - threshold;
-			}
-			final float finalThreshold = threshold;
-			float[] vectors = this.embeddingModel.embed(searchRequest.getQuery());
-
-			SearchResponse<Document> res = this.elasticsearchClient.search(
-					sr -> sr.index(this.options.getIndexName())
-						.knn(knn -> knn.queryVector(EmbeddingUtils.toList(vectors))
-							.similarity(finalThreshold)
-							.k((long) searchRequest.getTopK())
-							.field("embedding")
-							.numCandidates((long) (1.5 * searchRequest.getTopK()))
-							.filter(fl -> fl.queryString(
-									qs -> qs.query(getElasticsearchQueryString(searchRequest.getFilterExpression()))))),
-					Document.class);
+			SearchResponse<Document> res = this.elasticsearchClient
+				.search(knnSearchRequest(searchRequest, embedQuery(searchRequest)), Document.class);
 
 			return res.hits().hits().stream().map(this::toDocument).collect(Collectors.toList());
 		}
@@ -260,6 +252,38 @@ public class ElasticsearchVectorStore extends AbstractObservationVectorStore imp
 		}
 	}
 
+	/**
+	 * Runs the similarity search with the asynchronous Elasticsearch client, only
+	 * embedding the query text on the blocking scheduler.
+	 */
+	@Override
+	protected Mono<List<Document>> doSimilaritySearchAsync(SearchRequest searchRequest) {
+		Assert.notNull(searchRequest, "The search request must not be null.");
+		return embedQueryAsync(searchRequest)
+			.flatMap(vectors -> Mono.fromFuture(() -> this.elasticsearchAsyncClient
+				.search(knnSearchRequest(searchRequest, vectors), Document.class)))
+			.map(res -> res.hits().hits().stream().map(this::toDocument).collect(Collectors.toList()));
+	}
+
+	private co.elastic.clients.elasticsearch.core.SearchRequest knnSearchRequest(SearchRequest searchRequest,
+			float[] vectors) {
+		float threshold = (float) searchRequest.getSimilarityThreshold();
+		// reverting l2_norm distance to its original value
+		if (this.options.getSimilarity().equals(SimilarityFunction.l2_norm)) {
+			threshold = 1 - threshold;
+		}
+		final float finalThreshold = threshold;
+
+		return co.elastic.clients.elasticsearch.core.SearchRequest.of(sr -> sr.index(this.options.getIndexName())
+			.knn(knn -> knn.queryVector(EmbeddingUtils.toList(vectors))
+				.similarity(finalThreshold)
+				.k((long) searchRequest.getTopK())
+				.field("embedding")
+				.numCandidates((long) (1.5 * searchRequest.getTopK()))
+				.filter(fl -> fl
+					.queryString(qs -> qs.query(getElasticsearchQueryString(searchRequest.getFilterExpression()))))));
+	}
+
 	private String getElasticsearchQueryString(Filter.Expression filterExpression) {
 		return Objects.isNull(filterExpression) ? "*"
 				: this.filterExpressionConverter.convertExpression(filterExpression);
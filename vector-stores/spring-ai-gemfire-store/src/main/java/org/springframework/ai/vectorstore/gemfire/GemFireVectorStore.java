@@ -34,11 +34,11 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.util.JacksonUtils;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
@@ -204,12 +204,14 @@ public class GemFireVectorStore extends AbstractObservationVectorStore implement
 
 	@Override
 	public void doAdd(List<Document> documents) {
-		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-				this.batchingStrategy);
-		UploadRequest upload = new UploadRequest(documents.stream()
-			.map(document -> new UploadRequest.Embedding(document.getId(), embeddings.get(documents.indexOf(document)),
-					DOCUMENT_FIELD, document.getText(), document.getMetadata()))
-			.toList());
+		doAdd(embedDocuments(documents));
+	}
+
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
+		UploadRequest upload = new UploadRequest(
+				documentEmbeddings.map((document, embedding) -> new UploadRequest.Embedding(document.getId(), embedding,
+						DOCUMENT_FIELD, document.getText(), document.getMetadata())));
 
 		String embeddingsJson = null;
 		try {
@@ -253,7 +255,7 @@ public class GemFireVectorStore extends AbstractObservationVectorStore implement
 		if (request.hasFilterExpression()) {
 			throw new UnsupportedOperationException("GemFire currently does not support metadata filter expressions.");
 		}
-		float[] floatVector = this.embeddingModel.embed(request.getQuery());
+		float[] floatVector = embedQuery(request);
 		return this.client.post()
 			.uri("/" + this.indexName + QUERY)
 			.contentType(MediaType.APPLICATION_JSON)
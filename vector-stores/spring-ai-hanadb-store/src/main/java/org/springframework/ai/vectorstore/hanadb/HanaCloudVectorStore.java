@@ -167,7 +167,7 @@ public class HanaCloudVectorStore extends AbstractObservationVectorStore {
 	}
 
 	private String getEmbedding(SearchRequest searchRequest) {
-		return "[" + EmbeddingUtils.toList(this.embeddingModel.embed(searchRequest.getQuery()))
+		return "[" + EmbeddingUtils.toList(embedQuery(searchRequest))
 			.stream()
 			.map(String::valueOf)
 			.collect(Collectors.joining(", ")) + "]";
@@ -34,12 +34,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.observation.conventions.VectorStoreSimilarityMetric;
 import org.springframework.ai.util.JacksonUtils;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
@@ -250,29 +250,21 @@ public class MariaDBVectorStore extends AbstractObservationVectorStore implement
 
 	@Override
 	public void doAdd(List<Document> documents) {
-		// Batch the documents based on the batching strategy
-		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-				this.batchingStrategy);
+		doAdd(embedDocuments(documents));
+	}
 
-		List<List<MariaDBDocument>> batchedDocuments = batchDocuments(documents, embeddings);
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
+		// Batch the documents based on the batching strategy
+		List<List<MariaDBDocument>> batchedDocuments = batchDocuments(documentEmbeddings);
 		batchedDocuments.forEach(this::insertOrUpdateBatch);
 	}
 
-	private List<List<MariaDBDocument>> batchDocuments(List<Document> documents, List<float[]> embeddings) {
+	private List<List<MariaDBDocument>> batchDocuments(DocumentEmbeddings documentEmbeddings) {
 		List<List<MariaDBDocument>> batches = new ArrayList<>();
-		List<MariaDBDocument> mariaDBDocuments = new ArrayList<>(documents.size());
-		if (embeddings.size() == documents.size()) {
-			for (Document document : documents) {
-				mariaDBDocuments.add(new MariaDBDocument(document.getId(), document.getText(), document.getMetadata(),
-						embeddings.get(documents.indexOf(document))));
-			}
-		}
-		else {
-			for (Document document : documents) {
-				mariaDBDocuments
-					.add(new MariaDBDocument(document.getId(), document.getText(), document.getMetadata(), null));
-			}
-		}
+		List<MariaDBDocument> mariaDBDocuments = documentEmbeddings
+			.map((document, embedding) -> new MariaDBDocument(document.getId(), document.getText(),
+					document.getMetadata(), embedding));
 
 		for (int i = 0; i < mariaDBDocuments.size(); i += this.maxDocumentBatchSize) {
 			batches.add(mariaDBDocuments.subList(i, Math.min(i + this.maxDocumentBatchSize, mariaDBDocuments.size())));
@@ -332,7 +324,7 @@ public class MariaDBVectorStore extends AbstractObservationVectorStore implement
 
 		String nativeFilterExpression = (request.getFilterExpression() != null)
 				? this.filterExpressionConverter.convertExpression(request.getFilterExpression()) : "";
-		float[] embedding = this.embeddingModel.embed(request.getQuery());
+		float[] embedding = embedQuery(request);
 		String jsonPathFilter = "";
 
 		if (StringUtils.hasText(nativeFilterExpression)) {
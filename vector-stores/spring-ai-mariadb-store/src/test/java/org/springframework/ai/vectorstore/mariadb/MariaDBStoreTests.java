@@ -37,6 +37,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.only;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Diego Dupin
@@ -74,6 +75,8 @@ public class MariaDBStoreTests {
 
 		// Testing with 9989 documents
 		var documents = Collections.nCopies(9989, new Document("foo"));
+		when(embeddingModel.embed(eq(documents), any(), any()))
+			.thenReturn(Collections.nCopies(9989, new float[] { 0.1f, 0.2f, 0.3f }));
 
 		// When
 		mariadbVectorStore.doAdd(documents);
@@ -56,12 +56,12 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.model.EmbeddingUtils;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.observation.conventions.VectorStoreSimilarityMetric;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
@@ -233,23 +233,25 @@ public class MilvusVectorStore extends AbstractObservationVectorStore implements
 
 		Assert.notNull(documents, "Documents must not be null");
 
+		doAdd(embedDocuments(documents));
+	}
+
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
 		List<String> docIdArray = new ArrayList<>();
 		List<String> contentArray = new ArrayList<>();
 		List<JSONObject> metadataArray = new ArrayList<>();
 		List<List<Float>> embeddingArray = new ArrayList<>();
 
 		// TODO: Need to customize how we pass the embedding options
-		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-				this.batchingStrategy);
-
-		for (Document document : documents) {
+		documentEmbeddings.forEach((document, embedding) -> {
 			docIdArray.add(document.getId());
 			// Use a (future) DocumentTextLayoutFormatter instance to extract
 			// the content used to compute the embeddings
 			contentArray.add(document.getText());
 			metadataArray.add(new JSONObject(document.getMetadata()));
-			embeddingArray.add(EmbeddingUtils.toList(embeddings.get(documents.indexOf(document))));
-		}
+			embeddingArray.add(EmbeddingUtils.toList(embedding));
+		});
 
 		List<InsertParam.Field> fields = new ArrayList<>();
 		// Insert ID field only if it is not auto ID
@@ -304,7 +306,7 @@ public class MilvusVectorStore extends AbstractObservationVectorStore implements
 		outFieldNames.add(this.idFieldName);
 		outFieldNames.add(this.contentFieldName);
 		outFieldNames.add(this.metadataFieldName);
-		float[] embedding = this.embeddingModel.embed(request.getQuery());
+		float[] embedding = embedQuery(request);
 
 		var searchParamBuilder = SearchParam.newBuilder()
 			.withDatabaseName(this.databaseName)
@@ -30,11 +30,11 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.observation.conventions.VectorStoreSimilarityMetric;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.neo4j.filter.Neo4jVectorFilterExpressionConverter;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
@@ -195,13 +195,12 @@ public class Neo4jVectorStore extends AbstractObservationVectorStore implements
 
 	@Override
 	public void doAdd(List<Document> documents) {
+		doAdd(embedDocuments(documents));
+	}
 
-		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-				this.batchingStrategy);
-
-		var rows = documents.stream()
-			.map(document -> documentToRecord(document, embeddings.get(documents.indexOf(document))))
-			.toList();
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
+		var rows = documentEmbeddings.map(this::documentToRecord);
 
 		try (var session = this.driver.session()) {
 			var statement = """
@@ -246,7 +245,7 @@ public class Neo4jVectorStore extends AbstractObservationVectorStore implements
 		Assert.isTrue(request.getSimilarityThreshold() >= 0 && request.getSimilarityThreshold() <= 1,
 				"The similarity score is bounded between 0 and 1; least to most similar respectively.");
 
-		var embedding = Values.value(this.embeddingModel.embed(request.getQuery()));
+		var embedding = Values.value(embedQuery(request));
 		try (var session = this.driver.session(this.sessionConfig)) {
 			StringBuilder condition = new StringBuilder("score >= $threshold");
 			if (request.hasFilterExpression()) {
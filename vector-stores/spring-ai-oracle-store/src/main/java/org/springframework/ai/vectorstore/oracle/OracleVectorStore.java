@@ -41,11 +41,11 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.observation.conventions.VectorStoreSimilarityMetric;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
@@ -169,16 +169,19 @@ public class OracleVectorStore extends AbstractObservationVectorStore implements
 
 	@Override
 	public void doAdd(final List<Document> documents) {
-		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-				this.batchingStrategy);
+		doAdd(embedDocuments(documents));
+	}
+
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
 		this.jdbcTemplate.batchUpdate(getIngestStatement(), new BatchPreparedStatementSetter() {
 
 			@Override
 			public void setValues(PreparedStatement ps, int i) throws SQLException {
-				final Document document = documents.get(i);
+				final Document document = documentEmbeddings.getDocument(i);
 				final String content = document.getText();
 				final byte[] json = toJson(document.getMetadata());
-				final VECTOR embeddingVector = toVECTOR(embeddings.get(documents.indexOf(document)));
+				final VECTOR embeddingVector = toVECTOR(documentEmbeddings.getEmbedding(i));
 
 				org.springframework.jdbc.core.StatementCreatorUtils.setParameterValue(ps, 1, Types.VARCHAR,
 						document.getId());
@@ -191,7 +194,7 @@ public class OracleVectorStore extends AbstractObservationVectorStore implements
 
 			@Override
 			public int getBatchSize() {
-				return documents.size();
+				return documentEmbeddings.size();
 			}
 		});
 	}
@@ -315,7 +318,7 @@ public class OracleVectorStore extends AbstractObservationVectorStore implements
 	public List<Document> doSimilaritySearch(SearchRequest request) {
 		try {
 			// From the provided query, generate a vector using the embedding model
-			final VECTOR embeddingVector = toVECTOR(this.embeddingModel.embed(request.getQuery()));
+			final VECTOR embeddingVector = toVECTOR(embedQuery(request));
 
 			if (logger.isDebugEnabled()) {
 				this.jdbcTemplate.batchUpdate("insert into debug(embedding) values(?)",
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore.pgvector;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+
+/**
+ * Bulk loads documents into a pgvector table with {@code COPY ... FROM STDIN (FORMAT
+ * binary)}. The rows are streamed through the pgjdbc copy API into a temporary staging
+ * table, then merged into the vector table with a single
+ * {@code INSERT ... SELECT ... ON CONFLICT} statement, so existing documents are updated
+ * just like with the batched inserts. When an id is loaded several times, the last
+ * document wins.
+ *
+ * @since 1.0.0
+ */
+final class PgVectorCopyLoader {
+
+	private static final Logger logger = LoggerFactory.getLogger(PgVectorCopyLoader.class);
+
+	static final String STAGING_TABLE_NAME = "spring_ai_vector_store_staging";
+
+	/**
+	 * The signature starting every binary {@code COPY} stream.
+	 */
+	private static final byte[] SIGNATURE = { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 };
+
+	private static final short FIELD_COUNT = 5;
+
+	private static final int UUID_LENGTH = 16;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final Function<Map<String, Object>, String> metadataWriter;
+
+	PgVectorCopyLoader(JdbcTemplate jdbcTemplate, Function<Map<String, Object>, String> metadataWriter) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.metadataWriter = metadataWriter;
+	}
+
+	/**
+	 * Load the given documents into the vector table. All statements run on the same
+	 * connection, as the staging table only exists in its session.
+	 * @param tableName the fully qualified name of the vector table
+	 * @param documentEmbeddings the documents to load along with their embeddings
+	 */
+	void load(String tableName, DocumentEmbeddings documentEmbeddings) {
+		this.jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			// A staging table left over by a failed load of the same session is replaced
+			execute(connection, "DROP TABLE IF EXISTS " + STAGING_TABLE_NAME);
+			execute(connection, "CREATE TEMPORARY TABLE " + STAGING_TABLE_NAME
+					+ " (id uuid, content text, metadata text, embedding vector, ordinal bigint)");
+
+			long copied = copy(connection.unwrap(PGConnection.class), documentEmbeddings);
+			int merged = execute(connection, mergeSql(tableName));
+			execute(connection, "DROP TABLE " + STAGING_TABLE_NAME);
+
+			logger.debug("Copied {} documents and merged {} of them into {}", copied, merged, tableName);
+			return null;
+		});
+	}
+
+	private long copy(PGConnection connection, DocumentEmbeddings documentEmbeddings) throws SQLException {
+		PGCopyOutputStream copyStream = new PGCopyOutputStream(connection, "COPY " + STAGING_TABLE_NAME
+				+ " (id, content, metadata, embedding, ordinal) FROM STDIN (FORMAT binary)", BUFFER_SIZE);
+		boolean completed = false;
+		try {
+			write(documentEmbeddings, copyStream);
+			long copied = copyStream.endCopy();
+			completed = true;
+			return copied;
+		}
+		catch (IOException ex) {
+			throw (ex.getCause() instanceof SQLException sqlException) ? sqlException
+					: new SQLException("Failed to copy the documents into " + STAGING_TABLE_NAME, ex);
+		}
+		finally {
+			if (!completed && copyStream.isActive()) {
+				cancel(copyStream);
+			}
+		}
+	}
+
+	/**
+	 * Write the documents as a binary {@code COPY} stream of the staging table rows.
+	 * @param documentEmbeddings the documents along with their embeddings
+	 * @param outputStream the stream to write to
+	 * @throws IOException if writing to the stream fails
+	 */
+	void write(DocumentEmbeddings documentEmbeddings, OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(outputStream);
+		out.write(SIGNATURE);
+		// No flags and no header extension
+		out.writeInt(0);
+		out.writeInt(0);
+
+		for (int i = 0; i < documentEmbeddings.size(); i++) {
+			Document document = documentEmbeddings.getDocument(i);
+			float[] embedding = documentEmbeddings.getEmbedding(i);
+			UUID id = UUID.fromString(document.getId());
+
+			out.writeShort(FIELD_COUNT);
+			out.writeInt(UUID_LENGTH);
+			out.writeLong(id.getMostSignificantBits());
+			out.writeLong(id.getLeastSignificantBits());
+			writeText(out, document.getText());
+			writeText(out, this.metadataWriter.apply(document.getMetadata()));
+			// pgvector binary format: dimensions, an unused short, then the floats
+			out.writeInt(4 + 4 * embedding.length);
+			out.writeShort(embedding.length);
+			out.writeShort(0);
+			for (float value : embedding) {
+				out.writeFloat(value);
+			}
+			out.writeInt(8);
+			out.writeLong(i);
+		}
+
+		out.writeShort(-1);
+		out.flush();
+	}
+
+	private static void writeText(DataOutputStream out, @Nullable String text) throws IOException {
+		if (text == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static String mergeSql(String tableName) {
+		return "INSERT INTO " + tableName + " (id, content, metadata, embedding) "
+				+ "SELECT DISTINCT ON (id) id, content, metadata::jsonb, embedding FROM " + STAGING_TABLE_NAME
+				+ " ORDER BY id, ordinal DESC "
+				+ "ON CONFLICT (id) DO UPDATE SET content = EXCLUDED.content, metadata = EXCLUDED.metadata, "
+				+ "embedding = EXCLUDED.embedding";
+	}
+
+	private static int execute(Connection connection, String sql) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			return statement.executeUpdate(sql);
+		}
+	}
+
+	private static void cancel(PGCopyOutputStream copyStream) {
+		try {
+			copyStream.cancelCopy();
+		}
+		catch (SQLException ex) {
+			logger.debug("Failed to cancel the copy into {}", STAGING_TABLE_NAME, ex);
+		}
+	}
+
+}
@@ -19,7 +19,6 @@ package org.springframework.ai.vectorstore.pgvector;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,14 +36,15 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.observation.conventions.VectorStoreSimilarityMetric;
 import org.springframework.ai.util.JacksonUtils;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
@@ -74,6 +74,9 @@ import org.springframework.util.StringUtils;
  * <li>Support for different distance metrics: Cosine, Euclidean, and Inner Product</li>
  * <li>Flexible indexing options: HNSW (default), IVFFlat, or exact search (no index)</li>
  * <li>Metadata filtering using JSON path expressions</li>
+ * <li>Bulk deletion by ids or by metadata filter expression in a single statement</li>
+ * <li>Binary {@code COPY} ingest for large loads, optionally deferring the index creation
+ * until the documents are loaded</li>
  * <li>Configurable similarity thresholds for search results</li>
  * <li>Batch processing support with configurable batch sizes</li>
  * </ul>
@@ -205,6 +208,12 @@ public class PgVectorStore extends AbstractObservationVectorStore implements Ini
 
 	private final int maxDocumentBatchSize;
 
+	private final PgIngestMode ingestMode;
+
+	private final boolean deferIndexCreation;
+
+	private final PgVectorCopyLoader copyLoader;
+
 	/**
 	 * @param builder {@link VectorStore.Builder} for pg vector store
 	 */
@@ -234,6 +243,9 @@ public class PgVectorStore extends AbstractObservationVectorStore implements Ini
 		this.initializeSchema = builder.initializeSchema;
 		this.schemaValidator = new PgVectorSchemaValidator(this.jdbcTemplate);
 		this.maxDocumentBatchSize = builder.maxDocumentBatchSize;
+		this.ingestMode = builder.ingestMode;
+		this.deferIndexCreation = builder.deferIndexCreation;
+		this.copyLoader = new PgVectorCopyLoader(this.jdbcTemplate, this::toJson);
 	}
 
 	public PgDistanceType getDistanceType() {
@@ -246,45 +258,39 @@ public class PgVectorStore extends AbstractObservationVectorStore implements Ini
 
 	@Override
 	public void doAdd(List<Document> documents) {
-		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-				this.batchingStrategy);
-
-		List<List<Document>> batchedDocuments = batchDocuments(documents);
-		batchedDocuments.forEach(batchDocument -> insertOrUpdateBatch(batchDocument, documents, embeddings));
+		doAdd(embedDocuments(documents));
 	}
 
-	private List<List<Document>> batchDocuments(List<Document> documents) {
-		List<List<Document>> batches = new ArrayList<>();
-		for (int i = 0; i < documents.size(); i += this.maxDocumentBatchSize) {
-			batches.add(documents.subList(i, Math.min(i + this.maxDocumentBatchSize, documents.size())));
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
+		if (this.ingestMode == PgIngestMode.COPY) {
+			this.copyLoader.load(getFullyQualifiedTableName(), documentEmbeddings);
+		}
+		else {
+			documentEmbeddings.batches(this.maxDocumentBatchSize).forEach(this::insertOrUpdateBatch);
 		}
-		return batches;
 	}
 
-	private void insertOrUpdateBatch(List<Document> batch, List<Document> documents, List<float[]> embeddings) {
+	private void insertOrUpdateBatch(DocumentEmbeddings batch) {
 		String sql = "INSERT INTO " + getFullyQualifiedTableName()
 				+ " (id, content, metadata, embedding) VALUES (?, ?, ?::jsonb, ?) " + "ON CONFLICT (id) DO "
-				+ "UPDATE SET content = ? , metadata = ?::jsonb , embedding = ? ";
+				+ "UPDATE SET content = EXCLUDED.content, metadata = EXCLUDED.metadata, embedding = EXCLUDED.embedding";
 
 		this.jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
 
 			@Override
 			public void setValues(PreparedStatement ps, int i) throws SQLException {
 
-				var document = batch.get(i);
+				var document = batch.getDocument(i);
 				var content = document.getText();
 				var json = toJson(document.getMetadata());
-				var embedding = embeddings.get(documents.indexOf(document));
-				var pGvector = new PGvector(embedding);
+				var pGvector = new PGvector(batch.getEmbedding(i));
 
 				StatementCreatorUtils.setParameterValue(ps, 1, SqlTypeValue.TYPE_UNKNOWN,
 						UUID.fromString(document.getId()));
 				StatementCreatorUtils.setParameterValue(ps, 2, SqlTypeValue.TYPE_UNKNOWN, content);
 				StatementCreatorUtils.setParameterValue(ps, 3, SqlTypeValue.TYPE_UNKNOWN, json);
 				StatementCreatorUtils.setParameterValue(ps, 4, SqlTypeValue.TYPE_UNKNOWN, pGvector);
-				StatementCreatorUtils.setParameterValue(ps, 5, SqlTypeValue.TYPE_UNKNOWN, content);
-				StatementCreatorUtils.setParameterValue(ps, 6, SqlTypeValue.TYPE_UNKNOWN, json);
-				StatementCreatorUtils.setParameterValue(ps, 7, SqlTypeValue.TYPE_UNKNOWN, pGvector);
 			}
 
 			@Override
@@ -305,16 +311,26 @@ public class PgVectorStore extends AbstractObservationVectorStore implements Ini
 
 	@Override
 	public Optional<Boolean> doDelete(List<String> idList) {
-		int updateCount = 0;
-		for (String id : idList) {
-			int count = this.jdbcTemplate.update("DELETE FROM " + getFullyQualifiedTableName() + " WHERE id = ?",
-					UUID.fromString(id));
-			updateCount = updateCount + count;
-		}
+		// All ids are sent as a single array parameter, deleting them in one statement
+		UUID[] ids = idList.stream().map(UUID::fromString).toArray(UUID[]::new);
+		int updateCount = this.jdbcTemplate.update(
+				"DELETE FROM " + getFullyQualifiedTableName() + " WHERE id = ANY(?::uuid[])",
+				ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids)));
 
 		return Optional.of(updateCount == idList.size());
 	}
 
+	@Override
+	protected void doDelete(Filter.Expression filterExpression) {
+		String nativeFilterExpression = this.filterExpressionConverter.convertExpression(filterExpression);
+
+		int updateCount = this.jdbcTemplate.update(
+				"DELETE FROM " + getFullyQualifiedTableName() + " WHERE metadata::jsonb @@ ?::jsonpath",
+				nativeFilterExpression);
+
+		logger.debug("Deleted {} documents matching the filter expression: {}", updateCount, nativeFilterExpression);
+	}
+
 	@Override
 	public List<Document> doSimilaritySearch(SearchRequest request) {
 
@@ -329,7 +345,7 @@ public class PgVectorStore extends AbstractObservationVectorStore implements Ini
 
 		double distance = 1 - request.getSimilarityThreshold();
 
-		PGvector queryEmbedding = getQueryEmbedding(request.getQuery());
+		PGvector queryEmbedding = new PGvector(embedQuery(request));
 
 		return this.jdbcTemplate.query(
 				String.format(this.getDistanceType().similaritySearchSqlTemplate, getFullyQualifiedTableName(),
@@ -400,6 +416,20 @@ public class PgVectorStore extends AbstractObservationVectorStore implements Ini
 				)
 				""", this.getFullyQualifiedTableName(), this.embeddingDimensions()));
 
+		if (this.deferIndexCreation) {
+			logger.debug("Deferring the creation of the index: {}", this.getVectorIndexName());
+			return;
+		}
+		createIndex();
+	}
+
+	/**
+	 * Create the vector index of the configured {@link PgIndexType}, unless it already
+	 * exists. Building the index once the initial documents are loaded is much faster
+	 * than maintaining it while they are inserted, see
+	 * {@link PgVectorStoreBuilder#deferIndexCreation(boolean)}.
+	 */
+	public void createIndex() {
 		if (this.createIndexMethod != PgIndexType.NONE) {
 			this.jdbcTemplate.execute(String.format("""
 					CREATE INDEX IF NOT EXISTS %s ON %s USING %s (embedding %s)
@@ -489,6 +519,25 @@ public class PgVectorStore extends AbstractObservationVectorStore implements Ini
 
 	}
 
+	/**
+	 * How the documents are written to the vector table.
+	 */
+	public enum PgIngestMode {
+
+		/**
+		 * Batched {@code INSERT ... ON CONFLICT DO UPDATE} statements of at most
+		 * {@code maxDocumentBatchSize} documents.
+		 */
+		INSERT,
+		/**
+		 * A binary {@code COPY} of all the documents into a temporary staging table,
+		 * merged into the vector table with a single statement. Much faster for large
+		 * loads, such as the initial load of a vector store.
+		 */
+		COPY
+
+	}
+
 	/**
 	 * Defaults to CosineDistance. But if vectors are normalized to length 1 (like OpenAI
 	 * embeddings), use inner product (NegativeInnerProduct) for best performance.
@@ -598,6 +647,10 @@ public class PgVectorStore extends AbstractObservationVectorStore implements Ini
 
 		private int maxDocumentBatchSize = MAX_DOCUMENT_BATCH_SIZE;
 
+		private PgIngestMode ingestMode = PgIngestMode.INSERT;
+
+		private boolean deferIndexCreation;
+
 		private PgVectorStoreBuilder(JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel) {
 			super(embeddingModel);
 			Assert.notNull(jdbcTemplate, "JdbcTemplate must not be null");
@@ -649,6 +702,30 @@ public class PgVectorStore extends AbstractObservationVectorStore implements Ini
 			return this;
 		}
 
+		/**
+		 * Sets how the documents are written to the vector table. Defaults to
+		 * {@link PgIngestMode#INSERT}.
+		 * @param ingestMode the ingest mode
+		 * @return the builder instance
+		 */
+		public PgVectorStoreBuilder ingestMode(PgIngestMode ingestMode) {
+			Assert.notNull(ingestMode, "IngestMode must not be null");
+			this.ingestMode = ingestMode;
+			return this;
+		}
+
+		/**
+		 * Sets whether the schema initialization skips the creation of the vector index,
+		 * leaving it to a call to {@link PgVectorStore#createIndex()} once the initial
+		 * documents are loaded. Defaults to false.
+		 * @param deferIndexCreation whether to defer the index creation
+		 * @return the builder instance
+		 */
+		public PgVectorStoreBuilder deferIndexCreation(boolean deferIndexCreation) {
+			this.deferIndexCreation = deferIndexCreation;
+			return this;
+		}
+
 		public PgVectorStore build() {
 			return new PgVectorStore(this);
 		}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2023-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.vectorstore.pgvector;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for {@link PgVectorCopyLoader}.
+ */
+class PgVectorCopyLoaderTests {
+
+	private final PgVectorCopyLoader loader = new PgVectorCopyLoader(mock(JdbcTemplate.class),
+			metadata -> metadata.isEmpty() ? null : "{\"source\":\"x.pdf\"}");
+
+	@Test
+	void writesBinaryCopyRows() throws IOException {
+		UUID id = UUID.randomUUID();
+		Document document = new Document(id.toString(), "héllo", Map.of("source", "x.pdf"));
+		DocumentEmbeddings documentEmbeddings = DocumentEmbeddings.of(List.of(document),
+				List.of(new float[] { 0.5f, -1f }));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.loader.write(documentEmbeddings, out);
+		ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+
+		byte[] signature = new byte[11];
+		buffer.get(signature);
+		assertThat(signature).containsExactly('P', 'G', 'C', 'O', 'P', 'Y', '\n', 0xFF, '\r', '\n', 0);
+		assertThat(buffer.getInt()).isZero();
+		assertThat(buffer.getInt()).isZero();
+
+		assertThat(buffer.getShort()).isEqualTo((short) 5);
+		assertThat(buffer.getInt()).isEqualTo(16);
+		assertThat(new UUID(buffer.getLong(), buffer.getLong())).isEqualTo(id);
+		assertThat(text(buffer)).isEqualTo("héllo");
+		assertThat(text(buffer)).isEqualTo("{\"source\":\"x.pdf\"}");
+		assertThat(buffer.getInt()).isEqualTo(12);
+		assertThat(buffer.getShort()).isEqualTo((short) 2);
+		assertThat(buffer.getShort()).isZero();
+		assertThat(buffer.getFloat()).isEqualTo(0.5f);
+		assertThat(buffer.getFloat()).isEqualTo(-1f);
+		assertThat(buffer.getInt()).isEqualTo(8);
+		assertThat(buffer.getLong()).isZero();
+
+		assertThat(buffer.getShort()).isEqualTo((short) -1);
+		assertThat(buffer.hasRemaining()).isFalse();
+	}
+
+	@Test
+	void writesNullTextAndOrdinalOfEachRow() throws IOException {
+		List<Document> documents = List.of(new Document(UUID.randomUUID().toString(), "first", Map.of()),
+				new Document(UUID.randomUUID().toString(), "second", Map.of()));
+		DocumentEmbeddings documentEmbeddings = DocumentEmbeddings.of(documents,
+				List.of(new float[] { 1f }, new float[] { 2f }));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.loader.write(documentEmbeddings, out);
+		ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+		buffer.position(19);
+
+		for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+			buffer.getShort();
+			buffer.position(buffer.position() + 4 + 16);
+			assertThat(text(buffer)).isEqualTo(documents.get(ordinal).getText());
+			assertThat(buffer.getInt()).isEqualTo(-1);
+			buffer.position(buffer.position() + 4 + 4 + 4);
+			assertThat(buffer.getInt()).isEqualTo(8);
+			assertThat(buffer.getLong()).isEqualTo(ordinal);
+		}
+		assertThat(buffer.getShort()).isEqualTo((short) -1);
+	}
+
+	@Test
+	void mergesLastDocumentOfEachIdIntoTable() {
+		assertThat(PgVectorCopyLoader.mergeSql("public.vector_store"))
+			.isEqualTo("INSERT INTO public.vector_store (id, content, metadata, embedding) "
+					+ "SELECT DISTINCT ON (id) id, content, metadata::jsonb, embedding FROM "
+					+ "spring_ai_vector_store_staging ORDER BY id, ordinal DESC "
+					+ "ON CONFLICT (id) DO UPDATE SET content = EXCLUDED.content, metadata = EXCLUDED.metadata, "
+					+ "embedding = EXCLUDED.embedding");
+	}
+
+	private static String text(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
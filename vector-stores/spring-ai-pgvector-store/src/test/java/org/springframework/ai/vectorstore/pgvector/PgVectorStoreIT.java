@@ -29,6 +29,7 @@ import javax.sql.DataSource;
 
 import com.zaxxer.hikari.HikariDataSource;
 import org.junit.Assert;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -47,6 +48,7 @@ import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser.FilterExpressionParseException;
 import org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgIndexType;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgIngestMode;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringBootConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
@@ -285,6 +287,85 @@ public class PgVectorStoreIT {
 			});
 	}
 
+	@Test
+	public void deleteByIdsAndByFilter() {
+
+		this.contextRunner.run(context -> {
+
+			VectorStore vectorStore = context.getBean(VectorStore.class);
+
+			var bgDocument = new Document("The World is Big and Salvation Lurks Around the Corner",
+					Map.of("country", "BG", "year", 2020));
+			var nlDocument = new Document("The World is Big and Salvation Lurks Around the Corner",
+					Map.of("country", "NL"));
+			var bgDocument2 = new Document("The World is Big and Salvation Lurks Around the Corner",
+					Map.of("country", "BG", "year", 2023));
+			var deDocument = new Document("The World is Big and Salvation Lurks Around the Corner",
+					Map.of("country", "DE"));
+
+			vectorStore.add(List.of(bgDocument, nlDocument, bgDocument2, deDocument));
+
+			SearchRequest searchRequest = SearchRequest.builder()
+				.query("The World")
+				.topK(5)
+				.similarityThresholdAll()
+				.build();
+
+			vectorStore.delete("country == 'BG'");
+
+			assertThat(vectorStore.similaritySearch(searchRequest)).extracting(Document::getId)
+				.containsExactlyInAnyOrder(nlDocument.getId(), deDocument.getId());
+
+			assertThat(vectorStore.delete(List.of(nlDocument.getId(), deDocument.getId()))).contains(true);
+
+			assertThat(vectorStore.similaritySearch(searchRequest)).isEmpty();
+
+			dropTable(context);
+		});
+	}
+
+	@Test
+	public void copyIngestWithDeferredIndexCreation() {
+
+		this.contextRunner
+			.withPropertyValues("test.spring.ai.vectorstore.pgvector.ingestMode=COPY",
+					"test.spring.ai.vectorstore.pgvector.deferIndexCreation=true")
+			.run(context -> {
+
+				PgVectorStore vectorStore = context.getBean(PgVectorStore.class);
+				JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+				vectorStore.add(this.documents);
+
+				String id = this.documents.get(0).getId();
+				vectorStore.add(List.of(new Document(id, "The World is Big", Map.of("meta", "first")), new Document(id,
+						"The World is Big and Salvation Lurks Around the Corner", Map.of("meta", "last"))));
+
+				assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM vector_store", Integer.class))
+					.isEqualTo(this.documents.size());
+				assertThat(indexCount(jdbcTemplate)).isZero();
+
+				vectorStore.createIndex();
+
+				assertThat(indexCount(jdbcTemplate)).isOne();
+
+				List<Document> results = vectorStore.similaritySearch(
+						SearchRequest.builder().query("The World is Big").topK(1).similarityThresholdAll().build());
+
+				assertThat(results).hasSize(1);
+				assertThat(results.get(0).getId()).isEqualTo(id);
+				assertThat(results.get(0).getMetadata()).containsEntry("meta", "last");
+
+				dropTable(context);
+			});
+	}
+
+	private static Integer indexCount(JdbcTemplate jdbcTemplate) {
+		return jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM pg_indexes WHERE tablename = 'vector_store' AND indexname = 'spring_ai_vector_index'",
+				Integer.class);
+	}
+
 	@ParameterizedTest(name = "{0} : {displayName} ")
 	@ValueSource(strings = { "COSINE_DISTANCE", "EUCLIDEAN_DISTANCE", "NEGATIVE_INNER_PRODUCT" })
 	public void documentUpdate(String distanceType) {
@@ -371,6 +452,12 @@ public class PgVectorStoreIT {
 		@Value("${test.spring.ai.vectorstore.pgvector.distanceType}")
 		PgVectorStore.PgDistanceType distanceType;
 
+		@Value("${test.spring.ai.vectorstore.pgvector.ingestMode:INSERT}")
+		PgIngestMode ingestMode;
+
+		@Value("${test.spring.ai.vectorstore.pgvector.deferIndexCreation:false}")
+		boolean deferIndexCreation;
+
 		@Bean
 		public VectorStore vectorStore(JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel) {
 			return PgVectorStore.builder(jdbcTemplate, embeddingModel)
@@ -379,6 +466,8 @@ public class PgVectorStoreIT {
 				.initializeSchema(true)
 				.indexType(PgIndexType.HNSW)
 				.removeExistingVectorStoreTable(true)
+				.ingestMode(this.ingestMode)
+				.deferIndexCreation(this.deferIndexCreation)
 				.build();
 		}
 
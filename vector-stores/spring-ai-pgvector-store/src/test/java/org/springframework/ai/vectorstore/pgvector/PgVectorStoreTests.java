@@ -17,6 +17,8 @@
 package org.springframework.ai.vectorstore.pgvector;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -25,8 +27,10 @@ import org.mockito.ArgumentCaptor;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,6 +40,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.only;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Muthukumaran Navaneethakrishnan
@@ -83,6 +88,8 @@ public class PgVectorStoreTests {
 
 		// Testing with 9989 documents
 		var documents = Collections.nCopies(9989, new Document("foo"));
+		when(embeddingModel.embed(eq(documents), any(), any()))
+			.thenReturn(Collections.nCopies(9989, new float[] { 0.1f, 0.2f, 0.3f }));
 
 		// When
 		pgVectorStore.doAdd(documents);
@@ -104,4 +111,39 @@ public class PgVectorStoreTests {
 			});
 	}
 
+	@Test
+	void shouldDeleteDocumentsInSingleStatement() {
+		var jdbcTemplate = mock(JdbcTemplate.class);
+		var pgVectorStore = PgVectorStore.builder(jdbcTemplate, mock(EmbeddingModel.class)).build();
+		var ids = List.of(UUID.randomUUID().toString(), UUID.randomUUID().toString(), UUID.randomUUID().toString());
+		when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenReturn(3);
+
+		assertThat(pgVectorStore.doDelete(ids)).contains(true);
+
+		verify(jdbcTemplate, only()).update(eq("DELETE FROM public.vector_store WHERE id = ANY(?::uuid[])"),
+				any(PreparedStatementSetter.class));
+	}
+
+	@Test
+	void shouldDeleteDocumentsMatchingFilterInSingleStatement() {
+		var jdbcTemplate = mock(JdbcTemplate.class);
+		var pgVectorStore = PgVectorStore.builder(jdbcTemplate, mock(EmbeddingModel.class)).build();
+
+		pgVectorStore.delete("source == 'x.pdf'");
+
+		verify(jdbcTemplate, only()).update(eq("DELETE FROM public.vector_store WHERE metadata::jsonb @@ ?::jsonpath"),
+				eq("$.source == \"x.pdf\""));
+	}
+
+	@Test
+	void shouldBindFilterWithQuoteInValue() {
+		var jdbcTemplate = mock(JdbcTemplate.class);
+		var pgVectorStore = PgVectorStore.builder(jdbcTemplate, mock(EmbeddingModel.class)).build();
+
+		pgVectorStore.delete(new FilterExpressionBuilder().eq("source", "it's.pdf").build());
+
+		verify(jdbcTemplate, only()).update(eq("DELETE FROM public.vector_store WHERE metadata::jsonb @@ ?::jsonpath"),
+				eq("$.source == \"it's.pdf\""));
+	}
+
 }
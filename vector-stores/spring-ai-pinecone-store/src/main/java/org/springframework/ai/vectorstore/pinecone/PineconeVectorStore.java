@@ -40,11 +40,11 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.model.EmbeddingUtils;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 import org.springframework.ai.vectorstore.filter.converter.PineconeFilterExpressionConverter;
@@ -125,15 +125,15 @@ public class PineconeVectorStore extends AbstractObservationVectorStore {
 	 * @param namespace The namespace to add the documents to
 	 */
 	public void add(List<Document> documents, String namespace) {
-		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-				this.batchingStrategy);
-		List<Vector> upsertVectors = documents.stream()
-			.map(document -> Vector.newBuilder()
-				.setId(document.getId())
-				.addAllValues(EmbeddingUtils.toList(embeddings.get(documents.indexOf(document))))
-				.setMetadata(metadataToStruct(document))
-				.build())
-			.toList();
+		add(embedDocuments(documents), namespace);
+	}
+
+	private void add(DocumentEmbeddings documentEmbeddings, String namespace) {
+		List<Vector> upsertVectors = documentEmbeddings.map((document, embedding) -> Vector.newBuilder()
+			.setId(document.getId())
+			.addAllValues(EmbeddingUtils.toList(embedding))
+			.setMetadata(metadataToStruct(document))
+			.build());
 
 		UpsertRequest upsertRequest = UpsertRequest.newBuilder()
 			.addAllVectors(upsertVectors)
@@ -152,6 +152,11 @@ public class PineconeVectorStore extends AbstractObservationVectorStore {
 		add(documents, this.pineconeNamespace);
 	}
 
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
+		add(documentEmbeddings, this.pineconeNamespace);
+	}
+
 	/**
 	 * Converts the document metadata to a Protobuf Struct.
 	 * @param document The document containing metadata.
@@ -215,7 +220,7 @@ public class PineconeVectorStore extends AbstractObservationVectorStore {
 		String nativeExpressionFilters = (request.getFilterExpression() != null)
 				? this.filterExpressionConverter.convertExpression(request.getFilterExpression()) : "";
 
-		float[] queryEmbedding = this.embeddingModel.embed(request.getQuery());
+		float[] queryEmbedding = embedQuery(request);
 
 		var queryRequestBuilder = QueryRequest.newBuilder()
 			.addAllVector(EmbeddingUtils.toList(queryEmbedding))
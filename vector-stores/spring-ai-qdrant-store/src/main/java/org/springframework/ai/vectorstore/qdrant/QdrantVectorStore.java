@@ -37,11 +37,11 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.model.EmbeddingUtils;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
 import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
@@ -172,19 +172,19 @@ public class QdrantVectorStore extends AbstractObservationVectorStore implements
 	 */
 	@Override
 	public void doAdd(List<Document> documents) {
+		doAdd(embedDocuments(documents));
+	}
+
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
 		try {
 
 			// Compute and assign an embedding to the document.
-			List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-					this.batchingStrategy);
-
-			List<PointStruct> points = documents.stream()
-				.map(document -> PointStruct.newBuilder()
-					.setId(io.qdrant.client.PointIdFactory.id(UUID.fromString(document.getId())))
-					.setVectors(io.qdrant.client.VectorsFactory.vectors(embeddings.get(documents.indexOf(document))))
-					.putAllPayload(toPayload(document))
-					.build())
-				.toList();
+			List<PointStruct> points = documentEmbeddings.map((document, embedding) -> PointStruct.newBuilder()
+				.setId(io.qdrant.client.PointIdFactory.id(UUID.fromString(document.getId())))
+				.setVectors(io.qdrant.client.VectorsFactory.vectors(embedding))
+				.putAllPayload(toPayload(document))
+				.build());
 
 			this.qdrantClient.upsertAsync(this.collectionName, points).get();
 		}
@@ -227,7 +227,7 @@ public class QdrantVectorStore extends AbstractObservationVectorStore implements
 					? this.filterExpressionConverter.convertExpression(request.getFilterExpression())
 					: Filter.getDefaultInstance();
 
-			float[] queryEmbedding = this.embeddingModel.embed(request.getQuery());
+			float[] queryEmbedding = embedQuery(request);
 
 			var searchPoints = SearchPoints.newBuilder()
 				.setCollectionName(this.collectionName)
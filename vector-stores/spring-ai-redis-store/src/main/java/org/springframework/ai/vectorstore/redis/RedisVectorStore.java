@@ -49,11 +49,11 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.observation.conventions.VectorStoreSimilarityMetric;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
@@ -252,18 +252,20 @@ public class RedisVectorStore extends AbstractObservationVectorStore implements
 
 	@Override
 	public void doAdd(List<Document> documents) {
-		try (Pipeline pipeline = this.jedis.pipelined()) {
+		doAdd(embedDocuments(documents));
+	}
 
-			List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-					this.batchingStrategy);
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
+		try (Pipeline pipeline = this.jedis.pipelined()) {
 
-			for (Document document : documents) {
+			documentEmbeddings.forEach((document, embedding) -> {
 				var fields = new HashMap<String, Object>();
-				fields.put(this.embeddingFieldName, embeddings.get(documents.indexOf(document)));
+				fields.put(this.embeddingFieldName, embedding);
 				fields.put(this.contentFieldName, document.getText());
 				fields.putAll(document.getMetadata());
 				pipeline.jsonSetWithEscape(key(document.getId()), JSON_SET_PATH, fields);
-			}
+			});
 			List<Object> responses = pipeline.syncAndReturnAll();
 			Optional<Object> errResponse = responses.stream().filter(Predicate.not(RESPONSE_OK)).findAny();
 			if (errResponse.isPresent()) {
@@ -315,7 +317,7 @@ public class RedisVectorStore extends AbstractObservationVectorStore implements
 		returnFields.add(this.embeddingFieldName);
 		returnFields.add(this.contentFieldName);
 		returnFields.add(DISTANCE_FIELD_NAME);
-		var embedding = this.embeddingModel.embed(request.getQuery());
+		var embedding = embedQuery(request);
 		Query query = new Query(queryString).addParam(EMBEDDING_PARAM_NAME, RediSearchUtil.toByteArray(embedding))
 			.returnFields(returnFields.toArray(new String[0]))
 			.setSortBy(DISTANCE_FIELD_NAME, true)
@@ -48,11 +48,11 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentMetadata;
 import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
 import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.model.EmbeddingUtils;
 import org.springframework.ai.observation.conventions.VectorStoreProvider;
 import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.DocumentEmbeddings;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
@@ -200,12 +200,12 @@ public class WeaviateVectorStore extends AbstractObservationVectorStore {
 			return;
 		}
 
-		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptionsBuilder.builder().build(),
-				this.batchingStrategy);
+		doAdd(embedDocuments(documents));
+	}
 
-		List<WeaviateObject> weaviateObjects = documents.stream()
-			.map(document -> toWeaviateObject(document, documents, embeddings))
-			.toList();
+	@Override
+	protected void doAdd(DocumentEmbeddings documentEmbeddings) {
+		List<WeaviateObject> weaviateObjects = documentEmbeddings.map(this::toWeaviateObject);
 
 		Result<ObjectGetResponse[]> response = this.weaviateClient.batch()
 			.objectsBatcher()
@@ -241,7 +241,7 @@ public class WeaviateVectorStore extends AbstractObservationVectorStore {
 		}
 	}
 
-	private WeaviateObject toWeaviateObject(Document document, List<Document> documents, List<float[]> embeddings) {
+	private WeaviateObject toWeaviateObject(Document document, float[] embedding) {
 
 		// https://weaviate.io/developers/weaviate/config-refs/datatypes
 		Map<String, Object> fields = new HashMap<>();
@@ -265,7 +265,7 @@ public class WeaviateVectorStore extends AbstractObservationVectorStore {
 		return WeaviateObject.builder()
 			.className(this.weaviateObjectClass)
 			.id(document.getId())
-			.vector(EmbeddingUtils.toFloatArray(embeddings.get(documents.indexOf(document))))
+			.vector(EmbeddingUtils.toFloatArray(embedding))
 			.properties(fields)
 			.build();
 	}
@@ -299,7 +299,7 @@ public class WeaviateVectorStore extends AbstractObservationVectorStore {
 	@Override
 	public List<Document> doSimilaritySearch(SearchRequest request) {
 
-		float[] embedding = this.embeddingModel.embed(request.getQuery());
+		float[] embedding = embedQuery(request);
 
 		GetBuilder.GetBuilderBuilder builder = GetBuilder.builder();
 